@@ -0,0 +1,142 @@
+package com.tinnova.veiculos.api.controller;
+
+import com.tinnova.veiculos.infraestrutura.catalogo.GeradorSnapshotCatalogo;
+import com.tinnova.veiculos.infraestrutura.catalogo.SnapshotCatalogo;
+import com.tinnova.veiculos.infraestrutura.catalogo.SnapshotIndisponivelException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Controller para download do snapshot do catálogo de veículos ativos.
+ * O arquivo é enviado por sendfile (quando o conector suporta) ou por
+ * {@link FileChannel#transferTo}, sem carregar o conteúdo no heap.
+ */
+@RestController
+@RequestMapping("/veiculos/catalogo")
+@RequiredArgsConstructor
+public class CatalogoController {
+
+    private static final String MEDIA_TYPE_GZIP = "application/gzip";
+    private static final String SENDFILE_SUPORTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+    private static final Pattern ENTIDADE_ETAG = Pattern.compile("\\*|(?:W/)?\"[^\"]*\"");
+
+    private final GeradorSnapshotCatalogo geradorSnapshot;
+
+    /**
+     * Baixa o snapshot atual. Suporta {@code If-None-Match}, {@code Range} e {@code If-Range}.
+     */
+    @GetMapping("/snapshot")
+    public void baixarSnapshot(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        SnapshotCatalogo snapshot = geradorSnapshot.atual()
+                .orElseThrow(SnapshotIndisponivelException::new);
+
+        String etag = "\"" + snapshot.etag() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, snapshot.geradoEm().toEpochMilli());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        if (correspondeIfNoneMatch(request.getHeaders(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long tamanho = snapshot.tamanho();
+        long inicio = 0;
+        long fim = tamanho - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.strip().equals(etag))) {
+            List<HttpRange> intervalos;
+            try {
+                intervalos = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                intervalos = List.of();
+            }
+            if (intervalos.size() == 1) {
+                HttpRange intervalo = intervalos.get(0);
+                if (tamanho == 0 || !intervaloSatisfazivel(intervalo, tamanho)) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                inicio = intervalo.getRangeStart(tamanho);
+                fim = intervalo.getRangeEnd(tamanho);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+            }
+        }
+
+        long quantidade = fim - inicio + 1;
+        response.setContentType(MEDIA_TYPE_GZIP);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalogo.json.gz\"");
+        response.setContentLengthLong(quantidade);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTE))) {
+            request.setAttribute(SENDFILE_ARQUIVO, snapshot.arquivo().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIM, fim + 1);
+            return;
+        }
+
+        try (FileChannel canal = FileChannel.open(snapshot.arquivo(), StandardOpenOption.READ)) {
+            WritableByteChannel destino = Channels.newChannel(response.getOutputStream());
+            long posicao = inicio;
+            long restante = quantidade;
+            while (restante > 0) {
+                long enviados = canal.transferTo(posicao, restante, destino);
+                if (enviados <= 0) {
+                    break;
+                }
+                posicao += enviados;
+                restante -= enviados;
+            }
+        }
+    }
+
+    /**
+     * Indica se alguma das entity-tags de {@code If-None-Match}, em um ou mais cabeçalhos separados por
+     * vírgula, corresponde ao ETag pela comparação fraca da RFC 9110: o prefixo {@code W/} é ignorado e
+     * {@code *} corresponde a qualquer representação. O {@code If-Range} usa a comparação forte.
+     */
+    private static boolean correspondeIfNoneMatch(Enumeration<String> cabecalhos, String etag) {
+        while (cabecalhos != null && cabecalhos.hasMoreElements()) {
+            Matcher entidades = ENTIDADE_ETAG.matcher(cabecalhos.nextElement());
+            while (entidades.find()) {
+                String entidade = entidades.group();
+                if (entidade.equals("*") || entidade.equals(etag) || entidade.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean intervaloSatisfazivel(HttpRange intervalo, long tamanho) {
+        try {
+            return intervalo.getRangeStart(tamanho) < tamanho;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.tinnova.veiculos.api.controller;
+
+import com.tinnova.veiculos.infraestrutura.consultas.RegistroConsultasLentas;
+import com.tinnova.veiculos.infraestrutura.consultas.RelatorioConsultasLentas;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller REST de administração das consultas lentas. Requer ADMIN.
+ */
+@RestController
+@RequestMapping("/admin/consultas-lentas")
+@RequiredArgsConstructor
+public class ConsultasLentasController {
+
+    private final RegistroConsultasLentas registro;
+
+    /**
+     * Consultas lentas recentes, com os valores dos parâmetros, e o acumulado por formato de comando,
+     * com o plano de execução de cada formato.
+     */
+    @GetMapping
+    public ResponseEntity<RelatorioConsultasLentas> listar() {
+        return ResponseEntity.ok(registro.relatorio());
+    }
+
+    /**
+     * Descarta as consultas registradas e os acumulados.
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> limpar() {
+        registro.limpar();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.tinnova.veiculos.api.controller;
+
+import com.tinnova.veiculos.api.dto.AtualizacaoLoteRequest;
+import com.tinnova.veiculos.api.dto.OperacaoLoteResponse;
+import com.tinnova.veiculos.api.dto.SelecaoLoteRequest;
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoLoteVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller REST para remoção e atualização de veículos em lote. Requer ADMIN.
+ */
+@RestController
+@RequestMapping("/veiculos/lote")
+@RequiredArgsConstructor
+public class LoteVeiculoController {
+
+    private final ServicoLoteVeiculo servicoLote;
+
+    /**
+     * Remove (soft delete) os veículos selecionados por ids ou filtro.
+     */
+    @PostMapping("/remocao")
+    public ResponseEntity<OperacaoLoteResponse> remover(@Valid @RequestBody SelecaoLoteRequest request) {
+        long afetados = request.isPorIds()
+                ? servicoLote.removerPorIds(request.getIds())
+                : servicoLote.removerPorFiltro(request.getFiltro().toFiltro());
+        return ResponseEntity.ok(new OperacaoLoteResponse(afetados));
+    }
+
+    /**
+     * Aplica as alterações aos veículos selecionados por ids ou filtro.
+     */
+    @PatchMapping
+    public ResponseEntity<OperacaoLoteResponse> atualizar(@Valid @RequestBody AtualizacaoLoteRequest request) {
+        Veiculo alteracoes = request.getAlteracoes().toEntity();
+        long afetados = request.isPorIds()
+                ? servicoLote.atualizarPorIds(request.getIds(), alteracoes)
+                : servicoLote.atualizarPorFiltro(request.getFiltro().toFiltro(), alteracoes);
+        return ResponseEntity.ok(new OperacaoLoteResponse(afetados));
+    }
+}
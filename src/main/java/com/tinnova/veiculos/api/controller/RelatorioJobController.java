@@ -0,0 +1,64 @@
+package com.tinnova.veiculos.api.controller;
+
+import com.tinnova.veiculos.api.dto.JobRelatorioRequest;
+import com.tinnova.veiculos.api.dto.JobRelatorioResponse;
+import com.tinnova.veiculos.infraestrutura.relatorio.GerenciadorJobsRelatorio;
+import com.tinnova.veiculos.infraestrutura.relatorio.JobRelatorio;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+/**
+ * Controller REST para relatórios assíncronos: inicia o job, consulta a situação e baixa o resultado.
+ * Disponível para USER e ADMIN.
+ */
+@RestController
+@RequestMapping("/veiculos/relatorios/jobs")
+@RequiredArgsConstructor
+public class RelatorioJobController {
+
+    private final GerenciadorJobsRelatorio gerenciadorJobs;
+
+    /**
+     * Inicia um relatório. Um pedido idêntico a outro em andamento ou concluído retorna o mesmo job.
+     */
+    @PostMapping
+    public ResponseEntity<JobRelatorioResponse> iniciar(@Valid @RequestBody JobRelatorioRequest request) {
+        JobRelatorio job = gerenciadorJobs.iniciar(request.getTipo(), request.getPrioridade());
+        URI local = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.id())
+                .toUri();
+        return ResponseEntity.accepted().location(local).body(JobRelatorioResponse.fromJob(job));
+    }
+
+    /**
+     * Consulta a situação de um job.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<JobRelatorioResponse> buscar(@PathVariable String id) {
+        return ResponseEntity.ok(JobRelatorioResponse.fromJob(gerenciadorJobs.buscar(id)));
+    }
+
+    /**
+     * Baixa o resultado (JSON) de um job concluído.
+     */
+    @GetMapping("/{id}/resultado")
+    public ResponseEntity<Resource> resultado(@PathVariable String id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new FileSystemResource(gerenciadorJobs.resultado(id)));
+    }
+}
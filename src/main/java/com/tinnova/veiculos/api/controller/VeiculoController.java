@@ -1,13 +1,23 @@
 package com.tinnova.veiculos.api.controller;
 
+import com.tinnova.veiculos.api.dto.ListagemComFacetasResponse;
 import com.tinnova.veiculos.api.dto.RelatorioPorMarcaResponse;
+import com.tinnova.veiculos.api.dto.VeiculoPorIdResponse;
 import com.tinnova.veiculos.api.dto.VeiculoRequest;
 import com.tinnova.veiculos.api.dto.VeiculoResponse;
 import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
 import com.tinnova.veiculos.dominio.veiculo.Veiculo;
 import com.tinnova.veiculos.dominio.veiculo.VeiculoNaoEncontradoException;
 import com.tinnova.veiculos.infraestrutura.cambio.ServicoCambio;
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
+import com.tinnova.veiculos.infraestrutura.indice.SugestoesAutocompletar;
+import com.tinnova.veiculos.infraestrutura.prazo.PrazoEsgotadoException;
+import com.tinnova.veiculos.infraestrutura.relatorio.CalculadoraEstatisticas;
+import com.tinnova.veiculos.infraestrutura.relatorio.EstatisticasCatalogo;
+import com.tinnova.veiculos.infraestrutura.relatorio.PercentisPreco;
+import com.tinnova.veiculos.infraestrutura.relatorio.SketchesPreco;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -18,6 +28,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller REST para operações de veículos.
@@ -28,8 +39,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class VeiculoController {
 
+    private static final int LIMITE_SUGESTOES = 50;
+    private static final int MAXIMO_IDS_POR_BUSCA = 100;
+    private static final int LIMITE_SIMILARES = 20;
+
     private final ServicoVeiculo servicoVeiculo;
     private final ServicoCambio servicoCambio;
+    private final CalculadoraEstatisticas calculadoraEstatisticas;
+    private final SketchesPreco sketchesPreco;
+    private final IndiceColunarVeiculos indiceColunar;
 
     /**
      * Lista veículos com filtros e paginação.
@@ -43,13 +61,36 @@ public class VeiculoController {
             @RequestParam(required = false) BigDecimal maxPreco,
             Pageable pageable) {
 
+        BigDecimal cotacao = cotacaoAtual();
         Page<VeiculoResponse> response = servicoVeiculo
                 .listar(marca, ano, cor, minPreco, maxPreco, pageable)
-                .map(this::toResponse);
+                .map(veiculo -> toResponse(veiculo, cotacao));
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Lista veículos com filtros e paginação e inclui as contagens por marca, ano e cor
+     * ({@code facetas=true}).
+     */
+    @GetMapping(params = "facetas=true")
+    public ResponseEntity<ListagemComFacetasResponse> listarComFacetas(
+            @RequestParam(required = false) String marca,
+            @RequestParam(required = false) Integer ano,
+            @RequestParam(required = false) String cor,
+            @RequestParam(required = false) BigDecimal minPreco,
+            @RequestParam(required = false) BigDecimal maxPreco,
+            Pageable pageable) {
+
+        BigDecimal cotacao = cotacaoAtual();
+        Page<VeiculoResponse> veiculos = servicoVeiculo
+                .listar(marca, ano, cor, minPreco, maxPreco, pageable)
+                .map(veiculo -> toResponse(veiculo, cotacao));
+        var facetas = servicoVeiculo.contarFacetas(marca, ano, cor, minPreco, maxPreco);
+
+        return ResponseEntity.ok(new ListagemComFacetasResponse(veiculos, facetas));
+    }
+
     /**
      * Busca veículo por ID.
      */
@@ -61,18 +102,87 @@ public class VeiculoController {
                 .orElseThrow(() -> new VeiculoNaoEncontradoException(id));
     }
 
+    /**
+     * Busca até {@value #MAXIMO_IDS_POR_BUSCA} veículos por id em uma única consulta, com uma única cotação.
+     * A resposta segue a ordem dos ids pedidos e marca os ids sem veículo ativo como não encontrados.
+     */
+    @GetMapping("/lote")
+    public ResponseEntity<List<VeiculoPorIdResponse>> buscarPorIds(
+            @RequestParam @Size(max = MAXIMO_IDS_POR_BUSCA, message = "Informe no máximo " + MAXIMO_IDS_POR_BUSCA + " ids") List<Long> ids) {
+        Map<Long, Veiculo> encontrados = servicoVeiculo.buscarPorIds(ids);
+        BigDecimal cotacao = encontrados.isEmpty() ? null : cotacaoAtual();
+
+        List<VeiculoPorIdResponse> response = ids.stream()
+                .map(id -> encontrados.containsKey(id)
+                        ? VeiculoPorIdResponse.encontrado(toResponse(encontrados.get(id), cotacao))
+                        : VeiculoPorIdResponse.naoEncontrado(id))
+                .toList();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Lista os veículos da mesma marca mais parecidos em ano e preço com o veículo informado.
+     */
+    @GetMapping("/{id}/similares")
+    public ResponseEntity<List<VeiculoResponse>> buscarSimilares(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int limite) {
+        List<Veiculo> similares = servicoVeiculo.buscarSimilares(id, Math.clamp(limite, 1, LIMITE_SIMILARES));
+        BigDecimal cotacao = similares.isEmpty() ? null : cotacaoAtual();
+        return ResponseEntity.ok(similares.stream().map(veiculo -> toResponse(veiculo, cotacao)).toList());
+    }
+
+    /**
+     * Busca veículo ativo por placa, sem diferenciar maiúsculas, hífen ou espaços.
+     */
+    @GetMapping("/placa/{placa}")
+    public ResponseEntity<VeiculoResponse> buscarPorPlaca(@PathVariable String placa) {
+        return servicoVeiculo.buscarPorPlaca(placa)
+                .map(this::toResponse)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new VeiculoNaoEncontradoException(placa));
+    }
+
     /**
      * Retorna contagem de veículos por marca.
      */
     @GetMapping("/relatorios/por-marca")
     public ResponseEntity<List<RelatorioPorMarcaResponse>> relatorioPorMarca() {
         List<RelatorioPorMarcaResponse> relatorio = servicoVeiculo.contarPorMarca().stream()
-                .map(row -> new RelatorioPorMarcaResponse((String) row[0], (Long) row[1]))
+                .map(contagem -> new RelatorioPorMarcaResponse(contagem.marca(), contagem.quantidade()))
                 .toList();
 
         return ResponseEntity.ok(relatorio);
     }
 
+    /**
+     * Retorna quantidade e preços mínimo, máximo e médio por marca, ano e cor, e o histograma de preços.
+     */
+    @GetMapping("/relatorios/estatisticas")
+    public ResponseEntity<EstatisticasCatalogo> estatisticas() {
+        return ResponseEntity.ok(calculadoraEstatisticas.obter());
+    }
+
+    /**
+     * Sugere marcas e modelos de veículos ativos que começam pelo prefixo informado, no início
+     * ou em qualquer palavra, com a quantidade de veículos de cada um.
+     */
+    @GetMapping("/autocompletar")
+    public ResponseEntity<SugestoesAutocompletar> autocompletar(
+            @RequestParam String prefixo,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(indiceColunar.sugerir(prefixo, Math.clamp(limite, 1, LIMITE_SUGESTOES)));
+    }
+
+    /**
+     * Retorna os percentis aproximados 25, 50 e 90 de preço por marca e por ano.
+     */
+    @GetMapping("/relatorios/percentis")
+    public ResponseEntity<PercentisPreco> percentis() {
+        return ResponseEntity.ok(sketchesPreco.percentis());
+    }
+
     /**
      * Cria um novo veículo. Requer ADMIN.
      */
@@ -112,13 +222,33 @@ public class VeiculoController {
     }
 
     private VeiculoResponse toResponse(Veiculo veiculo) {
+        return toResponse(veiculo, cotacaoAtual());
+    }
+
+    /**
+     * Converte o veículo com a cotação já obtida, para que uma resposta com vários veículos consulte o câmbio uma vez.
+     * Sem cotação, o preço em BRL fica vazio.
+     */
+    private static VeiculoResponse toResponse(Veiculo veiculo, BigDecimal cotacao) {
         VeiculoResponse response = VeiculoResponse.fromEntity(veiculo);
-        try {
-            BigDecimal cotacao = servicoCambio.obterCotacaoUsdBrl();
+        if (cotacao != null) {
             response.setPrecoBrl(veiculo.getPrecoUsd().multiply(cotacao));
+        }
+        return response;
+    }
+
+    /**
+     * Cotação atual, ou {@code null} quando não pode ser obtida. Com o prazo da requisição esgotado,
+     * a requisição é interrompida em vez de responder sem o preço em BRL.
+     */
+    private BigDecimal cotacaoAtual() {
+        try {
+            return servicoCambio.obterCotacaoUsdBrl();
+        } catch (PrazoEsgotadoException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("Falha ao obter cotação: {}", e.getMessage());
+            return null;
         }
-        return response;
     }
 }
@@ -0,0 +1,54 @@
+package com.tinnova.veiculos.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO com os campos a alterar em uma atualização em lote. A placa não é alterável em lote.
+ */
+@Data
+public class AlteracoesLoteRequest {
+
+    @Size(min = 1, max = 50, message = "Marca deve ter entre 1 e 50 caracteres")
+    private String marca;
+
+    @Size(min = 1, max = 100, message = "Modelo deve ter entre 1 e 100 caracteres")
+    private String modelo;
+
+    @Min(value = 1900, message = "Ano deve ser maior que 1900")
+    @Max(value = 2100, message = "Ano deve ser menor que 2100")
+    private Integer ano;
+
+    @Size(min = 1, max = 30, message = "Cor deve ter entre 1 e 30 caracteres")
+    private String cor;
+
+    @DecimalMin(value = "0.01", message = "Preço deve ser maior que zero")
+    private BigDecimal precoUsd;
+
+    @JsonIgnore
+    @AssertTrue(message = "Informe ao menos um campo a alterar")
+    public boolean isAlgumCampoInformado() {
+        return marca != null || modelo != null || ano != null || cor != null || precoUsd != null;
+    }
+
+    /**
+     * Converte para entidade Veiculo contendo apenas os campos a alterar.
+     */
+    public Veiculo toEntity() {
+        return Veiculo.builder()
+                .marca(this.marca)
+                .modelo(this.modelo)
+                .ano(this.ano)
+                .cor(this.cor)
+                .precoUsd(this.precoUsd)
+                .build();
+    }
+}
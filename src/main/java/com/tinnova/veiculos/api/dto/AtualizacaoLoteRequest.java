@@ -0,0 +1,18 @@
+package com.tinnova.veiculos.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * DTO para atualização em lote: seleção dos veículos e campos a alterar.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class AtualizacaoLoteRequest extends SelecaoLoteRequest {
+
+    @Valid
+    @NotNull(message = "Alterações são obrigatórias")
+    private AlteracoesLoteRequest alteracoes;
+}
@@ -0,0 +1,35 @@
+package com.tinnova.veiculos.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tinnova.veiculos.aplicacao.veiculo.FiltroVeiculo;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO com os mesmos critérios de filtro da listagem de veículos.
+ */
+@Data
+public class FiltroVeiculoRequest {
+
+    private String marca;
+    private Integer ano;
+    private String cor;
+    private BigDecimal minPreco;
+    private BigDecimal maxPreco;
+
+    /**
+     * Converte para o filtro da camada de aplicação.
+     */
+    public FiltroVeiculo toFiltro() {
+        return new FiltroVeiculo(marca, ano, cor, minPreco, maxPreco);
+    }
+
+    /**
+     * Indica se nenhum critério foi informado.
+     */
+    @JsonIgnore
+    public boolean isVazio() {
+        return toFiltro().isVazio();
+    }
+}
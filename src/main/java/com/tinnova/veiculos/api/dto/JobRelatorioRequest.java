@@ -0,0 +1,18 @@
+package com.tinnova.veiculos.api.dto;
+
+import com.tinnova.veiculos.infraestrutura.relatorio.PrioridadeJob;
+import com.tinnova.veiculos.infraestrutura.relatorio.TipoRelatorio;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * DTO de requisição de um relatório assíncrono.
+ */
+@Data
+public class JobRelatorioRequest {
+
+    @NotNull(message = "Tipo do relatório é obrigatório")
+    private TipoRelatorio tipo;
+
+    private PrioridadeJob prioridade = PrioridadeJob.NORMAL;
+}
@@ -0,0 +1,47 @@
+package com.tinnova.veiculos.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tinnova.veiculos.infraestrutura.relatorio.JobRelatorio;
+import com.tinnova.veiculos.infraestrutura.relatorio.PrioridadeJob;
+import com.tinnova.veiculos.infraestrutura.relatorio.SituacaoJob;
+import com.tinnova.veiculos.infraestrutura.relatorio.TipoRelatorio;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * DTO de resposta com o estado de um job de relatório.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobRelatorioResponse {
+
+    private String id;
+    private TipoRelatorio tipo;
+    private PrioridadeJob prioridade;
+    private SituacaoJob situacao;
+    private Long versaoCatalogo;
+    private Instant criadoEm;
+    private Instant concluidoEm;
+    private Instant expiraEm;
+    private String erro;
+
+    /**
+     * Converte o estado do job para DTO.
+     */
+    public static JobRelatorioResponse fromJob(JobRelatorio job) {
+        return JobRelatorioResponse.builder()
+                .id(job.id())
+                .tipo(job.tipo())
+                .prioridade(job.prioridade())
+                .situacao(job.situacao())
+                .versaoCatalogo(job.versaoCatalogo())
+                .criadoEm(job.criadoEm())
+                .concluidoEm(job.concluidoEm())
+                .expiraEm(job.expiraEm())
+                .erro(job.erro())
+                .build();
+    }
+}
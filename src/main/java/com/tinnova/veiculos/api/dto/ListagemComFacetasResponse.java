@@ -0,0 +1,17 @@
+package com.tinnova.veiculos.api.dto;
+
+import com.tinnova.veiculos.aplicacao.veiculo.FacetasVeiculo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+/**
+ * DTO da listagem de veículos com as contagens por faceta do filtro aplicado.
+ */
+@Data
+@AllArgsConstructor
+public class ListagemComFacetasResponse {
+
+    private Page<VeiculoResponse> veiculos;
+    private FacetasVeiculo facetas;
+}
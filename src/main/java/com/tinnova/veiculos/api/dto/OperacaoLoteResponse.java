@@ -0,0 +1,14 @@
+package com.tinnova.veiculos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO de resultado de uma operação em lote.
+ */
+@Data
+@AllArgsConstructor
+public class OperacaoLoteResponse {
+
+    private long afetados;
+}
@@ -0,0 +1,43 @@
+package com.tinnova.veiculos.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO de seleção dos veículos de uma operação em lote: uma lista de ids ou um filtro, nunca ambos.
+ */
+@Data
+public class SelecaoLoteRequest {
+
+    @Size(max = 10000, message = "Informe no máximo 10000 ids")
+    private List<@NotNull Long> ids;
+
+    @Valid
+    private FiltroVeiculoRequest filtro;
+
+    /**
+     * Exige exatamente uma forma de seleção. Um filtro sem critérios é recusado
+     * para que uma requisição incompleta não altere todos os veículos.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "Informe a lista de ids ou um filtro com ao menos um critério, não ambos")
+    public boolean isSelecaoValida() {
+        boolean porIds = ids != null && !ids.isEmpty();
+        boolean porFiltro = filtro != null && !filtro.isVazio();
+        return porIds != porFiltro;
+    }
+
+    /**
+     * Indica se a seleção é por lista de ids.
+     */
+    @JsonIgnore
+    public boolean isPorIds() {
+        return ids != null && !ids.isEmpty();
+    }
+}
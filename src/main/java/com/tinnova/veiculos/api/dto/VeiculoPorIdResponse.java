@@ -0,0 +1,25 @@
+package com.tinnova.veiculos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO de um item da busca de veículos por ids: o id pedido e o veículo, ou a indicação de que
+ * não há veículo ativo com esse id.
+ */
+@Data
+@AllArgsConstructor
+public class VeiculoPorIdResponse {
+
+    private Long id;
+    private boolean encontrado;
+    private VeiculoResponse veiculo;
+
+    public static VeiculoPorIdResponse encontrado(VeiculoResponse veiculo) {
+        return new VeiculoPorIdResponse(veiculo.getId(), true, veiculo);
+    }
+
+    public static VeiculoPorIdResponse naoEncontrado(Long id) {
+        return new VeiculoPorIdResponse(id, false, null);
+    }
+}
@@ -3,12 +3,23 @@ package com.tinnova.veiculos.api.excecao;
 import com.tinnova.veiculos.api.dto.ErroResponse;
 import com.tinnova.veiculos.dominio.veiculo.PlacaDuplicadaException;
 import com.tinnova.veiculos.dominio.veiculo.VeiculoNaoEncontradoException;
+import com.tinnova.veiculos.infraestrutura.catalogo.SnapshotIndisponivelException;
+import com.tinnova.veiculos.infraestrutura.compartimento.CompartimentoLotadoException;
+import com.tinnova.veiculos.infraestrutura.limite.LimiteRequisicoesExcedidoException;
+import com.tinnova.veiculos.infraestrutura.prazo.PrazoEsgotadoException;
+import com.tinnova.veiculos.infraestrutura.relatorio.FilaJobsCheiaException;
+import com.tinnova.veiculos.infraestrutura.relatorio.JobNaoEncontradoException;
+import com.tinnova.veiculos.infraestrutura.relatorio.ResultadoJobIndisponivelException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -45,6 +56,104 @@ public class ManipuladorGlobalExcecoes {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
     }
 
+    @ExceptionHandler(SnapshotIndisponivelException.class)
+    public ResponseEntity<ErroResponse> handleSnapshotIndisponivel(SnapshotIndisponivelException ex, HttpServletRequest request) {
+        ErroResponse erro = ErroResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .erro("Service Unavailable")
+                .mensagem(ex.getMessage())
+                .caminho(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(erro);
+    }
+
+    @ExceptionHandler(JobNaoEncontradoException.class)
+    public ResponseEntity<ErroResponse> handleJobNaoEncontrado(JobNaoEncontradoException ex, HttpServletRequest request) {
+        ErroResponse erro = ErroResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .erro("Not Found")
+                .mensagem(ex.getMessage())
+                .caminho(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(erro);
+    }
+
+    @ExceptionHandler(ResultadoJobIndisponivelException.class)
+    public ResponseEntity<ErroResponse> handleResultadoJobIndisponivel(ResultadoJobIndisponivelException ex,
+            HttpServletRequest request) {
+        ErroResponse erro = ErroResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .erro("Conflict")
+                .mensagem(ex.getMessage())
+                .caminho(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
+    }
+
+    @ExceptionHandler(FilaJobsCheiaException.class)
+    public ResponseEntity<ErroResponse> handleFilaJobsCheia(FilaJobsCheiaException ex, HttpServletRequest request) {
+        ErroResponse erro = ErroResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .erro("Service Unavailable")
+                .mensagem(ex.getMessage())
+                .caminho(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(erro);
+    }
+
+    @ExceptionHandler(LimiteRequisicoesExcedidoException.class)
+    public ResponseEntity<ErroResponse> handleLimiteExcedido(LimiteRequisicoesExcedidoException ex,
+            HttpServletRequest request) {
+        ErroResponse erro = ErroResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .erro("Too Many Requests")
+                .mensagem(ex.getMessage())
+                .caminho(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getEsperaSegundos()))
+                .body(erro);
+    }
+
+    @ExceptionHandler(CompartimentoLotadoException.class)
+    public ResponseEntity<ErroResponse> handleCompartimentoLotado(CompartimentoLotadoException ex,
+            HttpServletRequest request) {
+        ErroResponse erro = ErroResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .erro("Service Unavailable")
+                .mensagem(ex.getMessage())
+                .caminho(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(erro);
+    }
+
+    @ExceptionHandler({PrazoEsgotadoException.class, TransactionTimedOutException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErroResponse> handlePrazoEsgotado(RuntimeException ex, HttpServletRequest request) {
+        ErroResponse erro = ErroResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.GATEWAY_TIMEOUT.value())
+                .erro("Gateway Timeout")
+                .mensagem(PrazoEsgotadoException.MENSAGEM)
+                .caminho(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(erro);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErroResponse> handleValidacao(MethodArgumentNotValidException ex, HttpServletRequest request) {
         List<ErroResponse.CampoErro> detalhes = ex.getBindingResult().getFieldErrors().stream()
@@ -63,6 +172,27 @@ public class ManipuladorGlobalExcecoes {
         return ResponseEntity.badRequest().body(erro);
     }
 
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErroResponse> handleValidacaoParametros(HandlerMethodValidationException ex,
+            HttpServletRequest request) {
+        List<ErroResponse.CampoErro> detalhes = ex.getParameterValidationResults().stream()
+                .flatMap(resultado -> resultado.getResolvableErrors().stream()
+                        .map(erro -> new ErroResponse.CampoErro(
+                                resultado.getMethodParameter().getParameterName(), erro.getDefaultMessage())))
+                .toList();
+
+        ErroResponse erro = ErroResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .erro("Bad Request")
+                .mensagem("Erro de validação")
+                .caminho(request.getRequestURI())
+                .detalhes(detalhes)
+                .build();
+
+        return ResponseEntity.badRequest().body(erro);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErroResponse> handleGenerico(Exception ex, HttpServletRequest request) {
         ErroResponse erro = ErroResponse.builder()
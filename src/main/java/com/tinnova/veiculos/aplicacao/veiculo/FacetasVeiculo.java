@@ -0,0 +1,46 @@
+package com.tinnova.veiculos.aplicacao.veiculo;
+
+import com.tinnova.veiculos.dominio.veiculo.CombinacaoFacetas;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Quantidade de veículos por valor de marca, ano e cor para um filtro.
+ * Cada faceta ignora o próprio critério e respeita os demais: com {@code marca=Toyota},
+ * a faceta de marcas mostra quantos veículos cada marca teria com os outros critérios,
+ * enquanto as de ano e cor contam apenas os Toyota.
+ */
+public record FacetasVeiculo(
+        SortedMap<String, Long> marcas,
+        SortedMap<Integer, Long> anos,
+        SortedMap<String, Long> cores) {
+
+    /**
+     * Calcula as facetas a partir das contagens por combinação dos veículos
+     * que atendem aos critérios que não são facetas.
+     */
+    public static FacetasVeiculo calcular(List<CombinacaoFacetas> combinacoes, FiltroVeiculo filtro) {
+        SortedMap<String, Long> marcas = new TreeMap<>();
+        SortedMap<Integer, Long> anos = new TreeMap<>();
+        SortedMap<String, Long> cores = new TreeMap<>();
+
+        for (CombinacaoFacetas combinacao : combinacoes) {
+            boolean marca = filtro.atendeMarca(combinacao.marca());
+            boolean ano = filtro.atendeAno(combinacao.ano());
+            boolean cor = filtro.atendeCor(combinacao.cor());
+            if (ano && cor) {
+                marcas.merge(combinacao.marca(), combinacao.quantidade(), Long::sum);
+            }
+            if (marca && cor) {
+                anos.merge(combinacao.ano(), combinacao.quantidade(), Long::sum);
+            }
+            if (marca && ano) {
+                cores.merge(combinacao.cor(), combinacao.quantidade(), Long::sum);
+            }
+        }
+
+        return new FacetasVeiculo(marcas, anos, cores);
+    }
+}
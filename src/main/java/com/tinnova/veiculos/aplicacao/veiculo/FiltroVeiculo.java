@@ -0,0 +1,119 @@
+package com.tinnova.veiculos.aplicacao.veiculo;
+
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Critérios de seleção de veículos ativos, compartilhados pela listagem e pelas operações em lote.
+ * Critérios nulos ou em branco são ignorados.
+ */
+public record FiltroVeiculo(String marca, Integer ano, String cor, BigDecimal minPreco, BigDecimal maxPreco) {
+
+    /**
+     * Indica se nenhum critério foi informado, ou seja, se o filtro seleciona todos os veículos ativos.
+     */
+    public boolean isVazio() {
+        return (marca == null || marca.isBlank())
+                && ano == null
+                && (cor == null || cor.isBlank())
+                && minPreco == null
+                && maxPreco == null;
+    }
+
+    /**
+     * Especificação dos veículos ativos que atendem a todos os critérios informados.
+     */
+    public Specification<Veiculo> especificacao() {
+        Specification<Veiculo> spec = especificacaoSemFacetas();
+
+        if (marca != null && !marca.isBlank()) {
+            spec = spec.and(marcaEquals(marca));
+        }
+        if (ano != null) {
+            spec = spec.and(anoEquals(ano));
+        }
+        if (cor != null && !cor.isBlank()) {
+            spec = spec.and(corEquals(cor));
+        }
+
+        return spec;
+    }
+
+    /**
+     * Especificação dos veículos ativos que atendem aos critérios que não são facetas (faixa de preço).
+     * Marca, ano e cor são aplicados em memória sobre as contagens por combinação.
+     */
+    public Specification<Veiculo> especificacaoSemFacetas() {
+        Specification<Veiculo> spec = Specification.where(ativoTrue());
+
+        if (minPreco != null) {
+            spec = spec.and(precoMaiorOuIgual(minPreco));
+        }
+        if (maxPreco != null) {
+            spec = spec.and(precoMenorOuIgual(maxPreco));
+        }
+
+        return spec;
+    }
+
+    /**
+     * Indica se o veículo atende a todos os critérios informados, com as mesmas comparações da especificação.
+     * Não verifica se o veículo está ativo.
+     */
+    boolean atende(Veiculo veiculo) {
+        return atendeMarca(veiculo.getMarca())
+                && atendeAno(veiculo.getAno())
+                && atendeCor(veiculo.getCor())
+                && (minPreco == null || veiculo.getPrecoUsd().compareTo(minPreco) >= 0)
+                && (maxPreco == null || veiculo.getPrecoUsd().compareTo(maxPreco) <= 0);
+    }
+
+    /**
+     * Indica se o valor atende ao critério de marca, com a mesma comparação da especificação.
+     */
+    boolean atendeMarca(String valor) {
+        return marca == null || marca.isBlank() || marca.equalsIgnoreCase(valor);
+    }
+
+    boolean atendeAno(Integer valor) {
+        return ano == null || ano.equals(valor);
+    }
+
+    boolean atendeCor(String valor) {
+        return cor == null || cor.isBlank() || cor.equalsIgnoreCase(valor);
+    }
+
+    /**
+     * Especificação dos veículos ativos entre os ids informados.
+     */
+    public static Specification<Veiculo> ativosEntre(Collection<Long> ids) {
+        return Specification.where(ativoTrue()).and((root, query, cb) -> root.get("id").in(ids));
+    }
+
+    private static Specification<Veiculo> ativoTrue() {
+        return (root, query, cb) -> cb.isTrue(root.get("ativo"));
+    }
+
+    private static Specification<Veiculo> marcaEquals(String marca) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("marca")), marca.toLowerCase());
+    }
+
+    private static Specification<Veiculo> anoEquals(Integer ano) {
+        return (root, query, cb) -> cb.equal(root.get("ano"), ano);
+    }
+
+    private static Specification<Veiculo> corEquals(String cor) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("cor")), cor.toLowerCase());
+    }
+
+    private static Specification<Veiculo> precoMaiorOuIgual(BigDecimal min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("precoUsd"), min);
+    }
+
+    private static Specification<Veiculo> precoMenorOuIgual(BigDecimal max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("precoUsd"), max);
+    }
+}
@@ -0,0 +1,160 @@
+package com.tinnova.veiculos.aplicacao.veiculo;
+
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.dominio.veiculo.VeiculoAlteradoEvento;
+import com.tinnova.veiculos.infraestrutura.relatorio.SketchesPreco;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Serviço de aplicação para remoção e atualização de veículos em lote.
+ * Os veículos selecionados são processados em lotes de tamanho fixo, cada um com um
+ * UPDATE único em sua própria transação, para que nenhuma transação mantenha locks por muito tempo.
+ */
+@Service
+public class ServicoLoteVeiculo {
+
+    private final RepositorioVeiculo repositorio;
+    private final RepositorioContagemMarca contagens;
+    private final SketchesPreco sketchesPreco;
+    private final ApplicationEventPublisher eventos;
+    private final TransactionTemplate transacao;
+    private final int tamanhoLote;
+
+    public ServicoLoteVeiculo(
+            RepositorioVeiculo repositorio,
+            RepositorioContagemMarca contagens,
+            SketchesPreco sketchesPreco,
+            ApplicationEventPublisher eventos,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.veiculos.lote.tamanho}") int tamanhoLote) {
+        this.repositorio = repositorio;
+        this.contagens = contagens;
+        this.sketchesPreco = sketchesPreco;
+        this.eventos = eventos;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Remove (soft delete) os veículos ativos entre os ids informados.
+     *
+     * @return quantidade de veículos removidos
+     */
+    public long removerPorIds(Collection<Long> ids) {
+        return porIds(ids, this::desativar);
+    }
+
+    /**
+     * Remove (soft delete) os veículos ativos que atendem ao filtro.
+     *
+     * @return quantidade de veículos removidos
+     */
+    public long removerPorFiltro(FiltroVeiculo filtro) {
+        return porFiltro(filtro, this::desativar);
+    }
+
+    /**
+     * Aplica os campos não nulos de {@code alteracoes} aos veículos ativos entre os ids informados.
+     * A placa é ignorada.
+     *
+     * @return quantidade de veículos atualizados
+     */
+    public long atualizarPorIds(Collection<Long> ids, Veiculo alteracoes) {
+        return porIds(ids, lote -> atualizar(lote, alteracoes));
+    }
+
+    /**
+     * Aplica os campos não nulos de {@code alteracoes} aos veículos ativos que atendem ao filtro.
+     * A placa é ignorada.
+     *
+     * @return quantidade de veículos atualizados
+     */
+    public long atualizarPorFiltro(FiltroVeiculo filtro, Veiculo alteracoes) {
+        return porFiltro(filtro, lote -> atualizar(lote, alteracoes));
+    }
+
+    private int desativar(List<Long> ids) {
+        contagens.subtrairVeiculos(ids);
+        int afetados = repositorio.desativarTodos(ids, LocalDateTime.now());
+        sketchesPreco.registrarAlteracoes(afetados);
+        ids.forEach(id -> eventos.publishEvent(VeiculoAlteradoEvento.removido(id)));
+        return afetados;
+    }
+
+    private int atualizar(List<Long> ids, Veiculo alteracoes) {
+        boolean mudaMarca = alteracoes.getMarca() != null;
+        if (mudaMarca) {
+            contagens.subtrairVeiculos(ids);
+        }
+        int afetados = repositorio.atualizarTodos(ids,
+                alteracoes.getMarca(),
+                alteracoes.getModelo(),
+                alteracoes.getAno(),
+                alteracoes.getCor(),
+                alteracoes.getPrecoUsd(),
+                LocalDateTime.now());
+        if (mudaMarca) {
+            contagens.somarVeiculos(ids);
+        }
+        if (mudaMarca || alteracoes.getAno() != null || alteracoes.getPrecoUsd() != null) {
+            sketchesPreco.registrarAlteracoes(afetados);
+        }
+        repositorio.findAllById(ids).forEach(veiculo -> eventos.publishEvent(VeiculoAlteradoEvento.salvo(veiculo)));
+        return afetados;
+    }
+
+    /**
+     * Divide os ids em lotes ordenados e aplica a operação aos que ainda estão ativos,
+     * um lote por transação.
+     */
+    private long porIds(Collection<Long> ids, ToIntFunction<List<Long>> operacao) {
+        List<Long> ordenados = ids.stream().distinct().sorted().toList();
+        long total = 0;
+        for (int inicio = 0; inicio < ordenados.size(); inicio += tamanhoLote) {
+            List<Long> lote = ordenados.subList(inicio, Math.min(inicio + tamanhoLote, ordenados.size()));
+            total += transacao.execute(status -> {
+                List<Long> ativos = repositorio.buscarIds(FiltroVeiculo.ativosEntre(lote), 0, lote.size());
+                return ativos.isEmpty() ? 0 : operacao.applyAsInt(ativos);
+            });
+        }
+        return total;
+    }
+
+    /**
+     * Percorre os veículos que atendem ao filtro em ordem de id (keyset), um lote por transação.
+     * Cada lote é selecionado e alterado na mesma transação, e a paginação por id
+     * continua correta mesmo quando a alteração faz o veículo deixar de atender ao filtro.
+     */
+    private long porFiltro(FiltroVeiculo filtro, ToIntFunction<List<Long>> operacao) {
+        Specification<Veiculo> spec = filtro.especificacao();
+        long total = 0;
+        long aposId = 0;
+        while (true) {
+            long cursor = aposId;
+            Lote lote = transacao.execute(status -> {
+                List<Long> ids = repositorio.buscarIds(spec, cursor, tamanhoLote);
+                return new Lote(ids, ids.isEmpty() ? 0 : operacao.applyAsInt(ids));
+            });
+            total += lote.afetados();
+            if (lote.ids().size() < tamanhoLote) {
+                return total;
+            }
+            aposId = lote.ids().getLast();
+        }
+    }
+
+    private record Lote(List<Long> ids, int afetados) {
+    }
+}
@@ -1,20 +1,39 @@
 package com.tinnova.veiculos.aplicacao.veiculo;
 
+import com.tinnova.veiculos.dominio.veiculo.ContagemPorMarca;
 import com.tinnova.veiculos.dominio.veiculo.PlacaDuplicadaException;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
 import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
 import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.dominio.veiculo.VeiculoAlteradoEvento;
 import com.tinnova.veiculos.dominio.veiculo.VeiculoNaoEncontradoException;
+import com.tinnova.veiculos.infraestrutura.indice.FiltroBloomPlacas;
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
+import com.tinnova.veiculos.infraestrutura.indice.PaginaIds;
+import com.tinnova.veiculos.infraestrutura.indice.PlacaCompactada;
+import com.tinnova.veiculos.infraestrutura.relatorio.SketchesPreco;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Serviço de aplicação para operações de veículos.
@@ -24,33 +43,54 @@ import java.util.Optional;
 public class ServicoVeiculo {
 
     private final RepositorioVeiculo repositorio;
+    private final ApplicationEventPublisher eventos;
+    private final FiltroBloomPlacas filtroPlacas;
+    private final RepositorioContagemMarca contagens;
+    private final SketchesPreco sketchesPreco;
+    private final IndiceColunarVeiculos indice;
 
     /**
      * Lista veículos ativos com filtros opcionais e paginação.
+     * Sem ordenação explícita, a seleção e a contagem vêm do índice colunar e só a página é lida do banco;
+     * como o índice é atualizado após o commit, os veículos lidos passam de novo pelo filtro, e os removidos
+     * ou alterados nesse intervalo ficam fora da página e são descontados do total. Veículos que passaram a
+     * atender ao filtro nesse intervalo, ou descartados em outras páginas, só entram no total quando o índice
+     * for atualizado, então o total é aproximado enquanto o índice está atrás de um commit.
+     * Não abre transação própria: cada consulta ao repositório já é uma leitura transacional única.
      */
-    @Transactional(readOnly = true)
     public Page<Veiculo> listar(String marca, Integer ano, String cor,
             BigDecimal minPreco, BigDecimal maxPreco,
             Pageable pageable) {
-        Specification<Veiculo> spec = Specification.where(ativoTrue());
-
-        if (marca != null && !marca.isBlank()) {
-            spec = spec.and(marcaEquals(marca));
-        }
-        if (ano != null) {
-            spec = spec.and(anoEquals(ano));
-        }
-        if (cor != null && !cor.isBlank()) {
-            spec = spec.and(corEquals(cor));
-        }
-        if (minPreco != null) {
-            spec = spec.and(precoMaiorOuIgual(minPreco));
-        }
-        if (maxPreco != null) {
-            spec = spec.and(precoMenorOuIgual(maxPreco));
+        FiltroVeiculo filtro = new FiltroVeiculo(marca, ano, cor, minPreco, maxPreco);
+        if (indice.isPronto() && pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            PaginaIds pagina = indice.buscar(marca, ano, cor, minPreco, maxPreco,
+                    pageable.getOffset(), pageable.getPageSize());
+            Map<Long, Veiculo> porId = buscarPorIds(pagina.ids());
+            List<Veiculo> veiculos = pagina.ids().stream()
+                    .map(porId::get)
+                    .filter(Objects::nonNull)
+                    .filter(filtro::atende)
+                    .toList();
+            long descartados = pagina.ids().size() - veiculos.size();
+            return new PageImpl<>(veiculos, pageable, pagina.total() - descartados);
         }
+        return repositorio.findAll(filtro.especificacao(), pageable);
+    }
 
-        return repositorio.findAll(spec, pageable);
+    /**
+     * Conta os veículos ativos por marca, ano e cor para os filtros informados, pelo índice colunar
+     * ou, enquanto ele não foi construído, em uma única consulta agrupada.
+     */
+    public FacetasVeiculo contarFacetas(String marca, Integer ano, String cor,
+            BigDecimal minPreco, BigDecimal maxPreco) {
+        if (indice.isPronto()) {
+            return new FacetasVeiculo(
+                    indice.contarMarcas(ano, cor, minPreco, maxPreco),
+                    indice.contarAnos(marca, cor, minPreco, maxPreco),
+                    indice.contarCores(marca, ano, minPreco, maxPreco));
+        }
+        FiltroVeiculo filtro = new FiltroVeiculo(marca, ano, cor, minPreco, maxPreco);
+        return FacetasVeiculo.calcular(repositorio.contarCombinacoes(filtro.especificacaoSemFacetas()), filtro);
     }
 
     /**
@@ -61,15 +101,69 @@ public class ServicoVeiculo {
         return repositorio.findByIdAndAtivoTrue(id);
     }
 
+    /**
+     * Busca em uma única consulta os veículos ativos com os ids informados, indexados pelo id.
+     * Ids repetidos são consultados uma vez; ids sem veículo ativo ficam fora do resultado.
+     */
+    public Map<Long, Veiculo> buscarPorIds(Collection<Long> ids) {
+        Set<Long> distintos = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distintos.isEmpty()) {
+            return Map.of();
+        }
+        return repositorio.findAll(FiltroVeiculo.ativosEntre(distintos)).stream()
+                .collect(Collectors.toMap(Veiculo::getId, Function.identity()));
+    }
+
+    /**
+     * Veículos ativos da mesma marca mais próximos em ano e preço, do mais próximo ao mais distante.
+     * Os ids vêm do índice em memória e os veículos são lidos em uma única consulta.
+     * Enquanto o índice não tem o veículo, como antes da primeira construção, retorna lista vazia.
+     */
+    public List<Veiculo> buscarSimilares(Long id, int limite) {
+        Optional<List<Long>> ids = indice.similares(id, limite);
+        if (ids.isEmpty()) {
+            if (repositorio.findByIdAndAtivoTrue(id).isEmpty()) {
+                throw new VeiculoNaoEncontradoException(id);
+            }
+            return List.of();
+        }
+        Map<Long, Veiculo> porId = buscarPorIds(ids.get());
+        return ids.get().stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Busca veículo ativo pela placa, sem diferenciar maiúsculas, hífen ou espaços.
+     * O índice em memória resolve a placa para o id e só o veículo é lido, pela chave primária;
+     * quando o índice não pode resolvê-la, a placa normalizada é comparada no banco.
+     */
+    public Optional<Veiculo> buscarPorPlaca(String placa) {
+        long id = indice.idPorPlaca(placa);
+        if (id == IndiceColunarVeiculos.PLACA_AUSENTE) {
+            return Optional.empty();
+        }
+        if (id != IndiceColunarVeiculos.PLACA_INDETERMINADA) {
+            return repositorio.findByIdAndAtivoTrue(id);
+        }
+        return repositorio.buscarAtivosPorPlaca(PlacaCompactada.normalizar(placa)).stream().findFirst();
+    }
+
     /**
      * Cria um novo veículo. Lança PlacaDuplicadaException se a placa já existir.
+     * A unicidade é garantida pela constraint do banco; o filtro de Bloom só
+     * antecipa a rejeição quando a placa pode já existir, evitando o INSERT com falha.
      */
     @Transactional
     public Veiculo criar(Veiculo veiculo) {
-        if (repositorio.existsByPlaca(veiculo.getPlaca())) {
-            throw new PlacaDuplicadaException(veiculo.getPlaca());
+        String placa = veiculo.getPlaca();
+        if (filtroPlacas.podeExistir(placa) && repositorio.existsByPlaca(placa)) {
+            throw new PlacaDuplicadaException(placa);
         }
-        return repositorio.save(veiculo);
+        filtroPlacas.adicionar(placa);
+
+        Veiculo salvo = salvarComPlacaUnica(veiculo);
+        contagens.somarVeiculos(List.of(salvo.getId()));
+        eventos.publishEvent(VeiculoAlteradoEvento.criado(salvo));
+        return salvo;
     }
 
     /**
@@ -80,10 +174,16 @@ public class ServicoVeiculo {
         Veiculo existente = repositorio.findByIdAndAtivoTrue(id)
                 .orElseThrow(() -> new VeiculoNaoEncontradoException(id));
 
-        if (repositorio.existsByPlacaAndIdNot(dadosAtualizados.getPlaca(), id)) {
-            throw new PlacaDuplicadaException(dadosAtualizados.getPlaca());
+        boolean mudouMarca = !existente.getMarca().equals(dadosAtualizados.getMarca());
+        if (mudouMarca) {
+            contagens.subtrairVeiculos(List.of(id));
+        }
+        if (mudouMarca || !existente.getAno().equals(dadosAtualizados.getAno())
+                || existente.getPrecoUsd().compareTo(dadosAtualizados.getPrecoUsd()) != 0) {
+            sketchesPreco.registrarAlteracoes(1);
         }
 
+        filtroPlacas.adicionar(dadosAtualizados.getPlaca());
         existente.setPlaca(dadosAtualizados.getPlaca());
         existente.setMarca(dadosAtualizados.getMarca());
         existente.setModelo(dadosAtualizados.getModelo());
@@ -91,82 +191,92 @@ public class ServicoVeiculo {
         existente.setCor(dadosAtualizados.getCor());
         existente.setPrecoUsd(dadosAtualizados.getPrecoUsd());
 
-        return repositorio.save(existente);
+        Veiculo salvo = salvarComPlacaUnica(existente);
+        if (mudouMarca) {
+            contagens.somarVeiculos(List.of(id));
+        }
+        eventos.publishEvent(VeiculoAlteradoEvento.salvo(salvo));
+        return salvo;
     }
 
     /**
-     * Atualiza apenas os campos informados (PATCH).
+     * Atualiza apenas os campos informados (PATCH) em um único UPDATE condicional.
      */
     @Transactional
     public Veiculo atualizarParcial(Long id, Veiculo dadosParciais) {
-        Veiculo existente = repositorio.findByIdAndAtivoTrue(id)
-                .orElseThrow(() -> new VeiculoNaoEncontradoException(id));
-
-        if (dadosParciais.getPlaca() != null) {
-            if (repositorio.existsByPlacaAndIdNot(dadosParciais.getPlaca(), id)) {
-                throw new PlacaDuplicadaException(dadosParciais.getPlaca());
-            }
-            existente.setPlaca(dadosParciais.getPlaca());
+        String placa = dadosParciais.getPlaca();
+        if (placa != null) {
+            filtroPlacas.adicionar(placa);
         }
-        if (dadosParciais.getMarca() != null) {
-            existente.setMarca(dadosParciais.getMarca());
+        boolean mudaMarca = dadosParciais.getMarca() != null;
+        if (mudaMarca) {
+            contagens.subtrairVeiculos(List.of(id));
         }
-        if (dadosParciais.getModelo() != null) {
-            existente.setModelo(dadosParciais.getModelo());
-        }
-        if (dadosParciais.getAno() != null) {
-            existente.setAno(dadosParciais.getAno());
+
+        int afetados = comPlacaUnica(placa, () -> repositorio.atualizarParcial(id,
+                placa,
+                dadosParciais.getMarca(),
+                dadosParciais.getModelo(),
+                dadosParciais.getAno(),
+                dadosParciais.getCor(),
+                dadosParciais.getPrecoUsd(),
+                LocalDateTime.now()));
+        if (afetados == 0) {
+            throw new VeiculoNaoEncontradoException(id);
         }
-        if (dadosParciais.getCor() != null) {
-            existente.setCor(dadosParciais.getCor());
+        if (mudaMarca) {
+            contagens.somarVeiculos(List.of(id));
         }
-        if (dadosParciais.getPrecoUsd() != null) {
-            existente.setPrecoUsd(dadosParciais.getPrecoUsd());
+        if (mudaMarca || dadosParciais.getAno() != null || dadosParciais.getPrecoUsd() != null) {
+            sketchesPreco.registrarAlteracoes(1);
         }
 
-        return repositorio.save(existente);
+        Veiculo salvo = repositorio.findById(id)
+                .orElseThrow(() -> new VeiculoNaoEncontradoException(id));
+        eventos.publishEvent(VeiculoAlteradoEvento.salvo(salvo));
+        return salvo;
     }
 
     /**
-     * Remove um veículo (soft delete).
+     * Remove um veículo (soft delete) em um único UPDATE condicional.
      */
     @Transactional
     public void remover(Long id) {
-        Veiculo veiculo = repositorio.findByIdAndAtivoTrue(id)
-                .orElseThrow(() -> new VeiculoNaoEncontradoException(id));
-        veiculo.desativar();
-        repositorio.save(veiculo);
+        contagens.subtrairVeiculos(List.of(id));
+        if (repositorio.desativar(id, LocalDateTime.now()) == 0) {
+            throw new VeiculoNaoEncontradoException(id);
+        }
+        sketchesPreco.registrarAlteracoes(1);
+        eventos.publishEvent(VeiculoAlteradoEvento.removido(id));
     }
 
     /**
-     * Conta veículos ativos agrupados por marca.
+     * Conta veículos ativos agrupados por marca, a partir da contagem mantida incrementalmente.
      */
     @Transactional(readOnly = true)
-    public List<Object[]> contarPorMarca() {
-        return repositorio.contarPorMarca();
-    }
-
-    private Specification<Veiculo> ativoTrue() {
-        return (root, query, cb) -> cb.isTrue(root.get("ativo"));
-    }
-
-    private Specification<Veiculo> marcaEquals(String marca) {
-        return (root, query, cb) -> cb.equal(cb.lower(root.get("marca")), marca.toLowerCase());
-    }
-
-    private Specification<Veiculo> anoEquals(Integer ano) {
-        return (root, query, cb) -> cb.equal(root.get("ano"), ano);
-    }
-
-    private Specification<Veiculo> corEquals(String cor) {
-        return (root, query, cb) -> cb.equal(cb.lower(root.get("cor")), cor.toLowerCase());
+    public List<ContagemPorMarca> contarPorMarca() {
+        return contagens.listarPositivas();
     }
 
-    private Specification<Veiculo> precoMaiorOuIgual(BigDecimal min) {
-        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("precoUsd"), min);
+    /**
+     * Grava o veículo imediatamente e traduz a violação da constraint de placa única.
+     */
+    private Veiculo salvarComPlacaUnica(Veiculo veiculo) {
+        return comPlacaUnica(veiculo.getPlaca(), () -> repositorio.saveAndFlush(veiculo));
     }
 
-    private Specification<Veiculo> precoMenorOuIgual(BigDecimal max) {
-        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("precoUsd"), max);
+    /**
+     * Executa a escrita traduzindo a violação da constraint de placa única.
+     */
+    private <T> T comPlacaUnica(String placa, Supplier<T> escrita) {
+        try {
+            return escrita.get();
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violacao
+                    && violacao.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                throw new PlacaDuplicadaException(placa);
+            }
+            throw e;
+        }
     }
 }
@@ -0,0 +1,7 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+/**
+ * Quantidade de veículos com uma combinação de marca, ano e cor.
+ */
+public record CombinacaoFacetas(String marca, Integer ano, String cor, long quantidade) {
+}
@@ -0,0 +1,28 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contagem de veículos ativos por marca, mantida incrementalmente na mesma transação
+ * de cada escrita em {@link Veiculo} e reconciliada periodicamente com a tabela de veículos.
+ */
+@Entity
+@Table(name = "contagem_marca")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContagemMarca {
+
+    @Id
+    @Column(length = 50)
+    private String marca;
+
+    @Column(nullable = false)
+    private Long quantidade;
+}
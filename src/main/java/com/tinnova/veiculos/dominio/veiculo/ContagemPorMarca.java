@@ -0,0 +1,7 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+/**
+ * Quantidade de veículos ativos de uma marca.
+ */
+public record ContagemPorMarca(String marca, long quantidade) {
+}
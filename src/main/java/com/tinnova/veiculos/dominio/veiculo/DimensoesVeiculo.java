@@ -0,0 +1,9 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+import java.math.BigDecimal;
+
+/**
+ * Atributos de um veículo ativo usados nas estatísticas do catálogo.
+ */
+public record DimensoesVeiculo(String marca, Integer ano, String cor, BigDecimal precoUsd) {
+}
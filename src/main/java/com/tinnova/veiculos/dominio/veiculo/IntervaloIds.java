@@ -0,0 +1,11 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+/**
+ * Menor e maior id entre os veículos ativos; ambos nulos quando não há veículos ativos.
+ */
+public record IntervaloIds(Long menor, Long maior) {
+
+    public boolean isVazio() {
+        return menor == null;
+    }
+}
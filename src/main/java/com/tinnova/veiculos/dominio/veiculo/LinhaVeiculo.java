@@ -0,0 +1,9 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+import java.math.BigDecimal;
+
+/**
+ * Id e atributos de um veículo ativo, usados pelo índice colunar em memória.
+ */
+public record LinhaVeiculo(Long id, String placa, String marca, String modelo, Integer ano, String cor, BigDecimal precoUsd) {
+}
@@ -0,0 +1,64 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório da contagem de veículos ativos por marca.
+ * Os ajustes leem a marca atual dos veículos no próprio banco, por isso devem ser chamados
+ * enquanto os veículos ainda estão no estado a ser contado: {@link #somarVeiculos} depois
+ * da escrita e {@link #subtrairVeiculos} antes dela.
+ */
+@Repository
+public interface RepositorioContagemMarca extends JpaRepository<ContagemMarca, String> {
+
+    /**
+     * Soma às contagens os veículos ativos entre os ids, agrupados pela marca atual.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            MERGE INTO contagem_marca c
+            USING (SELECT marca, COUNT(*) AS quantidade FROM veiculo
+                   WHERE id IN (:ids) AND ativo = TRUE GROUP BY marca) v
+            ON c.marca = v.marca
+            WHEN MATCHED THEN UPDATE SET quantidade = c.quantidade + v.quantidade
+            WHEN NOT MATCHED THEN INSERT (marca, quantidade) VALUES (v.marca, v.quantidade)
+            """)
+    int somarVeiculos(Collection<Long> ids);
+
+    /**
+     * Subtrai das contagens os veículos ativos entre os ids, agrupados pela marca atual.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            MERGE INTO contagem_marca c
+            USING (SELECT marca, COUNT(*) AS quantidade FROM veiculo
+                   WHERE id IN (:ids) AND ativo = TRUE GROUP BY marca) v
+            ON c.marca = v.marca
+            WHEN MATCHED THEN UPDATE SET quantidade = c.quantidade - v.quantidade
+            """)
+    int subtrairVeiculos(Collection<Long> ids);
+
+    /**
+     * Marcas com ao menos um veículo ativo.
+     */
+    @Query("""
+            SELECT new com.tinnova.veiculos.dominio.veiculo.ContagemPorMarca(c.marca, c.quantidade)
+            FROM ContagemMarca c WHERE c.quantidade > 0 ORDER BY c.marca
+            """)
+    List<ContagemPorMarca> listarPositivas();
+
+    /**
+     * Todas as contagens, bloqueadas para escrita até o fim da transação.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ContagemMarca c")
+    List<ContagemMarca> bloquearTodas();
+}
@@ -1,27 +1,182 @@
 package com.tinnova.veiculos.dominio.veiculo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório de veículos.
  */
 @Repository
-public interface RepositorioVeiculo extends JpaRepository<Veiculo, Long>, JpaSpecificationExecutor<Veiculo> {
+public interface RepositorioVeiculo extends JpaRepository<Veiculo, Long>, JpaSpecificationExecutor<Veiculo>,
+        RepositorioVeiculoCustom {
 
     List<Veiculo> findByAtivoTrue();
 
     Optional<Veiculo> findByIdAndAtivoTrue(Long id);
 
+    /**
+     * Percorre os veículos ativos em ordem de id sem materializar a lista.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Veiculo v WHERE v.ativo = true ORDER BY v.id")
+    Stream<Veiculo> streamAtivos();
+
+    /**
+     * Menor e maior id dos veículos ativos, usados para dividir varreduras por faixa de id.
+     */
+    @Query("""
+            SELECT new com.tinnova.veiculos.dominio.veiculo.IntervaloIds(MIN(v.id), MAX(v.id))
+            FROM Veiculo v WHERE v.ativo = true
+            """)
+    IntervaloIds intervaloIdsAtivos();
+
+    /**
+     * Quantidade de veículos ativos e última alteração, usadas para detectar mudanças no banco.
+     */
+    @Query("""
+            SELECT new com.tinnova.veiculos.dominio.veiculo.VersaoVeiculos(
+                SUM(CASE WHEN v.ativo = true THEN 1L ELSE 0L END), MAX(v.atualizadoEm))
+            FROM Veiculo v
+            """)
+    VersaoVeiculos versaoVeiculos();
+
+    /**
+     * Atributos dos veículos ativos com id na faixa informada (inclusiva), sem carregar entidades.
+     */
+    @Query("""
+            SELECT new com.tinnova.veiculos.dominio.veiculo.DimensoesVeiculo(v.marca, v.ano, v.cor, v.precoUsd)
+            FROM Veiculo v WHERE v.ativo = true AND v.id BETWEEN :de AND :ate
+            """)
+    List<DimensoesVeiculo> buscarDimensoes(long de, long ate);
+
+    /**
+     * Percorre os atributos dos veículos ativos com id até o limite, sem carregar entidades.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.tinnova.veiculos.dominio.veiculo.DimensoesVeiculo(v.marca, v.ano, v.cor, v.precoUsd)
+            FROM Veiculo v WHERE v.ativo = true AND v.id <= :ateId
+            """)
+    Stream<DimensoesVeiculo> streamDimensoesAtivas(long ateId);
+
+    /**
+     * Percorre o id e os atributos filtráveis de todos os veículos ativos, sem carregar entidades.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo(v.id, v.placa, v.marca, v.modelo, v.ano, v.cor, v.precoUsd)
+            FROM Veiculo v WHERE v.ativo = true
+            """)
+    Stream<LinhaVeiculo> streamLinhasAtivas();
+
     boolean existsByPlaca(String placa);
 
-    boolean existsByPlacaAndIdNot(String placa, Long id);
+    /**
+     * Veículos ativos cuja placa, em maiúsculas e sem hífen nem espaços, é a informada, em ordem de id.
+     */
+    @Query("""
+            SELECT v FROM Veiculo v
+            WHERE v.ativo = true AND REPLACE(REPLACE(UPPER(v.placa), '-', ''), ' ', '') = :placaNormalizada
+            ORDER BY v.id
+            """)
+    List<Veiculo> buscarAtivosPorPlaca(String placaNormalizada);
+
+    /**
+     * Percorre todas as placas cadastradas (ativas e inativas), que ocupam a constraint de unicidade.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT v.placa FROM Veiculo v")
+    Stream<String> streamPlacas();
+
+    /**
+     * Atualiza em um único UPDATE os campos informados (não nulos) de um veículo ativo.
+     * SQL nativo: o Hibernate não guarda em cache o plano de UPDATE/DELETE em JPQL
+     * e o retraduziria a cada chamada.
+     *
+     * @return quantidade de linhas afetadas; zero se o veículo não existe ou está inativo
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            UPDATE veiculo SET
+                placa = COALESCE(:placa, placa),
+                marca = COALESCE(:marca, marca),
+                modelo = COALESCE(:modelo, modelo),
+                ano = COALESCE(:ano, ano),
+                cor = COALESCE(:cor, cor),
+                preco_usd = COALESCE(:precoUsd, preco_usd),
+                atualizado_em = :agora
+            WHERE id = :id AND ativo = TRUE
+            """)
+    int atualizarParcial(Long id, String placa, String marca, String modelo, Integer ano, String cor,
+            BigDecimal precoUsd, LocalDateTime agora);
+
+    /**
+     * Marca um veículo ativo como inativo (soft delete) em um único UPDATE.
+     *
+     * @return quantidade de linhas afetadas; zero se o veículo não existe ou já está inativo
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true,
+            value = "UPDATE veiculo SET ativo = FALSE, atualizado_em = :agora WHERE id = :id AND ativo = TRUE")
+    int desativar(Long id, LocalDateTime agora);
+
+    /**
+     * Atualiza em um único UPDATE os campos informados (não nulos) dos veículos ativos entre os ids.
+     * A placa não faz parte das alterações em lote, pois é única por veículo.
+     *
+     * @return quantidade de linhas afetadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            UPDATE veiculo SET
+                marca = COALESCE(:marca, marca),
+                modelo = COALESCE(:modelo, modelo),
+                ano = COALESCE(:ano, ano),
+                cor = COALESCE(:cor, cor),
+                preco_usd = COALESCE(:precoUsd, preco_usd),
+                atualizado_em = :agora
+            WHERE id IN (:ids) AND ativo = TRUE
+            """)
+    int atualizarTodos(Collection<Long> ids, String marca, String modelo, Integer ano, String cor,
+            BigDecimal precoUsd, LocalDateTime agora);
+
+    /**
+     * Marca como inativos, em um único UPDATE, os veículos ativos entre os ids.
+     *
+     * @return quantidade de linhas afetadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true,
+            value = "UPDATE veiculo SET ativo = FALSE, atualizado_em = :agora WHERE id IN (:ids) AND ativo = TRUE")
+    int desativarTodos(Collection<Long> ids, LocalDateTime agora);
 
-    @Query("SELECT v.marca, COUNT(v) FROM Veiculo v WHERE v.ativo = true GROUP BY v.marca")
-    List<Object[]> contarPorMarca();
+    /**
+     * Conta os veículos ativos por marca diretamente na tabela (GROUP BY completo).
+     * Usado na reconciliação de {@link ContagemMarca}; o relatório lê a contagem mantida.
+     */
+    @Query("""
+            SELECT new com.tinnova.veiculos.dominio.veiculo.ContagemPorMarca(v.marca, COUNT(v))
+            FROM Veiculo v WHERE v.ativo = true GROUP BY v.marca
+            """)
+    List<ContagemPorMarca> contarPorMarca();
 }
@@ -0,0 +1,23 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Consultas de veículos que não são expressáveis como métodos derivados do Spring Data.
+ */
+public interface RepositorioVeiculoCustom {
+
+    /**
+     * Busca, em ordem crescente, os ids dos veículos que atendem à especificação e são maiores que {@code aposId}.
+     * Paginação por chave (keyset): o último id retornado é o {@code aposId} da próxima página.
+     */
+    List<Long> buscarIds(Specification<Veiculo> spec, long aposId, int limite);
+
+    /**
+     * Conta, em um único {@code GROUP BY}, os veículos que atendem à especificação
+     * por combinação de marca, ano e cor.
+     */
+    List<CombinacaoFacetas> contarCombinacoes(Specification<Veiculo> spec);
+}
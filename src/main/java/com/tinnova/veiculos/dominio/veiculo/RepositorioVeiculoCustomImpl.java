@@ -0,0 +1,50 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Implementação das consultas customizadas de {@link RepositorioVeiculo} com a Criteria API.
+ */
+class RepositorioVeiculoCustomImpl implements RepositorioVeiculoCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> buscarIds(Specification<Veiculo> spec, long aposId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Veiculo> root = query.from(Veiculo.class);
+
+        query.select(root.get("id"))
+                .where(spec.toPredicate(root, query, cb), cb.greaterThan(root.get("id"), aposId))
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CombinacaoFacetas> contarCombinacoes(Specification<Veiculo> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CombinacaoFacetas> query = cb.createQuery(CombinacaoFacetas.class);
+        Root<Veiculo> root = query.from(Veiculo.class);
+
+        query.select(cb.construct(CombinacaoFacetas.class,
+                        root.get("marca"), root.get("ano"), root.get("cor"), cb.count(root)))
+                .where(spec.toPredicate(root, query, cb))
+                .groupBy(root.get("marca"), root.get("ano"), root.get("cor"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,39 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+/**
+ * Evento publicado após a criação, alteração ou remoção de um veículo.
+ *
+ * @param id      identificador do veículo
+ * @param veiculo estado atual do veículo, ou {@code null} quando removido
+ * @param criado   indica se o veículo acabou de ser criado
+ */
+public record VeiculoAlteradoEvento(Long id, Veiculo veiculo, boolean criado) {
+
+    /**
+     * Cria evento para veículo recém-criado.
+     */
+    public static VeiculoAlteradoEvento criado(Veiculo veiculo) {
+        return new VeiculoAlteradoEvento(veiculo.getId(), veiculo, true);
+    }
+
+    /**
+     * Cria evento para veículo alterado.
+     */
+    public static VeiculoAlteradoEvento salvo(Veiculo veiculo) {
+        return new VeiculoAlteradoEvento(veiculo.getId(), veiculo, false);
+    }
+
+    /**
+     * Cria evento para veículo removido (soft delete).
+     */
+    public static VeiculoAlteradoEvento removido(Long id) {
+        return new VeiculoAlteradoEvento(id, null, false);
+    }
+
+    /**
+     * Indica se o veículo deixou de estar ativo.
+     */
+    public boolean isRemovido() {
+        return veiculo == null;
+    }
+}
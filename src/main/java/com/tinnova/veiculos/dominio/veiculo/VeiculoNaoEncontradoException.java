@@ -11,4 +11,11 @@ public class VeiculoNaoEncontradoException extends RuntimeException {
     public VeiculoNaoEncontradoException(Long id) {
         super("Veículo não encontrado: " + id);
     }
+
+    /**
+     * @param placa placa do veículo não encontrado
+     */
+    public VeiculoNaoEncontradoException(String placa) {
+        super("Veículo não encontrado: " + placa);
+    }
 }
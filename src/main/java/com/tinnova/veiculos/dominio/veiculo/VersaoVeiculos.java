@@ -0,0 +1,10 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Quantidade de veículos ativos e instante da última alteração de qualquer veículo, ativo ou não.
+ * Toda escrita muda ao menos um dos dois, o que permite saber, sem ler os veículos, se o banco mudou.
+ */
+public record VersaoVeiculos(Long ativos, LocalDateTime ultimaAlteracao) {
+}
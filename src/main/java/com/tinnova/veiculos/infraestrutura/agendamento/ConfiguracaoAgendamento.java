@@ -0,0 +1,12 @@
+package com.tinnova.veiculos.infraestrutura.agendamento;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita a execução de tarefas periódicas ({@code @Scheduled}).
+ */
+@Configuration
+@EnableScheduling
+public class ConfiguracaoAgendamento {
+}
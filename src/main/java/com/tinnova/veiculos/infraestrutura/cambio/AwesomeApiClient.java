@@ -1,5 +1,6 @@
 package com.tinnova.veiculos.infraestrutura.cambio;
 
+import com.tinnova.veiculos.infraestrutura.prazo.PrazoEsgotadoException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -31,6 +32,8 @@ public class AwesomeApiClient implements ClienteCambio {
             String cotacao = raiz.path("USDBRL").path("bid").asText();
 
             return Optional.of(new BigDecimal(cotacao));
+        } catch (PrazoEsgotadoException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("Falha ao obter cotação da AwesomeAPI: {}", e.getMessage());
             return Optional.empty();
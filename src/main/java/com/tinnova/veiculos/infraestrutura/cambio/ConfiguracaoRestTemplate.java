@@ -1,17 +1,42 @@
 package com.tinnova.veiculos.infraestrutura.cambio;
 
+import com.tinnova.veiculos.infraestrutura.prazo.PrazoRequisicao;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
 /**
  * Configuração do RestTemplate para chamadas HTTP.
+ * Usa o {@link HttpClient} do JDK com tempo limite de conexão e de resposta; com
+ * {@code spring.threads.virtual.enabled}, as tarefas internas do cliente também rodam em threads virtuais.
+ * Durante uma requisição, o tempo de resposta fica limitado ao que resta do seu prazo, e a chamada nem
+ * é feita se o prazo já terminou.
  */
 @Configuration
 public class ConfiguracaoRestTemplate {
 
     @Bean
-    RestTemplate restTemplate() {
-        return new RestTemplate();
+    RestTemplate restTemplate(
+            @Value("${app.cambio.timeout-ms}") long timeoutMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        Duration timeout = Duration.ofMillis(timeoutMs);
+        HttpClient.Builder cliente = HttpClient.newBuilder().connectTimeout(timeout);
+        if (threadsVirtuais) {
+            cliente.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        HttpClient http = cliente.build();
+        ClientHttpRequestFactory fabrica = (uri, metodo) -> {
+            JdkClientHttpRequestFactory comPrazo = new JdkClientHttpRequestFactory(http);
+            comPrazo.setReadTimeout(PrazoRequisicao.limitar(timeout));
+            return comPrazo.createRequest(uri, metodo);
+        };
+        return new RestTemplate(fabrica);
     }
 }
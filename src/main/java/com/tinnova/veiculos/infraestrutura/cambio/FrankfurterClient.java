@@ -1,5 +1,6 @@
 package com.tinnova.veiculos.infraestrutura.cambio;
 
+import com.tinnova.veiculos.infraestrutura.prazo.PrazoEsgotadoException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -32,6 +33,8 @@ public class FrankfurterClient implements ClienteCambio {
             double cotacao = raiz.path("rates").path("BRL").asDouble();
 
             return Optional.of(BigDecimal.valueOf(cotacao));
+        } catch (PrazoEsgotadoException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("Falha ao obter cotação da Frankfurter: {}", e.getMessage());
             return Optional.empty();
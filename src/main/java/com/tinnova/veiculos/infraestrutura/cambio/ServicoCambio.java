@@ -1,6 +1,10 @@
 package com.tinnova.veiculos.infraestrutura.cambio;
 
-import lombok.RequiredArgsConstructor;
+import com.tinnova.veiculos.infraestrutura.prazo.PrazoRequisicao;
+import com.tinnova.veiculos.infraestrutura.tempos.EtapaRequisicao;
+import com.tinnova.veiculos.infraestrutura.tempos.TemposRequisicao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
@@ -8,14 +12,16 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Serviço de câmbio USD/BRL com cache Redis.
  * Usa AwesomeAPI como fonte primária e Frankfurter como fallback.
+ * A consulta ao cache é medida em {@code veiculos.cambio.cache} (acerto, falta ou erro) e cada chamada
+ * a uma API em {@code veiculos.cambio.provedor}, por provedor e resultado.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ServicoCambio {
 
     private static final String CACHE_KEY = "cotacao:usd:brl";
@@ -24,24 +30,65 @@ public class ServicoCambio {
     private final AwesomeApiClient awesomeApiClient;
     private final FrankfurterClient frankfurterClient;
     private final RedisTemplate<String, String> redisTemplate;
+    private final Timer cacheAcertos;
+    private final Timer cacheFaltas;
+    private final Timer cacheErros;
+    private final TemporizadoresProvedor awesomeApi;
+    private final TemporizadoresProvedor frankfurter;
+
+    public ServicoCambio(AwesomeApiClient awesomeApiClient, FrankfurterClient frankfurterClient,
+            RedisTemplate<String, String> redisTemplate, MeterRegistry registry) {
+        this.awesomeApiClient = awesomeApiClient;
+        this.frankfurterClient = frankfurterClient;
+        this.redisTemplate = redisTemplate;
+        this.cacheAcertos = timerCache("acerto", registry);
+        this.cacheFaltas = timerCache("falta", registry);
+        this.cacheErros = timerCache("erro", registry);
+        this.awesomeApi = TemporizadoresProvedor.de("awesomeapi", registry);
+        this.frankfurter = TemporizadoresProvedor.de("frankfurter", registry);
+    }
 
     /**
      * Obtém a cotação USD/BRL do cache ou APIs externas.
+     * Cada etapa só começa se o prazo da requisição ainda não terminou; do contrário lança
+     * {@link com.tinnova.veiculos.infraestrutura.prazo.PrazoEsgotadoException} sem seguir para o fallback.
+     * O tempo total entra no {@code Server-Timing} como {@link EtapaRequisicao#CAMBIO}.
      */
     public BigDecimal obterCotacaoUsdBrl() {
-        String cacheado = redisTemplate.opsForValue().get(CACHE_KEY);
+        boolean medindo = TemposRequisicao.iniciar(EtapaRequisicao.CAMBIO);
+        try {
+            return obterCotacao();
+        } finally {
+            if (medindo) {
+                TemposRequisicao.encerrar(EtapaRequisicao.CAMBIO);
+            }
+        }
+    }
+
+    /**
+     * Converte valor de USD para BRL.
+     */
+    public BigDecimal converterUsdParaBrl(BigDecimal valorUsd) {
+        return valorUsd.multiply(obterCotacaoUsdBrl());
+    }
+
+    private BigDecimal obterCotacao() {
+        PrazoRequisicao.verificar();
+        String cacheado = consultarCache();
         if (cacheado != null) {
-            log.info("Cotação obtida do cache: {}", cacheado);
+            log.debug("Cotação obtida do cache: {}", cacheado);
             return new BigDecimal(cacheado);
         }
 
-        Optional<BigDecimal> cotacao = awesomeApiClient.obterCotacaoUsdBrl();
+        PrazoRequisicao.verificar();
+        Optional<BigDecimal> cotacao = consultar(awesomeApiClient, awesomeApi);
         if (cotacao.isPresent()) {
             salvarNoCache(cotacao.get());
             return cotacao.get();
         }
 
-        cotacao = frankfurterClient.obterCotacaoUsdBrl();
+        PrazoRequisicao.verificar();
+        cotacao = consultar(frankfurterClient, frankfurter);
         if (cotacao.isPresent()) {
             salvarNoCache(cotacao.get());
             return cotacao.get();
@@ -50,11 +97,29 @@ public class ServicoCambio {
         throw new RuntimeException("Não foi possível obter cotação USD/BRL");
     }
 
-    /**
-     * Converte valor de USD para BRL.
-     */
-    public BigDecimal converterUsdParaBrl(BigDecimal valorUsd) {
-        return valorUsd.multiply(obterCotacaoUsdBrl());
+    private String consultarCache() {
+        long inicio = System.nanoTime();
+        String cacheado;
+        try {
+            cacheado = redisTemplate.opsForValue().get(CACHE_KEY);
+        } catch (RuntimeException e) {
+            cacheErros.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        (cacheado != null ? cacheAcertos : cacheFaltas).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return cacheado;
+    }
+
+    private static Optional<BigDecimal> consultar(ClienteCambio cliente, TemporizadoresProvedor temporizadores) {
+        long inicio = System.nanoTime();
+        Optional<BigDecimal> cotacao = Optional.empty();
+        try {
+            cotacao = cliente.obterCotacaoUsdBrl();
+            return cotacao;
+        } finally {
+            (cotacao.isPresent() ? temporizadores.sucessos() : temporizadores.falhas())
+                    .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
     }
 
     private void salvarNoCache(BigDecimal cotacao) {
@@ -62,4 +127,28 @@ public class ServicoCambio {
         log.info("Cotação salva no cache: {} (TTL: {})", cotacao, CACHE_TTL);
     }
 
+    private static Timer timerCache(String resultado, MeterRegistry registry) {
+        return Timer.builder("veiculos.cambio.cache")
+                .description("Consultas da cotação no cache Redis, por resultado")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    /**
+     * Timers das chamadas a um provedor de cotação, com e sem cotação obtida.
+     */
+    private record TemporizadoresProvedor(Timer sucessos, Timer falhas) {
+
+        static TemporizadoresProvedor de(String provedor, MeterRegistry registry) {
+            return new TemporizadoresProvedor(timer(provedor, "sucesso", registry), timer(provedor, "falha", registry));
+        }
+
+        private static Timer timer(String provedor, String resultado, MeterRegistry registry) {
+            return Timer.builder("veiculos.cambio.provedor")
+                    .description("Chamadas às APIs de cotação, por provedor e resultado")
+                    .tag("provedor", provedor)
+                    .tag("resultado", resultado)
+                    .register(registry);
+        }
+    }
 }
@@ -0,0 +1,175 @@
+package com.tinnova.veiculos.infraestrutura.catalogo;
+
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gera periodicamente um snapshot compactado (JSON + gzip) do catálogo ativo.
+ * Um novo arquivo só é gerado quando a {@link VersaoCatalogo} muda; downloads
+ * servem o arquivo pronto sem consultar o banco.
+ */
+@Slf4j
+@Component
+public class GeradorSnapshotCatalogo {
+
+    private static final String PREFIXO = "catalogo-";
+    private static final String EXTENSAO = ".json.gz";
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final RepositorioVeiculo repositorio;
+    private final VersaoCatalogo versaoCatalogo;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transacaoLeitura;
+    private final Path diretorio;
+
+    private final AtomicReference<SnapshotCatalogo> atual = new AtomicReference<>();
+    private final ReentrantLock geracao = new ReentrantLock();
+
+    public GeradorSnapshotCatalogo(
+            RepositorioVeiculo repositorio,
+            VersaoCatalogo versaoCatalogo,
+            EntityManager entityManager,
+            JsonMapper jsonMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.catalogo.snapshot.diretorio}") String diretorio) {
+        this.repositorio = repositorio;
+        this.versaoCatalogo = versaoCatalogo;
+        this.entityManager = entityManager;
+        this.jsonMapper = jsonMapper;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.diretorio = Path.of(diretorio);
+    }
+
+    /**
+     * Retorna o snapshot mais recente, se já houver um gerado.
+     */
+    public Optional<SnapshotCatalogo> atual() {
+        return Optional.ofNullable(atual.get());
+    }
+
+    /**
+     * Gera um novo snapshot se a versão do catálogo mudou desde o último.
+     */
+    @Scheduled(fixedDelayString = "${app.catalogo.snapshot.intervalo-ms}")
+    public void gerarSeNecessario() {
+        if (!geracao.tryLock()) {
+            return;
+        }
+        try {
+            long versao = versaoCatalogo.atual();
+            SnapshotCatalogo anterior = atual.get();
+            if (anterior != null && anterior.versao() == versao) {
+                return;
+            }
+
+            SnapshotCatalogo novo = gerar(versao);
+            atual.set(novo);
+            removerAntigos(novo, anterior);
+            log.info("Snapshot do catálogo gerado: versão {}, {} bytes", versao, novo.tamanho());
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Falha ao gerar snapshot do catálogo: {}", e.getMessage());
+        } finally {
+            geracao.unlock();
+        }
+    }
+
+    private SnapshotCatalogo gerar(long versao) throws IOException {
+        Files.createDirectories(diretorio);
+        Path temporario = Files.createTempFile(diretorio, PREFIXO, ".tmp");
+        MessageDigest digest = novoDigest();
+
+        try (OutputStream saida = new GZIPOutputStream(new DigestOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporario), TAMANHO_BUFFER), digest),
+                TAMANHO_BUFFER)) {
+            transacaoLeitura.executeWithoutResult(status -> escrever(saida));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+
+        String etag = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        Path arquivo = diretorio.resolve(PREFIXO + etag + EXTENSAO);
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return new SnapshotCatalogo(versao, arquivo, Files.size(arquivo), etag, Instant.now());
+    }
+
+    private void escrever(OutputStream saida) {
+        try (JsonGenerator gerador = jsonMapper.createGenerator(saida);
+                Stream<Veiculo> veiculos = repositorio.streamAtivos()) {
+            gerador.writeStartArray();
+            veiculos.forEach(veiculo -> {
+                escrever(gerador, veiculo);
+                entityManager.detach(veiculo);
+            });
+            gerador.writeEndArray();
+        }
+    }
+
+    private void escrever(JsonGenerator gerador, Veiculo veiculo) {
+        gerador.writeStartObject();
+        gerador.writeNumberProperty("id", veiculo.getId());
+        gerador.writeStringProperty("placa", veiculo.getPlaca());
+        gerador.writeStringProperty("marca", veiculo.getMarca());
+        gerador.writeStringProperty("modelo", veiculo.getModelo());
+        gerador.writeNumberProperty("ano", veiculo.getAno());
+        gerador.writeStringProperty("cor", veiculo.getCor());
+        gerador.writeNumberProperty("precoUsd", veiculo.getPrecoUsd());
+        gerador.writeStringProperty("criadoEm", String.valueOf(veiculo.getCriadoEm()));
+        gerador.writeStringProperty("atualizadoEm", String.valueOf(veiculo.getAtualizadoEm()));
+        gerador.writeEndObject();
+    }
+
+    /**
+     * Mantém o snapshot atual e o anterior (que pode estar em download) e remove os demais.
+     */
+    private void removerAntigos(SnapshotCatalogo novo, SnapshotCatalogo anterior) throws IOException {
+        Set<Path> manter = anterior == null ? Set.of(novo.arquivo()) : Set.of(novo.arquivo(), anterior.arquivo());
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + EXTENSAO)) {
+            for (Path arquivo : arquivos) {
+                if (!manter.contains(arquivo)) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        }
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.tinnova.veiculos.infraestrutura.catalogo;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Arquivo compactado com todos os veículos ativos de uma versão do catálogo.
+ *
+ * @param versao   versão do catálogo usada na geração
+ * @param arquivo  caminho do arquivo em disco
+ * @param tamanho  tamanho do arquivo em bytes
+ * @param etag     identificador do conteúdo (digest dos bytes gravados)
+ * @param geradoEm instante da geração
+ */
+public record SnapshotCatalogo(long versao, Path arquivo, long tamanho, String etag, Instant geradoEm) {
+}
@@ -0,0 +1,11 @@
+package com.tinnova.veiculos.infraestrutura.catalogo;
+
+/**
+ * Exceção lançada quando ainda não há snapshot do catálogo gerado.
+ */
+public class SnapshotIndisponivelException extends RuntimeException {
+
+    public SnapshotIndisponivelException() {
+        super("Snapshot do catálogo ainda não disponível");
+    }
+}
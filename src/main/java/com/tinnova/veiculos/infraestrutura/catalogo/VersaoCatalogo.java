@@ -0,0 +1,30 @@
+package com.tinnova.veiculos.infraestrutura.catalogo;
+
+import com.tinnova.veiculos.dominio.veiculo.VeiculoAlteradoEvento;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão do catálogo de veículos ativos neste nó.
+ * Incrementada após o commit de qualquer alteração, permite invalidar
+ * artefatos derivados (snapshots, relatórios) sem consultar o banco.
+ */
+@Component
+public class VersaoCatalogo {
+
+    private final AtomicLong versao = new AtomicLong();
+
+    /**
+     * Retorna a versão atual do catálogo.
+     */
+    public long atual() {
+        return versao.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void aoAlterarVeiculo(VeiculoAlteradoEvento evento) {
+        versao.incrementAndGet();
+    }
+}
@@ -0,0 +1,78 @@
+package com.tinnova.veiculos.infraestrutura.compartimento;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de concorrência de uma classe de endpoint: um semáforo justo com fila limitada e espera
+ * máxima. Quem não consegue vaga é rejeitado com {@link CompartimentoLotadoException}.
+ */
+public class Compartimento {
+
+    @Getter
+    private final TipoCompartimento tipo;
+    private final Semaphore vagas;
+    private final int maximoFila;
+    private final long esperaNanos;
+    private final Counter rejeitadasFilaCheia;
+    private final Counter rejeitadasTempoEsgotado;
+
+    public Compartimento(TipoCompartimento tipo, PropriedadesCompartimentos.Limites limites, MeterRegistry registry) {
+        this.tipo = tipo;
+        this.vagas = new Semaphore(limites.maximoConcorrentes(), true);
+        this.maximoFila = limites.maximoFila();
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(limites.esperaMs());
+
+        Gauge.builder("veiculos.compartimento.fila", vagas, Semaphore::getQueueLength)
+                .description("Requisições aguardando vaga no compartimento")
+                .tag("compartimento", tipo.nome())
+                .register(registry);
+        Gauge.builder("veiculos.compartimento.em-uso", vagas,
+                        semaforo -> limites.maximoConcorrentes() - semaforo.availablePermits())
+                .description("Requisições em atendimento no compartimento")
+                .tag("compartimento", tipo.nome())
+                .register(registry);
+        this.rejeitadasFilaCheia = Counter.builder("veiculos.compartimento.rejeicoes")
+                .description("Requisições rejeitadas por falta de vaga no compartimento")
+                .tag("compartimento", tipo.nome())
+                .tag("motivo", "fila-cheia")
+                .register(registry);
+        this.rejeitadasTempoEsgotado = Counter.builder("veiculos.compartimento.rejeicoes")
+                .description("Requisições rejeitadas por falta de vaga no compartimento")
+                .tag("compartimento", tipo.nome())
+                .tag("motivo", "tempo-esgotado")
+                .register(registry);
+    }
+
+    /**
+     * Ocupa uma vaga, aguardando na fila até a espera máxima. Toda entrada deve ser seguida de {@link #sair()}.
+     */
+    public void entrar() {
+        try {
+            // Com espera zero, tryAcquire respeita a fila do semáforo justo em vez de furá-la
+            if (vagas.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            if (vagas.getQueueLength() >= maximoFila) {
+                rejeitadasFilaCheia.increment();
+                throw new CompartimentoLotadoException(tipo);
+            }
+            if (!vagas.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                rejeitadasTempoEsgotado.increment();
+                throw new CompartimentoLotadoException(tipo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompartimentoLotadoException(tipo);
+        }
+    }
+
+    public void sair() {
+        vagas.release();
+    }
+}
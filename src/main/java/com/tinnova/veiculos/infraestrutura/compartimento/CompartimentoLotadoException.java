@@ -0,0 +1,11 @@
+package com.tinnova.veiculos.infraestrutura.compartimento;
+
+/**
+ * Exceção lançada quando a requisição não conseguiu vaga no compartimento da sua classe de endpoint.
+ */
+public class CompartimentoLotadoException extends RuntimeException {
+
+    public CompartimentoLotadoException(TipoCompartimento tipo) {
+        super("Capacidade de " + tipo.nome() + " esgotada, tente novamente em instantes");
+    }
+}
@@ -0,0 +1,73 @@
+package com.tinnova.veiculos.infraestrutura.compartimento;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registra o {@link FiltroCompartimentos} nas rotas de veículos, depois da cadeia de segurança,
+ * para que requisições não autenticadas ou acima do limite do cliente não ocupem vagas.
+ * O pool de conexões é compartilhado; a reserva para as leituras vem de limitar relatórios e escritas
+ * juntos a no máximo o pool menos {@code app.compartimentos.conexoes-reservadas-leituras}, o que é
+ * verificado na inicialização.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(PropriedadesCompartimentos.class)
+public class ConfiguracaoCompartimentos {
+
+    /** Depois da cadeia do Spring Security, que fica em -100. */
+    private static final int ORDEM_FILTRO = 0;
+
+    @Bean
+    FilterRegistrationBean<FiltroCompartimentos> filtroCompartimentos(PropriedadesCompartimentos propriedades,
+            MeterRegistry registry, DataSource dataSource,
+            @Value("${app.relatorios.estatisticas.paralelismo}") int paralelismoEstatisticas,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolvedorExcecoes) {
+        verificarReservaConexoes(propriedades, dataSource, paralelismoEstatisticas);
+        List<Compartimento> compartimentos = Arrays.stream(TipoCompartimento.values())
+                .map(tipo -> new Compartimento(tipo, propriedades.de(tipo), registry))
+                .toList();
+
+        FilterRegistrationBean<FiltroCompartimentos> registro =
+                new FilterRegistrationBean<>(new FiltroCompartimentos(compartimentos, resolvedorExcecoes));
+        registro.addUrlPatterns("/veiculos", "/veiculos/*");
+        registro.setOrder(ORDEM_FILTRO);
+        registro.setEnabled(propriedades.habilitado());
+        return registro;
+    }
+
+    /**
+     * Avisa quando relatórios e escritas podem ocupar as conexões reservadas às leituras. O cálculo das
+     * estatísticas, feito por um relatório de cada vez, usa até {@code paralelismoEstatisticas} conexões.
+     */
+    private static void verificarReservaConexoes(PropriedadesCompartimentos propriedades, DataSource dataSource,
+            int paralelismoEstatisticas) {
+        HikariDataSource hikari =
+                DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        if (hikari == null) {
+            return;
+        }
+        int ocupaveis = propriedades.relatorios().maximoConcorrentes() + paralelismoEstatisticas - 1
+                + propriedades.escritas().maximoConcorrentes();
+        int disponiveis = hikari.getMaximumPoolSize() - propriedades.conexoesReservadasLeituras();
+        if (ocupaveis > disponiveis) {
+            log.warn("Relatórios e escritas podem ocupar {} conexões, mas só {} das {} do pool ficam fora da reserva "
+                            + "das leituras; reduza app.compartimentos.*.maximo-concorrentes",
+                    ocupaveis, disponiveis, hikari.getMaximumPoolSize());
+        }
+    }
+}
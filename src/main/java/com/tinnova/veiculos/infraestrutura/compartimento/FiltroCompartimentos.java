@@ -0,0 +1,50 @@
+package com.tinnova.veiculos.infraestrutura.compartimento;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Filtro que atende cada requisição de veículos dentro do {@link Compartimento} da sua classe de endpoint,
+ * ocupando a vaga da entrada até a resposta. Sem vaga, entrega a rejeição ao {@link HandlerExceptionResolver},
+ * que monta a resposta como os demais erros da API.
+ */
+public class FiltroCompartimentos extends OncePerRequestFilter {
+
+    private static final UrlPathHelper CAMINHOS = UrlPathHelper.defaultInstance;
+
+    private final Map<TipoCompartimento, Compartimento> compartimentos = new EnumMap<>(TipoCompartimento.class);
+    private final HandlerExceptionResolver resolvedorExcecoes;
+
+    public FiltroCompartimentos(Iterable<Compartimento> compartimentos, HandlerExceptionResolver resolvedorExcecoes) {
+        compartimentos.forEach(compartimento -> this.compartimentos.put(compartimento.getTipo(), compartimento));
+        this.resolvedorExcecoes = resolvedorExcecoes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Compartimento compartimento = compartimentos.get(
+                TipoCompartimento.de(request.getMethod(), CAMINHOS.getPathWithinApplication(request)));
+        try {
+            compartimento.entrar();
+        } catch (CompartimentoLotadoException e) {
+            resolvedorExcecoes.resolveException(request, response, null, e);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            compartimento.sair();
+        }
+    }
+}
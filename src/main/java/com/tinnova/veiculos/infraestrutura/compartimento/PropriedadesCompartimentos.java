@@ -0,0 +1,39 @@
+package com.tinnova.veiculos.infraestrutura.compartimento;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limites de concorrência por classe de endpoint ({@code app.compartimentos.*}).
+ *
+ * @param habilitado                 se as requisições passam pelos compartimentos
+ * @param conexoesReservadasLeituras conexões do pool que relatórios e escritas juntos não podem ocupar
+ * @param relatorios                 limites de {@link TipoCompartimento#RELATORIOS}
+ * @param escritas                   limites de {@link TipoCompartimento#ESCRITAS}
+ * @param leituras                   limites de {@link TipoCompartimento#LEITURAS}
+ */
+@ConfigurationProperties("app.compartimentos")
+public record PropriedadesCompartimentos(
+        boolean habilitado,
+        int conexoesReservadasLeituras,
+        Limites relatorios,
+        Limites escritas,
+        Limites leituras) {
+
+    public Limites de(TipoCompartimento tipo) {
+        return switch (tipo) {
+            case RELATORIOS -> relatorios;
+            case ESCRITAS -> escritas;
+            case LEITURAS -> leituras;
+        };
+    }
+
+    /**
+     * Limites de um compartimento.
+     *
+     * @param maximoConcorrentes requisições atendidas ao mesmo tempo
+     * @param maximoFila         requisições aguardando vaga; acima disso a requisição é rejeitada na hora
+     * @param esperaMs           tempo máximo de espera na fila
+     */
+    public record Limites(int maximoConcorrentes, int maximoFila, long esperaMs) {
+    }
+}
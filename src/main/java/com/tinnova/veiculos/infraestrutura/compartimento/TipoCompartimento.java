@@ -0,0 +1,40 @@
+package com.tinnova.veiculos.infraestrutura.compartimento;
+
+import java.util.Locale;
+
+/**
+ * Classes de endpoint com limites de concorrência separados, para que relatórios e escritas
+ * não ocupem as threads e conexões de que as leituras precisam.
+ */
+public enum TipoCompartimento {
+
+    /** Relatórios, jobs de relatório e snapshot do catálogo. */
+    RELATORIOS,
+    /** Criação, alteração e remoção de veículos, inclusive em lote. */
+    ESCRITAS,
+    /** Demais consultas de veículos. */
+    LEITURAS;
+
+    private static final String PREFIXO_RELATORIOS = "/veiculos/relatorios";
+    private static final String PREFIXO_CATALOGO = "/veiculos/catalogo";
+
+    /**
+     * Classifica a requisição pelo método e pelo caminho dentro da aplicação.
+     */
+    public static TipoCompartimento de(String metodo, String caminho) {
+        if (caminho.startsWith(PREFIXO_RELATORIOS) || caminho.startsWith(PREFIXO_CATALOGO)) {
+            return RELATORIOS;
+        }
+        return switch (metodo) {
+            case "GET", "HEAD", "OPTIONS" -> LEITURAS;
+            default -> ESCRITAS;
+        };
+    }
+
+    /**
+     * Nome usado nas métricas e nas mensagens.
+     */
+    public String nome() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
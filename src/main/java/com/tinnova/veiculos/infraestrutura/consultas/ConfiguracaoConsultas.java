@@ -0,0 +1,35 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Contagem de comandos SQL por requisição: registra o {@link InspetorConsultas} no Hibernate e o
+ * {@link FiltroConsultas} antes dos demais filtros, para que as respostas dadas por eles também tragam a contagem.
+ * As estatísticas globais do Hibernate ({@code hibernate.*}) são habilitadas em {@code application.properties}.
+ */
+@Configuration
+public class ConfiguracaoConsultas {
+
+    /** Antes do filtro de prazo, em -200, e da cadeia do Spring Security, em -100. */
+    private static final int ORDEM_FILTRO = -300;
+
+    @Bean
+    HibernatePropertiesCustomizer inspetorConsultas() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new InspetorConsultas());
+    }
+
+    @Bean
+    FilterRegistrationBean<FiltroConsultas> filtroConsultas(MeterRegistry registry,
+            @Value("${app.consultas.habilitado:true}") boolean habilitado) {
+        FilterRegistrationBean<FiltroConsultas> registro = new FilterRegistrationBean<>(new FiltroConsultas(registry));
+        registro.setOrder(ORDEM_FILTRO);
+        registro.setEnabled(habilitado);
+        return registro;
+    }
+}
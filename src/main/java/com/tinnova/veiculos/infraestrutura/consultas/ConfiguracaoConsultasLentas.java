@@ -0,0 +1,45 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Registro de consultas lentas: envolve o DataSource em um proxy que mede cada comando e entrega os lentos
+ * ao {@link RegistroConsultasLentas}, consultado em {@code /admin/consultas-lentas}.
+ */
+@Configuration
+@EnableConfigurationProperties(PropriedadesConsultasLentas.class)
+public class ConfiguracaoConsultasLentas {
+
+    @Bean
+    RegistroConsultasLentas registroConsultasLentas(PropriedadesConsultasLentas propriedades, DataSource dataSource) {
+        DataSource semProxy = dataSource instanceof ProxyDataSource proxy ? proxy.getDataSource() : dataSource;
+        return new RegistroConsultasLentas(propriedades.capacidade(), propriedades.maximoFormatos(),
+                propriedades.planos() ? semProxy : null);
+    }
+
+    /**
+     * Estático, e com as dependências resolvidas só quando o DataSource é criado, porque os
+     * {@link BeanPostProcessor} são criados antes dos demais beans.
+     */
+    @Bean
+    static BeanPostProcessor proxyConsultasLentas(ObjectProvider<PropriedadesConsultasLentas> propriedades,
+            ObjectProvider<RegistroConsultasLentas> registro) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nome) {
+                if (!(bean instanceof DataSource dataSource) || !propriedades.getObject().habilitado()) {
+                    return bean;
+                }
+                return ProxyConsultas.comOuvinte(nome, dataSource,
+                        new OuvinteConsultasLentas(propriedades.getObject().limiarMs(), registro));
+            }
+        };
+    }
+}
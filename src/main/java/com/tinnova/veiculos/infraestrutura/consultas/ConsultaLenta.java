@@ -0,0 +1,21 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Comando SQL que demorou ao menos o limiar de {@code app.consultas.lentas.limiar-ms}.
+ *
+ * @param instante   fim da execução
+ * @param duracaoMs  duração da execução
+ * @param formato    comando sem os valores, como agrupado em {@link ResumoFormatoConsulta}
+ * @param sql        comando executado, compactado
+ * @param parametros valores dos parâmetros, na ordem, com textos longos truncados; nos lotes, os do primeiro item
+ */
+public record ConsultaLenta(
+        Instant instante,
+        long duracaoMs,
+        String formato,
+        String sql,
+        List<String> parametros) {
+}
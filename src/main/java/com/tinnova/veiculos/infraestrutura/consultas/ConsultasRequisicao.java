@@ -0,0 +1,45 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+/**
+ * Quantidade de comandos SQL executados pela requisição em andamento na thread atual, iniciada pelo
+ * {@link FiltroConsultas} e somada pelo {@link InspetorConsultas} a cada comando preparado pelo Hibernate.
+ * Consultas feitas em outras threads, como as faixas do cálculo paralelo de estatísticas, não entram na conta.
+ */
+public final class ConsultasRequisicao {
+
+    private static final ThreadLocal<Contagem> ATUAL = new ThreadLocal<>();
+
+    private ConsultasRequisicao() {
+    }
+
+    public static void iniciar() {
+        ATUAL.set(new Contagem());
+    }
+
+    public static void limpar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Soma um comando à requisição atual; fora de uma requisição não faz nada.
+     */
+    public static void registrar() {
+        Contagem contagem = ATUAL.get();
+        if (contagem != null) {
+            contagem.quantidade++;
+        }
+    }
+
+    /**
+     * Comandos executados até agora pela requisição atual, ou zero fora de uma requisição.
+     */
+    public static int quantidade() {
+        Contagem contagem = ATUAL.get();
+        return contagem == null ? 0 : contagem.quantidade;
+    }
+
+    private static final class Contagem {
+
+        private int quantidade;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filtro que conta os comandos SQL de cada requisição. A contagem vai no cabeçalho {@value #CABECALHO},
+ * definido quando a resposta é enviada, e na distribuição {@code veiculos.requisicao.consultas}, por método
+ * e padrão de rota. Comandos executados depois do envio da resposta só entram na métrica.
+ */
+public class FiltroConsultas extends OncePerRequestFilter {
+
+    /** Comandos SQL executados pela requisição até o envio da resposta. */
+    public static final String CABECALHO = "X-Query-Count";
+
+    private static final String ROTA_DESCONHECIDA = "desconhecida";
+    private static final String METODO_DESCONHECIDO = "OUTRO";
+
+    private final MeterRegistry registry;
+    private final Map<String, Map<String, DistributionSummary>> porMetodoERota = new ConcurrentHashMap<>();
+
+    public FiltroConsultas(MeterRegistry registry) {
+        this.registry = registry;
+        for (HttpMethod metodo : HttpMethod.values()) {
+            porMetodoERota.put(metodo.name(), new ConcurrentHashMap<>());
+        }
+        porMetodoERota.put(METODO_DESCONHECIDO, new ConcurrentHashMap<>());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        ConsultasRequisicao.iniciar();
+        try {
+            HttpServletResponse comContagem = new OnCommittedResponseWrapper(response) {
+                @Override
+                protected void onResponseCommitted() {
+                    definirCabecalho(response);
+                }
+            };
+            filterChain.doFilter(request, comContagem);
+            if (!response.isCommitted()) {
+                definirCabecalho(response);
+            }
+        } finally {
+            distribuicao(request).record(ConsultasRequisicao.quantidade());
+            ConsultasRequisicao.limpar();
+        }
+    }
+
+    private static void definirCabecalho(HttpServletResponse response) {
+        response.setIntHeader(CABECALHO, ConsultasRequisicao.quantidade());
+    }
+
+    private DistributionSummary distribuicao(HttpServletRequest request) {
+        String metodo = porMetodoERota.containsKey(request.getMethod()) ? request.getMethod() : METODO_DESCONHECIDO;
+        Map<String, DistributionSummary> porRota = porMetodoERota.get(metodo);
+        String rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String padrao
+                ? padrao
+                : ROTA_DESCONHECIDA;
+        DistributionSummary distribuicao = porRota.get(rota);
+        if (distribuicao == null) {
+            distribuicao = porRota.computeIfAbsent(rota, r -> DistributionSummary
+                    .builder("veiculos.requisicao.consultas")
+                    .description("Comandos SQL executados por requisição")
+                    .baseUnit("comandos")
+                    .tag("metodo", metodo)
+                    .tag("rota", r)
+                    .register(registry));
+        }
+        return distribuicao;
+    }
+}
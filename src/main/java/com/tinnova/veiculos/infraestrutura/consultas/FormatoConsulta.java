@@ -0,0 +1,34 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import java.util.regex.Pattern;
+
+/**
+ * Formato de um comando SQL, que agrupa os comandos que diferem só nos valores: literais de texto e números
+ * viram {@code ?} e listas {@code IN} de qualquer tamanho viram {@code in (?...)}.
+ */
+public final class FormatoConsulta {
+
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern TEXTOS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMEROS = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern LISTAS_IN = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private FormatoConsulta() {
+    }
+
+    /**
+     * O comando com os espaços, quebras de linha e tabulações consecutivos reduzidos a um espaço.
+     */
+    public static String compactar(String sql) {
+        return ESPACOS.matcher(sql).replaceAll(" ").strip();
+    }
+
+    /**
+     * O formato do comando, já compactado.
+     */
+    public static String de(String sql) {
+        String semTextos = TEXTOS.matcher(compactar(sql)).replaceAll("?");
+        String semNumeros = NUMEROS.matcher(semTextos).replaceAll("?");
+        return LISTAS_IN.matcher(semNumeros).replaceAll("in (?...)");
+    }
+}
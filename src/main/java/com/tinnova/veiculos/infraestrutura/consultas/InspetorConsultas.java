@@ -0,0 +1,16 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta na {@link ConsultasRequisicao} cada comando SQL que o Hibernate prepara, sem alterá-lo.
+ * Um lote de INSERTs ou UPDATEs iguais conta como um comando.
+ */
+public class InspetorConsultas implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        ConsultasRequisicao.registrar();
+        return sql;
+    }
+}
@@ -0,0 +1,61 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ouvinte do proxy do DataSource que entrega ao {@link RegistroConsultasLentas} os comandos que demoraram ao menos
+ * o limiar, com os valores dos parâmetros. Abaixo do limiar só compara a duração. O registro é obtido na primeira
+ * consulta lenta, porque o proxy é criado junto com o DataSource, antes dos beans que dependem dele.
+ */
+public class OuvinteConsultasLentas implements QueryExecutionListener {
+
+    private final long limiarMs;
+    private final ObjectProvider<RegistroConsultasLentas> registro;
+
+    public OuvinteConsultasLentas(long limiarMs, ObjectProvider<RegistroConsultasLentas> registro) {
+        this.limiarMs = limiarMs;
+        this.registro = registro;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        // A duração é medida pelo proxy.
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        if (execucao.getElapsedTime() < limiarMs) {
+            return;
+        }
+        RegistroConsultasLentas consultasLentas = registro.getObject();
+        for (QueryInfo consulta : consultas) {
+            consultasLentas.registrar(consulta.getQuery(), parametros(consulta), execucao.getElapsedTime());
+        }
+    }
+
+    /**
+     * Valores dos parâmetros na ordem dos índices; em um lote, os do primeiro item.
+     */
+    private static List<Object> parametros(QueryInfo consulta) {
+        if (consulta.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        List<ParameterSetOperation> operacoes = new ArrayList<>(consulta.getParametersList().getFirst());
+        operacoes.sort(Comparator.comparingInt(operacao -> operacao.getArgs()[0] instanceof Integer indice
+                ? indice
+                : Integer.MAX_VALUE));
+        List<Object> valores = new ArrayList<>(operacoes.size());
+        for (ParameterSetOperation operacao : operacoes) {
+            valores.add(ParameterSetOperation.isSetNullParameterOperation(operacao) ? null : operacao.getArgs()[1]);
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,21 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Registro de consultas lentas ({@code app.consultas.lentas.*}).
+ *
+ * @param habilitado     se o DataSource é envolvido pelo proxy que mede os comandos
+ * @param limiarMs       duração a partir da qual o comando é registrado
+ * @param capacidade     consultas lentas recentes mantidas; as mais antigas são sobrescritas
+ * @param maximoFormatos formatos agrupados; os que passarem do limite são somados em um único grupo
+ * @param planos         se o {@code EXPLAIN} de cada formato é capturado
+ */
+@ConfigurationProperties("app.consultas.lentas")
+public record PropriedadesConsultasLentas(
+        boolean habilitado,
+        long limiarMs,
+        int capacidade,
+        int maximoFormatos,
+        boolean planos) {
+}
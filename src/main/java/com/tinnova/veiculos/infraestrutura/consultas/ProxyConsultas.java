@@ -0,0 +1,30 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import javax.sql.DataSource;
+
+/**
+ * Proxy único do DataSource, compartilhado por quem mede os comandos SQL: o primeiro ouvinte cria o proxy e
+ * os seguintes entram na mesma cadeia, para que cada comando passe por um só proxy.
+ */
+public final class ProxyConsultas {
+
+    private ProxyConsultas() {
+    }
+
+    /**
+     * O DataSource com o ouvinte; chamado na criação do DataSource, antes de qualquer comando.
+     */
+    public static DataSource comOuvinte(String nome, DataSource dataSource, QueryExecutionListener ouvinte) {
+        if (dataSource instanceof ProxyDataSource proxy) {
+            proxy.getProxyConfig().getQueryListener().addListener(ouvinte);
+            return proxy;
+        }
+        return ProxyDataSourceBuilder.create(nome, dataSource)
+                .listener(ouvinte)
+                .build();
+    }
+}
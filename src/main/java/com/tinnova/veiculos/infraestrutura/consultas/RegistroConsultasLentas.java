@@ -0,0 +1,217 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consultas lentas: as mais recentes em um buffer circular de tamanho fixo, sem trava, e o acumulado por
+ * {@link FormatoConsulta formato}, com quantidade, duração total e máxima. Na primeira execução lenta de cada
+ * formato, o {@code EXPLAIN} do comando, com os mesmos parâmetros, é capturado por uma thread própria e em outra
+ * conexão, sem atrasar a requisição; com a fila dessa thread cheia, o plano fica para a próxima execução lenta.
+ */
+@Slf4j
+public class RegistroConsultasLentas {
+
+    static final String DEMAIS_FORMATOS = "(demais formatos)";
+
+    private static final int TAMANHO_MAXIMO_PARAMETRO = 100;
+    private static final int CAPACIDADE_FILA_PLANOS = 16;
+    private static final Set<String> COMANDOS_COM_PLANO =
+            Set.of("select", "with", "insert", "update", "delete", "merge");
+
+    private final AtomicReferenceArray<ConsultaLenta> recentes;
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Map<String, Formato> formatos = new ConcurrentHashMap<>();
+    private final int maximoFormatos;
+    private final DataSource dataSource;
+    private final ThreadPoolExecutor planos;
+
+    /**
+     * @param dataSource DataSource sem o proxy de medição, para os planos; {@code null} para não capturá-los
+     */
+    public RegistroConsultasLentas(int capacidade, int maximoFormatos, DataSource dataSource) {
+        if (capacidade <= 0 || maximoFormatos <= 0) {
+            throw new IllegalArgumentException(
+                    "app.consultas.lentas.capacidade e app.consultas.lentas.maximo-formatos precisam ser positivos");
+        }
+        this.recentes = new AtomicReferenceArray<>(capacidade);
+        this.maximoFormatos = maximoFormatos;
+        this.dataSource = dataSource;
+        this.planos = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(CAPACIDADE_FILA_PLANOS),
+                Thread.ofPlatform().name("plano-consulta-", 1).daemon().factory());
+    }
+
+    /**
+     * Registra uma execução lenta do comando com os valores dos parâmetros, na ordem.
+     */
+    public void registrar(String sql, List<Object> parametros, long duracaoMs) {
+        String compactado = FormatoConsulta.compactar(sql);
+        String formato = FormatoConsulta.de(compactado);
+        List<String> exibidos = new ArrayList<>(parametros.size());
+        for (Object parametro : parametros) {
+            exibidos.add(exibir(parametro));
+        }
+        ConsultaLenta consulta = new ConsultaLenta(Instant.now(), duracaoMs, formato, compactado, List.copyOf(exibidos));
+        recentes.set((int) (sequencia.getAndIncrement() % recentes.length()), consulta);
+
+        Formato acumulado = formatos.get(formato);
+        if (acumulado == null) {
+            acumulado = formatos.size() < maximoFormatos
+                    ? formatos.computeIfAbsent(formato, Formato::new)
+                    : formatos.computeIfAbsent(DEMAIS_FORMATOS, Formato::new);
+        }
+        acumulado.registrar(duracaoMs);
+        if (!DEMAIS_FORMATOS.equals(acumulado.formato) && explicavel(compactado, parametros)
+                && acumulado.planoSolicitado.compareAndSet(false, true)) {
+            capturarPlano(acumulado, sql, new ArrayList<>(parametros));
+        }
+    }
+
+    public RelatorioConsultasLentas relatorio() {
+        long fim = sequencia.get();
+        List<ConsultaLenta> lista = new ArrayList<>();
+        for (long i = fim - 1; i >= 0 && i >= fim - recentes.length(); i--) {
+            ConsultaLenta consulta = recentes.get((int) (i % recentes.length()));
+            if (consulta != null) {
+                lista.add(consulta);
+            }
+        }
+        List<ResumoFormatoConsulta> resumos = formatos.values().stream()
+                .map(Formato::resumo)
+                .sorted(Comparator.comparingLong(ResumoFormatoConsulta::duracaoTotalMs).reversed())
+                .toList();
+        return new RelatorioConsultasLentas(List.copyOf(lista), resumos);
+    }
+
+    /**
+     * Descarta as consultas recentes e os acumulados; os planos são capturados de novo na próxima execução lenta.
+     */
+    public void limpar() {
+        for (int i = 0; i < recentes.length(); i++) {
+            recentes.set(i, null);
+        }
+        formatos.clear();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        planos.shutdownNow();
+    }
+
+    private void capturarPlano(Formato acumulado, String sql, List<Object> parametros) {
+        try {
+            planos.execute(() -> acumulado.plano = explicar(sql, parametros));
+        } catch (RejectedExecutionException e) {
+            acumulado.planoSolicitado.set(false);
+        }
+    }
+
+    private String explicar(String sql, List<Object> parametros) {
+        try (Connection conexao = dataSource.getConnection();
+                PreparedStatement explain = conexao.prepareStatement("EXPLAIN " + sql)) {
+            conexao.setReadOnly(true);
+            for (int i = 0; i < parametros.size(); i++) {
+                explain.setObject(i + 1, parametros.get(i));
+            }
+            StringJoiner plano = new StringJoiner("\n");
+            try (ResultSet linhas = explain.executeQuery()) {
+                while (linhas.next()) {
+                    plano.add(linhas.getString(1));
+                }
+            }
+            return plano.toString();
+        } catch (SQLException e) {
+            log.debug("EXPLAIN falhou para {}", sql, e);
+            return "Plano indisponível: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Se o comando, já compactado, aceita {@code EXPLAIN} e os parâmetros podem ser usados de novo.
+     */
+    private boolean explicavel(String sql, List<Object> parametros) {
+        if (dataSource == null) {
+            return false;
+        }
+        int espaco = sql.indexOf(' ');
+        String comando = (espaco < 0 ? sql : sql.substring(0, espaco)).toLowerCase(Locale.ROOT);
+        return COMANDOS_COM_PLANO.contains(comando) && parametros.stream().allMatch(p -> simples(p) == p);
+    }
+
+    /**
+     * O próprio valor, ou um marcador para fluxos e objetos grandes, que não podem ser lidos de novo.
+     */
+    private static Object simples(Object valor) {
+        return valor instanceof InputStream || valor instanceof Reader || valor instanceof Blob || valor instanceof Clob
+                ? "[fluxo]"
+                : valor;
+    }
+
+    private static String exibir(Object valor) {
+        Object simples = simples(valor);
+        if (simples == null) {
+            return "null";
+        }
+        String texto = simples instanceof byte[] bytes ? "[" + bytes.length + " bytes]" : simples.toString();
+        if (texto.length() > TAMANHO_MAXIMO_PARAMETRO) {
+            texto = texto.substring(0, TAMANHO_MAXIMO_PARAMETRO) + "...";
+        }
+        return simples instanceof CharSequence ? "'" + texto + "'" : texto;
+    }
+
+    private static final class Formato {
+
+        private final String formato;
+        private final LongAdder quantidade = new LongAdder();
+        private final LongAdder duracaoTotalMs = new LongAdder();
+        private final LongAccumulator duracaoMaximaMs = new LongAccumulator(Math::max, 0);
+        private final AtomicBoolean planoSolicitado = new AtomicBoolean();
+        private volatile String plano;
+
+        Formato(String formato) {
+            this.formato = formato;
+        }
+
+        void registrar(long duracaoMs) {
+            quantidade.increment();
+            duracaoTotalMs.add(duracaoMs);
+            duracaoMaximaMs.accumulate(duracaoMs);
+        }
+
+        ResumoFormatoConsulta resumo() {
+            long total = duracaoTotalMs.sum();
+            long vezes = quantidade.sum();
+            return new ResumoFormatoConsulta(formato, vezes, total, vezes == 0 ? 0 : total / vezes,
+                    duracaoMaximaMs.get(), plano);
+        }
+    }
+}
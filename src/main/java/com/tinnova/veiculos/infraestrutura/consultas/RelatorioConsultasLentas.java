@@ -0,0 +1,11 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import java.util.List;
+
+/**
+ * Consultas lentas recentes, da mais nova para a mais antiga, e os formatos em ordem decrescente de tempo total.
+ */
+public record RelatorioConsultasLentas(
+        List<ConsultaLenta> recentes,
+        List<ResumoFormatoConsulta> formatos) {
+}
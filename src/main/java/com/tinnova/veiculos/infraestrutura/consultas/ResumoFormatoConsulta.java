@@ -0,0 +1,20 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+/**
+ * Execuções lentas de um mesmo formato de comando desde o início da aplicação ou da última limpeza.
+ *
+ * @param formato         comando sem os valores
+ * @param quantidade      execuções lentas
+ * @param duracaoTotalMs  soma das durações
+ * @param duracaoMediaMs  duração média
+ * @param duracaoMaximaMs maior duração
+ * @param plano           saída do {@code EXPLAIN} da primeira execução lenta, ou {@code null} enquanto não capturada
+ */
+public record ResumoFormatoConsulta(
+        String formato,
+        long quantidade,
+        long duracaoTotalMs,
+        long duracaoMediaMs,
+        long duracaoMaximaMs,
+        String plano) {
+}
@@ -0,0 +1,236 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Árvore k-d de pontos no plano, com os nós em arrays paralelos e sem objetos por ponto.
+ * Inserções descem pela árvore alternando o eixo; a remoção é feita por quem usa a árvore,
+ * que invalida o nó no predicado da busca e reconstrói a árvore com {@link #balanceada} quando
+ * os nós inválidos passam a dominar. Não é thread-safe.
+ */
+public class ArvoreKd {
+
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private int[] ids = new int[CAPACIDADE_INICIAL];
+    private double[] xs = new double[CAPACIDADE_INICIAL];
+    private double[] ys = new double[CAPACIDADE_INICIAL];
+    private int[] esquerda = new int[CAPACIDADE_INICIAL];
+    private int[] direita = new int[CAPACIDADE_INICIAL];
+    private int quantidade;
+    private int invalidos;
+    private int raiz = -1;
+
+    /**
+     * Árvore balanceada com os pontos informados, dividindo cada subárvore pela mediana do eixo.
+     * Os arrays de coordenadas não são alterados.
+     */
+    public static ArvoreKd balanceada(int[] ids, double[] xs, double[] ys) {
+        ArvoreKd arvore = new ArvoreKd();
+        arvore.garantirCapacidade(ids.length);
+        int[] ordem = new int[ids.length];
+        Arrays.setAll(ordem, i -> i);
+        arvore.raiz = arvore.construir(ordem, 0, ordem.length, 0, ids, xs, ys);
+        return arvore;
+    }
+
+    /**
+     * Insere o ponto e retorna o nó criado para ele.
+     */
+    public int inserir(int id, double x, double y) {
+        int no = novoNo(id, x, y);
+        if (raiz < 0) {
+            raiz = no;
+            return no;
+        }
+        int atual = raiz;
+        for (int profundidade = 0; ; profundidade++) {
+            boolean aEsquerda = (profundidade % 2 == 0 ? x - xs[atual] : y - ys[atual]) < 0;
+            int proximo = aEsquerda ? esquerda[atual] : direita[atual];
+            if (proximo < 0) {
+                if (aEsquerda) {
+                    esquerda[atual] = no;
+                } else {
+                    direita[atual] = no;
+                }
+                return no;
+            }
+            atual = proximo;
+        }
+    }
+
+    /**
+     * Ids dos até {@code k} nós aceitos pelo predicado mais próximos do ponto, do mais próximo ao mais distante.
+     */
+    public int[] vizinhos(double x, double y, int k, IntPredicate valido) {
+        Vizinhos melhores = new Vizinhos(k);
+        if (k > 0) {
+            buscar(raiz, 0, x, y, melhores, valido);
+        }
+        return Arrays.copyOf(melhores.ids, melhores.tamanho);
+    }
+
+    public int id(int no) {
+        return ids[no];
+    }
+
+    /**
+     * Registra que um nó passou a ser inválido para o usuário da árvore.
+     */
+    public void invalidar() {
+        invalidos++;
+    }
+
+    /**
+     * Indica se os nós inválidos já são mais da metade e a árvore deve ser reconstruída só com os válidos.
+     */
+    public boolean isDesbalanceada() {
+        return quantidade > 64 && invalidos > quantidade / 2;
+    }
+
+    /**
+     * Quantidade de nós, incluindo os que o usuário da árvore já considera inválidos.
+     */
+    public int quantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Memória ocupada pelos arrays da árvore.
+     */
+    public long tamanhoEmBytes() {
+        return 32L * ids.length;
+    }
+
+    private void buscar(int no, int profundidade, double x, double y, Vizinhos melhores, IntPredicate valido) {
+        if (no < 0) {
+            return;
+        }
+        double dx = x - xs[no];
+        double dy = y - ys[no];
+        if (valido.test(no)) {
+            melhores.oferecer(ids[no], dx * dx + dy * dy);
+        }
+        double diferenca = profundidade % 2 == 0 ? dx : dy;
+        buscar(diferenca < 0 ? esquerda[no] : direita[no], profundidade + 1, x, y, melhores, valido);
+        if (diferenca * diferenca < melhores.pior()) {
+            buscar(diferenca < 0 ? direita[no] : esquerda[no], profundidade + 1, x, y, melhores, valido);
+        }
+    }
+
+    private int construir(int[] ordem, int inicio, int fim, int profundidade, int[] ids, double[] xs, double[] ys) {
+        if (inicio >= fim) {
+            return -1;
+        }
+        double[] eixo = profundidade % 2 == 0 ? xs : ys;
+        int meio = (inicio + fim) >>> 1;
+        selecionar(ordem, inicio, fim - 1, meio, eixo);
+        // Pontos iguais à mediana precisam ficar à direita, como na inserção: os menores vão para o início
+        // e a mediana para logo depois deles.
+        double mediana = eixo[ordem[meio]];
+        int corte = inicio;
+        for (int i = inicio; i < meio; i++) {
+            if (eixo[ordem[i]] < mediana) {
+                trocar(ordem, i, corte++);
+            }
+        }
+        trocar(ordem, corte, meio);
+        int ponto = ordem[corte];
+        int no = novoNo(ids[ponto], xs[ponto], ys[ponto]);
+        esquerda[no] = construir(ordem, inicio, corte, profundidade + 1, ids, xs, ys);
+        direita[no] = construir(ordem, corte + 1, fim, profundidade + 1, ids, xs, ys);
+        return no;
+    }
+
+    /**
+     * Seleção de Hoare: deixa em {@code alvo} o ponto de posição {@code alvo} na ordem do eixo,
+     * com os menores ou iguais antes e os maiores ou iguais depois.
+     */
+    private static void selecionar(int[] ordem, int inicio, int fim, int alvo, double[] eixo) {
+        while (inicio < fim) {
+            double pivo = eixo[ordem[(inicio + fim) >>> 1]];
+            int i = inicio;
+            int j = fim;
+            while (i <= j) {
+                while (eixo[ordem[i]] < pivo) {
+                    i++;
+                }
+                while (eixo[ordem[j]] > pivo) {
+                    j--;
+                }
+                if (i <= j) {
+                    trocar(ordem, i++, j--);
+                }
+            }
+            if (alvo <= j) {
+                fim = j;
+            } else if (alvo >= i) {
+                inicio = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void trocar(int[] ordem, int i, int j) {
+        int troca = ordem[i];
+        ordem[i] = ordem[j];
+        ordem[j] = troca;
+    }
+
+    private int novoNo(int id, double x, double y) {
+        garantirCapacidade(quantidade + 1);
+        ids[quantidade] = id;
+        xs[quantidade] = x;
+        ys[quantidade] = y;
+        esquerda[quantidade] = -1;
+        direita[quantidade] = -1;
+        return quantidade++;
+    }
+
+    private void garantirCapacidade(int capacidade) {
+        if (capacidade <= ids.length) {
+            return;
+        }
+        int nova = Math.max(capacidade, ids.length * 2);
+        ids = Arrays.copyOf(ids, nova);
+        xs = Arrays.copyOf(xs, nova);
+        ys = Arrays.copyOf(ys, nova);
+        esquerda = Arrays.copyOf(esquerda, nova);
+        direita = Arrays.copyOf(direita, nova);
+    }
+
+    /**
+     * Os {@code k} melhores candidatos encontrados, ordenados pela distância.
+     */
+    private static final class Vizinhos {
+
+        private final int[] ids;
+        private final double[] distancias;
+        private int tamanho;
+
+        Vizinhos(int k) {
+            this.ids = new int[k];
+            this.distancias = new double[k];
+        }
+
+        void oferecer(int id, double distancia) {
+            if (tamanho == ids.length && distancia >= distancias[tamanho - 1]) {
+                return;
+            }
+            int i = tamanho == ids.length ? tamanho - 1 : tamanho++;
+            while (i > 0 && distancias[i - 1] > distancia) {
+                ids[i] = ids[i - 1];
+                distancias[i] = distancias[i - 1];
+                i--;
+            }
+            ids[i] = id;
+            distancias[i] = distancia;
+        }
+
+        double pior() {
+            return tamanho < ids.length ? Double.POSITIVE_INFINITY : distancias[tamanho - 1];
+        }
+    }
+}
@@ -0,0 +1,576 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Conjunto de inteiros não negativos comprimido no formato do Roaring bitmap.
+ * Os valores são divididos em blocos de 65536 pelos 16 bits altos; cada bloco guarda os 16 bits baixos
+ * em um array ordenado enquanto tem até {@value #LIMITE_ARRAY} valores e em um mapa de bits de 8 KiB
+ * a partir daí. Interseções e contagens trabalham bloco a bloco, sem descomprimir.
+ * Não é thread-safe.
+ */
+public class BitmapCompactado {
+
+    static final int LIMITE_ARRAY = 4096;
+    private static final int PALAVRAS = 1024;
+
+    private char[] chaves = new char[0];
+    private Bloco[] blocos = new Bloco[0];
+    private int quantidadeBlocos;
+
+    /**
+     * Adiciona o valor ao conjunto.
+     */
+    public void adicionar(int valor) {
+        verificar(valor);
+        char chave = (char) (valor >>> 16);
+        int posicao = buscar(chave);
+        if (posicao < 0) {
+            posicao = -posicao - 1;
+            inserirBloco(posicao, chave, new BlocoArray());
+        }
+        blocos[posicao] = blocos[posicao].adicionar((char) valor);
+    }
+
+    /**
+     * Remove o valor do conjunto, se presente.
+     */
+    public void remover(int valor) {
+        verificar(valor);
+        int posicao = buscar((char) (valor >>> 16));
+        if (posicao < 0) {
+            return;
+        }
+        Bloco bloco = blocos[posicao].remover((char) valor);
+        if (bloco.cardinalidade() == 0) {
+            removerBloco(posicao);
+        } else {
+            blocos[posicao] = bloco;
+        }
+    }
+
+    /**
+     * Indica se o valor pertence ao conjunto.
+     */
+    public boolean contem(int valor) {
+        if (valor < 0) {
+            return false;
+        }
+        int posicao = buscar((char) (valor >>> 16));
+        return posicao >= 0 && blocos[posicao].contem((char) valor);
+    }
+
+    /**
+     * Quantidade de valores no conjunto.
+     */
+    public long cardinalidade() {
+        long total = 0;
+        for (int i = 0; i < quantidadeBlocos; i++) {
+            total += blocos[i].cardinalidade();
+        }
+        return total;
+    }
+
+    /**
+     * Indica se o conjunto não tem valores.
+     */
+    public boolean isVazio() {
+        return quantidadeBlocos == 0;
+    }
+
+    /**
+     * Interseção deste conjunto com outro, em um novo bitmap.
+     */
+    public BitmapCompactado e(BitmapCompactado outro) {
+        BitmapCompactado resultado = new BitmapCompactado();
+        int i = 0;
+        int j = 0;
+        while (i < quantidadeBlocos && j < outro.quantidadeBlocos) {
+            int comparacao = Character.compare(chaves[i], outro.chaves[j]);
+            if (comparacao < 0) {
+                i++;
+            } else if (comparacao > 0) {
+                j++;
+            } else {
+                Bloco bloco = blocos[i].e(outro.blocos[j]);
+                if (bloco.cardinalidade() > 0) {
+                    resultado.inserirBloco(resultado.quantidadeBlocos, chaves[i], bloco);
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * União deste conjunto com outro, em um novo bitmap.
+     */
+    public BitmapCompactado ou(BitmapCompactado outro) {
+        BitmapCompactado resultado = new BitmapCompactado();
+        int i = 0;
+        int j = 0;
+        while (i < quantidadeBlocos || j < outro.quantidadeBlocos) {
+            int comparacao = i == quantidadeBlocos ? 1
+                    : j == outro.quantidadeBlocos ? -1
+                    : Character.compare(chaves[i], outro.chaves[j]);
+            if (comparacao < 0) {
+                resultado.inserirBloco(resultado.quantidadeBlocos, chaves[i], blocos[i].copiar());
+                i++;
+            } else if (comparacao > 0) {
+                resultado.inserirBloco(resultado.quantidadeBlocos, outro.chaves[j], outro.blocos[j].copiar());
+                j++;
+            } else {
+                resultado.inserirBloco(resultado.quantidadeBlocos, chaves[i], blocos[i].ou(outro.blocos[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Tamanho da interseção com outro conjunto, sem materializá-la.
+     */
+    public long cardinalidadeE(BitmapCompactado outro) {
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < quantidadeBlocos && j < outro.quantidadeBlocos) {
+            int comparacao = Character.compare(chaves[i], outro.chaves[j]);
+            if (comparacao < 0) {
+                i++;
+            } else if (comparacao > 0) {
+                j++;
+            } else {
+                total += blocos[i].cardinalidadeE(outro.blocos[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Percorre os valores em ordem crescente.
+     */
+    public PrimitiveIterator.OfInt iterador() {
+        return iterador(0);
+    }
+
+    /**
+     * Percorre os valores em ordem crescente a partir da posição informada.
+     * Blocos inteiros antes da posição são pulados pela cardinalidade, sem percorrer seus valores.
+     */
+    public PrimitiveIterator.OfInt iterador(long saltar) {
+        int inicial = 0;
+        long restante = saltar;
+        while (inicial < quantidadeBlocos && restante >= blocos[inicial].cardinalidade()) {
+            restante -= blocos[inicial].cardinalidade();
+            inicial++;
+        }
+        PrimitiveIterator.OfInt iterador = iteradorDesde(inicial);
+        for (long i = 0; i < restante && iterador.hasNext(); i++) {
+            iterador.nextInt();
+        }
+        return iterador;
+    }
+
+    private PrimitiveIterator.OfInt iteradorDesde(int inicial) {
+        return new PrimitiveIterator.OfInt() {
+            private int bloco = inicial;
+            private PrimitiveIterator.OfInt atual = inicial < quantidadeBlocos ? blocos[inicial].iterador() : null;
+
+            @Override
+            public boolean hasNext() {
+                while (atual != null && !atual.hasNext()) {
+                    bloco++;
+                    atual = bloco < quantidadeBlocos ? blocos[bloco].iterador() : null;
+                }
+                return atual != null;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chaves[bloco] << 16 | atual.nextInt();
+            }
+        };
+    }
+
+    /**
+     * Memória aproximada ocupada pelo bitmap.
+     */
+    public long tamanhoEmBytes() {
+        long total = 16 + 2L * chaves.length + 4L * blocos.length;
+        for (int i = 0; i < quantidadeBlocos; i++) {
+            total += blocos[i].tamanhoEmBytes();
+        }
+        return total;
+    }
+
+    private static void verificar(int valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor negativo: " + valor);
+        }
+    }
+
+    private int buscar(char chave) {
+        return Arrays.binarySearch(chaves, 0, quantidadeBlocos, chave);
+    }
+
+    private void inserirBloco(int posicao, char chave, Bloco bloco) {
+        if (quantidadeBlocos == chaves.length) {
+            int capacidade = Math.max(4, quantidadeBlocos * 2);
+            chaves = Arrays.copyOf(chaves, capacidade);
+            blocos = Arrays.copyOf(blocos, capacidade);
+        }
+        System.arraycopy(chaves, posicao, chaves, posicao + 1, quantidadeBlocos - posicao);
+        System.arraycopy(blocos, posicao, blocos, posicao + 1, quantidadeBlocos - posicao);
+        chaves[posicao] = chave;
+        blocos[posicao] = bloco;
+        quantidadeBlocos++;
+    }
+
+    private void removerBloco(int posicao) {
+        System.arraycopy(chaves, posicao + 1, chaves, posicao, quantidadeBlocos - posicao - 1);
+        System.arraycopy(blocos, posicao + 1, blocos, posicao, quantidadeBlocos - posicao - 1);
+        quantidadeBlocos--;
+        blocos[quantidadeBlocos] = null;
+    }
+
+    /**
+     * Os 16 bits baixos dos valores de um bloco. As operações que mudam a cardinalidade
+     * retornam o bloco resultante, que pode trocar de representação.
+     */
+    private sealed interface Bloco permits BlocoArray, BlocoBits {
+
+        Bloco adicionar(char valor);
+
+        Bloco remover(char valor);
+
+        boolean contem(char valor);
+
+        int cardinalidade();
+
+        Bloco e(Bloco outro);
+
+        Bloco ou(Bloco outro);
+
+        int cardinalidadeE(Bloco outro);
+
+        Bloco copiar();
+
+        PrimitiveIterator.OfInt iterador();
+
+        long tamanhoEmBytes();
+    }
+
+    /**
+     * Bloco esparso: valores ordenados em um array.
+     */
+    private static final class BlocoArray implements Bloco {
+
+        private char[] valores;
+        private int cardinalidade;
+
+        BlocoArray() {
+            this(new char[4], 0);
+        }
+
+        BlocoArray(char[] valores, int cardinalidade) {
+            this.valores = valores;
+            this.cardinalidade = cardinalidade;
+        }
+
+        @Override
+        public Bloco adicionar(char valor) {
+            int posicao = Arrays.binarySearch(valores, 0, cardinalidade, valor);
+            if (posicao >= 0) {
+                return this;
+            }
+            if (cardinalidade == LIMITE_ARRAY) {
+                return paraBits().adicionar(valor);
+            }
+            posicao = -posicao - 1;
+            if (cardinalidade == valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(4, Math.min(LIMITE_ARRAY, cardinalidade * 2)));
+            }
+            System.arraycopy(valores, posicao, valores, posicao + 1, cardinalidade - posicao);
+            valores[posicao] = valor;
+            cardinalidade++;
+            return this;
+        }
+
+        @Override
+        public Bloco remover(char valor) {
+            int posicao = Arrays.binarySearch(valores, 0, cardinalidade, valor);
+            if (posicao >= 0) {
+                System.arraycopy(valores, posicao + 1, valores, posicao, cardinalidade - posicao - 1);
+                cardinalidade--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contem(char valor) {
+            return Arrays.binarySearch(valores, 0, cardinalidade, valor) >= 0;
+        }
+
+        @Override
+        public int cardinalidade() {
+            return cardinalidade;
+        }
+
+        @Override
+        public Bloco e(Bloco outro) {
+            char[] resultado = new char[Math.min(cardinalidade, outro.cardinalidade())];
+            int quantidade = 0;
+            if (outro instanceof BlocoArray array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinalidade && j < array.cardinalidade) {
+                    if (valores[i] < array.valores[j]) {
+                        i++;
+                    } else if (valores[i] > array.valores[j]) {
+                        j++;
+                    } else {
+                        resultado[quantidade++] = valores[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinalidade; i++) {
+                    if (outro.contem(valores[i])) {
+                        resultado[quantidade++] = valores[i];
+                    }
+                }
+            }
+            return new BlocoArray(resultado, quantidade);
+        }
+
+        @Override
+        public Bloco ou(Bloco outro) {
+            if (outro instanceof BlocoBits bits) {
+                return bits.ou(this);
+            }
+            BlocoArray array = (BlocoArray) outro;
+            char[] resultado = new char[cardinalidade + array.cardinalidade];
+            int quantidade = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinalidade || j < array.cardinalidade) {
+                if (j == array.cardinalidade || i < cardinalidade && valores[i] < array.valores[j]) {
+                    resultado[quantidade++] = valores[i++];
+                } else if (i == cardinalidade || valores[i] > array.valores[j]) {
+                    resultado[quantidade++] = array.valores[j++];
+                } else {
+                    resultado[quantidade++] = valores[i];
+                    i++;
+                    j++;
+                }
+            }
+            BlocoArray uniao = new BlocoArray(resultado, quantidade);
+            return quantidade > LIMITE_ARRAY ? uniao.paraBits() : uniao;
+        }
+
+        @Override
+        public int cardinalidadeE(Bloco outro) {
+            if (outro instanceof BlocoBits) {
+                int total = 0;
+                for (int i = 0; i < cardinalidade; i++) {
+                    if (outro.contem(valores[i])) {
+                        total++;
+                    }
+                }
+                return total;
+            }
+            return outro.cardinalidade() == 0 ? 0 : e(outro).cardinalidade();
+        }
+
+        @Override
+        public Bloco copiar() {
+            return new BlocoArray(Arrays.copyOf(valores, Math.max(4, cardinalidade)), cardinalidade);
+        }
+
+        @Override
+        public PrimitiveIterator.OfInt iterador() {
+            return new PrimitiveIterator.OfInt() {
+                private int posicao;
+
+                @Override
+                public boolean hasNext() {
+                    return posicao < cardinalidade;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return valores[posicao++];
+                }
+            };
+        }
+
+        @Override
+        public long tamanhoEmBytes() {
+            return 32 + 2L * valores.length;
+        }
+
+        private BlocoBits paraBits() {
+            BlocoBits bits = new BlocoBits();
+            for (int i = 0; i < cardinalidade; i++) {
+                bits.adicionar(valores[i]);
+            }
+            return bits;
+        }
+    }
+
+    /**
+     * Bloco denso: um bit por valor possível.
+     */
+    private static final class BlocoBits implements Bloco {
+
+        private final long[] palavras;
+        private int cardinalidade;
+
+        BlocoBits() {
+            this(new long[PALAVRAS], 0);
+        }
+
+        private BlocoBits(long[] palavras, int cardinalidade) {
+            this.palavras = palavras;
+            this.cardinalidade = cardinalidade;
+        }
+
+        @Override
+        public Bloco adicionar(char valor) {
+            long antes = palavras[valor >>> 6];
+            palavras[valor >>> 6] = antes | 1L << valor;
+            if (palavras[valor >>> 6] != antes) {
+                cardinalidade++;
+            }
+            return this;
+        }
+
+        @Override
+        public Bloco remover(char valor) {
+            long antes = palavras[valor >>> 6];
+            palavras[valor >>> 6] = antes & ~(1L << valor);
+            if (palavras[valor >>> 6] != antes) {
+                cardinalidade--;
+            }
+            return cardinalidade <= LIMITE_ARRAY ? paraArray() : this;
+        }
+
+        @Override
+        public boolean contem(char valor) {
+            return (palavras[valor >>> 6] & 1L << valor) != 0;
+        }
+
+        @Override
+        public int cardinalidade() {
+            return cardinalidade;
+        }
+
+        @Override
+        public Bloco e(Bloco outro) {
+            if (outro instanceof BlocoArray) {
+                return outro.e(this);
+            }
+            BlocoBits bits = (BlocoBits) outro;
+            long[] resultado = new long[PALAVRAS];
+            int quantidade = 0;
+            for (int i = 0; i < PALAVRAS; i++) {
+                resultado[i] = palavras[i] & bits.palavras[i];
+                quantidade += Long.bitCount(resultado[i]);
+            }
+            BlocoBits intersecao = new BlocoBits(resultado, quantidade);
+            return quantidade <= LIMITE_ARRAY ? intersecao.paraArray() : intersecao;
+        }
+
+        @Override
+        public Bloco ou(Bloco outro) {
+            BlocoBits uniao = new BlocoBits(palavras.clone(), cardinalidade);
+            if (outro instanceof BlocoArray array) {
+                for (int i = 0; i < array.cardinalidade; i++) {
+                    uniao.adicionar(array.valores[i]);
+                }
+                return uniao;
+            }
+            BlocoBits bits = (BlocoBits) outro;
+            int quantidade = 0;
+            for (int i = 0; i < PALAVRAS; i++) {
+                uniao.palavras[i] |= bits.palavras[i];
+                quantidade += Long.bitCount(uniao.palavras[i]);
+            }
+            uniao.cardinalidade = quantidade;
+            return uniao;
+        }
+
+        @Override
+        public int cardinalidadeE(Bloco outro) {
+            if (outro instanceof BlocoArray) {
+                return outro.cardinalidadeE(this);
+            }
+            BlocoBits bits = (BlocoBits) outro;
+            int total = 0;
+            for (int i = 0; i < PALAVRAS; i++) {
+                total += Long.bitCount(palavras[i] & bits.palavras[i]);
+            }
+            return total;
+        }
+
+        @Override
+        public Bloco copiar() {
+            return new BlocoBits(palavras.clone(), cardinalidade);
+        }
+
+        @Override
+        public PrimitiveIterator.OfInt iterador() {
+            return new PrimitiveIterator.OfInt() {
+                private int palavra = -1;
+                private long restante;
+
+                @Override
+                public boolean hasNext() {
+                    while (restante == 0 && palavra < PALAVRAS - 1) {
+                        restante = palavras[++palavra];
+                    }
+                    return restante != 0;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int valor = palavra << 6 | Long.numberOfTrailingZeros(restante);
+                    restante &= restante - 1;
+                    return valor;
+                }
+            };
+        }
+
+        @Override
+        public long tamanhoEmBytes() {
+            return 32 + 8L * PALAVRAS;
+        }
+
+        private BlocoArray paraArray() {
+            char[] valores = new char[Math.max(4, cardinalidade)];
+            int quantidade = 0;
+            PrimitiveIterator.OfInt iterador = iterador();
+            while (iterador.hasNext()) {
+                valores[quantidade++] = (char) iterador.nextInt();
+            }
+            return new BlocoArray(valores, quantidade);
+        }
+    }
+}
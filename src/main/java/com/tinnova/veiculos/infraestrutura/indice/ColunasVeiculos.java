@@ -0,0 +1,263 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Colunas dos veículos ativos: ano e preço em centavos em {@code int[]} e {@code long[]} indexados
+ * pelo id, marca, modelo e cor codificados por dicionário, e um {@link BitmapCompactado} com os ids de cada
+ * valor de marca, ano e cor. Filtros, contagens e facetas da listagem são respondidos por interseção de
+ * bitmaps; as demais partes do índice leem aqui os valores de cada veículo.
+ */
+final class ColunasVeiculos extends ParteIndice {
+
+    private int[] anos = new int[0];
+    private long[] precosCentavos = new long[0];
+    private int[] codigosMarca = new int[0];
+    private int[] codigosModelo = new int[0];
+    private int[] codigosCor = new int[0];
+    private final Dicionario marcas = new Dicionario();
+    private final Dicionario modelos = new Dicionario();
+    private final Dicionario cores = new Dicionario();
+    private final SortedMap<Integer, BitmapCompactado> porAno = new TreeMap<>();
+    private final BitmapCompactado ativos = new BitmapCompactado();
+
+    /**
+     * Ids, em ordem crescente, dos veículos que atendem aos critérios, a partir da posição {@code deslocamento},
+     * e o total de veículos selecionados.
+     */
+    PaginaIds buscar(String marca, Integer ano, String cor, BigDecimal minPreco, BigDecimal maxPreco,
+            long deslocamento, int limite) {
+        return ler(() -> {
+            BitmapCompactado selecionados = selecionar(marca, ano, cor, minPreco, maxPreco);
+            List<Long> ids = new ArrayList<>(limite);
+            PrimitiveIterator.OfInt iterador = selecionados.iterador(deslocamento);
+            while (ids.size() < limite && iterador.hasNext()) {
+                ids.add((long) iterador.nextInt());
+            }
+            return new PaginaIds(ids, selecionados.cardinalidade());
+        });
+    }
+
+    SortedMap<String, Long> contarMarcas(Integer ano, String cor, BigDecimal minPreco, BigDecimal maxPreco) {
+        return ler(() -> marcas.contar(selecionar(null, ano, cor, minPreco, maxPreco)));
+    }
+
+    SortedMap<Integer, Long> contarAnos(String marca, String cor, BigDecimal minPreco, BigDecimal maxPreco) {
+        return ler(() -> {
+            BitmapCompactado selecionados = selecionar(marca, null, cor, minPreco, maxPreco);
+            SortedMap<Integer, Long> contagem = new TreeMap<>();
+            porAno.forEach((ano, ids) -> {
+                long quantidade = ids.cardinalidadeE(selecionados);
+                if (quantidade > 0) {
+                    contagem.put(ano, quantidade);
+                }
+            });
+            return contagem;
+        });
+    }
+
+    SortedMap<String, Long> contarCores(String marca, Integer ano, BigDecimal minPreco, BigDecimal maxPreco) {
+        return ler(() -> cores.contar(selecionar(marca, ano, null, minPreco, maxPreco)));
+    }
+
+    long quantidade() {
+        return ler(ativos::cardinalidade);
+    }
+
+    int quantidadeMarcas() {
+        return ler(marcas.valores::size);
+    }
+
+    int quantidadeCores() {
+        return ler(cores.valores::size);
+    }
+
+    /**
+     * Indica se o veículo está ativo. Este e os acessores seguintes, usados pelas demais partes para ler os
+     * valores de um veículo ativo, são chamados sob a trava de leitura, em {@link #ler} ou {@link #sobLeitura}.
+     */
+    boolean contem(int id) {
+        return ativos.contem(id);
+    }
+
+    int ano(int id) {
+        return anos[id];
+    }
+
+    long precoCentavos(int id) {
+        return precosCentavos[id];
+    }
+
+    int codigoMarca(int id) {
+        return codigosMarca[id];
+    }
+
+    String marca(int id) {
+        return marcas.valores.get(codigosMarca[id]);
+    }
+
+    String modelo(int id) {
+        return modelos.valores.get(codigosModelo[id]);
+    }
+
+    @Override
+    void adicionar(int id, LinhaVeiculo linha) {
+        garantirCapacidade(id);
+        anos[id] = linha.ano();
+        precosCentavos[id] = centavos(linha.precoUsd(), RoundingMode.HALF_UP);
+        codigosMarca[id] = marcas.adicionar(linha.marca(), id);
+        codigosModelo[id] = modelos.adicionar(linha.modelo(), id);
+        codigosCor[id] = cores.adicionar(linha.cor(), id);
+        porAno.computeIfAbsent(linha.ano(), ano -> new BitmapCompactado()).adicionar(id);
+        ativos.adicionar(id);
+    }
+
+    @Override
+    void retirar(int id) {
+        if (!ativos.contem(id)) {
+            return;
+        }
+        marcas.remover(codigosMarca[id], id);
+        modelos.remover(codigosModelo[id], id);
+        cores.remover(codigosCor[id], id);
+        BitmapCompactado ano = porAno.get(anos[id]);
+        ano.remover(id);
+        if (ano.isVazio()) {
+            porAno.remove(anos[id]);
+        }
+        ativos.remover(id);
+    }
+
+    @Override
+    long tamanho() {
+        long total = 4L * anos.length + 8L * precosCentavos.length + 4L * codigosMarca.length
+                + 4L * codigosModelo.length + 4L * codigosCor.length + ativos.tamanhoEmBytes()
+                + marcas.tamanhoEmBytes() + modelos.tamanhoEmBytes() + cores.tamanhoEmBytes();
+        for (BitmapCompactado ids : porAno.values()) {
+            total += ids.tamanhoEmBytes();
+        }
+        return total;
+    }
+
+    static long centavos(BigDecimal preco, RoundingMode arredondamento) {
+        return preco.movePointRight(2).setScale(0, arredondamento).longValue();
+    }
+
+    /**
+     * Veículos ativos que atendem aos critérios. Sem critérios, retorna o próprio bitmap de ativos,
+     * que não deve ser alterado.
+     */
+    private BitmapCompactado selecionar(String marca, Integer ano, String cor, BigDecimal minPreco, BigDecimal maxPreco) {
+        BitmapCompactado selecionados = ativos;
+        if (marca != null && !marca.isBlank()) {
+            selecionados = selecionados.e(marcas.selecionar(marca));
+        }
+        if (ano != null) {
+            selecionados = selecionados.e(porAno.getOrDefault(ano, new BitmapCompactado()));
+        }
+        if (cor != null && !cor.isBlank()) {
+            selecionados = selecionados.e(cores.selecionar(cor));
+        }
+        if (minPreco != null || maxPreco != null) {
+            selecionados = filtrarPreco(selecionados,
+                    minPreco == null ? Long.MIN_VALUE : centavos(minPreco, RoundingMode.CEILING),
+                    maxPreco == null ? Long.MAX_VALUE : centavos(maxPreco, RoundingMode.FLOOR));
+        }
+        return selecionados;
+    }
+
+    /**
+     * Varre a coluna de preços apenas nas posições já selecionadas.
+     */
+    private BitmapCompactado filtrarPreco(BitmapCompactado selecionados, long min, long max) {
+        BitmapCompactado filtrados = new BitmapCompactado();
+        PrimitiveIterator.OfInt iterador = selecionados.iterador();
+        while (iterador.hasNext()) {
+            int id = iterador.nextInt();
+            if (precosCentavos[id] >= min && precosCentavos[id] <= max) {
+                filtrados.adicionar(id);
+            }
+        }
+        return filtrados;
+    }
+
+    private void garantirCapacidade(int id) {
+        if (id < anos.length) {
+            return;
+        }
+        int capacidade = capacidade(id, anos.length);
+        anos = Arrays.copyOf(anos, capacidade);
+        precosCentavos = Arrays.copyOf(precosCentavos, capacidade);
+        codigosMarca = Arrays.copyOf(codigosMarca, capacidade);
+        codigosModelo = Arrays.copyOf(codigosModelo, capacidade);
+        codigosCor = Arrays.copyOf(codigosCor, capacidade);
+    }
+
+    /**
+     * Codificação por dicionário de uma coluna de texto, com o bitmap dos ids de cada valor.
+     * Os códigos não são reaproveitados; valores sem veículos somem na próxima reconstrução.
+     */
+    private static final class Dicionario {
+
+        private final List<String> valores = new ArrayList<>();
+        private final Map<String, Integer> codigos = new HashMap<>();
+        private final List<BitmapCompactado> ids = new ArrayList<>();
+
+        int adicionar(String valor, int id) {
+            int codigo = codigos.computeIfAbsent(valor, novo -> {
+                valores.add(novo);
+                ids.add(new BitmapCompactado());
+                return valores.size() - 1;
+            });
+            ids.get(codigo).adicionar(id);
+            return codigo;
+        }
+
+        void remover(int codigo, int id) {
+            ids.get(codigo).remover(id);
+        }
+
+        /**
+         * Ids com o valor informado, sem diferenciar maiúsculas, como a especificação da listagem.
+         */
+        BitmapCompactado selecionar(String valor) {
+            BitmapCompactado selecionados = new BitmapCompactado();
+            for (int codigo = 0; codigo < valores.size(); codigo++) {
+                if (valores.get(codigo).equalsIgnoreCase(valor)) {
+                    selecionados = selecionados.ou(ids.get(codigo));
+                }
+            }
+            return selecionados;
+        }
+
+        SortedMap<String, Long> contar(BitmapCompactado selecionados) {
+            SortedMap<String, Long> contagem = new TreeMap<>();
+            for (int codigo = 0; codigo < valores.size(); codigo++) {
+                long quantidade = ids.get(codigo).cardinalidadeE(selecionados);
+                if (quantidade > 0) {
+                    contagem.put(valores.get(codigo), quantidade);
+                }
+            }
+            return contagem;
+        }
+
+        long tamanhoEmBytes() {
+            long total = 0;
+            for (int codigo = 0; codigo < valores.size(); codigo++) {
+                total += 48 + valores.get(codigo).length() + ids.get(codigo).tamanhoEmBytes();
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de strings, seguro para leituras e inserções concorrentes sem locks.
+ * Respostas negativas são definitivas; positivas podem ser falsos positivos
+ * na taxa configurada enquanto a quantidade de elementos não exceder a capacidade.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    /**
+     * @param capacidade        quantidade de elementos esperada
+     * @param taxaFalsoPositivo taxa de falsos positivos desejada na capacidade, entre 0 e 1
+     */
+    public FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        if (capacidade <= 0 || taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva e taxa entre 0 e 1");
+        }
+        double ln2 = Math.log(2);
+        long bitsNecessarios = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+        int palavras = Math.toIntExact((bitsNecessarios + 63) / 64);
+
+        this.bits = new AtomicLongArray(palavras);
+        this.quantidadeBits = (long) palavras * 64;
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / capacidade * ln2));
+    }
+
+    /**
+     * Adiciona o valor ao filtro.
+     */
+    public void adicionar(String valor) {
+        long hash = hash(valor);
+        long h1 = hash;
+        long h2 = misturar(hash) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = bits.get(palavra);
+            while ((atual & mascara) == 0 && !bits.weakCompareAndSetVolatile(palavra, atual, atual | mascara)) {
+                atual = bits.get(palavra);
+            }
+        }
+    }
+
+    /**
+     * Retorna {@code false} somente se o valor certamente nunca foi adicionado.
+     */
+    public boolean podeConter(String valor) {
+        long hash = hash(valor);
+        long h1 = hash;
+        long h2 = misturar(hash) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quantidade de bits do filtro.
+     */
+    public long getQuantidadeBits() {
+        return quantidadeBits;
+    }
+
+    /**
+     * Quantidade de funções de hash aplicadas por elemento.
+     */
+    public int getQuantidadeHashes() {
+        return quantidadeHashes;
+    }
+
+    /**
+     * Memória ocupada pelo vetor de bits, em bytes.
+     */
+    public long tamanhoEmBytes() {
+        return quantidadeBits / 8;
+    }
+
+    private static long hash(String valor) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < valor.length(); i++) {
+            h = (h ^ valor.charAt(i)) * 0x100000001B3L;
+        }
+        return misturar(h);
+    }
+
+    /**
+     * Finalizador do SplitMix64: espalha os bits para derivar hashes independentes.
+     */
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
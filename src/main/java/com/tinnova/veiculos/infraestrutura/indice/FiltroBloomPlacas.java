@@ -0,0 +1,99 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom das placas cadastradas neste nó.
+ * Construído na inicialização com uma leitura em streaming de {@code veiculo.placa}
+ * e atualizado a cada escrita, permite descartar sem consulta ao banco as placas
+ * que certamente ainda não existem.
+ */
+@Slf4j
+@Component
+public class FiltroBloomPlacas {
+
+    private final RepositorioVeiculo repositorio;
+    private final TransactionTemplate transacaoLeitura;
+    private final FiltroBloom filtro;
+    private final LongAdder elementos = new LongAdder();
+    private final Counter consultasEvitadas;
+    private final Counter consultasNecessarias;
+
+    private volatile boolean pronto;
+
+    public FiltroBloomPlacas(
+            RepositorioVeiculo repositorio,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${app.indice.placas.bloom.capacidade}") long capacidade,
+            @Value("${app.indice.placas.bloom.taxa-falso-positivo}") double taxaFalsoPositivo) {
+        this.repositorio = repositorio;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.filtro = new FiltroBloom(capacidade, taxaFalsoPositivo);
+
+        this.consultasEvitadas = Counter.builder("veiculos.placas.bloom.consultas")
+                .description("Verificações de placa resolvidas pelo filtro de Bloom")
+                .tag("resultado", "evitada")
+                .register(registry);
+        this.consultasNecessarias = Counter.builder("veiculos.placas.bloom.consultas")
+                .description("Verificações de placa resolvidas pelo filtro de Bloom")
+                .tag("resultado", "banco")
+                .register(registry);
+        Gauge.builder("veiculos.placas.bloom.elementos", elementos, LongAdder::sum)
+                .description("Placas inseridas no filtro de Bloom")
+                .register(registry);
+        Gauge.builder("veiculos.placas.bloom.bytes", filtro, FiltroBloom::tamanhoEmBytes)
+                .description("Memória ocupada pelo filtro de Bloom")
+                .register(registry);
+    }
+
+    /**
+     * Retorna {@code false} somente se a placa certamente não está cadastrada.
+     * Enquanto o filtro não foi construído, sempre retorna {@code true}.
+     */
+    public boolean podeExistir(String placa) {
+        if (pronto && !filtro.podeConter(placa)) {
+            consultasEvitadas.increment();
+            return false;
+        }
+        consultasNecessarias.increment();
+        return true;
+    }
+
+    /**
+     * Registra uma placa que está sendo gravada. Deve ser chamado antes da escrita,
+     * para que nenhuma placa gravada fique fora do filtro.
+     */
+    public void adicionar(String placa) {
+        filtro.adicionar(placa);
+        elementos.increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void construir() {
+        long inicio = System.currentTimeMillis();
+        transacaoLeitura.executeWithoutResult(status -> {
+            try (Stream<String> placas = repositorio.streamPlacas()) {
+                placas.forEach(this::adicionar);
+            }
+        });
+        pronto = true;
+        log.info("Filtro de Bloom de placas construído: {} placas, {} bits, {} hashes em {} ms",
+                elementos.sum(), filtro.getQuantidadeBits(), filtro.getQuantidadeHashes(),
+                System.currentTimeMillis() - inicio);
+    }
+}
@@ -0,0 +1,130 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo;
+import com.tinnova.veiculos.infraestrutura.indice.SugestoesAutocompletar.Sugestao;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marcas e modelos distintos dos veículos ativos em uma {@link TriePrefixos} por coluna, limitada a um número
+ * de termos, com a quantidade de veículos de cada termo. Ao retirar um veículo, os termos dele são lidos
+ * das {@link ColunasVeiculos}.
+ */
+@Slf4j
+final class IndiceAutocompletar extends ParteIndice {
+
+    private final ColunasVeiculos colunas;
+    private final Termos marcas;
+    private final Termos modelos;
+
+    IndiceAutocompletar(ColunasVeiculos colunas, int maxTermos) {
+        this.colunas = colunas;
+        this.marcas = new Termos(maxTermos);
+        this.modelos = new Termos(maxTermos);
+    }
+
+    /**
+     * Até {@code limite} marcas e até {@code limite} modelos com veículos cujo início, ou o início de alguma
+     * palavra, é o prefixo já normalizado por {@link TriePrefixos#normalizar}.
+     */
+    SugestoesAutocompletar sugerir(String prefixo, int limite) {
+        return ler(() -> new SugestoesAutocompletar(marcas.sugerir(prefixo, limite), modelos.sugerir(prefixo, limite)));
+    }
+
+    @Override
+    void adicionar(int id, LinhaVeiculo linha) {
+        marcas.adicionar(linha.marca());
+        modelos.adicionar(linha.modelo());
+    }
+
+    /**
+     * Retira o veículo, que as colunas ainda contêm com os termos contados.
+     */
+    @Override
+    void retirar(int id) {
+        colunas.sobLeitura(() -> {
+            if (colunas.contem(id)) {
+                marcas.remover(colunas.marca(id));
+                modelos.remover(colunas.modelo(id));
+            }
+        });
+    }
+
+    @Override
+    long tamanho() {
+        return marcas.tamanhoEmBytes() + modelos.tamanhoEmBytes();
+    }
+
+    /**
+     * Termos distintos de uma coluna com a quantidade de veículos de cada um; só os primeiros
+     * {@code maxTermos} entram na trie. Os códigos não são reaproveitados; termos sem veículos somem
+     * na próxima reconstrução.
+     */
+    private static final class Termos {
+
+        private final List<String> valores = new ArrayList<>();
+        private final Map<String, Integer> codigos = new HashMap<>();
+        private int[] quantidades = new int[16];
+        private final TriePrefixos prefixos = new TriePrefixos();
+        private final int maxTermos;
+
+        Termos(int maxTermos) {
+            this.maxTermos = maxTermos;
+        }
+
+        void adicionar(String valor) {
+            int codigo = codigos.computeIfAbsent(valor, novo -> {
+                valores.add(novo);
+                int novoCodigo = valores.size() - 1;
+                if (novoCodigo == quantidades.length) {
+                    quantidades = Arrays.copyOf(quantidades, quantidades.length * 2);
+                }
+                if (novoCodigo < maxTermos) {
+                    TriePrefixos.chaves(novo).forEach(chave -> prefixos.inserir(chave, novoCodigo));
+                } else if (novoCodigo == maxTermos && maxTermos > 0) {
+                    log.warn("Limite de {} termos do autocompletar atingido; novos valores não serão sugeridos", maxTermos);
+                }
+                return novoCodigo;
+            });
+            quantidades[codigo]++;
+        }
+
+        void remover(String valor) {
+            quantidades[codigos.get(valor)]--;
+        }
+
+        /**
+         * Termos com veículos cujas chaves começam pelo prefixo, em ordem alfabética.
+         */
+        List<Sugestao> sugerir(String prefixo, int limite) {
+            List<Sugestao> sugestoes = new ArrayList<>(limite);
+            int[] vistos = new int[limite];
+            prefixos.percorrer(prefixo, codigo -> {
+                for (int i = 0; i < sugestoes.size(); i++) {
+                    if (vistos[i] == codigo) {
+                        return true;
+                    }
+                }
+                if (quantidades[codigo] > 0) {
+                    vistos[sugestoes.size()] = codigo;
+                    sugestoes.add(new Sugestao(valores.get(codigo), quantidades[codigo]));
+                }
+                return sugestoes.size() < limite;
+            });
+            return sugestoes;
+        }
+
+        long tamanhoEmBytes() {
+            long total = 4L * quantidades.length;
+            for (String valor : valores) {
+                total += 48 + valor.length();
+            }
+            return total + prefixos.tamanhoEmBytes();
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.dominio.veiculo.IntervaloIds;
+import com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.dominio.veiculo.VeiculoAlteradoEvento;
+import com.tinnova.veiculos.dominio.veiculo.VersaoVeiculos;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória dos veículos ativos deste nó, dividido em partes com travas próprias: as
+ * {@link ColunasVeiculos} dos filtros, contagens e facetas da listagem, o {@link IndicePlacas} da busca
+ * por placa, o {@link IndiceAutocompletar} de marcas e modelos e o {@link IndiceSimilares} por ano e preço.
+ * Todas são construídas na inicialização pela mesma leitura em streaming e atualizadas pelo mesmo ouvinte,
+ * após o commit de cada escrita; uma verificação periódica as reconstrói quando o banco mudou desde a
+ * construção, o que recupera escritas de outros nós e as feitas direto no banco. Os ids são as posições
+ * das colunas, que ocupam memória proporcional ao maior id: cada construção aceita ids até um múltiplo da
+ * quantidade de veículos ativos e, com um veículo ativo de id além desse limite, o índice fica desligado
+ * e as consultas vão ao banco.
+ */
+@Slf4j
+@Component
+public class IndiceColunarVeiculos {
+
+    /**
+     * Resposta de {@link #idPorPlaca} quando certamente não há veículo ativo com a placa.
+     */
+    public static final long PLACA_AUSENTE = MapaLongos.AUSENTE;
+
+    /**
+     * Resposta de {@link #idPorPlaca} quando o índice não pode resolver a placa e o banco deve ser consultado.
+     */
+    public static final long PLACA_INDETERMINADA = -1;
+
+    /**
+     * Ids sempre aceitos, qualquer que seja a quantidade de veículos ativos.
+     */
+    static final long IDS_MINIMOS = 1 << 16;
+
+    /**
+     * Maior id que cabe nas colunas, que são arrays indexados pelo id.
+     */
+    static final long MAIOR_ID_POSSIVEL = Integer.MAX_VALUE - 8;
+
+    private final RepositorioVeiculo repositorio;
+    private final TransactionTemplate transacaoLeitura;
+    private final ReentrantLock escrita = new ReentrantLock();
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+    private final int maxTermosAutocompletar;
+    private final int maxIdsPorVeiculo;
+    private Map<Long, VeiculoAlteradoEvento> alteradosDuranteReconstrucao;
+
+    private volatile Partes atual;
+    private volatile boolean pronto;
+    private volatile VersaoVeiculos versaoConstruida;
+
+    public IndiceColunarVeiculos(
+            RepositorioVeiculo repositorio,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${app.indice.autocompletar.max-termos}") int maxTermosAutocompletar,
+            @Value("${app.indice.colunar.max-ids-por-veiculo}") int maxIdsPorVeiculo) {
+        this.repositorio = repositorio;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.maxTermosAutocompletar = maxTermosAutocompletar;
+        this.maxIdsPorVeiculo = maxIdsPorVeiculo;
+        this.atual = new Partes(maxTermosAutocompletar, 0);
+
+        Gauge.builder("veiculos.indice.colunar.veiculos", this, indice -> indice.atual.colunas().quantidade())
+                .description("Veículos ativos no índice colunar")
+                .register(registry);
+        Gauge.builder("veiculos.indice.colunar.bytes", this, indice -> indice.atual.tamanhoEmBytes())
+                .description("Memória ocupada pelo índice colunar")
+                .register(registry);
+    }
+
+    /**
+     * Indica se o índice já foi construído. Até lá, as consultas devem ir ao banco.
+     */
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Ids, em ordem crescente, dos veículos ativos que atendem aos critérios informados,
+     * a partir da posição {@code deslocamento}, e o total de veículos selecionados.
+     * Marca e cor são comparadas sem diferenciar maiúsculas; critérios nulos ou em branco são ignorados.
+     */
+    public PaginaIds buscar(String marca, Integer ano, String cor, BigDecimal minPreco, BigDecimal maxPreco,
+            long deslocamento, int limite) {
+        return atual.colunas().buscar(marca, ano, cor, minPreco, maxPreco, deslocamento, limite);
+    }
+
+    /**
+     * Quantidade de veículos ativos por marca que atendem aos demais critérios.
+     */
+    public SortedMap<String, Long> contarMarcas(Integer ano, String cor, BigDecimal minPreco, BigDecimal maxPreco) {
+        return atual.colunas().contarMarcas(ano, cor, minPreco, maxPreco);
+    }
+
+    /**
+     * Quantidade de veículos ativos por ano que atendem aos demais critérios.
+     */
+    public SortedMap<Integer, Long> contarAnos(String marca, String cor, BigDecimal minPreco, BigDecimal maxPreco) {
+        return atual.colunas().contarAnos(marca, cor, minPreco, maxPreco);
+    }
+
+    /**
+     * Quantidade de veículos ativos por cor que atendem aos demais critérios.
+     */
+    public SortedMap<String, Long> contarCores(String marca, Integer ano, BigDecimal minPreco, BigDecimal maxPreco) {
+        return atual.colunas().contarCores(marca, ano, minPreco, maxPreco);
+    }
+
+    /**
+     * Até {@code limite} marcas e até {@code limite} modelos de veículos ativos cujo início, ou o início
+     * de alguma palavra, é o prefixo informado, sem diferenciar maiúsculas nem acentos.
+     */
+    public SugestoesAutocompletar sugerir(String prefixo, int limite) {
+        String chave = TriePrefixos.normalizar(prefixo);
+        if (chave.isEmpty() || limite <= 0) {
+            return new SugestoesAutocompletar(List.of(), List.of());
+        }
+        return atual.autocompletar().sugerir(chave, limite);
+    }
+
+    /**
+     * Id do veículo ativo com a placa informada, comparada sem diferenciar maiúsculas, hífen ou espaços.
+     * Retorna {@link #PLACA_AUSENTE} quando não há veículo ativo com a placa e {@link #PLACA_INDETERMINADA}
+     * quando o índice ainda não foi construído, a placa não tem representação compacta ou mais de um
+     * veículo ativo tem a mesma placa normalizada.
+     */
+    public long idPorPlaca(String placa) {
+        long codigo = PlacaCompactada.codificar(placa);
+        if (!pronto || codigo == PlacaCompactada.SEM_CODIGO) {
+            return PLACA_INDETERMINADA;
+        }
+        return atual.placas().obter(codigo);
+    }
+
+    /**
+     * Ids dos até {@code limite} veículos ativos da mesma marca mais próximos do veículo informado em ano e preço,
+     * do mais próximo ao mais distante. Vazio quando o índice ainda não foi construído ou o veículo não está ativo nele.
+     */
+    public Optional<List<Long>> similares(long id, int limite) {
+        Partes partes = atual;
+        if (!pronto || !partes.isIndexavel(id)) {
+            return Optional.empty();
+        }
+        return partes.similares().similares((int) id, Math.max(0, limite));
+    }
+
+    /**
+     * Aplica a escrita confirmada a todas as partes. As escritas são serializadas entre si e com a troca
+     * das partes ao fim de uma reconstrução; as leituras só esperam a trava da parte consultada.
+     * Se a alteração não puder ser aplicada, as partes ficam inconsistentes e o índice é desligado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    void aoAlterarVeiculo(VeiculoAlteradoEvento evento) {
+        escrita.lock();
+        try {
+            if (alteradosDuranteReconstrucao != null) {
+                alteradosDuranteReconstrucao.put(evento.id(), evento);
+            }
+            if (pronto) {
+                atual.aplicar(evento);
+            }
+        } catch (IdForaDoLimiteException e) {
+            desligar(e.getMessage(), null);
+        } catch (RuntimeException e) {
+            desligar("falha ao aplicar a alteração do veículo " + evento.id(), e);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Reconstrói o índice se o banco mudou desde a última construção, pela {@link VersaoVeiculos}.
+     */
+    @Scheduled(fixedDelayString = "${app.indice.colunar.verificacao-ms}",
+            initialDelayString = "${app.indice.colunar.verificacao-ms}")
+    public void verificar() {
+        VersaoVeiculos versao = transacaoLeitura.execute(status -> repositorio.versaoVeiculos());
+        if (!Objects.equals(versao, versaoConstruida)) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Reconstrói o índice a partir de uma leitura em streaming dos veículos ativos.
+     * Alterações confirmadas durante a leitura são reaplicadas ao final e prevalecem sobre ela.
+     * A versão do banco é lida antes dos veículos, para que escritas concorrentes à leitura levem a
+     * uma nova reconstrução na próxima verificação. O limite de ids vem da quantidade de veículos ativos
+     * nessa versão.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        if (!reconstrucao.tryLock()) {
+            return;
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+            escrita.lock();
+            try {
+                alteradosDuranteReconstrucao = new LinkedHashMap<>();
+            } finally {
+                escrita.unlock();
+            }
+
+            Construcao construcao;
+            try {
+                construcao = transacaoLeitura.execute(status -> {
+                    VersaoVeiculos lida = repositorio.versaoVeiculos();
+                    Partes partes = new Partes(maxTermosAutocompletar, maiorId(lida));
+                    IntervaloIds intervalo = repositorio.intervaloIdsAtivos();
+                    if (!intervalo.isVazio()) {
+                        partes.exigirIndexavel(intervalo.maior());
+                    }
+                    try (Stream<LinhaVeiculo> linhas = repositorio.streamLinhasAtivas()) {
+                        linhas.forEach(partes::gravar);
+                    }
+                    return new Construcao(lida, partes);
+                });
+            } catch (IdForaDoLimiteException e) {
+                escrita.lock();
+                try {
+                    alteradosDuranteReconstrucao = null;
+                    desligar(e.getMessage(), null);
+                } finally {
+                    escrita.unlock();
+                }
+                return;
+            }
+            Partes novas = construcao.partes();
+            novas.concluirConstrucao();
+
+            escrita.lock();
+            try {
+                try {
+                    alteradosDuranteReconstrucao.values().forEach(novas::aplicar);
+                } catch (IdForaDoLimiteException e) {
+                    desligar(e.getMessage(), null);
+                    return;
+                } finally {
+                    alteradosDuranteReconstrucao = null;
+                }
+                atual = novas;
+                versaoConstruida = construcao.versao();
+                pronto = true;
+                log.info("Índice colunar construído: {} veículos, {} marcas, {} cores, {} bytes em {} ms",
+                        novas.colunas().quantidade(), novas.colunas().quantidadeMarcas(),
+                        novas.colunas().quantidadeCores(), novas.tamanhoEmBytes(), System.currentTimeMillis() - inicio);
+            } finally {
+                escrita.unlock();
+            }
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    /**
+     * Desliga o índice até a próxima reconstrução bem-sucedida; a versão construída é esquecida para que a
+     * próxima verificação tente de novo. Chamado sob a trava de escrita.
+     */
+    private void desligar(String motivo, RuntimeException causa) {
+        log.error("Índice colunar desligado: {}; consultas seguem pelo banco", motivo, causa);
+        pronto = false;
+        versaoConstruida = null;
+        atual = new Partes(maxTermosAutocompletar, 0);
+    }
+
+    /**
+     * Maior id aceito pelas partes construídas na versão: um múltiplo da quantidade de veículos ativos,
+     * nunca abaixo de {@link #IDS_MINIMOS}, o que limita a memória das colunas quando os ids são esparsos.
+     */
+    private long maiorId(VersaoVeiculos versao) {
+        long ativos = versao == null || versao.ativos() == null ? 0 : versao.ativos();
+        return Math.min(MAIOR_ID_POSSIVEL, Math.max(IDS_MINIMOS, ativos * maxIdsPorVeiculo));
+    }
+
+    private record Construcao(VersaoVeiculos versao, Partes partes) {
+    }
+
+    /**
+     * Veículo ativo com id fora dos aceitos pelas partes.
+     */
+    private static final class IdForaDoLimiteException extends RuntimeException {
+
+        IdForaDoLimiteException(long id, long maiorId) {
+            super(String.format("veículo ativo com id %d fora dos ids aceitos pelo índice (1 a %d)", id, maiorId));
+        }
+    }
+
+    /**
+     * Uma geração das partes do índice, trocada inteira ao fim de cada reconstrução. As colunas são
+     * compartilhadas pelo autocompletar e pelos similares.
+     */
+    private record Partes(ColunasVeiculos colunas, IndicePlacas placas, IndiceAutocompletar autocompletar,
+            IndiceSimilares similares, long maiorId) {
+
+        Partes(int maxTermosAutocompletar, long maiorId) {
+            this(new ColunasVeiculos(), maxTermosAutocompletar, maiorId);
+        }
+
+        private Partes(ColunasVeiculos colunas, int maxTermosAutocompletar, long maiorId) {
+            this(colunas, new IndicePlacas(), new IndiceAutocompletar(colunas, maxTermosAutocompletar),
+                    new IndiceSimilares(colunas), maiorId);
+        }
+
+        /**
+         * Aplica a alteração às partes. Lança {@link IdForaDoLimiteException}, sem alterá-las, se o veículo
+         * está ativo e o id passa do limite.
+         */
+        void aplicar(VeiculoAlteradoEvento evento) {
+            Veiculo veiculo = evento.veiculo();
+            boolean ativo = !evento.isRemovido() && Boolean.TRUE.equals(veiculo.getAtivo());
+            if (ativo) {
+                gravar(new LinhaVeiculo(veiculo.getId(), veiculo.getPlaca(), veiculo.getMarca(), veiculo.getModelo(),
+                        veiculo.getAno(), veiculo.getCor(), veiculo.getPrecoUsd()));
+            } else if (isIndexavel(evento.id())) {
+                remover(evento.id().intValue());
+            }
+        }
+
+        /**
+         * Indica se o id cabe nas partes. O zero fica de fora por ser a ausência no mapa de placas.
+         */
+        boolean isIndexavel(long id) {
+            return id > 0 && id <= maiorId;
+        }
+
+        void exigirIndexavel(long id) {
+            if (!isIndexavel(id)) {
+                throw new IdForaDoLimiteException(id, maiorId);
+            }
+        }
+
+        void gravar(LinhaVeiculo linha) {
+            exigirIndexavel(linha.id());
+            int id = linha.id().intValue();
+            remover(id);
+            todas().forEach(parte -> parte.incluir(id, linha));
+        }
+
+        /**
+         * Retira o veículo das partes na ordem inversa da inclusão, para que as que leem as colunas ainda
+         * encontrem nelas os valores antigos.
+         */
+        void remover(int id) {
+            todas().reversed().forEach(parte -> parte.remover(id));
+        }
+
+        void concluirConstrucao() {
+            todas().forEach(ParteIndice::concluirConstrucao);
+        }
+
+        long tamanhoEmBytes() {
+            return todas().stream().mapToLong(ParteIndice::tamanhoEmBytes).sum();
+        }
+
+        private List<ParteIndice> todas() {
+            return List.of(colunas, placas, autocompletar, similares);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo;
+
+import java.util.Arrays;
+
+/**
+ * Placas dos veículos ativos, codificadas por {@link PlacaCompactada}, em um {@link MapaLongos} da placa
+ * para o id. Placas repetidas após a normalização ficam marcadas como indeterminadas.
+ */
+final class IndicePlacas extends ParteIndice {
+
+    private long[] codigosPlaca = new long[0];
+    private final MapaLongos idPorPlaca = new MapaLongos();
+
+    /**
+     * Id do veículo com a placa codificada, {@link IndiceColunarVeiculos#PLACA_AUSENTE} ou
+     * {@link IndiceColunarVeiculos#PLACA_INDETERMINADA}.
+     */
+    long obter(long codigo) {
+        return ler(() -> idPorPlaca.obter(codigo));
+    }
+
+    @Override
+    void adicionar(int id, LinhaVeiculo linha) {
+        if (id >= codigosPlaca.length) {
+            codigosPlaca = Arrays.copyOf(codigosPlaca, capacidade(id, codigosPlaca.length));
+        }
+        long codigo = PlacaCompactada.codificar(linha.placa());
+        codigosPlaca[id] = codigo;
+        if (codigo != PlacaCompactada.SEM_CODIGO) {
+            long existente = idPorPlaca.obter(codigo);
+            idPorPlaca.colocar(codigo, existente == IndiceColunarVeiculos.PLACA_AUSENTE || existente == id
+                    ? id : IndiceColunarVeiculos.PLACA_INDETERMINADA);
+        }
+    }
+
+    @Override
+    void retirar(int id) {
+        if (id >= codigosPlaca.length || codigosPlaca[id] == PlacaCompactada.SEM_CODIGO) {
+            return;
+        }
+        if (idPorPlaca.obter(codigosPlaca[id]) == id) {
+            idPorPlaca.remover(codigosPlaca[id]);
+        }
+        codigosPlaca[id] = PlacaCompactada.SEM_CODIGO;
+    }
+
+    @Override
+    long tamanho() {
+        return 8L * codigosPlaca.length + idPorPlaca.tamanhoEmBytes();
+    }
+}
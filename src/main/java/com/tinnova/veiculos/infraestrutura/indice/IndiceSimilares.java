@@ -0,0 +1,149 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Uma {@link ArvoreKd} por marca sobre ano e logaritmo do preço dos veículos ativos, lidos das
+ * {@link ColunasVeiculos}. Inserções e alterações entram na árvore como novos nós, os antigos são ignorados
+ * na busca e a árvore da marca é reconstruída balanceada quando eles passam da metade.
+ */
+final class IndiceSimilares extends ParteIndice {
+
+    /**
+     * Escalas da distância entre veículos: 2 anos de diferença pesam como 10% de diferença de preço.
+     */
+    private static final double ANOS_POR_UNIDADE = 2;
+    private static final double LOG_PRECO_POR_UNIDADE = Math.log(1.1);
+
+    private static final int SEM_NO = -1;
+
+    private final ColunasVeiculos colunas;
+    private int[] nos = new int[0];
+    private final Map<Integer, ArvoreKd> porMarca = new HashMap<>();
+
+    IndiceSimilares(ColunasVeiculos colunas) {
+        this.colunas = colunas;
+    }
+
+    /**
+     * Ids dos até {@code limite} veículos da mesma marca mais próximos do veículo em ano e preço, do mais
+     * próximo ao mais distante. Vazio quando o veículo não está na parte.
+     */
+    Optional<List<Long>> similares(int id, int limite) {
+        return ler(() -> colunas.ler(() -> {
+            if (id >= nos.length || nos[id] == SEM_NO) {
+                return Optional.empty();
+            }
+            int codigoMarca = colunas.codigoMarca(id);
+            ArvoreKd arvore = porMarca.get(codigoMarca);
+            int[] vizinhos = arvore.vizinhos(eixoAno(id), eixoPreco(id), limite,
+                    no -> arvore.id(no) != id && isNoAtual(arvore, no, codigoMarca));
+            return Optional.of(Arrays.stream(vizinhos).mapToObj(vizinho -> (long) vizinho).toList());
+        }));
+    }
+
+    /**
+     * Inclui o veículo, que as colunas já contêm.
+     */
+    @Override
+    void adicionar(int id, LinhaVeiculo linha) {
+        if (id >= nos.length) {
+            int atual = nos.length;
+            nos = Arrays.copyOf(nos, capacidade(id, atual));
+            Arrays.fill(nos, atual, nos.length, SEM_NO);
+        }
+        colunas.sobLeitura(() -> nos[id] = porMarca
+                .computeIfAbsent(colunas.codigoMarca(id), codigo -> new ArvoreKd())
+                .inserir(id, eixoAno(id), eixoPreco(id)));
+    }
+
+    /**
+     * Retira o veículo, que as colunas ainda contêm com os valores do nó.
+     */
+    @Override
+    void retirar(int id) {
+        if (id >= nos.length || nos[id] == SEM_NO) {
+            return;
+        }
+        nos[id] = SEM_NO;
+        colunas.sobLeitura(() -> {
+            int codigoMarca = colunas.codigoMarca(id);
+            ArvoreKd arvore = porMarca.get(codigoMarca);
+            arvore.invalidar();
+            if (arvore.isDesbalanceada()) {
+                balancear(codigoMarca);
+            }
+        });
+    }
+
+    /**
+     * Reconstrói balanceadas as árvores de todas as marcas.
+     */
+    @Override
+    void concluir() {
+        colunas.sobLeitura(() -> List.copyOf(porMarca.keySet()).forEach(this::balancear));
+    }
+
+    @Override
+    long tamanho() {
+        long total = 4L * nos.length;
+        for (ArvoreKd arvore : porMarca.values()) {
+            total += arvore.tamanhoEmBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Reconstrói a árvore da marca só com os nós atuais, descartando os deixados por remoções e alterações.
+     * Chamado sob a trava de leitura das colunas.
+     */
+    private void balancear(int codigoMarca) {
+        ArvoreKd arvore = porMarca.get(codigoMarca);
+        int[] ids = new int[arvore.quantidade()];
+        int quantidade = 0;
+        for (int no = 0; no < arvore.quantidade(); no++) {
+            if (isNoAtual(arvore, no, codigoMarca)) {
+                ids[quantidade++] = arvore.id(no);
+            }
+        }
+        if (quantidade == 0) {
+            porMarca.remove(codigoMarca);
+            return;
+        }
+        ids = Arrays.copyOf(ids, quantidade);
+        double[] xs = new double[quantidade];
+        double[] ys = new double[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            xs[i] = eixoAno(ids[i]);
+            ys[i] = eixoPreco(ids[i]);
+        }
+        ArvoreKd balanceada = ArvoreKd.balanceada(ids, xs, ys);
+        for (int no = 0; no < balanceada.quantidade(); no++) {
+            nos[balanceada.id(no)] = no;
+        }
+        porMarca.put(codigoMarca, balanceada);
+    }
+
+    /**
+     * Indica se o nó é a posição atual do veículo na árvore da marca: alterações inserem um novo nó
+     * e remoções deixam o veículo sem nó. Chamado sob a trava de leitura das colunas.
+     */
+    private boolean isNoAtual(ArvoreKd arvore, int no, int codigoMarca) {
+        int id = arvore.id(no);
+        return nos[id] == no && colunas.codigoMarca(id) == codigoMarca;
+    }
+
+    private double eixoAno(int id) {
+        return colunas.ano(id) / ANOS_POR_UNIDADE;
+    }
+
+    private double eixoPreco(int id) {
+        return Math.log(Math.max(1, colunas.precoCentavos(id))) / LOG_PRECO_POR_UNIDADE;
+    }
+}
@@ -0,0 +1,118 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+/**
+ * Mapa de {@code long} para {@code long} com endereçamento aberto e sondagem linear sobre dois arrays
+ * primitivos, sem objetos por entrada. A chave zero é reservada para as posições vazias e o valor zero
+ * indica ausência. A remoção desloca as entradas seguintes para trás, sem marcadores de remoção.
+ * Não é thread-safe.
+ */
+public class MapaLongos {
+
+    static final long AUSENTE = 0;
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private long[] chaves = new long[CAPACIDADE_INICIAL];
+    private long[] valores = new long[CAPACIDADE_INICIAL];
+    private int mascara = CAPACIDADE_INICIAL - 1;
+    private int quantidade;
+
+    /**
+     * Valor associado à chave, ou {@link #AUSENTE}.
+     */
+    public long obter(long chave) {
+        for (int i = posicao(chave); chaves[i] != 0; i = (i + 1) & mascara) {
+            if (chaves[i] == chave) {
+                return valores[i];
+            }
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * Associa o valor à chave, substituindo o anterior. Chave e valor não podem ser zero.
+     */
+    public void colocar(long chave, long valor) {
+        if (chave == 0 || valor == AUSENTE) {
+            throw new IllegalArgumentException("Chave e valor não podem ser zero");
+        }
+        int i = posicao(chave);
+        while (chaves[i] != 0) {
+            if (chaves[i] == chave) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++quantidade > chaves.length * 3 / 4) {
+            redimensionar();
+        }
+    }
+
+    /**
+     * Remove a chave, se presente.
+     */
+    public void remover(long chave) {
+        int vaga = posicao(chave);
+        while (chaves[vaga] != chave) {
+            if (chaves[vaga] == 0) {
+                return;
+            }
+            vaga = (vaga + 1) & mascara;
+        }
+        // Traz para a vaga as entradas seguintes do mesmo agrupamento cuja posição ideal não está entre a vaga e elas.
+        for (int i = (vaga + 1) & mascara; chaves[i] != 0; i = (i + 1) & mascara) {
+            if (((i - posicao(chaves[i])) & mascara) >= ((i - vaga) & mascara)) {
+                chaves[vaga] = chaves[i];
+                valores[vaga] = valores[i];
+                vaga = i;
+            }
+        }
+        chaves[vaga] = 0;
+        valores[vaga] = AUSENTE;
+        quantidade--;
+    }
+
+    public int quantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Memória ocupada pelos arrays do mapa.
+     */
+    public long tamanhoEmBytes() {
+        return 16L * chaves.length;
+    }
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        long[] valoresAntigos = valores;
+        chaves = new long[chavesAntigas.length * 2];
+        valores = new long[chavesAntigas.length * 2];
+        mascara = chaves.length - 1;
+        for (int j = 0; j < chavesAntigas.length; j++) {
+            if (chavesAntigas[j] != 0) {
+                int i = posicao(chavesAntigas[j]);
+                while (chaves[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                chaves[i] = chavesAntigas[j];
+                valores[i] = valoresAntigos[j];
+            }
+        }
+    }
+
+    /**
+     * Posição ideal da chave: finalizador do MurmurHash3, que espalha chaves próximas, como placas sequenciais.
+     */
+    private int posicao(long chave) {
+        long h = chave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mascara;
+    }
+}
@@ -0,0 +1,9 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import java.util.List;
+
+/**
+ * Ids de uma página de veículos selecionados pelo índice, em ordem crescente, e o total selecionado.
+ */
+public record PaginaIds(List<Long> ids, long total) {
+}
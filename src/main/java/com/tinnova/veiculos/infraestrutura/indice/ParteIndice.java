@@ -0,0 +1,107 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Parte do {@link IndiceColunarVeiculos}, alimentada pelas mesmas linhas de veículos ativos, com a própria
+ * trava: a escrita em uma parte, como o rebalanceamento das árvores de similares, não bloqueia a leitura
+ * das outras. As partes que dependem das {@link ColunasVeiculos} leem os valores de cada veículo nelas, sob a
+ * trava de leitura delas, em vez de manter cópias por id; por isso são retiradas antes das colunas e
+ * incluídas depois delas. Os ids são as posições das colunas e já chegam limitados pelo
+ * {@link IndiceColunarVeiculos#MAIOR_ID_POSSIVEL}.
+ */
+abstract class ParteIndice {
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    /**
+     * Inclui o veículo ativo, já retirado da parte.
+     */
+    final void incluir(int id, LinhaVeiculo linha) {
+        trava.writeLock().lock();
+        try {
+            adicionar(id, linha);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retira o veículo, se estiver na parte.
+     */
+    final void remover(int id) {
+        trava.writeLock().lock();
+        try {
+            retirar(id);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Chamado ao fim de uma reconstrução, antes de a parte ser publicada.
+     */
+    final void concluirConstrucao() {
+        trava.writeLock().lock();
+        try {
+            concluir();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    final long tamanhoEmBytes() {
+        return ler(this::tamanho);
+    }
+
+    final <T> T ler(Supplier<T> leitura) {
+        trava.readLock().lock();
+        try {
+            return leitura.get();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Executa a ação sob a trava de leitura, como {@link #ler}, sem produzir resultado.
+     */
+    final void sobLeitura(Runnable acao) {
+        trava.readLock().lock();
+        try {
+            acao.run();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inclui o veículo, que não está na parte. Chamado sob a trava de escrita.
+     */
+    abstract void adicionar(int id, LinhaVeiculo linha);
+
+    /**
+     * Retira o veículo, se estiver na parte. Chamado sob a trava de escrita.
+     */
+    abstract void retirar(int id);
+
+    abstract long tamanho();
+
+    /**
+     * Ajustes ao fim da reconstrução. Chamado sob a trava de escrita.
+     */
+    void concluir() {
+    }
+
+    /**
+     * Capacidade das colunas para comportar o id: ao menos o dobro da atual, sem passar do tamanho máximo
+     * de um array.
+     */
+    static int capacidade(int id, int atual) {
+        long capacidade = Math.max(id + 1L, Math.max(1024L, atual * 2L));
+        return (int) Math.min(capacidade, IndiceColunarVeiculos.MAIOR_ID_POSSIVEL + 1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import java.util.Locale;
+
+/**
+ * Representação de uma placa em um {@code long}. A placa normalizada (maiúsculas, sem hífen e sem espaços)
+ * é lida como um número em base 37, com os dígitos valendo de 1 a 10 e as letras de 11 a 36, o que
+ * comporta até {@value #MAXIMO_CARACTERES} caracteres; as placas brasileiras, antigas e Mercosul, têm 7.
+ * O código nunca é zero, que fica reservado para "sem representação".
+ */
+public final class PlacaCompactada {
+
+    /**
+     * Código das placas que não cabem na representação.
+     */
+    public static final long SEM_CODIGO = 0;
+
+    static final int MAXIMO_CARACTERES = 12;
+    private static final int BASE = 37;
+
+    private PlacaCompactada() {
+    }
+
+    /**
+     * Placa em maiúsculas, sem hífen e sem espaços, como é comparada na busca por placa.
+     */
+    public static String normalizar(String placa) {
+        return placa.toUpperCase(Locale.ROOT).replace("-", "").replace(" ", "");
+    }
+
+    /**
+     * Código da placa normalizada, ou {@link #SEM_CODIGO} quando ela é vazia, tem mais de
+     * {@value #MAXIMO_CARACTERES} caracteres ou contém algo além de letras A-Z e dígitos.
+     */
+    public static long codificar(String placa) {
+        String normalizada = normalizar(placa);
+        if (normalizada.isEmpty() || normalizada.length() > MAXIMO_CARACTERES) {
+            return SEM_CODIGO;
+        }
+        long codigo = 0;
+        for (int i = 0; i < normalizada.length(); i++) {
+            char c = normalizada.charAt(i);
+            int digito;
+            if (c >= '0' && c <= '9') {
+                digito = c - '0' + 1;
+            } else if (c >= 'A' && c <= 'Z') {
+                digito = c - 'A' + 11;
+            } else {
+                return SEM_CODIGO;
+            }
+            codigo = codigo * BASE + digito;
+        }
+        return codigo;
+    }
+}
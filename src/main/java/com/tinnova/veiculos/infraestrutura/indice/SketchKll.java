@@ -0,0 +1,175 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Sketch KLL de quantis (Karnin, Lang e Liberty) sobre valores {@code double}.
+ * Mantém uma hierarquia de compactadores: o nível {@code h} guarda itens de peso {@code 2^h} e,
+ * ao atingir a capacidade, é ordenado e metade dos seus itens (pares ou ímpares, ao acaso)
+ * sobe para o nível seguinte. A memória fica em O(k) e o erro de rank é de aproximadamente
+ * {@code 1.7 / k} da quantidade de valores. Sketches podem ser combinados sem perda adicional.
+ * Não é thread-safe.
+ */
+public class SketchKll {
+
+    private static final double FATOR_CAPACIDADE = 2.0 / 3.0;
+
+    private final int k;
+    private final SplittableRandom aleatorio;
+    private double[][] niveis = new double[1][];
+    private int[] tamanhos = new int[1];
+    private int tamanhoTotal;
+    private int capacidadeTotal;
+    private long quantidade;
+
+    /**
+     * @param k precisão do sketch; maior {@code k} reduz o erro e aumenta a memória
+     */
+    public SketchKll(int k) {
+        this(k, new SplittableRandom().nextLong());
+    }
+
+    SketchKll(int k, long semente) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k deve ser ao menos 8");
+        }
+        this.k = k;
+        this.aleatorio = new SplittableRandom(semente);
+        this.niveis[0] = new double[capacidade(0)];
+        this.capacidadeTotal = capacidade(0);
+    }
+
+    /**
+     * Adiciona um valor ao sketch.
+     */
+    public void adicionar(double valor) {
+        anexar(0, valor);
+        quantidade++;
+        tamanhoTotal++;
+        if (tamanhoTotal >= capacidadeTotal) {
+            compactar();
+        }
+    }
+
+    /**
+     * Incorpora os valores de outro sketch a este.
+     */
+    public void combinar(SketchKll outro) {
+        while (niveis.length < outro.niveis.length) {
+            crescer();
+        }
+        for (int h = 0; h < outro.niveis.length; h++) {
+            for (int i = 0; i < outro.tamanhos[h]; i++) {
+                anexar(h, outro.niveis[h][i]);
+            }
+            tamanhoTotal += outro.tamanhos[h];
+        }
+        quantidade += outro.quantidade;
+        while (tamanhoTotal >= capacidadeTotal) {
+            compactar();
+        }
+    }
+
+    /**
+     * Quantidade de valores adicionados.
+     */
+    public long quantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Estimativa do valor de rank {@code q * quantidade}; {@code NaN} se o sketch está vazio.
+     *
+     * @param q fração entre 0 e 1
+     */
+    public double quantil(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantil deve estar entre 0 e 1");
+        }
+        if (quantidade == 0) {
+            return Double.NaN;
+        }
+
+        double[] valores = new double[tamanhoTotal];
+        long[] pesos = new long[tamanhoTotal];
+        Integer[] ordem = new Integer[tamanhoTotal];
+        int n = 0;
+        for (int h = 0; h < niveis.length; h++) {
+            for (int i = 0; i < tamanhos[h]; i++) {
+                valores[n] = niveis[h][i];
+                pesos[n] = 1L << h;
+                ordem[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(ordem, (a, b) -> Double.compare(valores[a], valores[b]));
+
+        double alvo = q * quantidade;
+        long acumulado = 0;
+        for (int indice : ordem) {
+            acumulado += pesos[indice];
+            if (acumulado >= alvo) {
+                return valores[indice];
+            }
+        }
+        return valores[ordem[n - 1]];
+    }
+
+    /**
+     * Itens retidos pelo sketch, para fins de dimensionamento.
+     */
+    public int itensRetidos() {
+        return tamanhoTotal;
+    }
+
+    private int capacidade(int nivel) {
+        int altura = niveis.length - nivel - 1;
+        return (int) Math.ceil(Math.pow(FATOR_CAPACIDADE, altura) * k) + 1;
+    }
+
+    private void anexar(int nivel, double valor) {
+        if (tamanhos[nivel] == niveis[nivel].length) {
+            niveis[nivel] = Arrays.copyOf(niveis[nivel], Math.max(8, niveis[nivel].length * 2));
+        }
+        niveis[nivel][tamanhos[nivel]++] = valor;
+    }
+
+    private void crescer() {
+        int altura = niveis.length + 1;
+        niveis = Arrays.copyOf(niveis, altura);
+        tamanhos = Arrays.copyOf(tamanhos, altura);
+        niveis[altura - 1] = new double[8];
+        capacidadeTotal = 0;
+        for (int h = 0; h < altura; h++) {
+            capacidadeTotal += capacidade(h);
+        }
+    }
+
+    /**
+     * Compacta o nível mais baixo que excedeu a capacidade, promovendo metade dos seus itens.
+     * Pares de itens viram um item de peso dobrado, então o peso total é preservado;
+     * um item ímpar permanece no nível.
+     */
+    private void compactar() {
+        for (int h = 0; h < niveis.length; h++) {
+            if (tamanhos[h] >= capacidade(h)) {
+                if (h + 1 == niveis.length) {
+                    crescer();
+                }
+                double[] itens = niveis[h];
+                int tamanho = tamanhos[h];
+                Arrays.sort(itens, 0, tamanho);
+
+                int inicio = tamanho % 2;
+                int deslocamento = aleatorio.nextBoolean() ? 1 : 0;
+                for (int i = inicio + deslocamento; i < tamanho; i += 2) {
+                    anexar(h + 1, itens[i]);
+                }
+                tamanhos[h] = inicio;
+                tamanhoTotal -= (tamanho - inicio) / 2;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import java.util.List;
+
+/**
+ * Marcas e modelos de veículos ativos que começam pelo prefixo buscado (no início ou em qualquer palavra),
+ * em ordem alfabética.
+ */
+public record SugestoesAutocompletar(List<Sugestao> marcas, List<Sugestao> modelos) {
+
+    /**
+     * Valor sugerido e quantidade de veículos ativos com ele.
+     */
+    public record Sugestao(String valor, long quantidade) {
+    }
+}
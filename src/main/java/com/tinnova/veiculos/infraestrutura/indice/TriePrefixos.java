@@ -0,0 +1,148 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Trie de chaves de texto para valores inteiros, usada na busca por prefixo.
+ * Os filhos de cada nó ficam em um array ordenado pelo caractere, sem um mapa por nó,
+ * e a busca percorre as chaves em ordem lexicográfica até o visitante pedir para parar.
+ * Não é thread-safe.
+ */
+public class TriePrefixos {
+
+    private static final char[] SEM_ROTULOS = new char[0];
+    private static final No[] SEM_FILHOS = new No[0];
+    private static final int[] SEM_VALORES = new int[0];
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    private final No raiz = new No();
+    private int quantidadeNos = 1;
+    private long bytesArrays;
+
+    /**
+     * Normaliza o texto para comparação: minúsculas, sem acentos, sem espaços nas pontas e com espaços internos simples.
+     */
+    public static String normalizar(String texto) {
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT).strip().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Chaves pelas quais um valor é encontrado: o valor normalizado inteiro e o sufixo
+     * a partir de cada palavra seguinte ("Corolla Cross" também é encontrado por "cross").
+     */
+    public static List<String> chaves(String valor) {
+        String normalizado = normalizar(valor);
+        List<String> chaves = new ArrayList<>();
+        if (normalizado.isEmpty()) {
+            return chaves;
+        }
+        chaves.add(normalizado);
+        for (int i = normalizado.indexOf(' '); i >= 0; i = normalizado.indexOf(' ', i + 1)) {
+            chaves.add(normalizado.substring(i + 1));
+        }
+        return chaves;
+    }
+
+    /**
+     * Associa o valor à chave, que deve estar normalizada.
+     */
+    public void inserir(String chave, int valor) {
+        No no = raiz;
+        for (int i = 0; i < chave.length(); i++) {
+            no = no.filhoOuNovo(chave.charAt(i));
+        }
+        no.adicionarValor(valor);
+    }
+
+    /**
+     * Visita, em ordem lexicográfica das chaves, os valores cujas chaves começam pelo prefixo normalizado,
+     * até o visitante retornar {@code false}. Um valor com várias chaves sob o prefixo é visitado mais de uma vez.
+     */
+    public void percorrer(String prefixo, IntPredicate visitante) {
+        No no = raiz;
+        for (int i = 0; i < prefixo.length() && no != null; i++) {
+            no = no.filho(prefixo.charAt(i));
+        }
+        if (no != null) {
+            percorrer(no, visitante);
+        }
+    }
+
+    /**
+     * Memória aproximada ocupada pela trie.
+     */
+    public long tamanhoEmBytes() {
+        return 32L * quantidadeNos + bytesArrays;
+    }
+
+    private static boolean percorrer(No no, IntPredicate visitante) {
+        for (int i = 0; i < no.quantidadeValores; i++) {
+            if (!visitante.test(no.valores[i])) {
+                return false;
+            }
+        }
+        for (int i = 0; i < no.quantidadeFilhos; i++) {
+            if (!percorrer(no.filhos[i], visitante)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class No {
+
+        private char[] rotulos = SEM_ROTULOS;
+        private No[] filhos = SEM_FILHOS;
+        private int quantidadeFilhos;
+        private int[] valores = SEM_VALORES;
+        private int quantidadeValores;
+
+        No filho(char rotulo) {
+            int posicao = Arrays.binarySearch(rotulos, 0, quantidadeFilhos, rotulo);
+            return posicao >= 0 ? filhos[posicao] : null;
+        }
+
+        No filhoOuNovo(char rotulo) {
+            int posicao = Arrays.binarySearch(rotulos, 0, quantidadeFilhos, rotulo);
+            if (posicao >= 0) {
+                return filhos[posicao];
+            }
+            posicao = -posicao - 1;
+            if (quantidadeFilhos == rotulos.length) {
+                int capacidade = Math.max(1, quantidadeFilhos * 2);
+                bytesArrays += 6L * (capacidade - rotulos.length);
+                rotulos = Arrays.copyOf(rotulos, capacidade);
+                filhos = Arrays.copyOf(filhos, capacidade);
+            }
+            System.arraycopy(rotulos, posicao, rotulos, posicao + 1, quantidadeFilhos - posicao);
+            System.arraycopy(filhos, posicao, filhos, posicao + 1, quantidadeFilhos - posicao);
+            No novo = new No();
+            rotulos[posicao] = rotulo;
+            filhos[posicao] = novo;
+            quantidadeFilhos++;
+            quantidadeNos++;
+            return novo;
+        }
+
+        void adicionarValor(int valor) {
+            for (int i = 0; i < quantidadeValores; i++) {
+                if (valores[i] == valor) {
+                    return;
+                }
+            }
+            if (quantidadeValores == valores.length) {
+                int capacidade = Math.max(1, quantidadeValores * 2);
+                bytesArrays += 4L * (capacidade - valores.length);
+                valores = Arrays.copyOf(valores, capacidade);
+            }
+            valores[quantidadeValores++] = valor;
+        }
+    }
+}
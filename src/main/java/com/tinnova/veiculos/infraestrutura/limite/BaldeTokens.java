@@ -0,0 +1,71 @@
+package com.tinnova.veiculos.infraestrutura.limite;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens de um cliente em uma regra, no formato GCRA: em vez de um contador de tokens
+ * reabastecido no tempo, guarda apenas o instante teórico da próxima chegada e o avança com CAS,
+ * sem trava. Equivale a um balde com capacidade {@code rajada} reabastecido a cada {@code intervalo}.
+ */
+final class BaldeTokens {
+
+    private final AtomicLong chegadaTeorica;
+    private final Counter permitidas;
+    private final Counter rejeitadas;
+    private final boolean metricasProprias;
+
+    /**
+     * @param metricasProprias se os contadores são só deste balde, e saem do registro junto com ele
+     */
+    BaldeTokens(long agoraNanos, Counter permitidas, Counter rejeitadas, boolean metricasProprias) {
+        this.chegadaTeorica = new AtomicLong(agoraNanos);
+        this.permitidas = permitidas;
+        this.rejeitadas = rejeitadas;
+        this.metricasProprias = metricasProprias;
+    }
+
+    /**
+     * Consome um token, se houver, e retorna zero; sem token, retorna a espera até o próximo, em nanossegundos.
+     *
+     * @param intervaloNanos  tempo para repor um token
+     * @param toleranciaNanos {@code intervaloNanos * (rajada - 1)}
+     */
+    long consumir(long agoraNanos, long intervaloNanos, long toleranciaNanos) {
+        while (true) {
+            long atual = chegadaTeorica.get();
+            long base = Math.max(atual, agoraNanos);
+            long espera = base - toleranciaNanos - agoraNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (chegadaTeorica.compareAndSet(atual, base + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Indica se o balde já está cheio de novo e pode ser descartado sem perder estado.
+     */
+    boolean isCheio(long agoraNanos) {
+        return chegadaTeorica.get() <= agoraNanos;
+    }
+
+    void registrar(boolean permitida) {
+        (permitida ? permitidas : rejeitadas).increment();
+    }
+
+    boolean isMetricasProprias() {
+        return metricasProprias;
+    }
+
+    Counter permitidas() {
+        return permitidas;
+    }
+
+    Counter rejeitadas() {
+        return rejeitadas;
+    }
+}
@@ -0,0 +1,42 @@
+package com.tinnova.veiculos.infraestrutura.limite;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro da cadeia de segurança que rejeita com 429 as requisições acima do limite do cliente.
+ * Roda depois da autenticação JWT, para identificar o cliente pelo usuário do token, e entrega
+ * a rejeição ao {@link HandlerExceptionResolver}, que monta a resposta como os demais erros da API.
+ * Não é um bean, para não ser registrado também fora da cadeia de segurança.
+ */
+@RequiredArgsConstructor
+public class FiltroLimiteRequisicoes extends OncePerRequestFilter {
+
+    private final LimitadorRequisicoes limitador;
+    private final HandlerExceptionResolver resolvedorExcecoes;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long espera = limitador.consumir(request, SecurityContextHolder.getContext().getAuthentication(),
+                System.nanoTime());
+        if (espera > 0) {
+            long segundos = Math.max(1, (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            resolvedorExcecoes.resolveException(request, response, null,
+                    new LimiteRequisicoesExcedidoException(segundos));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
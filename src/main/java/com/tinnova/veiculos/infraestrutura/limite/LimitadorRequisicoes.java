@@ -0,0 +1,307 @@
+package com.tinnova.veiculos.infraestrutura.limite;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.server.RequestPath;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Limite de requisições por cliente, identificado pelo usuário do token JWT ou, sem token, pelo IP.
+ * Cada cliente tem um {@link BaldeTokens} por regra neste nó; com {@code app.limite.redis}, as requisições
+ * aceitas localmente também passam por um balde GCRA no Redis, compartilhado entre os nós. Se o Redis
+ * falhar, valem só os baldes locais.
+ * <p>
+ * Nas métricas, o cliente aparece só como um HMAC truncado do usuário ou IP, nunca o valor original, e
+ * cada balde com métricas próprias tem os seus contadores, que saem do registro quando o balde é descartado.
+ */
+@Slf4j
+@Component
+public class LimitadorRequisicoes {
+
+    static final String CLIENTE_OUTROS = "outros";
+
+    private static final String PREFIXO_REDIS = "limite:";
+    private static final String ALGORITMO_HMAC = "HmacSHA256";
+    private static final int BYTES_IDENTIFICADOR = 8;
+    private static final RedisScript<Long> SCRIPT_GCRA = new DefaultRedisScript<>("""
+            local tempo = redis.call('TIME')
+            local agora = tonumber(tempo[1]) * 1000000 + tonumber(tempo[2])
+            local intervalo = tonumber(ARGV[1])
+            local tolerancia = tonumber(ARGV[2])
+            local chegada = math.max(tonumber(redis.call('GET', KEYS[1]) or agora), agora)
+            local espera = chegada - tolerancia - agora
+            if espera > 0 then
+                return espera
+            end
+            redis.call('SET', KEYS[1], chegada + intervalo, 'PX', math.ceil((chegada + intervalo - agora) / 1000))
+            return 0
+            """, Long.class);
+
+    private final PropriedadesLimite propriedades;
+    private final List<Regra> regras;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, BaldeTokens> baldes = new ConcurrentHashMap<>();
+    private final AtomicInteger baldesComMetricas = new AtomicInteger();
+    private final SecretKeySpec chaveMetricas;
+
+    private volatile boolean redisIndisponivel;
+
+    public LimitadorRequisicoes(PropriedadesLimite propriedades, RedisTemplate<String, String> redisTemplate,
+            MeterRegistry registry) {
+        this.propriedades = propriedades;
+        this.regras = IntStream.range(0, propriedades.regras().size())
+                .mapToObj(i -> Regra.de(i, propriedades.regras().get(i)))
+                .toList();
+        this.redisTemplate = redisTemplate;
+        this.registry = registry;
+        this.chaveMetricas = chaveMetricas(propriedades.chaveMetricas());
+
+        Gauge.builder("veiculos.limite.clientes", baldes, ConcurrentHashMap::size)
+                .description("Baldes de limite de requisições mantidos neste nó")
+                .register(registry);
+    }
+
+    public boolean isHabilitado() {
+        return propriedades.habilitado() && !regras.isEmpty();
+    }
+
+    /**
+     * Consome uma requisição do balde do cliente na primeira regra que casa com ela.
+     *
+     * @return zero se a requisição pode seguir, ou a espera até a próxima permitida, em nanossegundos
+     */
+    public long consumir(HttpServletRequest request, Authentication autenticacao, long agoraNanos) {
+        Regra regra = regra(request, autenticacao);
+        if (regra == null) {
+            return 0;
+        }
+        String cliente = cliente(request, autenticacao);
+        String chave = regra.indice() + ":" + cliente;
+        BaldeTokens balde = baldes.get(chave);
+        if (balde == null) {
+            balde = novoBalde(chave, regra, cliente, agoraNanos);
+        }
+        long espera = balde.consumir(agoraNanos, regra.intervaloNanos(), regra.toleranciaNanos());
+        if (espera == 0 && propriedades.redis()) {
+            espera = consumirNoRedis(chave, regra);
+        }
+        balde.registrar(espera == 0);
+        return espera;
+    }
+
+    /**
+     * Descarta os baldes que já voltaram a ficar cheios, com as suas métricas.
+     */
+    @Scheduled(fixedDelayString = "${app.limite.limpeza-ms}")
+    public void removerOciosos() {
+        removerOciosos(System.nanoTime());
+    }
+
+    int quantidadeBaldes() {
+        return baldes.size();
+    }
+
+    /**
+     * Identificador do cliente nas métricas: os primeiros bytes do HMAC-SHA256 do cliente, em hexadecimal.
+     */
+    String identificador(String cliente) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO_HMAC);
+            mac.init(chaveMetricas);
+            return HexFormat.of().formatHex(mac.doFinal(cliente.getBytes(StandardCharsets.UTF_8)),
+                    0, BYTES_IDENTIFICADOR);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void removerOciosos(long agoraNanos) {
+        baldes.forEach((chave, balde) -> {
+            if (balde.isCheio(agoraNanos)) {
+                descartar(chave, balde);
+            }
+        });
+    }
+
+    private Regra regra(HttpServletRequest request, Authentication autenticacao) {
+        boolean analisado = ServletRequestPathUtils.hasParsedRequestPath(request);
+        RequestPath caminho = analisado
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : ServletRequestPathUtils.parseAndCache(request);
+        try {
+            for (Regra regra : regras) {
+                if (regra.casa(request.getMethod(), caminho, autenticacao)) {
+                    return regra;
+                }
+            }
+            return null;
+        } finally {
+            if (!analisado) {
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+            }
+        }
+    }
+
+    private static String cliente(HttpServletRequest request, Authentication autenticacao) {
+        if (autenticacao != null && autenticacao.isAuthenticated()
+                && !(autenticacao instanceof AnonymousAuthenticationToken)) {
+            return "usuario:" + autenticacao.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private BaldeTokens novoBalde(String chave, Regra regra, String cliente, long agoraNanos) {
+        if (baldes.size() >= propriedades.maximoClientes()) {
+            liberarEspaco(agoraNanos);
+        }
+        return baldes.computeIfAbsent(chave, k -> criarBalde(regra, cliente, agoraNanos));
+    }
+
+    /**
+     * Enquanto houver vaga em {@code maximoClientesMetricas}, o balde ganha contadores próprios; os demais
+     * baldes da regra dividem os contadores de {@code outros}, que ficam no registro.
+     */
+    private BaldeTokens criarBalde(Regra regra, String cliente, long agoraNanos) {
+        if (baldesComMetricas.incrementAndGet() <= propriedades.maximoClientesMetricas()) {
+            String identificador = identificador(cliente);
+            return new BaldeTokens(agoraNanos, contador(regra, identificador, "permitida"),
+                    contador(regra, identificador, "rejeitada"), true);
+        }
+        baldesComMetricas.decrementAndGet();
+        return new BaldeTokens(agoraNanos, contador(regra, CLIENTE_OUTROS, "permitida"),
+                contador(regra, CLIENTE_OUTROS, "rejeitada"), false);
+    }
+
+    /**
+     * Remove o balde, se ainda for o da chave, e os seus contadores próprios. Se o cliente voltar, os
+     * contadores recomeçam do zero, o que o Prometheus trata como reinício do contador.
+     */
+    private void descartar(String chave, BaldeTokens balde) {
+        if (baldes.remove(chave, balde) && balde.isMetricasProprias()) {
+            registry.remove(balde.permitidas());
+            registry.remove(balde.rejeitadas());
+            baldesComMetricas.decrementAndGet();
+        }
+    }
+
+    /**
+     * Descarta os baldes cheios e, se ainda faltar espaço, baldes quaisquer até 90% da capacidade.
+     * Um balde ativo descartado só volta cheio, o que concede no máximo uma rajada extra ao cliente.
+     */
+    private void liberarEspaco(long agoraNanos) {
+        removerOciosos(agoraNanos);
+        int alvo = propriedades.maximoClientes() * 9 / 10;
+        Iterator<Map.Entry<String, BaldeTokens>> iterador = baldes.entrySet().iterator();
+        while (baldes.size() > alvo && iterador.hasNext()) {
+            Map.Entry<String, BaldeTokens> entrada = iterador.next();
+            descartar(entrada.getKey(), entrada.getValue());
+        }
+    }
+
+    private Counter contador(Regra regra, String cliente, String resultado) {
+        return Counter.builder("veiculos.limite.requisicoes")
+                .description("Requisições avaliadas pelo limite, por regra e cliente")
+                .tag("regra", String.valueOf(regra.indice()))
+                .tag("cliente", cliente)
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    /**
+     * Sem chave configurada, uma aleatória: os identificadores mudam a cada inicialização e diferem entre os nós.
+     */
+    private static SecretKeySpec chaveMetricas(String chave) {
+        byte[] bytes;
+        if (chave == null || chave.isBlank()) {
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = chave.getBytes(StandardCharsets.UTF_8);
+        }
+        return new SecretKeySpec(bytes, ALGORITMO_HMAC);
+    }
+
+    private long consumirNoRedis(String chave, Regra regra) {
+        try {
+            Long esperaMicros = redisTemplate.execute(SCRIPT_GCRA, List.of(PREFIXO_REDIS + chave),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(regra.intervaloNanos())),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(regra.toleranciaNanos())));
+            if (redisIndisponivel) {
+                redisIndisponivel = false;
+                log.info("Redis disponível de novo para o limite de requisições");
+            }
+            return esperaMicros == null ? 0 : TimeUnit.MICROSECONDS.toNanos(esperaMicros);
+        } catch (DataAccessException e) {
+            if (!redisIndisponivel) {
+                redisIndisponivel = true;
+                log.warn("Redis indisponível para o limite de requisições, usando apenas os limites locais: {}",
+                        e.getMessage());
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Regra com o caminho já compilado e a taxa convertida para o GCRA.
+     */
+    private record Regra(int indice, String metodo, PathPattern caminho, String role,
+            long intervaloNanos, long toleranciaNanos) {
+
+        static Regra de(int indice, PropriedadesLimite.RegraLimite regra) {
+            if (regra.requisicoesPorSegundo() <= 0 || regra.rajada() < 1) {
+                throw new IllegalArgumentException("Regra de limite " + indice
+                        + " precisa de requisicoes-por-segundo positivo e rajada de ao menos 1");
+            }
+            long intervalo = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / regra.requisicoesPorSegundo()));
+            return new Regra(indice, regra.metodo(), PathPatternParser.defaultInstance.parse(regra.caminho()),
+                    regra.role(), intervalo, intervalo * (regra.rajada() - 1));
+        }
+
+        boolean casa(String metodoRequisicao, RequestPath caminhoRequisicao, Authentication autenticacao) {
+            return (metodo == null || metodo.equalsIgnoreCase(metodoRequisicao))
+                    && caminho.matches(caminhoRequisicao.pathWithinApplication())
+                    && (role == null || temRole(autenticacao));
+        }
+
+        private boolean temRole(Authentication autenticacao) {
+            if (autenticacao == null) {
+                return false;
+            }
+            for (GrantedAuthority autoridade : autenticacao.getAuthorities()) {
+                if (role.equals(autoridade.getAuthority())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tinnova.veiculos.infraestrutura.limite;
+
+import lombok.Getter;
+
+/**
+ * Exceção lançada quando o cliente excedeu o limite de requisições do endpoint.
+ */
+@Getter
+public class LimiteRequisicoesExcedidoException extends RuntimeException {
+
+    /**
+     * Segundos até o cliente poder repetir a requisição, para o cabeçalho {@code Retry-After}.
+     */
+    private final long esperaSegundos;
+
+    public LimiteRequisicoesExcedidoException(long esperaSegundos) {
+        super("Limite de requisições excedido, tente novamente em " + esperaSegundos + " s");
+        this.esperaSegundos = esperaSegundos;
+    }
+}
@@ -0,0 +1,43 @@
+package com.tinnova.veiculos.infraestrutura.limite;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Configuração do limite de requisições por cliente ({@code app.limite.*}).
+ *
+ * @param habilitado             se o filtro de limite participa da cadeia de segurança
+ * @param redis                  se os baldes também são sincronizados entre os nós pelo Redis
+ * @param maximoClientes         baldes mantidos em memória neste nó
+ * @param maximoClientesMetricas baldes com métricas próprias; os demais são agregados em {@code outros} por regra
+ * @param chaveMetricas          chave do HMAC que identifica o cliente nas métricas; a mesma em todos os nós
+ *                               para que o cliente tenha o mesmo identificador, ou vazia para uma chave
+ *                               aleatória a cada inicialização
+ * @param regras                 regras avaliadas em ordem; vale a primeira que casa com a requisição
+ */
+@ConfigurationProperties("app.limite")
+public record PropriedadesLimite(
+        boolean habilitado,
+        boolean redis,
+        int maximoClientes,
+        int maximoClientesMetricas,
+        String chaveMetricas,
+        List<RegraLimite> regras) {
+
+    public PropriedadesLimite {
+        regras = regras == null ? List.of() : List.copyOf(regras);
+    }
+
+    /**
+     * Limite de um endpoint, opcionalmente restrito a um método HTTP e a uma role.
+     *
+     * @param metodo                método HTTP, ou {@code null} para qualquer método
+     * @param caminho               padrão de caminho, como {@code /veiculos/**}
+     * @param role                  authority exigida do cliente, ou {@code null} para qualquer cliente
+     * @param requisicoesPorSegundo taxa sustentada por cliente
+     * @param rajada                requisições aceitas de uma vez com o balde cheio
+     */
+    public record RegraLimite(String metodo, String caminho, String role, double requisicoesPorSegundo, int rajada) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.tinnova.veiculos.infraestrutura.metricas;
+
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas das operações de negócio. Os histogramas dos timers {@code veiculos.*}, usados para os percentis
+ * no Prometheus, são configurados em {@code management.metrics.distribution.*}.
+ */
+@Configuration
+public class ConfiguracaoMetricas {
+
+    /**
+     * Estático, e com o registry resolvido só na primeira chamada, porque os advisors são criados antes dos
+     * demais beans, e o registry criado tão cedo deixaria de receber a configuração dos histogramas.
+     */
+    @Bean
+    static Advisor temporizadorServicoVeiculo(ObjectProvider<MeterRegistry> registry) {
+        return TemporizadorOperacoes.advisor(ServicoVeiculo.class, "veiculos.servico.operacoes",
+                "Duração das operações do serviço de veículos", registry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.tinnova.veiculos.infraestrutura.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptador que mede as chamadas aos métodos públicos de um serviço, em um {@link Timer} por método e
+ * resultado ({@code sucesso} ou {@code erro}). Os timers são registrados na primeira chamada de cada método;
+ * depois disso, cada chamada só consulta o mapa e soma a duração, sem alocar.
+ */
+public class TemporizadorOperacoes implements MethodInterceptor {
+
+    private final String nome;
+    private final String descricao;
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<Method, Temporizadores> porMetodo = new ConcurrentHashMap<>();
+
+    public TemporizadorOperacoes(String nome, String descricao, ObjectProvider<MeterRegistry> registry) {
+        this.nome = nome;
+        this.descricao = descricao;
+        this.registry = registry;
+    }
+
+    /**
+     * Advisor que aplica o interceptador aos métodos públicos declarados na classe, por fora das demais
+     * camadas do proxy: a duração inclui a abertura e o commit da transação.
+     */
+    public static Advisor advisor(Class<?> servico, String nome, String descricao,
+            ObjectProvider<MeterRegistry> registry) {
+        StaticMethodMatcherPointcut metodosPublicos = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method metodo, Class<?> classeAlvo) {
+                return metodo.getDeclaringClass() == servico && Modifier.isPublic(metodo.getModifiers());
+            }
+        };
+        metodosPublicos.setClassFilter(servico::isAssignableFrom);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(metodosPublicos,
+                new TemporizadorOperacoes(nome, descricao, registry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacao) throws Throwable {
+        Method metodo = invocacao.getMethod();
+        Temporizadores temporizadores = porMetodo.get(metodo);
+        if (temporizadores == null) {
+            temporizadores = porMetodo.computeIfAbsent(metodo, this::registrar);
+        }
+        long inicio = System.nanoTime();
+        try {
+            Object resultado = invocacao.proceed();
+            temporizadores.sucesso().record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resultado;
+        } catch (Throwable e) {
+            temporizadores.erro().record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Temporizadores registrar(Method metodo) {
+        MeterRegistry meterRegistry = registry.getObject();
+        return new Temporizadores(
+                timer(meterRegistry, metodo, "sucesso"),
+                timer(meterRegistry, metodo, "erro"));
+    }
+
+    private Timer timer(MeterRegistry meterRegistry, Method metodo, String resultado) {
+        return Timer.builder(nome)
+                .description(descricao)
+                .tag("operacao", metodo.getName())
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    private record Temporizadores(Timer sucesso, Timer erro) {
+    }
+}
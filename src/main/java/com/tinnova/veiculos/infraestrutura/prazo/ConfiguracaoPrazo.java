@@ -0,0 +1,79 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.protocol.RedisCommand;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.data.redis.autoconfigure.LettuceClientOptionsBuilderCustomizer;
+import org.springframework.boot.transaction.autoconfigure.TransactionManagerCustomizers;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Propaga o prazo da requisição para onde ela espera por I/O: registra o {@link FiltroPrazo} antes da cadeia
+ * de segurança, troca o gerenciador de transações pelo {@link GerenciadorTransacoesComPrazo} e limita cada
+ * comando do Redis ao que resta do prazo. As chamadas às APIs de câmbio são limitadas no RestTemplate.
+ */
+@Configuration
+@EnableConfigurationProperties(PropriedadesPrazo.class)
+public class ConfiguracaoPrazo {
+
+    /** Antes da cadeia do Spring Security, que fica em -100, para que o prazo valha também para ela. */
+    private static final int ORDEM_FILTRO = -200;
+
+    @Bean
+    FilterRegistrationBean<FiltroPrazo> filtroPrazo(PropriedadesPrazo propriedades) {
+        FilterRegistrationBean<FiltroPrazo> registro = new FilterRegistrationBean<>(new FiltroPrazo(propriedades));
+        registro.setOrder(ORDEM_FILTRO);
+        registro.setEnabled(propriedades.habilitado());
+        return registro;
+    }
+
+    @Bean
+    JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> customizadores) {
+        JpaTransactionManager gerenciador = new GerenciadorTransacoesComPrazo(entityManagerFactory);
+        customizadores.ifAvailable(customizador -> customizador.customize(gerenciador));
+        return gerenciador;
+    }
+
+    @Bean
+    LettuceClientOptionsBuilderCustomizer tempoLimiteRedisComPrazo(
+            @Value("${spring.data.redis.timeout:60s}") Duration tempoLimite) {
+        return opcoes -> opcoes.timeoutOptions(TimeoutOptions.builder()
+                .timeoutSource(new TempoLimiteRedis(tempoLimite))
+                .build());
+    }
+
+    /**
+     * Tempo limite de cada comando do Redis: o configurado, ou o restante do prazo se for menor. O Lettuce
+     * consulta o tempo na thread que envia o comando, que é a da requisição.
+     */
+    private static final class TempoLimiteRedis extends TimeoutOptions.TimeoutSource {
+
+        private final long tempoLimiteMs;
+
+        TempoLimiteRedis(Duration tempoLimite) {
+            this.tempoLimiteMs = tempoLimite.toMillis();
+        }
+
+        @Override
+        public long getTimeout(RedisCommand<?, ?, ?> comando) {
+            return PrazoRequisicao.atual()
+                    .map(prazo -> Math.clamp(prazo.restante().toMillis(), 1, tempoLimiteMs))
+                    .orElse(tempoLimiteMs);
+        }
+
+        @Override
+        public TimeUnit getTimeUnit() {
+            return TimeUnit.MILLISECONDS;
+        }
+    }
+}
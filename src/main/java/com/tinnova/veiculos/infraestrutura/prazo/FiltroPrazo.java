@@ -0,0 +1,112 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Filtro que define o {@link PrazoRequisicao} da requisição: o tempo que o cliente informa em
+ * {@value #CABECALHO}, limitado a {@code app.prazo.maximo-ms}, ou o padrão do endpoint.
+ * Valores do cabeçalho que não são um número positivo de milissegundos são ignorados.
+ */
+public class FiltroPrazo extends OncePerRequestFilter {
+
+    /** Milissegundos que o cliente ainda espera pela resposta. */
+    public static final String CABECALHO = "X-Request-Timeout-Ms";
+
+    private final Duration maximo;
+    private final Duration padrao;
+    private final List<Regra> regras;
+
+    public FiltroPrazo(PropriedadesPrazo propriedades) {
+        if (propriedades.maximoMs() <= 0 || propriedades.padraoMs() <= 0) {
+            throw new IllegalArgumentException("app.prazo.maximo-ms e app.prazo.padrao-ms precisam ser positivos");
+        }
+        this.maximo = Duration.ofMillis(propriedades.maximoMs());
+        this.padrao = Duration.ofMillis(propriedades.padraoMs());
+        this.regras = IntStream.range(0, propriedades.regras().size())
+                .mapToObj(i -> Regra.de(i, propriedades.regras().get(i)))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        PrazoRequisicao.definir(Prazo.em(duracao(request)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrazoRequisicao.limpar();
+        }
+    }
+
+    private Duration duracao(HttpServletRequest request) {
+        Duration informada = informada(request.getHeader(CABECALHO));
+        if (informada != null) {
+            return informada.compareTo(maximo) < 0 ? informada : maximo;
+        }
+        return padraoDoEndpoint(request);
+    }
+
+    private static Duration informada(String cabecalho) {
+        if (cabecalho == null) {
+            return null;
+        }
+        try {
+            long milissegundos = Long.parseLong(cabecalho.strip());
+            return milissegundos > 0 ? Duration.ofMillis(milissegundos) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Duration padraoDoEndpoint(HttpServletRequest request) {
+        boolean analisado = ServletRequestPathUtils.hasParsedRequestPath(request);
+        RequestPath caminho = analisado
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : ServletRequestPathUtils.parseAndCache(request);
+        try {
+            for (Regra regra : regras) {
+                if (regra.casa(request.getMethod(), caminho)) {
+                    return regra.prazo();
+                }
+            }
+            return padrao;
+        } finally {
+            if (!analisado) {
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+            }
+        }
+    }
+
+    /**
+     * Regra com o caminho já compilado.
+     */
+    private record Regra(String metodo, PathPattern caminho, Duration prazo) {
+
+        static Regra de(int indice, PropriedadesPrazo.RegraPrazo regra) {
+            if (regra.prazoMs() <= 0) {
+                throw new IllegalArgumentException("Regra de prazo " + indice + " precisa de prazo-ms positivo");
+            }
+            return new Regra(regra.metodo(), PathPatternParser.defaultInstance.parse(regra.caminho()),
+                    Duration.ofMillis(regra.prazoMs()));
+        }
+
+        boolean casa(String metodoRequisicao, RequestPath caminhoRequisicao) {
+            return (metodo == null || metodo.equalsIgnoreCase(metodoRequisicao))
+                    && caminho.matches(caminhoRequisicao.pathWithinApplication());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Gerenciador de transações JPA que limita cada transação iniciada durante uma requisição ao que resta do
+ * seu prazo. O tempo da transação vira o tempo limite das consultas JPA e dos comandos JDBC feitos nela;
+ * como o JDBC só aceita segundos, o restante é arredondado para cima. Com o prazo já esgotado, a transação
+ * nem começa e nenhuma conexão é tirada do pool.
+ */
+public class GerenciadorTransacoesComPrazo extends JpaTransactionManager {
+
+    public GerenciadorTransacoesComPrazo(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transacao, TransactionDefinition definicao) {
+        PrazoRequisicao.verificar();
+        super.doBegin(transacao, definicao);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definicao) {
+        int configurado = super.determineTimeout(definicao);
+        return PrazoRequisicao.atual()
+                .map(prazo -> {
+                    int restante = (int) Math.max(1, Math.ceilDiv(prazo.restante().toMillis(), 1000));
+                    return configurado == TransactionDefinition.TIMEOUT_DEFAULT
+                            ? restante
+                            : Math.min(configurado, restante);
+                })
+                .orElse(configurado);
+    }
+}
@@ -0,0 +1,29 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+import java.time.Duration;
+
+/**
+ * Instante, no relógio de {@link System#nanoTime()}, até o qual o cliente espera a resposta da requisição.
+ *
+ * @param limiteNanos instante do fim do prazo
+ */
+public record Prazo(long limiteNanos) {
+
+    /**
+     * Prazo que termina depois da duração informada, contada a partir de agora.
+     */
+    public static Prazo em(Duration duracao) {
+        return new Prazo(System.nanoTime() + duracao.toNanos());
+    }
+
+    /**
+     * Tempo que ainda resta, negativo quando o prazo já passou.
+     */
+    public Duration restante() {
+        return Duration.ofNanos(limiteNanos - System.nanoTime());
+    }
+
+    public boolean isEsgotado() {
+        return limiteNanos - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,13 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+/**
+ * Exceção lançada quando o prazo da requisição terminou antes de uma consulta ou chamada externa começar.
+ */
+public class PrazoEsgotadoException extends RuntimeException {
+
+    public static final String MENSAGEM = "Prazo da requisição esgotado";
+
+    public PrazoEsgotadoException() {
+        super(MENSAGEM);
+    }
+}
@@ -0,0 +1,55 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Prazo da requisição em andamento na thread atual, definido pelo {@link FiltroPrazo} e consultado por quem
+ * espera por I/O (transações, Redis e APIs de câmbio) para limitar a espera ao que o cliente ainda aguarda.
+ * Fora de uma requisição não há prazo, e os tempos limite configurados valem sem alteração.
+ */
+public final class PrazoRequisicao {
+
+    private static final ThreadLocal<Prazo> ATUAL = new ThreadLocal<>();
+
+    private PrazoRequisicao() {
+    }
+
+    public static Optional<Prazo> atual() {
+        return Optional.ofNullable(ATUAL.get());
+    }
+
+    public static void definir(Prazo prazo) {
+        ATUAL.set(prazo);
+    }
+
+    public static void limpar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Lança {@link PrazoEsgotadoException} se o prazo da requisição atual já terminou.
+     */
+    public static void verificar() {
+        Prazo prazo = ATUAL.get();
+        if (prazo != null && prazo.isEsgotado()) {
+            throw new PrazoEsgotadoException();
+        }
+    }
+
+    /**
+     * O menor entre o tempo limite configurado e o que resta do prazo da requisição atual.
+     * Lança {@link PrazoEsgotadoException} se o prazo já terminou, para que a espera nem comece.
+     */
+    public static Duration limitar(Duration tempoLimite) {
+        Prazo prazo = ATUAL.get();
+        if (prazo == null) {
+            return tempoLimite;
+        }
+        Duration restante = prazo.restante();
+        if (restante.isNegative() || restante.isZero()) {
+            throw new PrazoEsgotadoException();
+        }
+        return restante.compareTo(tempoLimite) < 0 ? restante : tempoLimite;
+    }
+}
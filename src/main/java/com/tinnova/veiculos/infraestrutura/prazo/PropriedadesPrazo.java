@@ -0,0 +1,35 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Prazo das requisições ({@code app.prazo.*}).
+ *
+ * @param habilitado se o filtro de prazo participa das requisições
+ * @param maximoMs   maior prazo aceito do cabeçalho do cliente
+ * @param padraoMs   prazo das requisições sem cabeçalho e sem regra que case
+ * @param regras     prazos padrão por endpoint, avaliados em ordem; vale a primeira que casa com a requisição
+ */
+@ConfigurationProperties("app.prazo")
+public record PropriedadesPrazo(
+        boolean habilitado,
+        long maximoMs,
+        long padraoMs,
+        List<RegraPrazo> regras) {
+
+    public PropriedadesPrazo {
+        regras = regras == null ? List.of() : List.copyOf(regras);
+    }
+
+    /**
+     * Prazo padrão de um endpoint, opcionalmente restrito a um método HTTP.
+     *
+     * @param metodo   método HTTP, ou {@code null} para qualquer método
+     * @param caminho  padrão de caminho, como {@code /veiculos/**}
+     * @param prazoMs  prazo das requisições sem cabeçalho
+     */
+    public record RegraPrazo(String metodo, String caminho, long prazoMs) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.dominio.veiculo.DimensoesVeiculo;
+import com.tinnova.veiculos.infraestrutura.relatorio.EstatisticasCatalogo.FaixaPreco;
+import com.tinnova.veiculos.infraestrutura.relatorio.EstatisticasCatalogo.ResumoPreco;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Acumula, em uma única passada, as estatísticas de todas as dimensões de uma faixa de veículos.
+ * Não é thread-safe: cada faixa usa o seu acumulador, e os parciais são combinados ao final.
+ */
+final class AcumuladorEstatisticas {
+
+    private final BigDecimal larguraFaixa;
+    private final Resumo geral = new Resumo();
+    private final Map<String, Resumo> porMarca = new HashMap<>();
+    private final Map<Integer, Resumo> porAno = new HashMap<>();
+    private final Map<String, Resumo> porCor = new HashMap<>();
+    private final Map<Long, Long> histograma = new HashMap<>();
+
+    AcumuladorEstatisticas(BigDecimal larguraFaixa) {
+        this.larguraFaixa = larguraFaixa;
+    }
+
+    void adicionar(DimensoesVeiculo veiculo) {
+        BigDecimal preco = veiculo.precoUsd();
+        geral.adicionar(preco);
+        porMarca.computeIfAbsent(veiculo.marca(), chave -> new Resumo()).adicionar(preco);
+        porAno.computeIfAbsent(veiculo.ano(), chave -> new Resumo()).adicionar(preco);
+        porCor.computeIfAbsent(veiculo.cor(), chave -> new Resumo()).adicionar(preco);
+        histograma.merge(preco.divideToIntegralValue(larguraFaixa).longValue(), 1L, Long::sum);
+    }
+
+    /**
+     * Incorpora o acumulador de outra faixa a este.
+     */
+    AcumuladorEstatisticas combinar(AcumuladorEstatisticas outro) {
+        geral.combinar(outro.geral);
+        combinar(porMarca, outro.porMarca);
+        combinar(porAno, outro.porAno);
+        combinar(porCor, outro.porCor);
+        outro.histograma.forEach((faixa, quantidade) -> histograma.merge(faixa, quantidade, Long::sum));
+        return this;
+    }
+
+    EstatisticasCatalogo resultado(long versao) {
+        List<FaixaPreco> faixas = new TreeMap<>(histograma).entrySet().stream()
+                .map(faixa -> {
+                    BigDecimal de = larguraFaixa.multiply(BigDecimal.valueOf(faixa.getKey()));
+                    return new FaixaPreco(de, de.add(larguraFaixa), faixa.getValue());
+                })
+                .toList();
+        return new EstatisticasCatalogo(versao, geral.resumo(),
+                resumos(porMarca), resumos(porAno), resumos(porCor), faixas, Instant.now());
+    }
+
+    private static <K> void combinar(Map<K, Resumo> destino, Map<K, Resumo> origem) {
+        origem.forEach((chave, resumo) -> destino.merge(chave, resumo, Resumo::combinar));
+    }
+
+    private static <K> SortedMap<K, ResumoPreco> resumos(Map<K, Resumo> grupos) {
+        SortedMap<K, ResumoPreco> resumos = new TreeMap<>();
+        grupos.forEach((chave, resumo) -> resumos.put(chave, resumo.resumo()));
+        return resumos;
+    }
+
+    private static final class Resumo {
+
+        private long quantidade;
+        private BigDecimal soma = BigDecimal.ZERO;
+        private BigDecimal minimo;
+        private BigDecimal maximo;
+
+        void adicionar(BigDecimal preco) {
+            quantidade++;
+            soma = soma.add(preco);
+            minimo = minimo == null || preco.compareTo(minimo) < 0 ? preco : minimo;
+            maximo = maximo == null || preco.compareTo(maximo) > 0 ? preco : maximo;
+        }
+
+        Resumo combinar(Resumo outro) {
+            if (outro.quantidade == 0) {
+                return this;
+            }
+            quantidade += outro.quantidade;
+            soma = soma.add(outro.soma);
+            minimo = minimo == null || outro.minimo.compareTo(minimo) < 0 ? outro.minimo : minimo;
+            maximo = maximo == null || outro.maximo.compareTo(maximo) > 0 ? outro.maximo : maximo;
+            return this;
+        }
+
+        ResumoPreco resumo() {
+            BigDecimal media = quantidade == 0 ? null
+                    : soma.divide(BigDecimal.valueOf(quantidade), 2, RoundingMode.HALF_EVEN);
+            return new ResumoPreco(quantidade, minimo, maximo, media);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.dominio.veiculo.IntervaloIds;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.infraestrutura.catalogo.VersaoCatalogo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Calcula as estatísticas de preço do catálogo por marca, ano e cor, além do histograma de preços,
+ * em uma única varredura dos veículos ativos. A faixa de ids é dividida recursivamente em um
+ * {@link ForkJoinPool} dedicado; cada faixa final é lida em sua própria transação e os acumuladores
+ * parciais são combinados na volta. O resultado fica em memória até a {@link VersaoCatalogo} mudar.
+ */
+@Slf4j
+@Component
+public class CalculadoraEstatisticas {
+
+    private final RepositorioVeiculo repositorio;
+    private final VersaoCatalogo versaoCatalogo;
+    private final TransactionTemplate transacaoLeitura;
+    private final ForkJoinPool pool;
+    private final long idsPorFaixa;
+    private final BigDecimal larguraHistograma;
+
+    private final ReentrantLock calculo = new ReentrantLock();
+    private volatile EstatisticasCatalogo atual;
+
+    public CalculadoraEstatisticas(
+            RepositorioVeiculo repositorio,
+            VersaoCatalogo versaoCatalogo,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.relatorios.estatisticas.paralelismo}") int paralelismo,
+            @Value("${app.relatorios.estatisticas.ids-por-faixa}") long idsPorFaixa,
+            @Value("${app.relatorios.estatisticas.largura-histograma-usd}") BigDecimal larguraHistograma) {
+        this.repositorio = repositorio;
+        this.versaoCatalogo = versaoCatalogo;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.pool = new ForkJoinPool(paralelismo);
+        this.idsPorFaixa = idsPorFaixa;
+        this.larguraHistograma = larguraHistograma;
+    }
+
+    /**
+     * Retorna as estatísticas da versão atual do catálogo, calculando-as se ainda não houver.
+     * Requisições concorrentes durante o cálculo aguardam e reaproveitam o mesmo resultado.
+     */
+    public EstatisticasCatalogo obter() {
+        EstatisticasCatalogo estatisticas = atual;
+        if (estatisticas != null && estatisticas.versao() == versaoCatalogo.atual()) {
+            return estatisticas;
+        }
+
+        calculo.lock();
+        try {
+            long versao = versaoCatalogo.atual();
+            estatisticas = atual;
+            if (estatisticas == null || estatisticas.versao() != versao) {
+                estatisticas = calcular(versao);
+                atual = estatisticas;
+                log.info("Estatísticas do catálogo calculadas: versão {}, {} veículos",
+                        versao, estatisticas.geral().quantidade());
+            }
+            return estatisticas;
+        } finally {
+            calculo.unlock();
+        }
+    }
+
+    private EstatisticasCatalogo calcular(long versao) {
+        IntervaloIds intervalo = transacaoLeitura.execute(status -> repositorio.intervaloIdsAtivos());
+        AcumuladorEstatisticas acumulador = intervalo.isVazio()
+                ? new AcumuladorEstatisticas(larguraHistograma)
+                : pool.invoke(new Varredura(intervalo.menor(), intervalo.maior()));
+        return acumulador.resultado(versao);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Varre os veículos ativos com id em {@code [de, ate]}, dividindo a faixa ao meio
+     * enquanto ela for maior que {@code idsPorFaixa}.
+     */
+    private final class Varredura extends RecursiveTask<AcumuladorEstatisticas> {
+
+        private final long de;
+        private final long ate;
+
+        Varredura(long de, long ate) {
+            this.de = de;
+            this.ate = ate;
+        }
+
+        @Override
+        protected AcumuladorEstatisticas compute() {
+            if (ate - de < idsPorFaixa) {
+                AcumuladorEstatisticas acumulador = new AcumuladorEstatisticas(larguraHistograma);
+                transacaoLeitura.executeWithoutResult(status ->
+                        repositorio.buscarDimensoes(de, ate).forEach(acumulador::adicionar));
+                return acumulador;
+            }
+
+            long meio = de + (ate - de) / 2;
+            Varredura esquerda = new Varredura(de, meio);
+            esquerda.fork();
+            AcumuladorEstatisticas direita = new Varredura(meio + 1, ate).compute();
+            return esquerda.join().combinar(direita);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Estatísticas de preço dos veículos ativos de uma versão do catálogo.
+ *
+ * @param versao     versão do catálogo usada no cálculo
+ * @param geral      resumo de todos os veículos ativos
+ * @param porMarca   resumo por marca
+ * @param porAno     resumo por ano
+ * @param porCor     resumo por cor
+ * @param histograma faixas de preço com ao menos um veículo, em ordem crescente
+ * @param calculadoEm instante do cálculo
+ */
+public record EstatisticasCatalogo(
+        long versao,
+        ResumoPreco geral,
+        SortedMap<String, ResumoPreco> porMarca,
+        SortedMap<Integer, ResumoPreco> porAno,
+        SortedMap<String, ResumoPreco> porCor,
+        List<FaixaPreco> histograma,
+        Instant calculadoEm) {
+
+    /**
+     * Quantidade e preços mínimo, máximo e médio (USD) de um grupo de veículos.
+     * Os preços são nulos quando o grupo está vazio.
+     */
+    public record ResumoPreco(long quantidade, BigDecimal minimo, BigDecimal maximo, BigDecimal media) {
+    }
+
+    /**
+     * Quantidade de veículos com preço (USD) em {@code [de, ate)}.
+     */
+    public record FaixaPreco(BigDecimal de, BigDecimal ate, long quantidade) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+/**
+ * Exceção lançada quando a fila de jobs de relatório atingiu a capacidade.
+ */
+public class FilaJobsCheiaException extends RuntimeException {
+
+    public FilaJobsCheiaException() {
+        super("Fila de relatórios cheia, tente novamente mais tarde");
+    }
+}
@@ -0,0 +1,266 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.infraestrutura.catalogo.VersaoCatalogo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executa relatórios pesados fora da thread da requisição.
+ * Os jobs rodam em um pool de tamanho fixo, com fila limitada e ordenada por prioridade,
+ * e o resultado é gravado em disco como JSON até expirar. Pedidos do mesmo relatório para a
+ * mesma {@link VersaoCatalogo} reaproveitam o job existente, em andamento ou concluído.
+ * Os jobs são mantidos apenas neste nó.
+ */
+@Slf4j
+@Component
+public class GerenciadorJobsRelatorio {
+
+    private static final String EXTENSAO = ".json";
+
+    private final RepositorioContagemMarca repositorioContagem;
+    private final CalculadoraEstatisticas calculadoraEstatisticas;
+    private final SketchesPreco sketchesPreco;
+    private final VersaoCatalogo versaoCatalogo;
+    private final JsonMapper jsonMapper;
+    private final Path diretorio;
+    private final Duration expiracao;
+    private final int capacidadeFila;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, JobRelatorio> jobs = new ConcurrentHashMap<>();
+    private final Map<ChaveJob, String> porChave = new ConcurrentHashMap<>();
+    private final ReentrantLock registro = new ReentrantLock();
+    private final AtomicInteger naFila = new AtomicInteger();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    public GerenciadorJobsRelatorio(
+            RepositorioContagemMarca repositorioContagem,
+            CalculadoraEstatisticas calculadoraEstatisticas,
+            SketchesPreco sketchesPreco,
+            VersaoCatalogo versaoCatalogo,
+            JsonMapper jsonMapper,
+            @Value("${app.relatorios.jobs.diretorio}") String diretorio,
+            @Value("${app.relatorios.jobs.threads}") int threads,
+            @Value("${app.relatorios.jobs.capacidade-fila}") int capacidadeFila,
+            @Value("${app.relatorios.jobs.expiracao-ms}") long expiracaoMs) {
+        this.repositorioContagem = repositorioContagem;
+        this.calculadoraEstatisticas = calculadoraEstatisticas;
+        this.sketchesPreco = sketchesPreco;
+        this.versaoCatalogo = versaoCatalogo;
+        this.jsonMapper = jsonMapper;
+        this.diretorio = Path.of(diretorio);
+        this.expiracao = Duration.ofMillis(expiracaoMs);
+        this.capacidadeFila = capacidadeFila;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), Thread.ofPlatform().name("relatorio-job-", 1).factory());
+    }
+
+    /**
+     * Inicia o relatório ou retorna o job já existente para o mesmo relatório e versão do catálogo.
+     * Jobs que falharam ou expiraram não são reaproveitados. Sem prioridade, o job entra como
+     * {@link PrioridadeJob#NORMAL}.
+     *
+     * @throws FilaJobsCheiaException se a fila atingiu a capacidade
+     */
+    public JobRelatorio iniciar(TipoRelatorio tipo, PrioridadeJob prioridade) {
+        PrioridadeJob efetiva = prioridade == null ? PrioridadeJob.NORMAL : prioridade;
+        ChaveJob chave = new ChaveJob(tipo, versaoCatalogo.atual());
+        registro.lock();
+        try {
+            String existente = porChave.get(chave);
+            JobRelatorio job = existente == null ? null : jobs.get(existente);
+            if (job != null && job.situacao() != SituacaoJob.FALHOU && !expirado(job, Instant.now())) {
+                return job;
+            }
+
+            job = enfileirar(chave, efetiva);
+            porChave.put(chave, job.id());
+            return job;
+        } finally {
+            registro.unlock();
+        }
+    }
+
+    /**
+     * Retorna o estado atual do job.
+     *
+     * @throws JobNaoEncontradoException se o job não existe ou expirou
+     */
+    public JobRelatorio buscar(String id) {
+        JobRelatorio job = jobs.get(id);
+        if (job == null || expirado(job, Instant.now())) {
+            throw new JobNaoEncontradoException(id);
+        }
+        return job;
+    }
+
+    /**
+     * Retorna o arquivo com o resultado de um job concluído.
+     *
+     * @throws JobNaoEncontradoException          se o job não existe ou expirou
+     * @throws ResultadoJobIndisponivelException se o job ainda não terminou ou falhou
+     */
+    public Path resultado(String id) {
+        JobRelatorio job = buscar(id);
+        if (job.situacao() != SituacaoJob.CONCLUIDO) {
+            throw new ResultadoJobIndisponivelException(job);
+        }
+        return arquivo(id);
+    }
+
+    /**
+     * Descarta os jobs expirados e os arquivos que não pertencem a nenhum job conhecido.
+     */
+    @Scheduled(fixedDelayString = "${app.relatorios.jobs.limpeza-ms}")
+    public void removerExpirados() {
+        Instant agora = Instant.now();
+        jobs.values().stream()
+                .filter(job -> expirado(job, agora))
+                .forEach(job -> {
+                    jobs.remove(job.id());
+                    porChave.remove(new ChaveJob(job.tipo(), job.versaoCatalogo()), job.id());
+                });
+
+        if (!Files.isDirectory(diretorio)) {
+            return;
+        }
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*" + EXTENSAO)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                if (!jobs.containsKey(nome.substring(0, nome.length() - EXTENSAO.length()))) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao remover resultados de relatórios expirados: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Registra o job antes de entregá-lo ao executor, para que a tarefa o encontre mesmo se começar na hora;
+     * se o executor recusar a tarefa, o registro e a vaga na fila são desfeitos.
+     */
+    private JobRelatorio enfileirar(ChaveJob chave, PrioridadeJob prioridade) {
+        if (naFila.incrementAndGet() > capacidadeFila) {
+            naFila.decrementAndGet();
+            throw new FilaJobsCheiaException();
+        }
+        JobRelatorio job = new JobRelatorio(UUID.randomUUID().toString(), chave.tipo(), prioridade,
+                SituacaoJob.PENDENTE, chave.versao(), Instant.now(), null, null, null);
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(new Tarefa(job.id(), prioridade, sequencia.incrementAndGet()));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id());
+            naFila.decrementAndGet();
+            throw e;
+        }
+        return job;
+    }
+
+    private void executar(String id) {
+        JobRelatorio job = jobs.computeIfPresent(id, (chave, atual) -> atual.executando());
+        if (job == null) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        try {
+            gravar(id, gerar(job.tipo()));
+            Instant agora = Instant.now();
+            jobs.computeIfPresent(id, (chave, atual) -> atual.concluido(agora, agora.plus(expiracao)));
+            log.info("Relatório {} gerado pelo job {} em {} ms", job.tipo(), id, System.currentTimeMillis() - inicio);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Falha no job {} do relatório {}: {}", id, job.tipo(), e.getMessage());
+            Instant agora = Instant.now();
+            jobs.computeIfPresent(id, (chave, atual) -> atual.falhou(agora, agora.plus(expiracao), e.getMessage()));
+        }
+    }
+
+    private Object gerar(TipoRelatorio tipo) {
+        return switch (tipo) {
+            case POR_MARCA -> repositorioContagem.listarPositivas();
+            case ESTATISTICAS -> calculadoraEstatisticas.obter();
+            case PERCENTIS -> sketchesPreco.percentis();
+        };
+    }
+
+    private void gravar(String id, Object resultado) throws IOException {
+        Files.createDirectories(diretorio);
+        Path temporario = Files.createTempFile(diretorio, id, ".tmp");
+        try (OutputStream saida = new BufferedOutputStream(Files.newOutputStream(temporario))) {
+            jsonMapper.writeValue(saida, resultado);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+        Files.move(temporario, arquivo(id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path arquivo(String id) {
+        return diretorio.resolve(id + EXTENSAO);
+    }
+
+    private static boolean expirado(JobRelatorio job, Instant agora) {
+        return job.expiraEm() != null && !agora.isBefore(job.expiraEm());
+    }
+
+    private record ChaveJob(TipoRelatorio tipo, long versao) {
+    }
+
+    /**
+     * Execução de um job na fila: maior prioridade primeiro e, na mesma prioridade, ordem de chegada.
+     */
+    private final class Tarefa implements Runnable, Comparable<Tarefa> {
+
+        private final String id;
+        private final PrioridadeJob prioridade;
+        private final long ordem;
+
+        Tarefa(String id, PrioridadeJob prioridade, long ordem) {
+            this.id = id;
+            this.prioridade = prioridade;
+            this.ordem = ordem;
+        }
+
+        @Override
+        public void run() {
+            naFila.decrementAndGet();
+            executar(id);
+        }
+
+        @Override
+        public int compareTo(Tarefa outra) {
+            int comparacao = prioridade.compareTo(outra.prioridade);
+            return comparacao != 0 ? comparacao : Long.compare(ordem, outra.ordem);
+        }
+    }
+}
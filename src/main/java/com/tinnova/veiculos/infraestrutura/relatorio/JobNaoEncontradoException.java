@@ -0,0 +1,11 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+/**
+ * Exceção lançada quando o job de relatório não existe ou já expirou.
+ */
+public class JobNaoEncontradoException extends RuntimeException {
+
+    public JobNaoEncontradoException(String id) {
+        super("Job de relatório não encontrado: " + id);
+    }
+}
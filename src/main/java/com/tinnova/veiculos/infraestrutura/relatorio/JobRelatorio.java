@@ -0,0 +1,44 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import java.time.Instant;
+
+/**
+ * Estado de um job de relatório em um instante.
+ *
+ * @param id             identificador do job
+ * @param tipo           relatório gerado
+ * @param prioridade     prioridade na fila
+ * @param situacao       situação atual
+ * @param versaoCatalogo versão do catálogo para a qual o relatório é gerado
+ * @param criadoEm       instante da criação
+ * @param concluidoEm    instante em que terminou, ou {@code null} se ainda não terminou
+ * @param expiraEm       instante a partir do qual o job e o resultado são descartados, ou {@code null}
+ *                       se ainda não terminou
+ * @param erro           mensagem da falha, se houver
+ */
+public record JobRelatorio(
+        String id,
+        TipoRelatorio tipo,
+        PrioridadeJob prioridade,
+        SituacaoJob situacao,
+        long versaoCatalogo,
+        Instant criadoEm,
+        Instant concluidoEm,
+        Instant expiraEm,
+        String erro) {
+
+    JobRelatorio executando() {
+        return new JobRelatorio(id, tipo, prioridade, SituacaoJob.EXECUTANDO, versaoCatalogo, criadoEm,
+                null, null, null);
+    }
+
+    JobRelatorio concluido(Instant agora, Instant expiraEm) {
+        return new JobRelatorio(id, tipo, prioridade, SituacaoJob.CONCLUIDO, versaoCatalogo, criadoEm,
+                agora, expiraEm, null);
+    }
+
+    JobRelatorio falhou(Instant agora, Instant expiraEm, String erro) {
+        return new JobRelatorio(id, tipo, prioridade, SituacaoJob.FALHOU, versaoCatalogo, criadoEm,
+                agora, expiraEm, erro);
+    }
+}
@@ -0,0 +1,23 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import java.math.BigDecimal;
+import java.util.SortedMap;
+
+/**
+ * Percentis aproximados de preço (USD) dos veículos ativos por marca e por ano.
+ *
+ * @param porMarca           percentis por marca
+ * @param porAno             percentis por ano
+ * @param alteracoesPendentes remoções e alterações ainda não refletidas, corrigidas na próxima reconstrução
+ */
+public record PercentisPreco(
+        SortedMap<String, Percentis> porMarca,
+        SortedMap<Integer, Percentis> porAno,
+        long alteracoesPendentes) {
+
+    /**
+     * Percentis 25, 50 e 90 de um grupo de veículos.
+     */
+    public record Percentis(long quantidade, BigDecimal p25, BigDecimal p50, BigDecimal p90) {
+    }
+}
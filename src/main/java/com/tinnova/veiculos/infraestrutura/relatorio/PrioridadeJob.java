@@ -0,0 +1,10 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+/**
+ * Prioridade de execução de um job de relatório; jobs de maior prioridade saem primeiro da fila.
+ */
+public enum PrioridadeJob {
+    ALTA,
+    NORMAL,
+    BAIXA
+}
@@ -0,0 +1,87 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.dominio.veiculo.ContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.ContagemPorMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Verifica periodicamente a contagem mantida por marca contra um {@code GROUP BY} da tabela de veículos
+ * e corrige as divergências. As contagens são bloqueadas antes da leitura dos veículos: escritas
+ * concorrentes ainda não confirmadas esperam a reconciliação terminar e aplicam seus ajustes depois,
+ * sem que a correção sobrescreva o ajuste delas.
+ */
+@Slf4j
+@Component
+public class ReconciliadorContagemMarca {
+
+    private final RepositorioVeiculo repositorioVeiculo;
+    private final RepositorioContagemMarca repositorioContagem;
+    private final TransactionTemplate transacao;
+    private final Counter divergencias;
+
+    public ReconciliadorContagemMarca(
+            RepositorioVeiculo repositorioVeiculo,
+            RepositorioContagemMarca repositorioContagem,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry) {
+        this.repositorioVeiculo = repositorioVeiculo;
+        this.repositorioContagem = repositorioContagem;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.divergencias = Counter.builder("veiculos.contagem.marca.divergencias")
+                .description("Contagens por marca corrigidas pela reconciliação")
+                .register(registry);
+    }
+
+    /**
+     * Reconcilia as contagens por marca.
+     *
+     * @return quantidade de marcas corrigidas
+     */
+    @Scheduled(fixedDelayString = "${app.relatorios.contagem-marca.reconciliacao-ms}",
+            initialDelayString = "${app.relatorios.contagem-marca.reconciliacao-ms}")
+    public int reconciliar() {
+        Integer corrigidas = transacao.execute(status -> {
+            Map<String, ContagemMarca> mantidas = repositorioContagem.bloquearTodas().stream()
+                    .collect(Collectors.toMap(ContagemMarca::getMarca, Function.identity()));
+            int total = 0;
+
+            for (ContagemPorMarca real : repositorioVeiculo.contarPorMarca()) {
+                ContagemMarca mantida = mantidas.remove(real.marca());
+                if (mantida == null) {
+                    log.warn("Contagem ausente para a marca {}: esperado {}", real.marca(), real.quantidade());
+                    repositorioContagem.save(new ContagemMarca(real.marca(), real.quantidade()));
+                    total++;
+                } else if (mantida.getQuantidade() != real.quantidade()) {
+                    log.warn("Contagem divergente para a marca {}: mantida {}, esperado {}",
+                            real.marca(), mantida.getQuantidade(), real.quantidade());
+                    mantida.setQuantidade(real.quantidade());
+                    total++;
+                }
+            }
+            for (ContagemMarca semVeiculos : mantidas.values()) {
+                if (semVeiculos.getQuantidade() != 0) {
+                    log.warn("Contagem divergente para a marca {}: mantida {}, esperado 0",
+                            semVeiculos.getMarca(), semVeiculos.getQuantidade());
+                    semVeiculos.setQuantidade(0L);
+                    total++;
+                }
+            }
+            return total;
+        });
+
+        divergencias.increment(corrigidas);
+        return corrigidas;
+    }
+}
@@ -0,0 +1,11 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+/**
+ * Exceção lançada ao baixar o resultado de um job que não foi concluído com sucesso.
+ */
+public class ResultadoJobIndisponivelException extends RuntimeException {
+
+    public ResultadoJobIndisponivelException(JobRelatorio job) {
+        super("Resultado do job " + job.id() + " indisponível: " + job.situacao());
+    }
+}
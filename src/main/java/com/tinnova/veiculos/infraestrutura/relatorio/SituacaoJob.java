@@ -0,0 +1,18 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+/**
+ * Situação de um job de relatório.
+ */
+public enum SituacaoJob {
+    PENDENTE,
+    EXECUTANDO,
+    CONCLUIDO,
+    FALHOU;
+
+    /**
+     * Indica se o job já terminou, com ou sem sucesso.
+     */
+    public boolean isFinalizado() {
+        return this == CONCLUIDO || this == FALHOU;
+    }
+}
@@ -0,0 +1,231 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.dominio.veiculo.DimensoesVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.IntervaloIds;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.dominio.veiculo.VeiculoAlteradoEvento;
+import com.tinnova.veiculos.infraestrutura.indice.SketchKll;
+import com.tinnova.veiculos.infraestrutura.relatorio.PercentisPreco.Percentis;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Sketches KLL do preço dos veículos ativos por marca e por ano neste nó.
+ * Construídos na inicialização com uma leitura em streaming e atualizados a cada criação confirmada.
+ * O KLL não suporta remoção: remoções e alterações de preço, marca ou ano só são contadas,
+ * e os sketches são reconstruídos quando essas alterações passam de uma fração dos veículos.
+ * Até lá, o erro de rank fica limitado ao erro do sketch mais a fração de alterações pendentes.
+ */
+@Slf4j
+@Component
+public class SketchesPreco {
+
+    private final RepositorioVeiculo repositorio;
+    private final TransactionTemplate transacaoLeitura;
+    private final int k;
+    private final double limiteDesatualizacao;
+
+    private final ReentrantLock escrita = new ReentrantLock();
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+    private final AtomicLong pendentes = new AtomicLong();
+    private volatile Grupos atual;
+    private List<Veiculo> criadosDuranteReconstrucao;
+
+    public SketchesPreco(
+            RepositorioVeiculo repositorio,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.relatorios.percentis.k}") int k,
+            @Value("${app.relatorios.percentis.limite-desatualizacao}") double limiteDesatualizacao) {
+        this.repositorio = repositorio;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.k = k;
+        this.limiteDesatualizacao = limiteDesatualizacao;
+        this.atual = new Grupos();
+    }
+
+    /**
+     * Registra o preço do veículo criado após a confirmação da transação, para que uma criação desfeita
+     * não fique nos sketches até a próxima reconstrução.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    void aoAlterarVeiculo(VeiculoAlteradoEvento evento) {
+        if (evento.criado()) {
+            adicionar(evento.veiculo());
+        }
+    }
+
+    /**
+     * Registra o preço de um veículo recém-criado.
+     */
+    public void adicionar(Veiculo veiculo) {
+        escrita.lock();
+        try {
+            atual.adicionar(dimensoes(veiculo));
+            if (criadosDuranteReconstrucao != null) {
+                criadosDuranteReconstrucao.add(veiculo);
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Registra veículos removidos ou com preço, marca ou ano alterados, que os sketches ainda contam
+     * com o valor antigo até a próxima reconstrução.
+     */
+    public void registrarAlteracoes(long quantidade) {
+        pendentes.addAndGet(quantidade);
+    }
+
+    /**
+     * Percentis 25, 50 e 90 por marca e por ano.
+     */
+    public PercentisPreco percentis() {
+        Grupos grupos = atual;
+        return new PercentisPreco(percentis(grupos.porMarca), percentis(grupos.porAno), pendentes.get());
+    }
+
+    /**
+     * Reconstrói os sketches se as alterações pendentes passaram do limite.
+     */
+    @Scheduled(fixedDelayString = "${app.relatorios.percentis.verificacao-ms}")
+    public void reconstruirSeNecessario() {
+        if (pendentes.get() > limiteDesatualizacao * Math.max(1, atual.quantidade())) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Reconstrói os sketches a partir de uma leitura dos veículos ativos.
+     * A leitura vai até o maior id ativo no início; veículos criados durante ela com id além
+     * desse limite são reaplicados ao final.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        if (!reconstrucao.tryLock()) {
+            return;
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+            long alteracoes = pendentes.get();
+            escrita.lock();
+            try {
+                criadosDuranteReconstrucao = new ArrayList<>();
+            } finally {
+                escrita.unlock();
+            }
+
+            Grupos novos = new Grupos();
+            long limite = transacaoLeitura.execute(status -> {
+                IntervaloIds intervalo = repositorio.intervaloIdsAtivos();
+                long maior = intervalo.isVazio() ? 0 : intervalo.maior();
+                try (Stream<DimensoesVeiculo> veiculos = repositorio.streamDimensoesAtivas(maior)) {
+                    veiculos.forEach(novos::adicionar);
+                }
+                return maior;
+            });
+
+            escrita.lock();
+            try {
+                criadosDuranteReconstrucao.stream()
+                        .filter(veiculo -> veiculo.getId() > limite)
+                        .forEach(veiculo -> novos.adicionar(dimensoes(veiculo)));
+                criadosDuranteReconstrucao = null;
+                atual = novos;
+                pendentes.addAndGet(-alteracoes);
+            } finally {
+                escrita.unlock();
+            }
+            log.info("Sketches de preço construídos: {} veículos, {} marcas, {} anos em {} ms",
+                    novos.quantidade(), novos.porMarca.size(), novos.porAno.size(),
+                    System.currentTimeMillis() - inicio);
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    private static <K extends Comparable<K>> SortedMap<K, Percentis> percentis(Map<K, SketchTravado> sketches) {
+        SortedMap<K, Percentis> percentis = new TreeMap<>();
+        sketches.forEach((chave, travado) -> {
+            travado.trava().lock();
+            try {
+                SketchKll sketch = travado.sketch();
+                percentis.put(chave, new Percentis(sketch.quantidade(),
+                        preco(sketch.quantil(0.25)), preco(sketch.quantil(0.5)), preco(sketch.quantil(0.9))));
+            } finally {
+                travado.trava().unlock();
+            }
+        });
+        return percentis;
+    }
+
+    private static DimensoesVeiculo dimensoes(Veiculo veiculo) {
+        return new DimensoesVeiculo(veiculo.getMarca(), veiculo.getAno(), veiculo.getCor(), veiculo.getPrecoUsd());
+    }
+
+    private static BigDecimal preco(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Sketches de uma geração, por marca e por ano.
+     */
+    private final class Grupos {
+
+        private final Map<String, SketchTravado> porMarca = new ConcurrentHashMap<>();
+        private final Map<Integer, SketchTravado> porAno = new ConcurrentHashMap<>();
+        private final AtomicLong quantidade = new AtomicLong();
+
+        void adicionar(DimensoesVeiculo veiculo) {
+            double preco = veiculo.precoUsd().doubleValue();
+            adicionar(porMarca.computeIfAbsent(veiculo.marca(), chave -> new SketchTravado(new SketchKll(k))), preco);
+            adicionar(porAno.computeIfAbsent(veiculo.ano(), chave -> new SketchTravado(new SketchKll(k))), preco);
+            quantidade.incrementAndGet();
+        }
+
+        long quantidade() {
+            return quantidade.get();
+        }
+
+        private static void adicionar(SketchTravado travado, double preco) {
+            travado.trava().lock();
+            try {
+                travado.sketch().adicionar(preco);
+            } finally {
+                travado.trava().unlock();
+            }
+        }
+    }
+
+    /**
+     * Sketch com a trava que protege o acesso a ele. É uma {@link ReentrantLock} e não um bloco
+     * {@code synchronized} para não prender a thread portadora quando a requisição roda em thread virtual.
+     */
+    private record SketchTravado(SketchKll sketch, ReentrantLock trava) {
+
+        SketchTravado(SketchKll sketch) {
+            this(sketch, new ReentrantLock());
+        }
+    }
+}
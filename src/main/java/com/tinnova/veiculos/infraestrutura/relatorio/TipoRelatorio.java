@@ -0,0 +1,16 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+/**
+ * Relatórios que podem ser gerados de forma assíncrona.
+ */
+public enum TipoRelatorio {
+
+    /** Contagem de veículos ativos por marca. */
+    POR_MARCA,
+
+    /** Estatísticas de preço por marca, ano e cor, com histograma. */
+    ESTATISTICAS,
+
+    /** Percentis de preço por marca e por ano. */
+    PERCENTIS
+}
@@ -0,0 +1,56 @@
+package com.tinnova.veiculos.infraestrutura.seguranca;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Autenticação imutável de um token JWT verificado. É criada uma vez por token e reaproveitada
+ * em todas as requisições que o apresentam; as authorities são compartilhadas por combinação de roles.
+ *
+ * @param username    usuário do token
+ * @param autoridades authorities das roles do token, imutáveis
+ */
+public record AutenticacaoJwt(String username, List<GrantedAuthority> autoridades) implements Authentication {
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return autoridades;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return username;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    /**
+     * A autenticação não pode ser revogada: o token continua válido até expirar.
+     */
+    @Override
+    public void setAuthenticated(boolean autenticado) {
+        if (!autenticado) {
+            throw new IllegalArgumentException("Autenticação JWT é imutável");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.tinnova.veiculos.infraestrutura.seguranca;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listas imutáveis de authorities compartilhadas por combinação de roles. As roles vêm de tokens
+ * assinados por esta aplicação e há poucas combinações, então cada uma é criada uma vez; acima de
+ * {@value #MAXIMO_COMBINACOES} combinações, as novas não são mais guardadas.
+ */
+class AutoridadesInternadas {
+
+    static final int MAXIMO_COMBINACOES = 64;
+
+    private final ConcurrentHashMap<List<String>, List<GrantedAuthority>> porRoles = new ConcurrentHashMap<>();
+
+    List<GrantedAuthority> de(List<String> roles) {
+        List<GrantedAuthority> internadas = porRoles.get(roles);
+        if (internadas != null) {
+            return internadas;
+        }
+        List<GrantedAuthority> autoridades = roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        if (porRoles.size() >= MAXIMO_COMBINACOES) {
+            return autoridades;
+        }
+        return porRoles.computeIfAbsent(List.copyOf(roles), chave -> autoridades);
+    }
+}
@@ -0,0 +1,75 @@
+package com.tinnova.veiculos.infraestrutura.seguranca;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache limitado dos tokens JWT já verificados, indexado pelo SHA-256 do token para não manter
+ * credenciais em memória. Cada entrada vale até a expiração do próprio token. Ao atingir a capacidade,
+ * descarta as entradas expiradas e, se ainda faltar espaço, entradas quaisquer até liberar um décimo dela;
+ * um token descartado só volta a ser verificado na próxima requisição.
+ */
+public class CacheTokensVerificados {
+
+    private final int capacidade;
+    private final ConcurrentHashMap<String, TokenVerificado> tokens = new ConcurrentHashMap<>();
+
+    public CacheTokensVerificados(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * Chave do token no cache.
+     */
+    public static String chave(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Token verificado com a chave informada, ou {@code null} se não está no cache ou já expirou.
+     */
+    public TokenVerificado obter(String chave, long agoraMs) {
+        TokenVerificado verificado = tokens.get(chave);
+        if (verificado == null) {
+            return null;
+        }
+        if (verificado.expiraEmMs() <= agoraMs) {
+            tokens.remove(chave, verificado);
+            return null;
+        }
+        return verificado;
+    }
+
+    public void guardar(String chave, TokenVerificado verificado, long agoraMs) {
+        if (capacidade <= 0 || verificado.expiraEmMs() <= agoraMs) {
+            return;
+        }
+        if (tokens.size() >= capacidade) {
+            liberarEspaco(agoraMs);
+        }
+        tokens.put(chave, verificado);
+    }
+
+    public int quantidade() {
+        return tokens.size();
+    }
+
+    private void liberarEspaco(long agoraMs) {
+        tokens.values().removeIf(verificado -> verificado.expiraEmMs() <= agoraMs);
+        int alvo = capacidade - Math.max(1, capacidade / 10);
+        Iterator<String> chaves = tokens.keySet().iterator();
+        while (tokens.size() > alvo && chaves.hasNext()) {
+            chaves.next();
+            chaves.remove();
+        }
+    }
+}
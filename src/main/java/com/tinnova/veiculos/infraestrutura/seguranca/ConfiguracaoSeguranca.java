@@ -1,53 +1,118 @@
 package com.tinnova.veiculos.infraestrutura.seguranca;
 
+import com.tinnova.veiculos.infraestrutura.limite.FiltroLimiteRequisicoes;
+import com.tinnova.veiculos.infraestrutura.limite.LimitadorRequisicoes;
+import com.tinnova.veiculos.infraestrutura.limite.PropriedadesLimite;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
 /**
  * Configuração de segurança da aplicação.
  */
 @Configuration
+@EnableConfigurationProperties(PropriedadesLimite.class)
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
 public class ConfiguracaoSeguranca {
 
+    /**
+     * Caminhos liberados sem autenticação, que também não passam pelo {@link JwtAuthenticationFilter}.
+     */
+    static final String[] CAMINHOS_PUBLICOS = {
+            "/h2-console/**", "/swagger-ui/**", "/api-docs/**", "/swagger-ui.html", "/auth/**"
+    };
+
+    /**
+     * Coleta do Prometheus, com cadeia própria e autenticação básica do usuário de coleta.
+     */
+    static final String PROMETHEUS_PATH = "/actuator/prometheus";
+
     private static final String VEICULOS_PATH = "/veiculos/**";
+    private static final String JOBS_RELATORIO_PATH = "/veiculos/relatorios/jobs";
+    private static final String ADMIN_PATH = "/admin/**";
     private static final String ROLE_ADMIN = "ADMIN";
     private static final String ROLE_USER = "USER";
+    private static final String ROLE_METRICAS = "METRICAS";
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final LimitadorRequisicoes limitadorRequisicoes;
+
+    /**
+     * Cadeia da coleta do Prometheus, avaliada antes da principal. A coleta expõe métricas por rota, do Hibernate
+     * e dos limites por cliente, e por isso exige o usuário de coleta ({@code app.metricas.usuario}), com a senha
+     * codificada no formato {@code {id}valor} do Spring Security ({@code app.metricas.senha}). Sem senha
+     * configurada, o endpoint fica fechado.
+     */
+    @Bean
+    @Order(1)
+    SecurityFilterChain metricasFilterChain(HttpSecurity http,
+            @Value("${app.metricas.usuario}") String usuario,
+            @Value("${app.metricas.senha:}") String senha) throws Exception {
+        boolean configurado = !senha.isBlank();
+        http
+                .securityMatcher(PROMETHEUS_PATH)
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> {
+                    if (configurado) {
+                        auth.anyRequest().hasRole(ROLE_METRICAS);
+                    } else {
+                        auth.anyRequest().denyAll();
+                    }
+                })
+                .httpBasic(Customizer.withDefaults());
+        if (configurado) {
+            http.userDetailsService(new InMemoryUserDetailsManager(
+                    User.withUsername(usuario).password(senha).roles(ROLE_METRICAS).build()));
+        }
+        return http.build();
+    }
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(2)
+    SecurityFilterChain securityFilterChain(HttpSecurity http,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolvedorExcecoes) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/h2-console/**").permitAll()
-                        .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
-                        .requestMatchers("/auth/**").permitAll()
+                        .requestMatchers(CAMINHOS_PUBLICOS).permitAll()
                         .requestMatchers(HttpMethod.GET, VEICULOS_PATH).hasAnyRole(ROLE_USER, ROLE_ADMIN)
+                        .requestMatchers(HttpMethod.POST, JOBS_RELATORIO_PATH).hasAnyRole(ROLE_USER, ROLE_ADMIN)
                         .requestMatchers(HttpMethod.POST, VEICULOS_PATH).hasRole(ROLE_ADMIN)
                         .requestMatchers(HttpMethod.PUT, VEICULOS_PATH).hasRole(ROLE_ADMIN)
                         .requestMatchers(HttpMethod.PATCH, VEICULOS_PATH).hasRole(ROLE_ADMIN)
                         .requestMatchers(HttpMethod.DELETE, VEICULOS_PATH).hasRole(ROLE_ADMIN)
+                        .requestMatchers(ADMIN_PATH).hasRole(ROLE_ADMIN)
                         .anyRequest().authenticated())
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        if (limitadorRequisicoes.isHabilitado()) {
+            http.addFilterAfter(new FiltroLimiteRequisicoes(limitadorRequisicoes, resolvedorExcecoes),
+                    UsernamePasswordAuthenticationFilter.class);
+        }
 
         return http.build();
     }
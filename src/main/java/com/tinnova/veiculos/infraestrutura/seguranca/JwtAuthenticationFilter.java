@@ -1,28 +1,65 @@
 package com.tinnova.veiculos.infraestrutura.seguranca;
 
+import com.tinnova.veiculos.infraestrutura.tempos.EtapaRequisicao;
+import com.tinnova.veiculos.infraestrutura.tempos.TemposRequisicao;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Filtro que valida tokens JWT em cada requisição.
+ * A autenticação de cada token é montada uma vez, na verificação, e reaproveitada enquanto o token
+ * estiver em cache; os caminhos públicos não passam pelo filtro. A verificação entra no {@code Server-Timing}
+ * como {@link EtapaRequisicao#JWT}.
  */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final List<PathPattern> CAMINHOS_PUBLICOS = Arrays.stream(ConfiguracaoSeguranca.CAMINHOS_PUBLICOS)
+            .map(PathPatternParser.defaultInstance::parse)
+            .toList();
+
     private final JwtUtil jwtUtil;
 
+    /**
+     * Indica se a requisição é para um caminho público. O caminho é analisado uma única vez para todos os padrões.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        boolean analisado = ServletRequestPathUtils.hasParsedRequestPath(request);
+        RequestPath caminho = analisado
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : ServletRequestPathUtils.parseAndCache(request);
+        try {
+            PathContainer dentroDaAplicacao = caminho.pathWithinApplication();
+            for (PathPattern publico : CAMINHOS_PUBLICOS) {
+                if (publico.matches(dentroDaAplicacao)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            if (!analisado) {
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+            }
+        }
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -32,16 +69,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if (jwtUtil.validarToken(token)) {
-                String username = jwtUtil.extrairUsername(token);
-                List<String> roles = jwtUtil.extrairRoles(token);
-
-                var authorities = roles.stream()
-                        .map(SimpleGrantedAuthority::new)
-                        .toList();
-
-                var authentication = new UsernamePasswordAuthenticationToken(username, null, authorities);
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            boolean medindo = TemposRequisicao.iniciar(EtapaRequisicao.JWT);
+            try {
+                jwtUtil.verificar(token).ifPresent(verificado ->
+                        SecurityContextHolder.getContext().setAuthentication(verificado.autenticacao()));
+            } finally {
+                if (medindo) {
+                    TemposRequisicao.encerrar(EtapaRequisicao.JWT);
+                }
             }
         }
 
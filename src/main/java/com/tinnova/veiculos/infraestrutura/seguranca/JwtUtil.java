@@ -1,8 +1,14 @@
 package com.tinnova.veiculos.infraestrutura.seguranca;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -10,21 +16,49 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utilitário para geração e validação de tokens JWT.
+ * A verificação usa um único parser, criado na inicialização, e guarda os tokens verificados,
+ * já com a {@link AutenticacaoJwt} pronta, em um {@link CacheTokensVerificados}, para que requisições
+ * repetidas com o mesmo token não refaçam a verificação da assinatura nem a leitura do JSON.
  */
 @Component
 public class JwtUtil {
 
     private final SecretKey key;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final CacheTokensVerificados cache;
+    private final AutoridadesInternadas autoridades = new AutoridadesInternadas();
+    private final Counter tokensDoCache;
+    private final Counter tokensVerificados;
+    private final Counter tokensInvalidos;
+    private final Timer duracaoCache;
+    private final Timer duracaoAssinatura;
+    private final Timer duracaoInvalidos;
 
     public JwtUtil(
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expiration-ms}") long expirationMs) {
+            @Value("${app.jwt.expiration-ms}") long expirationMs,
+            @Value("${app.jwt.cache.capacidade}") int capacidadeCache,
+            MeterRegistry registry) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.cache = new CacheTokensVerificados(capacidadeCache);
+
+        this.tokensDoCache = contadorVerificacao("cache", registry);
+        this.tokensVerificados = contadorVerificacao("assinatura", registry);
+        this.tokensInvalidos = contadorVerificacao("invalido", registry);
+        this.duracaoCache = timerVerificacao("cache", registry);
+        this.duracaoAssinatura = timerVerificacao("assinatura", registry);
+        this.duracaoInvalidos = timerVerificacao("invalido", registry);
+        Gauge.builder("veiculos.jwt.cache.tokens", cache, CacheTokensVerificados::quantidade)
+                .description("Tokens JWT verificados mantidos em cache")
+                .register(registry);
     }
 
     /**
@@ -44,37 +78,55 @@ public class JwtUtil {
     }
 
     /**
-     * Extrai o username do token.
+     * Verifica assinatura e expiração do token em uma única leitura e retorna a autenticação do usuário.
+     * Retorna vazio se o token for inválido ou estiver expirado.
      */
-    public String extrairUsername(String token) {
-        return extrairClaims(token).getSubject();
-    }
-
-    /**
-     * Extrai as roles do token.
-     */
-    @SuppressWarnings("unchecked")
-    public List<String> extrairRoles(String token) {
-        return extrairClaims(token).get("roles", List.class);
-    }
+    public Optional<TokenVerificado> verificar(String token) {
+        long inicio = System.nanoTime();
+        long agora = System.currentTimeMillis();
+        String chave = CacheTokensVerificados.chave(token);
+        TokenVerificado doCache = cache.obter(chave, agora);
+        if (doCache != null) {
+            tokensDoCache.increment();
+            duracaoCache.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return Optional.of(doCache);
+        }
 
-    /**
-     * Valida se o token é válido e não expirou.
-     */
-    public boolean validarToken(String token) {
+        Claims claims;
+        List<?> roles;
         try {
-            extrairClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            claims = parser.parseSignedClaims(token).getPayload();
+            roles = claims.get("roles", List.class);
+        } catch (JwtException | IllegalArgumentException e) {
+            tokensInvalidos.increment();
+            duracaoInvalidos.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+
+        Date expiracao = claims.getExpiration();
+        AutenticacaoJwt autenticacao = new AutenticacaoJwt(claims.getSubject(),
+                autoridades.de(roles == null ? List.of() : roles.stream().map(String::valueOf).toList()));
+        TokenVerificado verificado = new TokenVerificado(autenticacao,
+                expiracao == null ? Long.MAX_VALUE : expiracao.getTime());
+        if (expiracao != null) {
+            cache.guardar(chave, verificado, agora);
         }
+        tokensVerificados.increment();
+        duracaoAssinatura.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return Optional.of(verificado);
+    }
+
+    private static Counter contadorVerificacao(String resultado, MeterRegistry registry) {
+        return Counter.builder("veiculos.jwt.verificacoes")
+                .description("Tokens JWT recebidos, por origem do resultado da verificação")
+                .tag("resultado", resultado)
+                .register(registry);
     }
 
-    private Claims extrairClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private static Timer timerVerificacao(String resultado, MeterRegistry registry) {
+        return Timer.builder("veiculos.jwt.verificacao.duracao")
+                .description("Duração da verificação de tokens JWT, por origem do resultado")
+                .tag("resultado", resultado)
+                .register(registry);
     }
 }
@@ -0,0 +1,11 @@
+package com.tinnova.veiculos.infraestrutura.seguranca;
+
+/**
+ * Token JWT cuja assinatura e expiração já foram verificadas.
+ *
+ * @param autenticacao autenticação do usuário do token, reaproveitada enquanto o token estiver em cache
+ * @param expiraEmMs   instante de expiração do token, em milissegundos desde a época,
+ *                     ou {@link Long#MAX_VALUE} se o token não expira
+ */
+public record TokenVerificado(AutenticacaoJwt autenticacao, long expiraEmMs) {
+}
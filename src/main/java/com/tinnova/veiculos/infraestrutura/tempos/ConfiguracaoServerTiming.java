@@ -0,0 +1,69 @@
+package com.tinnova.veiculos.infraestrutura.tempos;
+
+import com.tinnova.veiculos.infraestrutura.consultas.ProxyConsultas;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+
+/**
+ * Cabeçalho {@code Server-Timing}: registra o {@link FiltroServerTiming} antes dos demais filtros, para que o
+ * total cubra a requisição inteira, mede os comandos SQL no proxy do DataSource e a escrita do JSON no
+ * {@link ConversorJsonMedido}, que substitui o conversor JSON padrão. A verificação do JWT e o câmbio são
+ * medidos no {@code JwtAuthenticationFilter} e no {@code ServicoCambio}.
+ */
+@Configuration
+@EnableConfigurationProperties(PropriedadesServerTiming.class)
+public class ConfiguracaoServerTiming {
+
+    /** Antes do filtro de contagem de consultas, em -300, do de prazo e da cadeia do Spring Security. */
+    private static final int ORDEM_FILTRO = -400;
+
+    @Bean
+    FilterRegistrationBean<FiltroServerTiming> filtroServerTiming(PropriedadesServerTiming propriedades) {
+        FilterRegistrationBean<FiltroServerTiming> registro =
+                new FilterRegistrationBean<>(new FiltroServerTiming(propriedades.ativoPorPadrao()));
+        registro.setOrder(ORDEM_FILTRO);
+        registro.setEnabled(propriedades.habilitado());
+        return registro;
+    }
+
+    /**
+     * Troca o conversor JSON na posição dele entre os padrões; registrado como bean, o conversor ficaria antes
+     * de todos e responderia também pelos {@code Resource} servidos como JSON, como o download de relatórios.
+     * Sem ordem, este configurador roda depois do do Spring Boot, que define o conversor JSON padrão.
+     */
+    @Bean
+    WebMvcConfigurer conversorJsonMedido(JsonMapper jsonMapper) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureMessageConverters(HttpMessageConverters.ServerBuilder conversores) {
+                conversores.withJsonConverter(new ConversorJsonMedido(jsonMapper));
+            }
+        };
+    }
+
+    /**
+     * Estático, e com as propriedades resolvidas só quando o DataSource é criado, porque os
+     * {@link BeanPostProcessor} são criados antes dos demais beans.
+     */
+    @Bean
+    static BeanPostProcessor proxyTemposBanco(ObjectProvider<PropriedadesServerTiming> propriedades) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nome) {
+                if (!(bean instanceof DataSource dataSource) || !propriedades.getObject().habilitado()) {
+                    return bean;
+                }
+                return ProxyConsultas.comOuvinte(nome, dataSource, new OuvinteTemposBanco());
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.tinnova.veiculos.infraestrutura.tempos;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Conversor JSON das respostas que mede a escrita do corpo como {@link EtapaRequisicao#SERIALIZACAO}.
+ * A escrita termina com um flush, que envia a resposta; o {@link FiltroServerTiming} conta a etapa
+ * ainda em andamento com o tempo decorrido até ali.
+ */
+public class ConversorJsonMedido extends JacksonJsonHttpMessageConverter {
+
+    public ConversorJsonMedido(JsonMapper mapeador) {
+        super(mapeador);
+    }
+
+    @Override
+    protected void writeInternal(Object objeto, ResolvableType tipo, HttpOutputMessage saida,
+            Map<String, Object> dicas) throws IOException {
+        boolean medindo = TemposRequisicao.iniciar(EtapaRequisicao.SERIALIZACAO);
+        try {
+            super.writeInternal(objeto, tipo, saida, dicas);
+        } finally {
+            if (medindo) {
+                TemposRequisicao.encerrar(EtapaRequisicao.SERIALIZACAO);
+            }
+        }
+    }
+}
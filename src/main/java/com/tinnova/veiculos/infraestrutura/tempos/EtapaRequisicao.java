@@ -0,0 +1,27 @@
+package com.tinnova.veiculos.infraestrutura.tempos;
+
+import java.util.Locale;
+
+/**
+ * Etapas da requisição medidas no cabeçalho {@code Server-Timing}.
+ */
+public enum EtapaRequisicao {
+
+    /** Verificação do token no {@code JwtAuthenticationFilter}. */
+    JWT,
+    /** Execução dos comandos SQL, medida no proxy do DataSource. */
+    BANCO,
+    /** Obtenção da cotação no Redis ou nas APIs de câmbio. */
+    CAMBIO,
+    /** Escrita do corpo JSON da resposta. */
+    SERIALIZACAO;
+
+    private final String nome = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * Nome da métrica no cabeçalho.
+     */
+    public String nome() {
+        return nome;
+    }
+}
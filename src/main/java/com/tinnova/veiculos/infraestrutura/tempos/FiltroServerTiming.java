@@ -0,0 +1,66 @@
+package com.tinnova.veiculos.infraestrutura.tempos;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que mede as {@link EtapaRequisicao etapas} da requisição e as informa em {@value #CABECALHO}, definido
+ * quando a resposta é enviada. O cliente liga ou desliga a medição da requisição com {@value #CABECALHO_CONTROLE}
+ * ({@code on} ou {@code off}); sem ele, ou com outro valor, vale {@code app.server-timing.ativo-por-padrao}.
+ */
+public class FiltroServerTiming extends OncePerRequestFilter {
+
+    /** Tempo de cada etapa e total até o envio da resposta, em milissegundos. */
+    public static final String CABECALHO = "Server-Timing";
+
+    /** Liga ({@code on}) ou desliga ({@code off}) o {@value #CABECALHO} da requisição. */
+    public static final String CABECALHO_CONTROLE = "X-Server-Timing";
+
+    private final boolean ativoPorPadrao;
+
+    public FiltroServerTiming(boolean ativoPorPadrao) {
+        this.ativoPorPadrao = ativoPorPadrao;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!ativo(request.getHeader(CABECALHO_CONTROLE))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        TemposRequisicao.iniciar();
+        try {
+            HttpServletResponse comTempos = new OnCommittedResponseWrapper(response) {
+                @Override
+                protected void onResponseCommitted() {
+                    definirCabecalho(response);
+                }
+            };
+            filterChain.doFilter(request, comTempos);
+            if (!response.isCommitted()) {
+                definirCabecalho(response);
+            }
+        } finally {
+            TemposRequisicao.limpar();
+        }
+    }
+
+    private boolean ativo(String controle) {
+        if ("on".equalsIgnoreCase(controle)) {
+            return true;
+        }
+        return !"off".equalsIgnoreCase(controle) && ativoPorPadrao;
+    }
+
+    private static void definirCabecalho(HttpServletResponse response) {
+        response.setHeader(CABECALHO, TemposRequisicao.cabecalho());
+    }
+}
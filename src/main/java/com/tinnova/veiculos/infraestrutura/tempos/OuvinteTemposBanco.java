@@ -0,0 +1,23 @@
+package com.tinnova.veiculos.infraestrutura.tempos;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Ouvinte do proxy do DataSource que soma a execução de cada comando SQL à {@link EtapaRequisicao#BANCO}.
+ */
+public class OuvinteTemposBanco implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        TemposRequisicao.iniciar(EtapaRequisicao.BANCO);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        TemposRequisicao.encerrar(EtapaRequisicao.BANCO);
+    }
+}
@@ -0,0 +1,15 @@
+package com.tinnova.veiculos.infraestrutura.tempos;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Cabeçalho {@code Server-Timing} ({@code app.server-timing.*}).
+ *
+ * @param habilitado     se o filtro e as medições participam das requisições
+ * @param ativoPorPadrao se o cabeçalho vai nas requisições que não informam {@code X-Server-Timing}
+ */
+@ConfigurationProperties("app.server-timing")
+public record PropriedadesServerTiming(
+        boolean habilitado,
+        boolean ativoPorPadrao) {
+}
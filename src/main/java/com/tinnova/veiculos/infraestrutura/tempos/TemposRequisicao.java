@@ -0,0 +1,97 @@
+package com.tinnova.veiculos.infraestrutura.tempos;
+
+/**
+ * Tempo gasto em cada {@link EtapaRequisicao} pela requisição em andamento na thread atual, iniciado pelo
+ * {@link FiltroServerTiming} só nas requisições que terão o cabeçalho. Nas demais, e fora de uma requisição,
+ * cada marcação é só a leitura do {@link ThreadLocal}. O trabalho feito em outras threads não entra na conta.
+ */
+public final class TemposRequisicao {
+
+    private static final EtapaRequisicao[] ETAPAS = EtapaRequisicao.values();
+    private static final ThreadLocal<Tempos> ATUAL = new ThreadLocal<>();
+
+    private TemposRequisicao() {
+    }
+
+    public static void iniciar() {
+        ATUAL.set(new Tempos(System.nanoTime()));
+    }
+
+    public static void limpar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Marca o início da etapa. Devolve {@code false} fora de uma requisição medida ou se a etapa já está em
+     * andamento, como nas chamadas aninhadas; nesse caso quem chamou não deve {@link #encerrar encerrá-la}.
+     */
+    public static boolean iniciar(EtapaRequisicao etapa) {
+        Tempos tempos = ATUAL.get();
+        if (tempos == null || tempos.inicioEmAndamento[etapa.ordinal()] != 0) {
+            return false;
+        }
+        tempos.inicioEmAndamento[etapa.ordinal()] = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Soma à etapa o tempo desde o seu início; sem a etapa em andamento não faz nada.
+     */
+    public static void encerrar(EtapaRequisicao etapa) {
+        Tempos tempos = ATUAL.get();
+        if (tempos == null) {
+            return;
+        }
+        long inicio = tempos.inicioEmAndamento[etapa.ordinal()];
+        if (inicio != 0) {
+            tempos.acumuladoNanos[etapa.ordinal()] += System.nanoTime() - inicio;
+            tempos.inicioEmAndamento[etapa.ordinal()] = 0;
+        }
+    }
+
+    /**
+     * Valor do cabeçalho {@code Server-Timing} com as etapas e o total até agora, em milissegundos; as etapas
+     * em andamento entram com o tempo já decorrido. {@code null} fora de uma requisição medida.
+     */
+    public static String cabecalho() {
+        Tempos tempos = ATUAL.get();
+        if (tempos == null) {
+            return null;
+        }
+        long agora = System.nanoTime();
+        StringBuilder valor = new StringBuilder(128);
+        for (EtapaRequisicao etapa : ETAPAS) {
+            long inicio = tempos.inicioEmAndamento[etapa.ordinal()];
+            long nanos = tempos.acumuladoNanos[etapa.ordinal()] + (inicio != 0 ? agora - inicio : 0);
+            adicionar(valor, etapa.nome(), nanos).append(", ");
+        }
+        return adicionar(valor, "total", agora - tempos.inicio).toString();
+    }
+
+    /**
+     * Acrescenta {@code nome;dur=ms}, com três casas decimais, sem passar por {@link String#format}.
+     */
+    private static StringBuilder adicionar(StringBuilder valor, String nome, long nanos) {
+        long micros = nanos / 1_000;
+        long fracao = micros % 1_000;
+        valor.append(nome).append(";dur=").append(micros / 1_000).append('.');
+        if (fracao < 100) {
+            valor.append('0');
+        }
+        if (fracao < 10) {
+            valor.append('0');
+        }
+        return valor.append(fracao);
+    }
+
+    private static final class Tempos {
+
+        private final long inicio;
+        private final long[] acumuladoNanos = new long[ETAPAS.length];
+        private final long[] inicioEmAndamento = new long[ETAPAS.length];
+
+        Tempos(long inicio) {
+            this.inicio = inicio;
+        }
+    }
+}
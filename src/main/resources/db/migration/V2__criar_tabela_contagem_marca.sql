@@ -0,0 +1,7 @@
+CREATE TABLE contagem_marca (
+    marca VARCHAR(50) PRIMARY KEY,
+    quantidade BIGINT NOT NULL
+);
+
+INSERT INTO contagem_marca (marca, quantidade)
+SELECT marca, COUNT(*) FROM veiculo WHERE ativo = TRUE GROUP BY marca;
@@ -0,0 +1,169 @@
+package com.tinnova.veiculos;
+
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.infraestrutura.catalogo.GeradorSnapshotCatalogo;
+import com.tinnova.veiculos.infraestrutura.seguranca.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Testes de Integração - Snapshot do Catálogo")
+class CatalogoIntegracaoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RepositorioVeiculo repositorio;
+
+    @Autowired
+    private GeradorSnapshotCatalogo gerador;
+
+    @Autowired
+    private ServicoVeiculo servicoVeiculo;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        repositorio.deleteAll();
+        servicoVeiculo.criar(Veiculo.builder()
+                .placa("SNP0001")
+                .marca("Toyota")
+                .modelo("Corolla")
+                .ano(2023)
+                .cor("Preto")
+                .precoUsd(new BigDecimal("25000"))
+                .build());
+        Veiculo removido = servicoVeiculo.criar(Veiculo.builder()
+                .placa("SNP0002")
+                .marca("Honda")
+                .modelo("Civic")
+                .ano(2022)
+                .cor("Branco")
+                .precoUsd(new BigDecimal("22000"))
+                .build());
+        servicoVeiculo.remover(removido.getId());
+
+        gerador.gerarSeNecessario();
+        token = jwtUtil.gerarToken("user", List.of("ROLE_USER"));
+    }
+
+    @Test
+    @DisplayName("deve baixar snapshot completo somente com veiculos ativos")
+    void deveBaixarSnapshotCompleto() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/veiculos/catalogo/snapshot")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn();
+
+        byte[] corpo = resultado.getResponse().getContentAsByteArray();
+        String json = descompactar(corpo);
+
+        assertThat(json).startsWith("[").contains("SNP0001").doesNotContain("SNP0002");
+        assertThat(corpo).hasSize((int) gerador.atual().orElseThrow().tamanho());
+    }
+
+    @Test
+    @DisplayName("deve retornar 304 quando ETag nao mudou")
+    void deveRetornar304QuandoEtagNaoMudou() throws Exception {
+        String etag = "\"" + gerador.atual().orElseThrow().etag() + "\"";
+
+        mockMvc.perform(get("/veiculos/catalogo/snapshot")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("deve retornar 304 para lista de ETags, ETag fraco ou asterisco")
+    void deveRetornar304ComListaFracoOuAsterisco() throws Exception {
+        String etag = "\"" + gerador.atual().orElseThrow().etag() + "\"";
+
+        for (String ifNoneMatch : List.of("\"outro\", " + etag, "W/" + etag, "*")) {
+            mockMvc.perform(get("/veiculos/catalogo/snapshot")
+                            .header("Authorization", "Bearer " + token)
+                            .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isNotModified());
+        }
+        mockMvc.perform(get("/veiculos/catalogo/snapshot")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"outro\", W/\"mais-um\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("deve aplicar o If-Range so com o ETag forte atual")
+    void deveAplicarIfRangeComEtagForte() throws Exception {
+        String etag = "\"" + gerador.atual().orElseThrow().etag() + "\"";
+
+        mockMvc.perform(get("/veiculos/catalogo/snapshot")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.RANGE, "bytes=2-9")
+                        .header(HttpHeaders.IF_RANGE, " " + etag + " "))
+                .andExpect(status().isPartialContent());
+        mockMvc.perform(get("/veiculos/catalogo/snapshot")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.RANGE, "bytes=2-9")
+                        .header(HttpHeaders.IF_RANGE, "W/" + etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("deve retornar 206 com o intervalo solicitado")
+    void deveRetornar206ComIntervalo() throws Exception {
+        long tamanho = gerador.atual().orElseThrow().tamanho();
+
+        MvcResult resultado = mockMvc.perform(get("/veiculos/catalogo/snapshot")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.RANGE, "bytes=2-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-9/" + tamanho))
+                .andReturn();
+
+        assertThat(resultado.getResponse().getContentAsByteArray()).hasSize(8);
+    }
+
+    @Test
+    @DisplayName("deve retornar 416 para intervalo fora do arquivo")
+    void deveRetornar416ParaIntervaloInvalido() throws Exception {
+        mockMvc.perform(get("/veiculos/catalogo/snapshot")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.RANGE, "bytes=999999999-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    private String descompactar(byte[] dados) throws Exception {
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(dados))) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.tinnova.veiculos;
+
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.infraestrutura.consultas.FiltroConsultas;
+import com.tinnova.veiculos.infraestrutura.consultas.LimiteConsultas;
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
+import com.tinnova.veiculos.infraestrutura.seguranca.JwtUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Limite de comandos SQL de cada endpoint do {@code VeiculoController}. Um N+1 ou uma consulta a mais
+ * em qualquer endpoint faz o teste correspondente falhar; ao reduzir as consultas de um endpoint,
+ * reduza também o seu limite.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@LimiteConsultas(1)
+@DisplayName("Testes de Integração - Consultas por endpoint")
+class ConsultasPorEndpointIntegracaoTest {
+
+    private static final String VEICULO_JSON = """
+            {"placa": "%s", "marca": "Toyota", "modelo": "Corolla", "ano": 2023, "cor": "Preto", "precoUsd": 25000}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RepositorioVeiculo repositorio;
+
+    @Autowired
+    private RepositorioContagemMarca contagens;
+
+    @Autowired
+    private IndiceColunarVeiculos indice;
+
+    @Autowired
+    private ServicoVeiculo servicoVeiculo;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        repositorio.deleteAll();
+        contagens.deleteAll();
+        indice.reconstruir();
+        ids = List.of(
+                criar("QRY0001", "Toyota", 2020, "25000").getId(),
+                criar("QRY0002", "Toyota", 2021, "27000").getId(),
+                criar("QRY0003", "Honda", 2022, "30000").getId());
+        token = "Bearer " + jwtUtil.gerarToken("admin", List.of("ROLE_ADMIN", "ROLE_USER"));
+    }
+
+    @Test
+    @DisplayName("GET /veiculos")
+    void listar() throws Exception {
+        mockMvc.perform(get("/veiculos").param("marca", "Toyota").header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    // A ordenação explícita é feita no banco: a página e, quando ela vem cheia, a contagem
+    @Test
+    @LimiteConsultas(2)
+    @DisplayName("GET /veiculos ordenado")
+    void listarOrdenado() throws Exception {
+        mockMvc.perform(get("/veiculos").param("sort", "ano,desc").header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /veiculos?facetas=true")
+    void listarComFacetas() throws Exception {
+        mockMvc.perform(get("/veiculos").param("facetas", "true").header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /veiculos/{id}")
+    void buscarPorId() throws Exception {
+        mockMvc.perform(get("/veiculos/{id}", ids.getFirst()).header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /veiculos/lote")
+    void buscarPorIds() throws Exception {
+        mockMvc.perform(get("/veiculos/lote")
+                        .param("ids", ids.get(0) + "," + ids.get(1) + "," + ids.get(2) + ",999")
+                        .header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /veiculos/{id}/similares")
+    void buscarSimilares() throws Exception {
+        mockMvc.perform(get("/veiculos/{id}/similares", ids.getFirst()).header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /veiculos/placa/{placa}")
+    void buscarPorPlaca() throws Exception {
+        mockMvc.perform(get("/veiculos/placa/{placa}", "qry-0002").header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /veiculos/relatorios/por-marca")
+    void relatorioPorMarca() throws Exception {
+        mockMvc.perform(get("/veiculos/relatorios/por-marca").header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /veiculos/relatorios/estatisticas")
+    void estatisticas() throws Exception {
+        mockMvc.perform(get("/veiculos/relatorios/estatisticas").header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @LimiteConsultas(0)
+    @DisplayName("GET /veiculos/relatorios/percentis")
+    void percentis() throws Exception {
+        mockMvc.perform(get("/veiculos/relatorios/percentis").header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @LimiteConsultas(0)
+    @DisplayName("GET /veiculos/autocompletar")
+    void autocompletar() throws Exception {
+        mockMvc.perform(get("/veiculos/autocompletar").param("prefixo", "toy").header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @LimiteConsultas(2)
+    @DisplayName("POST /veiculos")
+    void criar() throws Exception {
+        mockMvc.perform(post("/veiculos").header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VEICULO_JSON.formatted("QRY0004")))
+                .andExpect(status().isCreated());
+    }
+
+    // Leitura, UPDATE e a troca de marca na contagem por marca (subtração e soma)
+    @Test
+    @LimiteConsultas(4)
+    @DisplayName("PUT /veiculos/{id}")
+    void atualizar() throws Exception {
+        mockMvc.perform(put("/veiculos/{id}", ids.getLast()).header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VEICULO_JSON.formatted("QRY0005")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @LimiteConsultas(2)
+    @DisplayName("PATCH /veiculos/{id}")
+    void atualizarParcial() throws Exception {
+        mockMvc.perform(patch("/veiculos/{id}", ids.getFirst()).header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cor\": \"Branco\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @LimiteConsultas(2)
+    @DisplayName("DELETE /veiculos/{id}")
+    void remover() throws Exception {
+        mockMvc.perform(delete("/veiculos/{id}", ids.getFirst()).header("Authorization", token))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("deve informar os comandos no cabecalho e na metrica da rota")
+    void deveInformarComandosNoCabecalhoENaMetrica() throws Exception {
+        long antes = requisicoesMedidas("GET", "/veiculos/{id}");
+
+        mockMvc.perform(get("/veiculos/{id}", ids.getFirst()).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(FiltroConsultas.CABECALHO, "1"));
+
+        assertThat(requisicoesMedidas("GET", "/veiculos/{id}")).isEqualTo(antes + 1);
+    }
+
+    private long requisicoesMedidas(String metodo, String rota) {
+        DistributionSummary distribuicao = registry.find("veiculos.requisicao.consultas")
+                .tags("metodo", metodo, "rota", rota)
+                .summary();
+        return distribuicao == null ? 0 : distribuicao.count();
+    }
+
+    private Veiculo criar(String placa, String marca, int ano, String preco) {
+        return servicoVeiculo.criar(Veiculo.builder()
+                .placa(placa)
+                .marca(marca)
+                .modelo("Modelo " + placa)
+                .ano(ano)
+                .cor("Preto")
+                .precoUsd(new BigDecimal(preco))
+                .build());
+    }
+}
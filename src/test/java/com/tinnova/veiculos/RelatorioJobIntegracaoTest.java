@@ -0,0 +1,121 @@
+package com.tinnova.veiculos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.infraestrutura.seguranca.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Testes de Integração - Relatórios Assíncronos")
+class RelatorioJobIntegracaoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RepositorioVeiculo repositorio;
+
+    @Autowired
+    private RepositorioContagemMarca contagens;
+
+    @Autowired
+    private ServicoVeiculo servicoVeiculo;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        repositorio.deleteAll();
+        contagens.deleteAll();
+        servicoVeiculo.criar(Veiculo.builder()
+                .placa("JOB0001")
+                .marca("Toyota")
+                .modelo("Corolla")
+                .ano(2023)
+                .cor("Preto")
+                .precoUsd(new BigDecimal("25000"))
+                .build());
+        token = jwtUtil.gerarToken("user", List.of("ROLE_USER"));
+    }
+
+    @Test
+    @DisplayName("deve iniciar o job como USER, acompanhar e baixar o resultado")
+    void deveExecutarJobCompleto() throws Exception {
+        String resposta = mockMvc.perform(post("/veiculos/relatorios/jobs")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tipo\": \"POR_MARCA\", \"prioridade\": \"ALTA\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andExpect(jsonPath("$.tipo").value("POR_MARCA"))
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(resposta).get("id").asText();
+
+        assertThat(aguardar(id).get("situacao").asText()).isEqualTo("CONCLUIDO");
+
+        mockMvc.perform(get("/veiculos/relatorios/jobs/" + id + "/resultado")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].marca").value("Toyota"))
+                .andExpect(jsonPath("$[0].quantidade").value(1));
+    }
+
+    @Test
+    @DisplayName("deve retornar 400 sem tipo e 404 para job inexistente")
+    void deveValidarRequisicoes() throws Exception {
+        mockMvc.perform(post("/veiculos/relatorios/jobs")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/veiculos/relatorios/jobs/inexistente")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode aguardar(String id) throws Exception {
+        for (int tentativa = 0; tentativa < 500; tentativa++) {
+            String resposta = mockMvc.perform(get("/veiculos/relatorios/jobs/" + id)
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode job = objectMapper.readTree(resposta);
+            if (!job.get("situacao").asText().matches("PENDENTE|EXECUTANDO")) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job não terminou: " + id);
+    }
+}
@@ -3,7 +3,10 @@ package com.tinnova.veiculos;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tinnova.veiculos.api.dto.LoginRequest;
 import com.tinnova.veiculos.api.dto.VeiculoRequest;
+import com.tinnova.veiculos.dominio.veiculo.ContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
 import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,6 +20,20 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +50,12 @@ class VeiculoIntegracaoTest {
     @Autowired
     private RepositorioVeiculo repositorio;
 
+    @Autowired
+    private RepositorioContagemMarca contagens;
+
+    @Autowired
+    private IndiceColunarVeiculos indice;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private String tokenAdmin;
@@ -41,6 +64,8 @@ class VeiculoIntegracaoTest {
     @BeforeEach
     void setUp() throws Exception {
         repositorio.deleteAll();
+        contagens.deleteAll();
+        indice.reconstruir();
         tokenAdmin = obterToken("admin", "admin");
         tokenUser = obterToken("user", "user");
     }
@@ -247,6 +272,40 @@ class VeiculoIntegracaoTest {
                             .content(objectMapper.writeValueAsString(atualizacao)))
                     .andExpect(status().isConflict());
         }
+
+        @Test
+        @DisplayName("deve aceitar apenas um entre varios cadastros concorrentes com a mesma placa")
+        void deveAceitarApenasUmCadastroConcorrente() throws Exception {
+            int requisicoes = 8;
+            String corpo = objectMapper.writeValueAsString(criarVeiculoRequest("CON1234", "Toyota", "Corolla"));
+            CountDownLatch largada = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(requisicoes);
+
+            try {
+                List<Future<Integer>> respostas = new ArrayList<>();
+                for (int i = 0; i < requisicoes; i++) {
+                    respostas.add(executor.submit(() -> {
+                        largada.await();
+                        return mockMvc.perform(post("/veiculos")
+                                        .header("Authorization", "Bearer " + tokenAdmin)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(corpo))
+                                .andReturn().getResponse().getStatus();
+                    }));
+                }
+                largada.countDown();
+
+                List<Integer> status = new ArrayList<>();
+                for (Future<Integer> resposta : respostas) {
+                    status.add(resposta.get(30, TimeUnit.SECONDS));
+                }
+
+                assertThat(status).filteredOn(s -> s == 201).hasSize(1);
+                assertThat(status).filteredOn(s -> s == 409).hasSize(requisicoes - 1);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
     }
 
     @Nested
@@ -385,6 +444,91 @@ class VeiculoIntegracaoTest {
                     .andExpect(jsonPath("$.content.length()").value(1))
                     .andExpect(jsonPath("$.content[0].marca").value("Honda"));
         }
+
+        @Test
+        @DisplayName("deve retornar facetas junto com a listagem")
+        void deveRetornarFacetasJuntoComListagem() throws Exception {
+            criarVeiculoViaApi("FAC0001", "Toyota", "Corolla");
+            criarVeiculoViaApi("FAC0002", "Honda", "Civic");
+            criarVeiculoViaApi("FAC0003", "Toyota", "Hilux");
+
+            mockMvc.perform(get("/veiculos")
+                            .param("marca", "Toyota")
+                            .param("facetas", "true")
+                            .header("Authorization", "Bearer " + tokenAdmin))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.veiculos.content.length()").value(2))
+                    .andExpect(jsonPath("$.facetas.marcas.Toyota").value(2))
+                    .andExpect(jsonPath("$.facetas.marcas.Honda").value(1));
+        }
+
+        @Test
+        @DisplayName("deve sugerir marcas e modelos por prefixo")
+        void deveSugerirPorPrefixo() throws Exception {
+            criarVeiculoViaApi("AUT0001", "Toyota", "Corolla Cross");
+            criarVeiculoViaApi("AUT0002", "Honda", "City");
+
+            mockMvc.perform(get("/veiculos/autocompletar")
+                            .param("prefixo", "cro")
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.marcas.length()").value(0))
+                    .andExpect(jsonPath("$.modelos[0].valor").value("Corolla Cross"))
+                    .andExpect(jsonPath("$.modelos[0].quantidade").value(1));
+        }
+
+        @Test
+        @DisplayName("deve buscar varios veiculos por id na ordem pedida")
+        void deveBuscarPorIds() throws Exception {
+            criarVeiculoViaApi("LOT0001", "Toyota", "Corolla");
+            Long id = repositorio.findAll().getFirst().getId();
+
+            mockMvc.perform(get("/veiculos/lote")
+                            .param("ids", "999999", String.valueOf(id))
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(999999))
+                    .andExpect(jsonPath("$[0].encontrado").value(false))
+                    .andExpect(jsonPath("$[1].encontrado").value(true))
+                    .andExpect(jsonPath("$[1].veiculo.placa").value("LOT0001"));
+
+            mockMvc.perform(get("/veiculos/lote")
+                            .param("ids", LongStream.rangeClosed(1, 101).mapToObj(String::valueOf).toArray(String[]::new))
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.detalhes[0].campo").value("ids"));
+        }
+
+        @Test
+        @DisplayName("deve listar similares da mesma marca")
+        void deveListarSimilares() throws Exception {
+            criarVeiculoViaApi("SIM0001", "Toyota", "Corolla");
+            criarVeiculoViaApi("SIM0002", "Toyota", "Etios");
+            criarVeiculoViaApi("SIM0003", "Honda", "Civic");
+            Long id = repositorio.findAll().stream()
+                    .filter(veiculo -> veiculo.getPlaca().equals("SIM0001")).findFirst().orElseThrow().getId();
+
+            mockMvc.perform(get("/veiculos/{id}/similares", id)
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].placa").value("SIM0002"));
+        }
+
+        @Test
+        @DisplayName("deve buscar por placa normalizada")
+        void deveBuscarPorPlaca() throws Exception {
+            criarVeiculoViaApi("PLA1B23", "Toyota", "Corolla");
+
+            mockMvc.perform(get("/veiculos/placa/{placa}", "pla-1b23")
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.placa").value("PLA1B23"));
+
+            mockMvc.perform(get("/veiculos/placa/{placa}", "PLA9Z99")
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isNotFound());
+        }
     }
 
     @Nested
@@ -404,6 +548,224 @@ class VeiculoIntegracaoTest {
                     .andExpect(jsonPath("$").isArray())
                     .andExpect(jsonPath("$.length()").value(2));
         }
+
+        @Test
+        @DisplayName("deve refletir mudança de marca, remoção e remoção em lote")
+        void deveRefletirAlteracoesNaContagem() throws Exception {
+            Long corolla = criarVeiculoViaApi("REL0001", "Toyota", "Corolla");
+            Long hilux = criarVeiculoViaApi("REL0002", "Toyota", "Hilux");
+            criarVeiculoViaApi("REL0003", "Honda", "Civic");
+            criarVeiculoViaApi("REL0004", "Fiat", "Uno");
+
+            mockMvc.perform(patch("/veiculos/" + hilux)
+                            .header("Authorization", "Bearer " + tokenAdmin)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"marca\": \"Honda\"}"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(delete("/veiculos/" + corolla)
+                            .header("Authorization", "Bearer " + tokenAdmin))
+                    .andExpect(status().isNoContent());
+            mockMvc.perform(post("/veiculos/lote/remocao")
+                            .header("Authorization", "Bearer " + tokenAdmin)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"filtro\": {\"marca\": \"fiat\"}}"))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/veiculos/relatorios/por-marca")
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].marca").value("Honda"))
+                    .andExpect(jsonPath("$[0].quantidade").value(2));
+
+            assertThat(contagens.findById("Fiat")).get()
+                    .extracting(ContagemMarca::getQuantidade).isEqualTo(0L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Estatísticas")
+    class Estatisticas {
+
+        @Test
+        @DisplayName("deve retornar estatísticas por marca, ano e cor")
+        void deveRetornarEstatisticas() throws Exception {
+            criarVeiculoViaApi("EST0001", "Toyota", "Corolla");
+            criarVeiculoViaApi("EST0002", "Honda", "Civic");
+
+            mockMvc.perform(get("/veiculos/relatorios/estatisticas")
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.geral.quantidade").value(2))
+                    .andExpect(jsonPath("$.porMarca.Toyota.quantidade").value(1))
+                    .andExpect(jsonPath("$.porAno.length()").value(1))
+                    .andExpect(jsonPath("$.histograma").isArray());
+        }
+    }
+
+    @Nested
+    @DisplayName("Operações em Lote")
+    class OperacoesEmLote {
+
+        @Test
+        @DisplayName("deve remover em lote os veículos que atendem ao filtro")
+        void deveRemoverEmLotePorFiltro() throws Exception {
+            criarVeiculoViaApi("LOT0001", "Fiat", "Uno");
+            criarVeiculoViaApi("LOT0002", "Fiat", "Palio");
+            criarVeiculoViaApi("LOT0003", "Fiat", "Mobi");
+            criarVeiculoViaApi("LOT0004", "Ford", "Ka");
+
+            mockMvc.perform(post("/veiculos/lote/remocao")
+                            .header("Authorization", "Bearer " + tokenAdmin)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"filtro\": {\"marca\": \"fiat\"}}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.afetados").value(3));
+
+            mockMvc.perform(get("/veiculos")
+                            .header("Authorization", "Bearer " + tokenAdmin))
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.content[0].marca").value("Ford"));
+        }
+
+        @Test
+        @DisplayName("deve atualizar em lote os veículos informados por id")
+        void deveAtualizarEmLotePorIds() throws Exception {
+            Long id1 = criarVeiculoViaApi("LOT0011", "Fiat", "Uno");
+            Long id2 = criarVeiculoViaApi("LOT0012", "Fiat", "Palio");
+            Long id3 = criarVeiculoViaApi("LOT0013", "Ford", "Ka");
+
+            mockMvc.perform(patch("/veiculos/lote")
+                            .header("Authorization", "Bearer " + tokenAdmin)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\": [" + id1 + ", " + id3 + ", 999999], \"alteracoes\": {\"cor\": \"Azul\"}}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.afetados").value(2));
+
+            mockMvc.perform(get("/veiculos/{id}", id3)
+                            .header("Authorization", "Bearer " + tokenAdmin))
+                    .andExpect(jsonPath("$.cor").value("Azul"));
+            mockMvc.perform(get("/veiculos/{id}", id2)
+                            .header("Authorization", "Bearer " + tokenAdmin))
+                    .andExpect(jsonPath("$.cor").value("Preto"));
+        }
+
+        @Test
+        @DisplayName("deve retornar 400 quando ids e filtro forem informados juntos")
+        void deveRetornar400ParaSelecaoAmbigua() throws Exception {
+            mockMvc.perform(post("/veiculos/lote/remocao")
+                            .header("Authorization", "Bearer " + tokenAdmin)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\": [1], \"filtro\": {\"marca\": \"Fiat\"}}"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("deve retornar 400 para filtro sem critérios")
+        void deveRetornar400ParaFiltroVazio() throws Exception {
+            mockMvc.perform(post("/veiculos/lote/remocao")
+                            .header("Authorization", "Bearer " + tokenAdmin)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"filtro\": {}}"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("deve retornar 403 para USER tentando remover em lote")
+        void deveRetornar403ParaUser() throws Exception {
+            mockMvc.perform(post("/veiculos/lote/remocao")
+                            .header("Authorization", "Bearer " + tokenUser)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\": [1]}"))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Nested
+    @DisplayName("Métricas - Prometheus")
+    class Metricas {
+
+        @Test
+        @DisplayName("deve expor as durações das operações ao usuário de coleta")
+        void deveExporDuracoesAoUsuarioDeColeta() throws Exception {
+            criarVeiculoViaApi("MET1234", "Toyota", "Corolla");
+
+            mockMvc.perform(get("/actuator/prometheus")
+                            .with(httpBasic("prometheus", "segredo-teste")))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString(
+                            "veiculos_servico_operacoes_seconds_bucket{operacao=\"criar\",resultado=\"sucesso\"")));
+        }
+
+        @Test
+        @DisplayName("deve retornar 401 sem o usuário de coleta, mesmo com token de ADMIN")
+        void deveRetornar401SemUsuarioDeColeta() throws Exception {
+            mockMvc.perform(get("/actuator/prometheus"))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(get("/actuator/prometheus")
+                            .header("Authorization", "Bearer " + tokenAdmin))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(get("/actuator/prometheus")
+                            .with(httpBasic("prometheus", "errada")))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    @DisplayName("Server-Timing")
+    class ServerTiming {
+
+        @Test
+        @DisplayName("deve informar o tempo de cada etapa da requisicao")
+        void deveInformarTempoDasEtapas() throws Exception {
+            criarVeiculoViaApi("TIM1234", "Toyota", "Corolla");
+
+            mockMvc.perform(get("/veiculos")
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Server-Timing", matchesPattern(
+                            "jwt;dur=\\d+\\.\\d{3}, banco;dur=\\d+\\.\\d{3}, cambio;dur=\\d+\\.\\d{3}, "
+                                    + "serializacao;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}")))
+                    .andExpect(header().string("Server-Timing", not(containsString("banco;dur=0.000"))))
+                    .andExpect(header().string("Server-Timing", not(containsString("serializacao;dur=0.000"))));
+        }
+
+        @Test
+        @DisplayName("deve omitir o cabecalho quando a requisicao o desliga")
+        void deveOmitirQuandoDesligado() throws Exception {
+            mockMvc.perform(get("/veiculos")
+                            .header("Authorization", "Bearer " + tokenUser)
+                            .header("X-Server-Timing", "off"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Server-Timing"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Administração - Consultas Lentas")
+    class ConsultasLentas {
+
+        @Test
+        @DisplayName("deve expor e limpar as consultas lentas para ADMIN")
+        void deveExporELimparParaAdmin() throws Exception {
+            mockMvc.perform(get("/admin/consultas-lentas")
+                            .header("Authorization", "Bearer " + tokenAdmin))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.recentes").isArray())
+                    .andExpect(jsonPath("$.formatos").isArray());
+
+            mockMvc.perform(delete("/admin/consultas-lentas")
+                            .header("Authorization", "Bearer " + tokenAdmin))
+                    .andExpect(status().isNoContent());
+        }
+
+        @Test
+        @DisplayName("deve retornar 403 para USER")
+        void deveRetornar403ParaUser() throws Exception {
+            mockMvc.perform(get("/admin/consultas-lentas")
+                            .header("Authorization", "Bearer " + tokenUser))
+                    .andExpect(status().isForbidden());
+        }
     }
 
     // Métodos auxiliares
@@ -419,13 +781,15 @@ class VeiculoIntegracaoTest {
         return request;
     }
 
-    private void criarVeiculoViaApi(String placa, String marca, String modelo) throws Exception {
+    private Long criarVeiculoViaApi(String placa, String marca, String modelo) throws Exception {
         VeiculoRequest request = criarVeiculoRequest(placa, marca, modelo);
-        mockMvc.perform(post("/veiculos")
+        MvcResult resultado = mockMvc.perform(post("/veiculos")
                         .header("Authorization", "Bearer " + tokenAdmin)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isCreated());
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(resultado.getResponse().getContentAsString()).get("id").asLong();
     }
 
     private void criarVeiculoViaApiComPreco(String placa, String marca, String modelo, BigDecimal preco) throws Exception {
@@ -1,11 +1,21 @@
 package com.tinnova.veiculos.api.controller;
 
+import com.tinnova.veiculos.api.dto.VeiculoPorIdResponse;
 import com.tinnova.veiculos.api.dto.VeiculoRequest;
+import com.tinnova.veiculos.api.dto.VeiculoResponse;
+import com.tinnova.veiculos.aplicacao.veiculo.FacetasVeiculo;
 import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.ContagemPorMarca;
 import com.tinnova.veiculos.dominio.veiculo.PlacaDuplicadaException;
 import com.tinnova.veiculos.dominio.veiculo.Veiculo;
 import com.tinnova.veiculos.dominio.veiculo.VeiculoNaoEncontradoException;
 import com.tinnova.veiculos.infraestrutura.cambio.ServicoCambio;
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
+import com.tinnova.veiculos.infraestrutura.indice.SugestoesAutocompletar;
+import com.tinnova.veiculos.infraestrutura.relatorio.CalculadoraEstatisticas;
+import com.tinnova.veiculos.infraestrutura.relatorio.EstatisticasCatalogo;
+import com.tinnova.veiculos.infraestrutura.relatorio.PercentisPreco;
+import com.tinnova.veiculos.infraestrutura.relatorio.SketchesPreco;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -19,14 +29,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,6 +54,15 @@ class VeiculoControllerTest {
     @Mock
     private ServicoCambio servicoCambio;
 
+    @Mock
+    private CalculadoraEstatisticas calculadoraEstatisticas;
+
+    @Mock
+    private SketchesPreco sketchesPreco;
+
+    @Mock
+    private IndiceColunarVeiculos indiceColunar;
+
     @InjectMocks
     private VeiculoController controller;
 
@@ -105,6 +128,28 @@ class VeiculoControllerTest {
             assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
             verify(servicoVeiculo).listar(eq("Toyota"), eq(2023), eq("Preto"), any(), any(), any());
         }
+
+        @Test
+        @DisplayName("deve retornar pagina e facetas do mesmo filtro")
+        void deveRetornarPaginaEFacetas() {
+            // given
+            var pageable = PageRequest.of(0, 10);
+            var facetas = new FacetasVeiculo(
+                    new TreeMap<>(Map.of("Toyota", 1L)),
+                    new TreeMap<>(Map.of(2023, 1L)),
+                    new TreeMap<>(Map.of("Preto", 1L)));
+            when(servicoVeiculo.listar(eq("Toyota"), any(), any(), any(), any(), any()))
+                    .thenReturn(new PageImpl<>(List.of(veiculoExemplo)));
+            when(servicoVeiculo.contarFacetas("Toyota", null, null, null, null)).thenReturn(facetas);
+
+            // when
+            var resposta = controller.listarComFacetas("Toyota", null, null, null, null, pageable);
+
+            // then
+            assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(resposta.getBody().getVeiculos().getContent()).hasSize(1);
+            assertThat(resposta.getBody().getFacetas()).isEqualTo(facetas);
+        }
     }
 
     @Nested
@@ -137,6 +182,80 @@ class VeiculoControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("buscarSimilares()")
+    class BuscarSimilares {
+
+        @Test
+        @DisplayName("deve retornar similares limitando a quantidade pedida")
+        void deveRetornarSimilaresComLimite() {
+            // given
+            when(servicoVeiculo.buscarSimilares(2L, 20)).thenReturn(List.of(veiculoExemplo));
+
+            // when
+            var resposta = controller.buscarSimilares(2L, 1000);
+
+            // then
+            assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(resposta.getBody()).extracting(VeiculoResponse::getPlaca).containsExactly("ABC1234");
+        }
+    }
+
+    @Nested
+    @DisplayName("buscarPorPlaca()")
+    class BuscarPorPlaca {
+
+        @Test
+        @DisplayName("deve retornar veiculo quando encontrado")
+        void deveRetornarVeiculoQuandoEncontrado() {
+            // given
+            when(servicoVeiculo.buscarPorPlaca("abc-1234")).thenReturn(Optional.of(veiculoExemplo));
+
+            // when
+            var resposta = controller.buscarPorPlaca("abc-1234");
+
+            // then
+            assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(resposta.getBody().getPlaca()).isEqualTo("ABC1234");
+        }
+
+        @Test
+        @DisplayName("deve lancar excecao quando nao encontrado")
+        void deveLancarExcecaoQuandoNaoEncontrado() {
+            // given
+            when(servicoVeiculo.buscarPorPlaca("XYZ9999")).thenReturn(Optional.empty());
+
+            // when / then
+            assertThatThrownBy(() -> controller.buscarPorPlaca("XYZ9999"))
+                    .isInstanceOf(VeiculoNaoEncontradoException.class)
+                    .hasMessageContaining("XYZ9999");
+        }
+    }
+
+    @Nested
+    @DisplayName("buscarPorIds()")
+    class BuscarPorIds {
+
+        @Test
+        @DisplayName("deve retornar na ordem pedida marcando ausentes com uma unica cotacao")
+        void deveRetornarNaOrdemPedida() {
+            // given
+            when(servicoVeiculo.buscarPorIds(List.of(99L, 1L, 1L))).thenReturn(Map.of(1L, veiculoExemplo));
+
+            // when
+            var resposta = controller.buscarPorIds(List.of(99L, 1L, 1L));
+
+            // then
+            assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(resposta.getBody()).extracting(VeiculoPorIdResponse::getId).containsExactly(99L, 1L, 1L);
+            assertThat(resposta.getBody()).extracting(VeiculoPorIdResponse::isEncontrado)
+                    .containsExactly(false, true, true);
+            assertThat(resposta.getBody().get(0).getVeiculo()).isNull();
+            assertThat(resposta.getBody().get(1).getVeiculo().getPrecoBrl()).isEqualByComparingTo("125000.00");
+            verify(servicoCambio, times(1)).obterCotacaoUsdBrl();
+        }
+    }
+
     @Nested
     @DisplayName("criar()")
     class Criar {
@@ -240,9 +359,9 @@ class VeiculoControllerTest {
         @DisplayName("deve retornar relatorio por marca")
         void deveRetornarRelatorioPorMarca() {
             // given
-            List<Object[]> contagem = List.of(
-                    new Object[]{"Toyota", 2L},
-                    new Object[]{"Honda", 1L}
+            List<ContagemPorMarca> contagem = List.of(
+                    new ContagemPorMarca("Toyota", 2L),
+                    new ContagemPorMarca("Honda", 1L)
             );
             when(servicoVeiculo.contarPorMarca()).thenReturn(contagem);
 
@@ -254,4 +373,67 @@ class VeiculoControllerTest {
             assertThat(resposta.getBody()).hasSize(2);
         }
     }
+
+    @Nested
+    @DisplayName("estatisticas()")
+    class Estatisticas {
+
+        @Test
+        @DisplayName("deve retornar as estatisticas da versao atual do catalogo")
+        void deveRetornarEstatisticas() {
+            // given
+            EstatisticasCatalogo estatisticas = new EstatisticasCatalogo(3,
+                    new EstatisticasCatalogo.ResumoPreco(0, null, null, null),
+                    new TreeMap<>(), new TreeMap<>(), new TreeMap<>(), List.of(), Instant.now());
+            when(calculadoraEstatisticas.obter()).thenReturn(estatisticas);
+
+            // when
+            var resposta = controller.estatisticas();
+
+            // then
+            assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(resposta.getBody()).isSameAs(estatisticas);
+        }
+    }
+
+    @Nested
+    @DisplayName("percentis()")
+    class Percentis {
+
+        @Test
+        @DisplayName("deve retornar os percentis mantidos pelos sketches")
+        void deveRetornarPercentis() {
+            // given
+            PercentisPreco percentis = new PercentisPreco(new TreeMap<>(), new TreeMap<>(), 0);
+            when(sketchesPreco.percentis()).thenReturn(percentis);
+
+            // when
+            var resposta = controller.percentis();
+
+            // then
+            assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(resposta.getBody()).isSameAs(percentis);
+        }
+    }
+
+    @Nested
+    @DisplayName("autocompletar()")
+    class Autocompletar {
+
+        @Test
+        @DisplayName("deve retornar sugestoes limitando a quantidade pedida")
+        void deveRetornarSugestoesComLimite() {
+            // given
+            SugestoesAutocompletar sugestoes = new SugestoesAutocompletar(
+                    List.of(new SugestoesAutocompletar.Sugestao("Toyota", 3)), List.of());
+            when(indiceColunar.sugerir("to", 50)).thenReturn(sugestoes);
+
+            // when
+            var resposta = controller.autocompletar("to", 500);
+
+            // then
+            assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(resposta.getBody()).isSameAs(sugestoes);
+        }
+    }
 }
@@ -0,0 +1,146 @@
+package com.tinnova.veiculos.aplicacao.veiculo;
+
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.dominio.veiculo.VeiculoAlteradoEvento;
+import com.tinnova.veiculos.infraestrutura.relatorio.SketchesPreco;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ServicoLoteVeiculo")
+class ServicoLoteVeiculoTest {
+
+    @Mock
+    private RepositorioVeiculo repositorio;
+
+    @Mock
+    private RepositorioContagemMarca contagens;
+
+    @Mock
+    private SketchesPreco sketchesPreco;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ServicoLoteVeiculo servico;
+
+    @BeforeEach
+    void setUp() {
+        servico = new ServicoLoteVeiculo(repositorio, contagens, sketchesPreco, eventos, transactionManager, 2);
+    }
+
+    @Nested
+    @DisplayName("removerPorIds()")
+    class RemoverPorIds {
+
+        @Test
+        @DisplayName("deve processar ids distintos em lotes, uma transacao por lote")
+        void deveProcessarEmLotes() {
+            // given
+            when(repositorio.buscarIds(any(), eq(0L), eq(2))).thenReturn(List.of(1L, 3L));
+            when(repositorio.buscarIds(any(), eq(0L), eq(1))).thenReturn(List.of(5L));
+            when(repositorio.desativarTodos(eq(List.of(1L, 3L)), any())).thenReturn(2);
+            when(repositorio.desativarTodos(eq(List.of(5L)), any())).thenReturn(1);
+
+            // when
+            long afetados = servico.removerPorIds(List.of(5L, 1L, 3L, 1L));
+
+            // then
+            assertThat(afetados).isEqualTo(3);
+            verify(transactionManager, times(2)).commit(any());
+            verify(contagens).subtrairVeiculos(List.of(1L, 3L));
+            verify(contagens).subtrairVeiculos(List.of(5L));
+            verify(sketchesPreco).registrarAlteracoes(2);
+            verify(sketchesPreco).registrarAlteracoes(1);
+            verify(eventos).publishEvent(VeiculoAlteradoEvento.removido(1L));
+            verify(eventos).publishEvent(VeiculoAlteradoEvento.removido(3L));
+            verify(eventos).publishEvent(VeiculoAlteradoEvento.removido(5L));
+        }
+
+        @Test
+        @DisplayName("nao deve executar UPDATE para lote sem veiculos ativos")
+        void naoDeveAtualizarLoteSemAtivos() {
+            // given
+            when(repositorio.buscarIds(any(), anyLong(), anyInt())).thenReturn(List.of());
+
+            // when
+            long afetados = servico.removerPorIds(List.of(7L, 8L));
+
+            // then
+            assertThat(afetados).isZero();
+            verify(repositorio, never()).desativarTodos(any(), any());
+            verifyNoInteractions(eventos);
+        }
+    }
+
+    @Nested
+    @DisplayName("removerPorFiltro()")
+    class RemoverPorFiltro {
+
+        @Test
+        @DisplayName("deve percorrer os veiculos por id ate o ultimo lote incompleto")
+        void devePercorrerPorId() {
+            // given
+            FiltroVeiculo filtro = new FiltroVeiculo("Fiat", null, null, null, null);
+            when(repositorio.buscarIds(any(), eq(0L), eq(2))).thenReturn(List.of(1L, 2L));
+            when(repositorio.buscarIds(any(), eq(2L), eq(2))).thenReturn(List.of(4L));
+            when(repositorio.desativarTodos(any(), any())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).size());
+
+            // when
+            long afetados = servico.removerPorFiltro(filtro);
+
+            // then
+            assertThat(afetados).isEqualTo(3);
+            verify(repositorio, never()).buscarIds(any(), eq(4L), anyInt());
+            verify(transactionManager, times(2)).commit(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("atualizarPorFiltro()")
+    class AtualizarPorFiltro {
+
+        @Test
+        @DisplayName("deve aplicar alteracoes e publicar evento por veiculo atualizado")
+        void deveAplicarAlteracoes() {
+            // given
+            FiltroVeiculo filtro = new FiltroVeiculo(null, 2020, null, null, null);
+            Veiculo alteracoes = Veiculo.builder().cor("Azul").build();
+            Veiculo atualizado = Veiculo.builder().id(1L).cor("Azul").build();
+
+            when(repositorio.buscarIds(any(), eq(0L), eq(2))).thenReturn(List.of(1L));
+            when(repositorio.atualizarTodos(eq(List.of(1L)), isNull(), isNull(), isNull(), eq("Azul"), isNull(), any()))
+                    .thenReturn(1);
+            when(repositorio.findAllById(List.of(1L))).thenReturn(List.of(atualizado));
+
+            // when
+            long afetados = servico.atualizarPorFiltro(filtro, alteracoes);
+
+            // then
+            assertThat(afetados).isEqualTo(1);
+            verify(eventos).publishEvent(VeiculoAlteradoEvento.salvo(atualizado));
+            verifyNoInteractions(contagens, sketchesPreco);
+        }
+    }
+}
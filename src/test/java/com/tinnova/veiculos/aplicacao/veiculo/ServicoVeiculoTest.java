@@ -1,9 +1,17 @@
 package com.tinnova.veiculos.aplicacao.veiculo;
 
+import com.tinnova.veiculos.dominio.veiculo.CombinacaoFacetas;
+import com.tinnova.veiculos.dominio.veiculo.ContagemPorMarca;
 import com.tinnova.veiculos.dominio.veiculo.PlacaDuplicadaException;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
 import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
 import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.dominio.veiculo.VeiculoAlteradoEvento;
 import com.tinnova.veiculos.dominio.veiculo.VeiculoNaoEncontradoException;
+import com.tinnova.veiculos.infraestrutura.indice.FiltroBloomPlacas;
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
+import com.tinnova.veiculos.infraestrutura.indice.PaginaIds;
+import com.tinnova.veiculos.infraestrutura.relatorio.SketchesPreco;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,20 +20,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +54,21 @@ class ServicoVeiculoTest {
     @Mock
     private RepositorioVeiculo repositorio;
 
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private FiltroBloomPlacas filtroPlacas;
+
+    @Mock
+    private RepositorioContagemMarca contagens;
+
+    @Mock
+    private SketchesPreco sketchesPreco;
+
+    @Mock
+    private IndiceColunarVeiculos indice;
+
     @InjectMocks
     private ServicoVeiculo servico;
 
@@ -62,8 +96,7 @@ class ServicoVeiculoTest {
         @DisplayName("deve criar veiculo com sucesso")
         void deveCriarVeiculoComSucesso() {
             // given
-            when(repositorio.existsByPlaca("ABC1234")).thenReturn(false);
-            when(repositorio.save(any(Veiculo.class))).thenReturn(veiculoExemplo);
+            when(repositorio.saveAndFlush(any(Veiculo.class))).thenReturn(veiculoExemplo);
 
             // when
             Veiculo resultado = servico.criar(veiculoExemplo);
@@ -71,21 +104,68 @@ class ServicoVeiculoTest {
             // then
             assertThat(resultado).isNotNull();
             assertThat(resultado.getPlaca()).isEqualTo("ABC1234");
-            verify(repositorio).save(veiculoExemplo);
+            verify(repositorio).saveAndFlush(veiculoExemplo);
+            verify(repositorio, never()).existsByPlaca(any());
+            verify(filtroPlacas).adicionar("ABC1234");
+            verify(contagens).somarVeiculos(List.of(1L));
+            verify(eventos).publishEvent(VeiculoAlteradoEvento.criado(veiculoExemplo));
+            verifyNoInteractions(sketchesPreco);
+        }
+
+        @Test
+        @DisplayName("deve rejeitar sem gravar quando filtro indica placa existente e banco confirma")
+        void deveRejeitarQuandoFiltroEBancoConfirmamPlaca() {
+            // given
+            when(filtroPlacas.podeExistir("ABC1234")).thenReturn(true);
+            when(repositorio.existsByPlaca("ABC1234")).thenReturn(true);
+
+            // when/then
+            assertThatThrownBy(() -> servico.criar(veiculoExemplo))
+                    .isInstanceOf(PlacaDuplicadaException.class);
+
+            verify(repositorio, never()).saveAndFlush(any());
+        }
+
+        @Test
+        @DisplayName("deve criar quando filtro indica falso positivo")
+        void deveCriarQuandoFiltroIndicaFalsoPositivo() {
+            // given
+            when(filtroPlacas.podeExistir("ABC1234")).thenReturn(true);
+            when(repositorio.existsByPlaca("ABC1234")).thenReturn(false);
+            when(repositorio.saveAndFlush(any(Veiculo.class))).thenReturn(veiculoExemplo);
+
+            // when
+            Veiculo resultado = servico.criar(veiculoExemplo);
+
+            // then
+            assertThat(resultado.getId()).isEqualTo(1L);
         }
 
         @Test
         @DisplayName("deve lancar excecao quando placa duplicada")
         void deveLancarExcecaoQuandoPlacaDuplicada() {
             // given
-            when(repositorio.existsByPlaca("ABC1234")).thenReturn(true);
+            when(repositorio.saveAndFlush(any(Veiculo.class))).thenThrow(violacaoPlacaUnica());
 
             // when/then
             assertThatThrownBy(() -> servico.criar(veiculoExemplo))
                     .isInstanceOf(PlacaDuplicadaException.class)
                     .hasMessageContaining("ABC1234");
 
-            verify(repositorio, never()).save(any());
+            verify(eventos, never()).publishEvent(any());
+        }
+
+        @Test
+        @DisplayName("deve propagar violacao de integridade que nao seja de unicidade")
+        void devePropagarViolacaoQueNaoSejaDeUnicidade() {
+            // given
+            var violacao = new DataIntegrityViolationException("not null", new ConstraintViolationException(
+                    "not null", new SQLException(), ConstraintViolationException.ConstraintKind.NOT_NULL, "ANO"));
+            when(repositorio.saveAndFlush(any(Veiculo.class))).thenThrow(violacao);
+
+            // when/then
+            assertThatThrownBy(() -> servico.criar(veiculoExemplo))
+                    .isSameAs(violacao);
         }
     }
 
@@ -107,15 +187,41 @@ class ServicoVeiculoTest {
                     .build();
 
             when(repositorio.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(veiculoExemplo));
-            when(repositorio.existsByPlacaAndIdNot("ABC1234", 1L)).thenReturn(false);
-            when(repositorio.save(any(Veiculo.class))).thenReturn(veiculoExemplo);
+            when(repositorio.saveAndFlush(any(Veiculo.class))).thenReturn(veiculoExemplo);
 
             // when
             Veiculo resultado = servico.atualizar(1L, dadosAtualizados);
 
             // then
             assertThat(resultado).isNotNull();
-            verify(repositorio).save(any(Veiculo.class));
+            verify(repositorio).saveAndFlush(any(Veiculo.class));
+            verifyNoInteractions(contagens);
+        }
+
+        @Test
+        @DisplayName("deve mover a contagem quando a marca muda")
+        void deveMoverContagemQuandoMarcaMuda() {
+            // given
+            Veiculo dadosAtualizados = Veiculo.builder()
+                    .placa("ABC1234")
+                    .marca("Honda")
+                    .modelo("Civic")
+                    .ano(2023)
+                    .cor("Preto")
+                    .precoUsd(new BigDecimal("25000"))
+                    .build();
+
+            when(repositorio.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(veiculoExemplo));
+            when(repositorio.saveAndFlush(any(Veiculo.class))).thenReturn(veiculoExemplo);
+
+            // when
+            servico.atualizar(1L, dadosAtualizados);
+
+            // then
+            var ordem = inOrder(contagens, repositorio);
+            ordem.verify(contagens).subtrairVeiculos(List.of(1L));
+            ordem.verify(repositorio).saveAndFlush(veiculoExemplo);
+            ordem.verify(contagens).somarVeiculos(List.of(1L));
         }
 
         @Test
@@ -143,7 +249,7 @@ class ServicoVeiculoTest {
                     .build();
 
             when(repositorio.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(veiculoExemplo));
-            when(repositorio.existsByPlacaAndIdNot("XYZ9999", 1L)).thenReturn(true);
+            when(repositorio.saveAndFlush(any(Veiculo.class))).thenThrow(violacaoPlacaUnica());
 
             // when/then
             assertThatThrownBy(() -> servico.atualizar(1L, dadosAtualizados))
@@ -163,15 +269,57 @@ class ServicoVeiculoTest {
                     .cor("Vermelho")
                     .build();
 
-            when(repositorio.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(veiculoExemplo));
-            when(repositorio.save(any(Veiculo.class))).thenReturn(veiculoExemplo);
+            when(repositorio.atualizarParcial(eq(1L), isNull(), isNull(), isNull(), isNull(), eq("Vermelho"),
+                    isNull(), any(LocalDateTime.class))).thenReturn(1);
+            when(repositorio.findById(1L)).thenReturn(Optional.of(veiculoExemplo));
+
+            // when
+            Veiculo resultado = servico.atualizarParcial(1L, dadosParciais);
+
+            // then
+            assertThat(resultado).isSameAs(veiculoExemplo);
+            verify(repositorio, never()).findByIdAndAtivoTrue(any());
+            verify(eventos).publishEvent(any(VeiculoAlteradoEvento.class));
+            verifyNoInteractions(contagens);
+        }
+
+        @Test
+        @DisplayName("deve mover a contagem quando a marca e informada")
+        void deveMoverContagemQuandoMarcaInformada() {
+            // given
+            Veiculo dadosParciais = Veiculo.builder()
+                    .marca("Honda")
+                    .build();
+
+            when(repositorio.atualizarParcial(eq(1L), isNull(), eq("Honda"), isNull(), isNull(), isNull(),
+                    isNull(), any(LocalDateTime.class))).thenReturn(1);
+            when(repositorio.findById(1L)).thenReturn(Optional.of(veiculoExemplo));
 
             // when
             servico.atualizarParcial(1L, dadosParciais);
 
             // then
-            assertThat(veiculoExemplo.getCor()).isEqualTo("Vermelho");
-            assertThat(veiculoExemplo.getMarca()).isEqualTo("Toyota");
+            var ordem = inOrder(contagens, repositorio);
+            ordem.verify(contagens).subtrairVeiculos(List.of(1L));
+            ordem.verify(repositorio).atualizarParcial(eq(1L), any(), any(), any(), any(), any(), any(), any());
+            ordem.verify(contagens).somarVeiculos(List.of(1L));
+        }
+
+        @Test
+        @DisplayName("deve lancar excecao quando nenhuma linha for atualizada")
+        void deveLancarExcecaoQuandoNenhumaLinhaAtualizada() {
+            // given
+            Veiculo dadosParciais = Veiculo.builder()
+                    .cor("Vermelho")
+                    .build();
+
+            when(repositorio.atualizarParcial(eq(99L), any(), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(0);
+
+            // when/then
+            assertThatThrownBy(() -> servico.atualizarParcial(99L, dadosParciais))
+                    .isInstanceOf(VeiculoNaoEncontradoException.class);
+            verify(eventos, never()).publishEvent(any());
         }
 
         @Test
@@ -182,12 +330,13 @@ class ServicoVeiculoTest {
                     .placa("XYZ9999")
                     .build();
 
-            when(repositorio.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(veiculoExemplo));
-            when(repositorio.existsByPlacaAndIdNot("XYZ9999", 1L)).thenReturn(true);
+            when(repositorio.atualizarParcial(eq(1L), eq("XYZ9999"), any(), any(), any(), any(), any(), any()))
+                    .thenThrow(violacaoPlacaUnica());
 
             // when/then
             assertThatThrownBy(() -> servico.atualizarParcial(1L, dadosParciais))
                     .isInstanceOf(PlacaDuplicadaException.class);
+            verify(filtroPlacas).adicionar("XYZ9999");
         }
     }
 
@@ -199,22 +348,25 @@ class ServicoVeiculoTest {
         @DisplayName("deve fazer soft delete do veiculo")
         void deveFazerSoftDeleteDoVeiculo() {
             // given
-            when(repositorio.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(veiculoExemplo));
-            when(repositorio.save(any(Veiculo.class))).thenReturn(veiculoExemplo);
+            when(repositorio.desativar(eq(1L), any(LocalDateTime.class))).thenReturn(1);
 
             // when
             servico.remover(1L);
 
             // then
-            assertThat(veiculoExemplo.getAtivo()).isFalse();
-            verify(repositorio).save(veiculoExemplo);
+            var ordem = inOrder(contagens, repositorio);
+            ordem.verify(contagens).subtrairVeiculos(List.of(1L));
+            ordem.verify(repositorio).desativar(eq(1L), any(LocalDateTime.class));
+            verify(sketchesPreco).registrarAlteracoes(1);
+            verify(repositorio, never()).save(any(Veiculo.class));
+            verify(eventos).publishEvent(VeiculoAlteradoEvento.removido(1L));
         }
 
         @Test
         @DisplayName("deve lancar excecao quando veiculo nao encontrado para remocao")
         void deveLancarExcecaoQuandoVeiculoNaoEncontradoParaRemocao() {
             // given
-            when(repositorio.findByIdAndAtivoTrue(99L)).thenReturn(Optional.empty());
+            when(repositorio.desativar(eq(99L), any(LocalDateTime.class))).thenReturn(0);
 
             // when/then
             assertThatThrownBy(() -> servico.remover(99L))
@@ -277,6 +429,128 @@ class ServicoVeiculoTest {
             // then
             assertThat(resultado.getContent()).hasSize(1);
         }
+
+        @Test
+        @DisplayName("deve selecionar pelo indice colunar e ler do banco so a pagina")
+        void deveListarPeloIndice() {
+            // given
+            Veiculo outro = Veiculo.builder().id(3L).marca("Toyota").build();
+            Pageable pageable = PageRequest.of(1, 2);
+            when(indice.isPronto()).thenReturn(true);
+            when(indice.buscar("Toyota", null, null, null, null, 2, 2)).thenReturn(new PaginaIds(List.of(1L, 3L), 5));
+            when(repositorio.findAll(any(Specification.class))).thenReturn(List.of(outro, veiculoExemplo));
+
+            // when
+            Page<Veiculo> resultado = servico.listar("Toyota", null, null, null, null, pageable);
+
+            // then
+            assertThat(resultado.getContent()).containsExactly(veiculoExemplo, outro);
+            assertThat(resultado.getTotalElements()).isEqualTo(5);
+            verify(repositorio, never()).findAll(any(Specification.class), any(Pageable.class));
+            verify(repositorio, never()).findAllById(any());
+        }
+
+        @Test
+        @DisplayName("deve descartar da pagina e do total do indice os veiculos que deixaram de atender ao filtro")
+        void deveDescartarVeiculosForaDoFiltro() {
+            // given
+            Veiculo alterado = Veiculo.builder().id(3L).marca("Honda").ano(2023).precoUsd(new BigDecimal("25000"))
+                    .ativo(true).build();
+            Pageable pageable = PageRequest.of(0, 3);
+            when(indice.isPronto()).thenReturn(true);
+            when(indice.buscar("Toyota", null, null, null, null, 0, 3))
+                    .thenReturn(new PaginaIds(List.of(1L, 2L, 3L), 7));
+            when(repositorio.findAll(any(Specification.class))).thenReturn(List.of(veiculoExemplo, alterado));
+
+            // when
+            Page<Veiculo> resultado = servico.listar("Toyota", null, null, null, null, pageable);
+
+            // then: o 2 nao esta mais ativo e o 3 mudou de marca depois da ultima atualizacao do indice
+            assertThat(resultado.getContent()).containsExactly(veiculoExemplo);
+            assertThat(resultado.getTotalElements()).isEqualTo(5);
+            assertThat(resultado.getTotalPages()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("deve consultar o banco quando a listagem tem ordenacao")
+        void deveListarNoBancoComOrdenacao() {
+            // given
+            Pageable pageable = PageRequest.of(0, 10, Sort.by("marca"));
+            when(indice.isPronto()).thenReturn(true);
+            when(repositorio.findAll(any(Specification.class), eq(pageable)))
+                    .thenReturn(new PageImpl<>(List.of(veiculoExemplo)));
+
+            // when
+            Page<Veiculo> resultado = servico.listar(null, null, null, null, null, pageable);
+
+            // then
+            assertThat(resultado.getContent()).hasSize(1);
+            verify(indice, never()).buscar(any(), any(), any(), any(), any(), anyLong(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("contarFacetas()")
+    class ContarFacetas {
+
+        private final List<CombinacaoFacetas> combinacoes = List.of(
+                new CombinacaoFacetas("Toyota", 2023, "Preto", 2),
+                new CombinacaoFacetas("Toyota", 2020, "Branco", 1),
+                new CombinacaoFacetas("Honda", 2023, "Preto", 3),
+                new CombinacaoFacetas("Honda", 2020, "Prata", 4));
+
+        @Test
+        @DisplayName("deve contar todos os valores quando nao ha filtro de faceta")
+        void deveContarSemFiltro() {
+            // given
+            when(repositorio.contarCombinacoes(any())).thenReturn(combinacoes);
+
+            // when
+            FacetasVeiculo facetas = servico.contarFacetas(null, null, null, null, null);
+
+            // then
+            assertThat(facetas.marcas()).containsExactly(
+                    Map.entry("Honda", 7L), Map.entry("Toyota", 3L));
+            assertThat(facetas.anos()).containsEntry(2020, 5L).containsEntry(2023, 5L);
+            assertThat(facetas.cores()).containsEntry("Preto", 5L).containsEntry("Prata", 4L)
+                    .containsEntry("Branco", 1L);
+            verify(repositorio, times(1)).contarCombinacoes(any());
+        }
+
+        @Test
+        @DisplayName("deve contar pelo indice colunar quando construido")
+        void deveContarPeloIndice() {
+            // given
+            when(indice.isPronto()).thenReturn(true);
+            when(indice.contarMarcas(2023, null, null, null)).thenReturn(new TreeMap<>(Map.of("Toyota", 2L)));
+            when(indice.contarAnos("Toyota", null, null, null)).thenReturn(new TreeMap<>(Map.of(2023, 2L)));
+            when(indice.contarCores("Toyota", 2023, null, null)).thenReturn(new TreeMap<>(Map.of("Preto", 2L)));
+
+            // when
+            FacetasVeiculo facetas = servico.contarFacetas("Toyota", 2023, null, null, null);
+
+            // then
+            assertThat(facetas.marcas()).containsExactly(Map.entry("Toyota", 2L));
+            assertThat(facetas.cores()).containsExactly(Map.entry("Preto", 2L));
+            verify(repositorio, never()).contarCombinacoes(any());
+        }
+
+        @Test
+        @DisplayName("cada faceta deve ignorar o proprio criterio e respeitar os demais")
+        void deveIgnorarProprioCriterio() {
+            // given
+            when(repositorio.contarCombinacoes(any())).thenReturn(combinacoes);
+
+            // when
+            FacetasVeiculo facetas = servico.contarFacetas("toyota", null, "preto", null, null);
+
+            // then
+            assertThat(facetas.marcas()).containsOnlyKeys("Honda", "Toyota")
+                    .containsEntry("Honda", 3L).containsEntry("Toyota", 2L);
+            assertThat(facetas.anos()).containsOnlyKeys(2023).containsEntry(2023, 2L);
+            assertThat(facetas.cores()).containsOnlyKeys("Preto", "Branco")
+                    .containsEntry("Preto", 2L).containsEntry("Branco", 1L);
+        }
     }
 
     @Nested
@@ -311,6 +585,127 @@ class ServicoVeiculoTest {
         }
     }
 
+    @Nested
+    @DisplayName("buscarPorIds()")
+    class BuscarPorIds {
+
+        @Test
+        @DisplayName("deve buscar os ids distintos em uma unica consulta")
+        void deveBuscarEmUmaConsulta() {
+            // given
+            when(repositorio.findAll(any(Specification.class))).thenReturn(List.of(veiculoExemplo));
+
+            // when
+            Map<Long, Veiculo> resultado = servico.buscarPorIds(List.of(1L, 99L, 1L));
+
+            // then
+            assertThat(resultado).containsOnlyKeys(1L);
+            verify(repositorio, times(1)).findAll(any(Specification.class));
+        }
+
+        @Test
+        @DisplayName("deve retornar vazio sem consultar quando nao ha ids")
+        void deveRetornarVazioSemIds() {
+            // when
+            Map<Long, Veiculo> resultado = servico.buscarPorIds(List.of());
+
+            // then
+            assertThat(resultado).isEmpty();
+            verifyNoInteractions(repositorio);
+        }
+    }
+
+    @Nested
+    @DisplayName("buscarSimilares()")
+    class BuscarSimilares {
+
+        @Test
+        @DisplayName("deve carregar os similares do indice na ordem de proximidade")
+        void deveCarregarNaOrdemDoIndice() {
+            // given
+            Veiculo outro = Veiculo.builder().id(2L).placa("XYZ9876").marca("Toyota").build();
+            when(indice.similares(3L, 5)).thenReturn(Optional.of(List.of(2L, 1L)));
+            when(repositorio.findAll(any(Specification.class))).thenReturn(List.of(veiculoExemplo, outro));
+
+            // when
+            List<Veiculo> resultado = servico.buscarSimilares(3L, 5);
+
+            // then
+            assertThat(resultado).containsExactly(outro, veiculoExemplo);
+        }
+
+        @Test
+        @DisplayName("deve lancar excecao quando o veiculo nao existe")
+        void deveLancarExcecaoQuandoNaoExiste() {
+            // given
+            when(indice.similares(99L, 5)).thenReturn(Optional.empty());
+            when(repositorio.findByIdAndAtivoTrue(99L)).thenReturn(Optional.empty());
+
+            // when / then
+            assertThatThrownBy(() -> servico.buscarSimilares(99L, 5))
+                    .isInstanceOf(VeiculoNaoEncontradoException.class);
+        }
+
+        @Test
+        @DisplayName("deve retornar vazio enquanto o indice nao tem o veiculo")
+        void deveRetornarVazioSemIndice() {
+            // given
+            when(indice.similares(1L, 5)).thenReturn(Optional.empty());
+            when(repositorio.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(veiculoExemplo));
+
+            // when / then
+            assertThat(servico.buscarSimilares(1L, 5)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("buscarPorPlaca()")
+    class BuscarPorPlaca {
+
+        @Test
+        @DisplayName("deve carregar pelo id resolvido no indice")
+        void deveCarregarPeloIdDoIndice() {
+            // given
+            when(indice.idPorPlaca("abc-1234")).thenReturn(1L);
+            when(repositorio.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(veiculoExemplo));
+
+            // when
+            Optional<Veiculo> resultado = servico.buscarPorPlaca("abc-1234");
+
+            // then
+            assertThat(resultado).contains(veiculoExemplo);
+            verify(repositorio, never()).buscarAtivosPorPlaca(any());
+        }
+
+        @Test
+        @DisplayName("deve retornar vazio sem consultar o banco quando o indice nao tem a placa")
+        void deveRetornarVazioSemConsultarBanco() {
+            // given
+            when(indice.idPorPlaca("XYZ9999")).thenReturn(IndiceColunarVeiculos.PLACA_AUSENTE);
+
+            // when
+            Optional<Veiculo> resultado = servico.buscarPorPlaca("XYZ9999");
+
+            // then
+            assertThat(resultado).isEmpty();
+            verifyNoInteractions(repositorio);
+        }
+
+        @Test
+        @DisplayName("deve comparar a placa normalizada no banco quando o indice nao resolve")
+        void deveConsultarBancoQuandoIndeterminada() {
+            // given
+            when(indice.idPorPlaca("abc 1234")).thenReturn(IndiceColunarVeiculos.PLACA_INDETERMINADA);
+            when(repositorio.buscarAtivosPorPlaca("ABC1234")).thenReturn(List.of(veiculoExemplo));
+
+            // when
+            Optional<Veiculo> resultado = servico.buscarPorPlaca("abc 1234");
+
+            // then
+            assertThat(resultado).contains(veiculoExemplo);
+        }
+    }
+
     @Nested
     @DisplayName("contarPorMarca()")
     class ContarPorMarca {
@@ -319,16 +714,22 @@ class ServicoVeiculoTest {
         @DisplayName("deve retornar contagem por marca")
         void deveRetornarContagemPorMarca() {
             // given
-            List<Object[]> contagem = List.of(
-                    new Object[] { "Toyota", 2L },
-                    new Object[] { "Honda", 1L });
-            when(repositorio.contarPorMarca()).thenReturn(contagem);
+            List<ContagemPorMarca> contagem = List.of(
+                    new ContagemPorMarca("Honda", 1L),
+                    new ContagemPorMarca("Toyota", 2L));
+            when(contagens.listarPositivas()).thenReturn(contagem);
 
             // when
-            List<Object[]> resultado = servico.contarPorMarca();
+            List<ContagemPorMarca> resultado = servico.contarPorMarca();
 
             // then
-            assertThat(resultado).hasSize(2);
+            assertThat(resultado).isEqualTo(contagem);
+            verify(repositorio, never()).contarPorMarca();
         }
     }
+
+    private static DataIntegrityViolationException violacaoPlacaUnica() {
+        return new DataIntegrityViolationException("placa duplicada", new ConstraintViolationException(
+                "placa duplicada", new SQLException(), ConstraintViolationException.ConstraintKind.UNIQUE, "PLACA"));
+    }
 }
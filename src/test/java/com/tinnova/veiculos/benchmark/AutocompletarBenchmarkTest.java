@@ -0,0 +1,52 @@
+package com.tinnova.veiculos.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.util.Statistics;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Executa o {@link AutocompletarJmhBenchmark} em uma JVM separada e verifica o p99 da sugestão por prefixo.
+ * Executado somente com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Autocompletar (JMH)")
+class AutocompletarBenchmarkTest {
+
+    private static final double P99_MAXIMO_US = 1_000;
+
+    @Test
+    @DisplayName("p99 do autocompletar com 1 milhão de veículos abaixo de 1 ms")
+    void autocompletar() throws RunnerException {
+        Options opcoes = new OptionsBuilder()
+                .include(AutocompletarJmhBenchmark.class.getName())
+                .forks(1)
+                .jvmArgsAppend("-Xmx2g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+
+        Collection<RunResult> resultados = new Runner(opcoes).run();
+
+        assertThat(resultados).isNotEmpty();
+        for (RunResult resultado : resultados) {
+            Statistics estatisticas = resultado.getPrimaryResult().getStatistics();
+            System.out.printf("Autocompletar '%s': p50 %.1f µs, p99 %.1f µs, p99.9 %.1f µs%n",
+                    resultado.getParams().getParam("prefixo"),
+                    estatisticas.getPercentile(50), estatisticas.getPercentile(99), estatisticas.getPercentile(99.9));
+            assertThat(estatisticas.getPercentile(99)).isLessThan(P99_MAXIMO_US);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.tinnova.veiculos.benchmark;
+
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
+import com.tinnova.veiculos.infraestrutura.indice.SugestoesAutocompletar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência do autocompletar do {@link IndiceColunarVeiculos} com 1 milhão de veículos ativos,
+ * 60 marcas e 3000 modelos. Executado pelo {@link AutocompletarBenchmarkTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutocompletarJmhBenchmark {
+
+    static final int VEICULOS = 1_000_000;
+
+    @Param({"c", "co", "cor", "cross", "zz"})
+    public String prefixo;
+
+    private IndiceColunarVeiculos indice;
+
+    @Setup(Level.Trial)
+    public void construir() {
+        indice = CatalogoSintetico.indice(VEICULOS);
+    }
+
+    @Benchmark
+    public SugestoesAutocompletar sugerir() {
+        return indice.sugerir(prefixo, 10);
+    }
+}
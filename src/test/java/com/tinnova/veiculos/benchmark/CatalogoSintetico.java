@@ -0,0 +1,84 @@
+package com.tinnova.veiculos.benchmark;
+
+import com.tinnova.veiculos.dominio.veiculo.IntervaloIds;
+import com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.VersaoVeiculos;
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Catálogo determinístico de veículos ativos para os benchmarks JMH do {@link IndiceColunarVeiculos},
+ * com 60 marcas e 3000 modelos de nomes sintéticos, sem banco de dados.
+ */
+final class CatalogoSintetico {
+
+    private static final int MARCAS = 60;
+    private static final int MODELOS = 3_000;
+    private static final String[] SILABAS = {
+            "ca", "co", "ro", "la", "ti", "va", "mo", "ne", "sa", "tu", "ra", "ga", "pi", "lo", "de", "ve"};
+    private static final String[] VERSOES = {"", " Sport", " Cross", " GT", " Plus"};
+
+    private CatalogoSintetico() {
+    }
+
+    /**
+     * Índice construído com os veículos de id 1 a {@code veiculos}.
+     */
+    static IndiceColunarVeiculos indice(int veiculos) {
+        Random random = new Random(42);
+        List<String> marcas = nomes(random, MARCAS, false);
+        List<String> modelos = nomes(random, MODELOS, true);
+
+        RepositorioVeiculo repositorio = mock(RepositorioVeiculo.class);
+        when(repositorio.intervaloIdsAtivos()).thenReturn(new IntervaloIds(1L, (long) veiculos));
+        when(repositorio.versaoVeiculos()).thenReturn(new VersaoVeiculos((long) veiculos, LocalDateTime.now()));
+        when(repositorio.streamLinhasAtivas()).thenAnswer(invocacao -> linhas(veiculos, marcas, modelos));
+        IndiceColunarVeiculos indice = new IndiceColunarVeiculos(repositorio, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 100_000, 4);
+        indice.reconstruir();
+        return indice;
+    }
+
+    private static Stream<LinhaVeiculo> linhas(int veiculos, List<String> marcas, List<String> modelos) {
+        Random random = new Random(7);
+        return IntStream.rangeClosed(1, veiculos).mapToObj(id -> new LinhaVeiculo((long) id,
+                "BEN" + id,
+                marcas.get(id % MARCAS),
+                modelos.get((id * 31) % MODELOS),
+                1995 + random.nextInt(31),
+                "Preto",
+                BigDecimal.valueOf(3_000 + random.nextInt(150_000))));
+    }
+
+    private static List<String> nomes(Random random, int quantidade, boolean comVersao) {
+        Set<String> nomes = new LinkedHashSet<>();
+        while (nomes.size() < quantidade) {
+            StringBuilder nome = new StringBuilder();
+            int silabas = 2 + random.nextInt(2);
+            for (int i = 0; i < silabas; i++) {
+                nome.append(SILABAS[random.nextInt(SILABAS.length)]);
+            }
+            nome.setCharAt(0, Character.toUpperCase(nome.charAt(0)));
+            if (comVersao) {
+                nome.append(VERSOES[random.nextInt(VERSOES.length)]);
+            }
+            nomes.add(nome.toString());
+        }
+        return new ArrayList<>(nomes);
+    }
+}
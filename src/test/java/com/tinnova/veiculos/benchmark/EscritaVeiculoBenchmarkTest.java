@@ -0,0 +1,151 @@
+package com.tinnova.veiculos.benchmark;
+
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.dominio.veiculo.VeiculoAlteradoEvento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o throughput de PATCH e soft delete por carregar-modificar-salvar
+ * (implementação anterior, reproduzida aqui) com o UPDATE condicional do {@link ServicoVeiculo}.
+ * Executado somente com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Benchmark - Escrita de veículos")
+class EscritaVeiculoBenchmarkTest {
+
+    private static final int VEICULOS = 2_000;
+    private static final int AQUECIMENTO = 8;
+    private static final int RODADAS = 5;
+    private static final String[] CORES = {"Preto", "Branco", "Prata", "Vermelho"};
+
+    @Autowired
+    private RepositorioVeiculo repositorio;
+
+    @Autowired
+    private ServicoVeiculo servico;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+    private int sequencia;
+
+    @BeforeEach
+    void setUp() {
+        repositorio.deleteAll();
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("PATCH: carregar-modificar-salvar x UPDATE condicional")
+    void patch() {
+        List<Long> ids = cadastrar("PAT");
+
+        double antes = mediana(() -> ids, this::patchCarregandoEntidade);
+        double depois = mediana(() -> ids, this::patchComUpdate);
+
+        imprimir("PATCH", antes, depois);
+        assertThat(depois).isPositive();
+    }
+
+    @Test
+    @DisplayName("DELETE: carregar-modificar-salvar x UPDATE condicional")
+    void remover() {
+        double antes = mediana(() -> cadastrar("REA"), this::removerCarregandoEntidade);
+        double depois = mediana(() -> cadastrar("REB"), servico::remover);
+
+        imprimir("DELETE", antes, depois);
+        assertThat(depois).isPositive();
+    }
+
+    private void patchCarregandoEntidade(long id) {
+        transacao.executeWithoutResult(status -> {
+            Veiculo veiculo = repositorio.findByIdAndAtivoTrue(id).orElseThrow();
+            veiculo.setCor(CORES[(int) (id % CORES.length)]);
+            eventos.publishEvent(VeiculoAlteradoEvento.salvo(repositorio.saveAndFlush(veiculo)));
+        });
+    }
+
+    private void patchComUpdate(long id) {
+        servico.atualizarParcial(id, Veiculo.builder().cor(CORES[(int) (id % CORES.length)]).build());
+    }
+
+    private void removerCarregandoEntidade(long id) {
+        transacao.executeWithoutResult(status -> {
+            Veiculo veiculo = repositorio.findByIdAndAtivoTrue(id).orElseThrow();
+            veiculo.desativar();
+            repositorio.save(veiculo);
+            eventos.publishEvent(VeiculoAlteradoEvento.removido(id));
+        });
+    }
+
+    /**
+     * Mediana do throughput, em operações por segundo, das rodadas medidas após o aquecimento.
+     * Cada rodada aplica a operação a todos os ids fornecidos.
+     */
+    private double mediana(Supplier<List<Long>> ids, LongConsumer operacao) {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            medir(ids.get(), operacao);
+        }
+        double[] rodadas = new double[RODADAS];
+        for (int i = 0; i < RODADAS; i++) {
+            rodadas[i] = medir(ids.get(), operacao);
+        }
+        Arrays.sort(rodadas);
+        return rodadas[RODADAS / 2];
+    }
+
+    private static double medir(List<Long> ids, LongConsumer operacao) {
+        long inicio = System.nanoTime();
+        for (Long id : ids) {
+            operacao.accept(id);
+        }
+        return ids.size() / ((System.nanoTime() - inicio) / 1e9);
+    }
+
+    private List<Long> cadastrar(String prefixo) {
+        int lote = sequencia++;
+        List<Veiculo> veiculos = new ArrayList<>(VEICULOS);
+        for (int i = 0; i < VEICULOS; i++) {
+            veiculos.add(Veiculo.builder()
+                    .placa(prefixo + lote + "-" + i)
+                    .marca("Toyota")
+                    .modelo("Corolla")
+                    .ano(2020 + i % 5)
+                    .cor("Preto")
+                    .precoUsd(new BigDecimal("25000"))
+                    .build());
+        }
+        return repositorio.saveAll(veiculos).stream().map(Veiculo::getId).toList();
+    }
+
+    private static void imprimir(String operacao, double antes, double depois) {
+        System.out.printf("%s: carregar-modificar-salvar %.0f ops/s, UPDATE condicional %.0f ops/s (%.2fx)%n",
+                operacao, antes, depois, depois / antes);
+    }
+}
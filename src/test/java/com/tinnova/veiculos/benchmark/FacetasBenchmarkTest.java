@@ -0,0 +1,193 @@
+package com.tinnova.veiculos.benchmark;
+
+import com.tinnova.veiculos.aplicacao.veiculo.FacetasVeiculo;
+import com.tinnova.veiculos.aplicacao.veiculo.FiltroVeiculo;
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o cálculo das facetas com uma consulta COUNT por valor de faceta, com a consulta agrupada única
+ * e com o índice colunar usado pelo {@link ServicoVeiculo}, e a listagem filtrada no banco e pelo índice.
+ * Executado somente com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Benchmark - Facetas da listagem")
+class FacetasBenchmarkTest {
+
+    private static final int VEICULOS = 20_000;
+    private static final int AQUECIMENTO = 40;
+    private static final int RODADAS = 15;
+    private static final String[] MARCAS = {
+            "Toyota", "Honda", "Ford", "Fiat", "Chevrolet", "Volkswagen", "Hyundai", "Renault", "Nissan", "Jeep"};
+    private static final String[] CORES = {"Preto", "Branco", "Prata", "Vermelho", "Azul", "Cinza", "Verde", "Bege"};
+    private static final int ANO_INICIAL = 2010;
+    private static final int ANOS = 15;
+
+    @Autowired
+    private RepositorioVeiculo repositorio;
+
+    @Autowired
+    private ServicoVeiculo servico;
+
+    @Autowired
+    private IndiceColunarVeiculos indice;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+
+    @BeforeEach
+    void setUp() {
+        repositorio.deleteAll();
+        transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        cadastrar();
+        indice.reconstruir();
+    }
+
+    @Test
+    @DisplayName("Facetas: um COUNT por valor x consulta agrupada única x índice colunar")
+    void facetas() {
+        FiltroVeiculo filtro = new FiltroVeiculo("Toyota", null, null, new BigDecimal("15000"), null);
+
+        FacetasVeiculo esperado = contarPorValor(filtro);
+        assertThat(contarAgrupado(filtro)).isEqualTo(esperado);
+        assertThat(contarPeloIndice(filtro)).isEqualTo(esperado);
+
+        double antes = mediana(() -> contarPorValor(filtro));
+        double agrupado = mediana(() -> contarAgrupado(filtro));
+        double indexado = mediana(() -> contarPeloIndice(filtro));
+
+        System.out.printf("Facetas: %d COUNTs %.2f ms, consulta agrupada %.2f ms (%.2fx), índice colunar %.3f ms (%.2fx)%n",
+                MARCAS.length + ANOS + CORES.length, antes, agrupado, antes / agrupado, indexado, antes / indexado);
+        assertThat(indexado).isPositive();
+    }
+
+    @Test
+    @DisplayName("Listagem: filtro e contagem no banco x índice colunar")
+    void listagem() {
+        FiltroVeiculo filtro = new FiltroVeiculo("Honda", 2015, null, null, new BigDecimal("25000"));
+        PageRequest pagina = PageRequest.of(3, 20);
+
+        Page<Veiculo> esperado = listarNoBanco(filtro, pagina);
+        Page<Veiculo> indexado = listarPeloIndice(filtro, pagina);
+        assertThat(indexado.getTotalElements()).isEqualTo(esperado.getTotalElements());
+        assertThat(indexado.getContent()).extracting(Veiculo::getId)
+                .containsExactlyElementsOf(esperado.map(Veiculo::getId));
+
+        double antes = mediana(() -> listarNoBanco(filtro, pagina));
+        double depois = mediana(() -> listarPeloIndice(filtro, pagina));
+
+        System.out.printf("Listagem: banco %.2f ms, índice colunar %.2f ms (%.2fx)%n", antes, depois, antes / depois);
+        assertThat(depois).isPositive();
+    }
+
+    private FacetasVeiculo contarAgrupado(FiltroVeiculo filtro) {
+        return transacao.execute(status ->
+                FacetasVeiculo.calcular(repositorio.contarCombinacoes(filtro.especificacaoSemFacetas()), filtro));
+    }
+
+    private FacetasVeiculo contarPeloIndice(FiltroVeiculo filtro) {
+        return servico.contarFacetas(filtro.marca(), filtro.ano(), filtro.cor(), filtro.minPreco(), filtro.maxPreco());
+    }
+
+    private Page<Veiculo> listarNoBanco(FiltroVeiculo filtro, PageRequest pagina) {
+        return transacao.execute(status ->
+                repositorio.findAll(filtro.especificacao(), pagina.withSort(Sort.by("id"))));
+    }
+
+    private Page<Veiculo> listarPeloIndice(FiltroVeiculo filtro, PageRequest pagina) {
+        return servico.listar(filtro.marca(), filtro.ano(), filtro.cor(), filtro.minPreco(), filtro.maxPreco(), pagina);
+    }
+
+    /**
+     * Implementação ingênua: para cada valor de cada faceta, um COUNT com o próprio critério
+     * substituído pelo valor e os demais critérios mantidos.
+     */
+    private FacetasVeiculo contarPorValor(FiltroVeiculo filtro) {
+        return transacao.execute(status -> {
+            SortedMap<String, Long> marcas = new TreeMap<>();
+            SortedMap<Integer, Long> anos = new TreeMap<>();
+            SortedMap<String, Long> cores = new TreeMap<>();
+            for (String marca : MARCAS) {
+                adicionar(marcas, marca, new FiltroVeiculo(marca, filtro.ano(), filtro.cor(),
+                        filtro.minPreco(), filtro.maxPreco()));
+            }
+            for (int ano = ANO_INICIAL; ano < ANO_INICIAL + ANOS; ano++) {
+                adicionar(anos, ano, new FiltroVeiculo(filtro.marca(), ano, filtro.cor(),
+                        filtro.minPreco(), filtro.maxPreco()));
+            }
+            for (String cor : CORES) {
+                adicionar(cores, cor, new FiltroVeiculo(filtro.marca(), filtro.ano(), cor,
+                        filtro.minPreco(), filtro.maxPreco()));
+            }
+            return new FacetasVeiculo(marcas, anos, cores);
+        });
+    }
+
+    private <K> void adicionar(SortedMap<K, Long> faceta, K valor, FiltroVeiculo filtro) {
+        long quantidade = repositorio.count(filtro.especificacao());
+        if (quantidade > 0) {
+            faceta.put(valor, quantidade);
+        }
+    }
+
+    /**
+     * Mediana, em milissegundos, das rodadas medidas após o aquecimento.
+     */
+    private static double mediana(Supplier<?> operacao) {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            operacao.get();
+        }
+        double[] rodadas = new double[RODADAS];
+        for (int i = 0; i < RODADAS; i++) {
+            long inicio = System.nanoTime();
+            operacao.get();
+            rodadas[i] = (System.nanoTime() - inicio) / 1e6;
+        }
+        Arrays.sort(rodadas);
+        return rodadas[RODADAS / 2];
+    }
+
+    private void cadastrar() {
+        List<Veiculo> veiculos = new ArrayList<>(VEICULOS);
+        for (int i = 0; i < VEICULOS; i++) {
+            veiculos.add(Veiculo.builder()
+                    .placa("FAC" + i)
+                    .marca(MARCAS[i % MARCAS.length])
+                    .modelo("Modelo")
+                    .ano(ANO_INICIAL + (i / MARCAS.length) % ANOS)
+                    .cor(CORES[(i / 7) % CORES.length])
+                    .precoUsd(BigDecimal.valueOf(10_000 + (i % 40) * 500L))
+                    .build());
+        }
+        repositorio.saveAll(veiculos);
+    }
+}
@@ -0,0 +1,55 @@
+package com.tinnova.veiculos.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Executa o {@link FiltroJwtJmhBenchmark} em uma JVM separada, com o profiler de GC do JMH,
+ * e verifica a memória alocada por requisição no filtro JWT.
+ * Executado somente com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Filtro JWT (JMH)")
+class FiltroJwtBenchmarkTest {
+
+    private static final double BYTES_MAXIMOS_POR_REQUISICAO = 4_096;
+
+    @Test
+    @DisplayName("filtro JWT com token em cache alocando menos de 4 KB por requisição")
+    void filtroJwt() throws RunnerException {
+        Options opcoes = new OptionsBuilder()
+                .include(FiltroJwtJmhBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .jvmArgsAppend("-Xmx1g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+
+        Collection<RunResult> resultados = new Runner(opcoes).run();
+
+        assertThat(resultados).isNotEmpty();
+        for (RunResult resultado : resultados) {
+            Result<?> alocacao = resultado.getSecondaryResults().get("gc.alloc.rate.norm");
+            System.out.printf("Filtro JWT %s: %.0f ns, %.0f bytes por requisição%n",
+                    resultado.getParams().getParam("caminho"),
+                    resultado.getPrimaryResult().getScore(), alocacao.getScore());
+            assertThat(alocacao.getScore()).isLessThan(BYTES_MAXIMOS_POR_REQUISICAO);
+        }
+    }
+}
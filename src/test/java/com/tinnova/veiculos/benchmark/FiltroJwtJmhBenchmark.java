@@ -0,0 +1,56 @@
+package com.tinnova.veiculos.benchmark;
+
+import com.tinnova.veiculos.infraestrutura.seguranca.JwtAuthenticationFilter;
+import com.tinnova.veiculos.infraestrutura.seguranca.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do {@link JwtAuthenticationFilter} por requisição com um token já verificado, em um caminho
+ * protegido, e em um caminho público, que não passa pelo filtro. Executado pelo {@link FiltroJwtBenchmarkTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FiltroJwtJmhBenchmark {
+
+    private static final String SEGREDO = "chave-secreta-para-benchmark-com-pelo-menos-64-caracteres-para-hs384";
+
+    @Param({"/veiculos", "/auth/login"})
+    public String caminho;
+
+    private JwtAuthenticationFilter filtro;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final FilterChain chain = (req, res) -> SecurityContextHolder.clearContext();
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        JwtUtil jwtUtil = new JwtUtil(SEGREDO, 3_600_000, 100, new SimpleMeterRegistry());
+        filtro = new JwtAuthenticationFilter(jwtUtil);
+        request = new MockHttpServletRequest("GET", caminho);
+        request.addHeader("Authorization", "Bearer " + jwtUtil.gerarToken("admin", List.of("ROLE_ADMIN", "ROLE_USER")));
+    }
+
+    @Benchmark
+    public void filtrar() throws ServletException, IOException {
+        filtro.doFilter(request, response, chain);
+    }
+}
@@ -0,0 +1,44 @@
+package com.tinnova.veiculos.benchmark;
+
+import com.tinnova.veiculos.infraestrutura.indice.IndiceColunarVeiculos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência da busca de similares do {@link IndiceColunarVeiculos} com 1 milhão de veículos ativos
+ * em 60 marcas, a partir de um veículo sorteado a cada chamada. Executado pelo {@link SimilaresBenchmarkTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimilaresJmhBenchmark {
+
+    static final int VEICULOS = 1_000_000;
+
+    @Param({"5", "20"})
+    public int limite;
+
+    private IndiceColunarVeiculos indice;
+
+    @Setup(Level.Trial)
+    public void construir() {
+        indice = CatalogoSintetico.indice(VEICULOS);
+    }
+
+    @Benchmark
+    public Optional<List<Long>> similares() {
+        return indice.similares(ThreadLocalRandom.current().nextInt(1, VEICULOS + 1), limite);
+    }
+}
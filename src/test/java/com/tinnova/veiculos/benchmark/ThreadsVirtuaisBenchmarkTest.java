@@ -0,0 +1,291 @@
+package com.tinnova.veiculos.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.infraestrutura.cambio.ServicoCambio;
+import com.tinnova.veiculos.infraestrutura.seguranca.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o throughput e o p99 de {@code GET /veiculos/{id}} com as requisições do Tomcat em threads
+ * de plataforma e no perfil {@code threads-virtuais}, sob 5.000 conexões simultâneas
+ * (ou as definidas em {@code -Dbenchmark.conexoes}).
+ * Cada requisição consulta uma API de câmbio simulada, que responde após {@value #LATENCIA_CAMBIO_MS} ms,
+ * pelo mesmo {@link RestTemplate} da aplicação: é a espera de I/O que o modo de threads virtuais
+ * deixa de pagar com uma thread de plataforma ocupada.
+ * Executado somente com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@DisplayName("Benchmark - Threads virtuais x threads de plataforma")
+class ThreadsVirtuaisBenchmarkTest {
+
+    private static final int CONEXOES = Integer.getInteger("benchmark.conexoes", 5_000);
+    private static final int LATENCIA_CAMBIO_MS = 50;
+    private static final int VEICULOS = 100;
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(30);
+    private static final Duration MEDICAO = Duration.ofSeconds(60);
+    private static final Duration TEMPO_LIMITE_REQUISICAO = Duration.ofSeconds(60);
+
+    private static HttpServer cambio;
+    private static Resultado plataforma;
+
+    @BeforeAll
+    static void iniciarCambio() throws IOException {
+        cambio = HttpServer.create(new InetSocketAddress("localhost", 0), 10_000);
+        cambio.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        cambio.createContext("/cotacao", troca -> {
+            try {
+                Thread.sleep(LATENCIA_CAMBIO_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] corpo = "5.0".getBytes(StandardCharsets.UTF_8);
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        });
+        cambio.start();
+    }
+
+    @AfterAll
+    static void pararCambio() {
+        cambio.stop(0);
+    }
+
+    @Nested
+    @Order(1)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "spring.datasource.url=jdbc:h2:mem:threads-plataforma;DB_CLOSE_DELAY=-1",
+            "server.tomcat.accept-count=10000",
+            "app.limite.habilitado=false"})
+    @ActiveProfiles("test")
+    @Import(CambioSimulado.class)
+    @DisplayName("Threads de plataforma")
+    class Plataforma extends Carga {
+
+        @Test
+        @DisplayName("GET /veiculos/{id} com o pool de threads do Tomcat")
+        void medir() throws Exception {
+            plataforma = executar();
+
+            imprimir("Threads de plataforma", plataforma);
+            assertThat(plataforma.requisicoesPorSegundo()).isPositive();
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "spring.datasource.url=jdbc:h2:mem:threads-virtuais;DB_CLOSE_DELAY=-1",
+            "server.tomcat.accept-count=10000",
+            "app.limite.habilitado=false"})
+    @ActiveProfiles({"test", "threads-virtuais"})
+    @Import(CambioSimulado.class)
+    @DisplayName("Threads virtuais")
+    class Virtuais extends Carga {
+
+        @Test
+        @DisplayName("GET /veiculos/{id} com uma thread virtual por requisição")
+        void medir() throws Exception {
+            Resultado virtuais = executar();
+
+            imprimir("Threads virtuais", virtuais);
+            if (plataforma != null) {
+                System.out.printf("Threads virtuais x plataforma: throughput %.2fx, p99 %.2fx%n",
+                        virtuais.requisicoesPorSegundo() / plataforma.requisicoesPorSegundo(),
+                        (double) virtuais.p99Ms() / Math.max(1, plataforma.p99Ms()));
+            }
+            assertThat(virtuais.requisicoesPorSegundo()).isPositive();
+        }
+    }
+
+    /**
+     * Gera a carga contra a aplicação do contexto: cada conexão é mantida por uma thread virtual do cliente,
+     * que repete a requisição até o fim da medição. Só as respostas iniciadas e concluídas depois do
+     * aquecimento entram no resultado.
+     */
+    abstract static class Carga {
+
+        @LocalServerPort
+        private int porta;
+
+        @Autowired
+        private RepositorioVeiculo repositorio;
+
+        @Autowired
+        private JwtUtil jwtUtil;
+
+        Resultado executar() throws Exception {
+            List<Long> ids = cadastrar();
+            String token = "Bearer " + jwtUtil.gerarToken("benchmark", List.of("ROLE_USER"));
+            long inicioMedicao = System.nanoTime() + AQUECIMENTO.toNanos();
+            long fimMedicao = inicioMedicao + MEDICAO.toNanos();
+
+            List<Latencias> porConexao = new ArrayList<>(CONEXOES);
+            try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+                    HttpClient http = HttpClient.newBuilder()
+                            .version(HttpClient.Version.HTTP_1_1)
+                            .executor(clientes)
+                            .build()) {
+                List<Future<Latencias>> conexoes = new ArrayList<>(CONEXOES);
+                for (int i = 0; i < CONEXOES; i++) {
+                    HttpRequest requisicao = HttpRequest.newBuilder(
+                                    URI.create("http://localhost:" + porta + "/veiculos/" + ids.get(i % ids.size())))
+                            .header("Authorization", token)
+                            .timeout(TEMPO_LIMITE_REQUISICAO)
+                            .build();
+                    conexoes.add(clientes.submit(() -> repetir(http, requisicao, inicioMedicao, fimMedicao)));
+                }
+                for (Future<Latencias> conexao : conexoes) {
+                    porConexao.add(conexao.get());
+                }
+            }
+            return Resultado.de(porConexao);
+        }
+
+        private static Latencias repetir(HttpClient http, HttpRequest requisicao, long inicioMedicao, long fimMedicao) {
+            Latencias latencias = new Latencias();
+            long agora = System.nanoTime();
+            while (agora < fimMedicao) {
+                long inicio = agora;
+                boolean sucesso;
+                try {
+                    sucesso = http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                } catch (IOException e) {
+                    sucesso = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return latencias;
+                }
+                agora = System.nanoTime();
+                if (inicio >= inicioMedicao && agora <= fimMedicao) {
+                    latencias.registrar(agora - inicio, sucesso);
+                }
+            }
+            return latencias;
+        }
+
+        private List<Long> cadastrar() {
+            List<Veiculo> veiculos = new ArrayList<>(VEICULOS);
+            for (int i = 0; i < VEICULOS; i++) {
+                veiculos.add(Veiculo.builder()
+                        .placa("THR" + String.format("%04d", i))
+                        .marca("Toyota")
+                        .modelo("Corolla")
+                        .ano(2020 + i % 5)
+                        .cor("Preto")
+                        .precoUsd(new BigDecimal("25000"))
+                        .build());
+            }
+            return repositorio.saveAll(veiculos).stream().map(Veiculo::getId).toList();
+        }
+    }
+
+    /**
+     * Substitui o serviço de câmbio, que depende do Redis, por chamadas à API simulada
+     * feitas com o {@link RestTemplate} da aplicação.
+     */
+    @TestConfiguration
+    static class CambioSimulado {
+
+        @Bean
+        @Primary
+        ServicoCambio cambioSimulado(RestTemplate restTemplate) {
+            return new ServicoCambio(null, null, null, new SimpleMeterRegistry()) {
+                @Override
+                public BigDecimal obterCotacaoUsdBrl() {
+                    String url = "http://localhost:" + cambio.getAddress().getPort() + "/cotacao";
+                    return new BigDecimal(restTemplate.getForObject(url, String.class));
+                }
+            };
+        }
+    }
+
+    /**
+     * Latências, em nanossegundos, das respostas de sucesso de uma conexão, e a quantidade de falhas.
+     */
+    private static final class Latencias {
+
+        private long[] valores = new long[64];
+        private int quantidade;
+        private int erros;
+
+        void registrar(long nanos, boolean sucesso) {
+            if (!sucesso) {
+                erros++;
+                return;
+            }
+            if (quantidade == valores.length) {
+                valores = Arrays.copyOf(valores, quantidade * 2);
+            }
+            valores[quantidade++] = nanos;
+        }
+    }
+
+    record Resultado(double requisicoesPorSegundo, long p50Ms, long p99Ms, long erros) {
+
+        static Resultado de(List<Latencias> porConexao) {
+            long[] todas = porConexao.stream()
+                    .flatMapToLong(latencias -> Arrays.stream(latencias.valores, 0, latencias.quantidade))
+                    .sorted()
+                    .toArray();
+            long erros = porConexao.stream().mapToLong(latencias -> latencias.erros).sum();
+            if (todas.length == 0) {
+                return new Resultado(0, 0, 0, erros);
+            }
+            return new Resultado(todas.length / (MEDICAO.toNanos() / 1e9),
+                    percentil(todas, 0.50), percentil(todas, 0.99), erros);
+        }
+
+        private static long percentil(long[] ordenadas, double quantil) {
+            int posicao = (int) Math.ceil(quantil * ordenadas.length) - 1;
+            return Duration.ofNanos(ordenadas[Math.max(0, posicao)]).toMillis();
+        }
+    }
+
+    private static void imprimir(String modo, Resultado resultado) {
+        System.out.printf("%s (%d conexões): %.0f req/s, p50 %d ms, p99 %d ms, %d erros%n",
+                modo, CONEXOES, resultado.requisicoesPorSegundo(), resultado.p50Ms(), resultado.p99Ms(),
+                resultado.erros());
+    }
+}
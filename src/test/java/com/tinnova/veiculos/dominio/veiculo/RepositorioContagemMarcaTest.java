@@ -0,0 +1,78 @@
+package com.tinnova.veiculos.dominio.veiculo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("RepositorioContagemMarca")
+class RepositorioContagemMarcaTest {
+
+    @Autowired
+    private RepositorioContagemMarca contagens;
+
+    @Autowired
+    private RepositorioVeiculo veiculos;
+
+    @BeforeEach
+    void setUp() {
+        veiculos.deleteAll();
+        contagens.deleteAll();
+    }
+
+    @Test
+    @DisplayName("deve somar veiculos ativos pela marca atual, criando a contagem quando ausente")
+    void deveSomarPorMarca() {
+        // given
+        Long corolla = salvar("CNT0001", "Toyota", true);
+        Long hilux = salvar("CNT0002", "Toyota", true);
+        Long civic = salvar("CNT0003", "Honda", false);
+        contagens.save(new ContagemMarca("Toyota", 1L));
+
+        // when
+        contagens.somarVeiculos(List.of(corolla, hilux, civic));
+
+        // then
+        assertThat(contagens.listarPositivas()).containsExactly(new ContagemPorMarca("Toyota", 3L));
+    }
+
+    @Test
+    @DisplayName("deve subtrair veiculos ativos e omitir marcas zeradas do relatorio")
+    void deveSubtrairPorMarca() {
+        // given
+        Long corolla = salvar("CNT0001", "Toyota", true);
+        Long civic = salvar("CNT0002", "Honda", true);
+        contagens.somarVeiculos(List.of(corolla, civic));
+
+        // when
+        contagens.subtrairVeiculos(List.of(civic));
+
+        // then
+        assertThat(contagens.listarPositivas()).containsExactly(new ContagemPorMarca("Toyota", 1L));
+        assertThat(contagens.findById("Honda")).get()
+                .extracting(ContagemMarca::getQuantidade).isEqualTo(0L);
+    }
+
+    private Long salvar(String placa, String marca, boolean ativo) {
+        return veiculos.save(Veiculo.builder()
+                .placa(placa)
+                .marca(marca)
+                .modelo("Modelo")
+                .ano(2023)
+                .cor("Preto")
+                .precoUsd(new BigDecimal("20000"))
+                .ativo(ativo)
+                .build()).getId();
+    }
+}
@@ -6,13 +6,19 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -116,71 +122,183 @@ class RepositorioVeiculoTest {
     }
 
     @Nested
-    @DisplayName("existsByPlacaAndIdNot()")
-    class ExistsByPlacaAndIdNot {
+    @DisplayName("contarPorMarca()")
+    class ContarPorMarca {
 
         @Test
-        @DisplayName("deve retornar true quando placa existe em outro veiculo")
-        void deveRetornarTrueQuandoPlacaExisteEmOutroVeiculo() {
+        @DisplayName("deve retornar contagem agrupada por marca")
+        void deveRetornarContagemAgrupadaPorMarca() {
+            // given
+            repositorio.save(Veiculo.builder()
+                    .placa("DEF5678")
+                    .marca("Toyota")
+                    .modelo("Hilux")
+                    .ano(2023)
+                    .cor("Prata")
+                    .precoUsd(new BigDecimal("45000"))
+                    .ativo(true)
+                    .build());
+
             // when
-            var existe = repositorio.existsByPlacaAndIdNot("ABC1234", veiculoInativo.getId());
+            List<ContagemPorMarca> resultado = repositorio.contarPorMarca();
 
             // then
-            assertThat(existe).isTrue();
+            assertThat(resultado).containsExactly(new ContagemPorMarca("Toyota", 2L));
         }
 
         @Test
-        @DisplayName("deve retornar false quando placa pertence ao mesmo veiculo")
-        void deveRetornarFalseQuandoPlacaPertenceAoMesmoVeiculo() {
+        @DisplayName("nao deve contar veiculos inativos")
+        void naoDeveContarVeiculosInativos() {
             // when
-            var existe = repositorio.existsByPlacaAndIdNot("ABC1234", veiculoAtivo.getId());
+            List<ContagemPorMarca> resultado = repositorio.contarPorMarca();
 
             // then
-            assertThat(existe).isFalse();
+            assertThat(resultado).extracting(ContagemPorMarca::marca).doesNotContain("Honda");
         }
     }
 
     @Nested
-    @DisplayName("contarPorMarca()")
-    class ContarPorMarca {
+    @DisplayName("atualizarParcial()")
+    class AtualizarParcial {
 
         @Test
-        @DisplayName("deve retornar contagem agrupada por marca")
-        void deveRetornarContagemAgrupadaPorMarca() {
+        @DisplayName("deve atualizar somente campos informados e a data de atualizacao")
+        void deveAtualizarSomenteCamposInformados() {
+            // given
+            LocalDateTime agora = LocalDateTime.now().plusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+
+            // when
+            int afetados = repositorio.atualizarParcial(veiculoAtivo.getId(),
+                    null, null, null, null, "Vermelho", null, agora);
+
+            // then
+            Veiculo atualizado = repositorio.findById(veiculoAtivo.getId()).orElseThrow();
+            assertThat(afetados).isEqualTo(1);
+            assertThat(atualizado.getCor()).isEqualTo("Vermelho");
+            assertThat(atualizado.getMarca()).isEqualTo("Toyota");
+            assertThat(atualizado.getPrecoUsd()).isEqualByComparingTo("25000");
+            assertThat(atualizado.getAtualizadoEm()).isEqualTo(agora);
+        }
+
+        @Test
+        @DisplayName("nao deve atualizar veiculo inativo")
+        void naoDeveAtualizarVeiculoInativo() {
+            // when
+            int afetados = repositorio.atualizarParcial(veiculoInativo.getId(),
+                    null, null, null, null, "Vermelho", null, LocalDateTime.now());
+
+            // then
+            assertThat(afetados).isZero();
+            assertThat(repositorio.findById(veiculoInativo.getId()).orElseThrow().getCor()).isEqualTo("Branco");
+        }
+    }
+
+    @Nested
+    @DisplayName("desativar()")
+    class Desativar {
+
+        @Test
+        @DisplayName("deve desativar veiculo ativo")
+        void deveDesativarVeiculoAtivo() {
+            // when
+            int afetados = repositorio.desativar(veiculoAtivo.getId(), LocalDateTime.now());
+
+            // then
+            assertThat(afetados).isEqualTo(1);
+            assertThat(repositorio.findByIdAndAtivoTrue(veiculoAtivo.getId())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("deve retornar zero para veiculo ja inativo ou inexistente")
+        void deveRetornarZeroParaVeiculoInativoOuInexistente() {
+            // when/then
+            assertThat(repositorio.desativar(veiculoInativo.getId(), LocalDateTime.now())).isZero();
+            assertThat(repositorio.desativar(999L, LocalDateTime.now())).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("buscarIds()")
+    class BuscarIds {
+
+        @Test
+        @DisplayName("deve paginar ids por chave respeitando a especificacao")
+        void devePaginarIdsPorChave() {
+            // given
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                ids.add(repositorio.save(Veiculo.builder()
+                        .placa("KEY000" + i)
+                        .marca("Toyota")
+                        .modelo("Yaris")
+                        .ano(2020)
+                        .cor("Azul")
+                        .precoUsd(new BigDecimal("15000"))
+                        .build()).getId());
+            }
+            Specification<Veiculo> toyotaAtivo = (root, query, cb) -> cb.and(
+                    cb.isTrue(root.get("ativo")), cb.equal(root.get("marca"), "Toyota"));
+
+            // when
+            List<Long> primeira = repositorio.buscarIds(toyotaAtivo, 0, 2);
+            List<Long> segunda = repositorio.buscarIds(toyotaAtivo, primeira.getLast(), 2);
+
+            // then
+            assertThat(primeira).containsExactly(veiculoAtivo.getId(), ids.get(0));
+            assertThat(segunda).containsExactly(ids.get(1), ids.get(2));
+        }
+    }
+
+    @Nested
+    @DisplayName("contarCombinacoes()")
+    class ContarCombinacoes {
+
+        @Test
+        @DisplayName("deve agrupar veiculos por marca, ano e cor respeitando a especificacao")
+        void deveAgruparPorCombinacao() {
             // given
             repositorio.save(Veiculo.builder()
-                    .placa("DEF5678")
+                    .placa("FAC0001")
                     .marca("Toyota")
-                    .modelo("Hilux")
+                    .modelo("Yaris")
                     .ano(2023)
-                    .cor("Prata")
-                    .precoUsd(new BigDecimal("45000"))
-                    .ativo(true)
+                    .cor("Preto")
+                    .precoUsd(new BigDecimal("18000"))
+                    .build());
+            repositorio.save(Veiculo.builder()
+                    .placa("FAC0002")
+                    .marca("Toyota")
+                    .modelo("Etios")
+                    .ano(2020)
+                    .cor("Preto")
+                    .precoUsd(new BigDecimal("12000"))
                     .build());
+            Specification<Veiculo> ativos = (root, query, cb) -> cb.isTrue(root.get("ativo"));
 
             // when
-            List<Object[]> resultado = repositorio.contarPorMarca();
+            List<CombinacaoFacetas> combinacoes = repositorio.contarCombinacoes(ativos);
 
             // then
-            assertThat(resultado).isNotEmpty();
-            var toyota = resultado.stream()
-                    .filter(r -> "Toyota".equals(r[0]))
-                    .findFirst();
-            assertThat(toyota).isPresent();
-            assertThat(toyota.get()[1]).isEqualTo(2L);
+            assertThat(combinacoes).containsExactlyInAnyOrder(
+                    new CombinacaoFacetas("Toyota", 2023, "Preto", 2),
+                    new CombinacaoFacetas("Toyota", 2020, "Preto", 1));
         }
+    }
+
+    @Nested
+    @DisplayName("desativarTodos()")
+    class DesativarTodos {
 
         @Test
-        @DisplayName("nao deve contar veiculos inativos")
-        void naoDeveContarVeiculosInativos() {
+        @DisplayName("deve desativar somente os veiculos ativos entre os ids")
+        void deveDesativarSomenteAtivos() {
             // when
-            List<Object[]> resultado = repositorio.contarPorMarca();
+            int afetados = repositorio.desativarTodos(
+                    List.of(veiculoAtivo.getId(), veiculoInativo.getId(), 999L), LocalDateTime.now());
 
             // then
-            var honda = resultado.stream()
-                    .filter(r -> "Honda".equals(r[0]))
-                    .findFirst();
-            assertThat(honda).isEmpty();
+            assertThat(afetados).isEqualTo(1);
+            assertThat(repositorio.findByAtivoTrue()).isEmpty();
         }
     }
 
@@ -210,5 +328,23 @@ class RepositorioVeiculoTest {
             // then
             assertThat(salvo.getId()).isNotNull();
         }
+
+        @Test
+        @DisplayName("deve rejeitar placa ja cadastrada")
+        void deveRejeitarPlacaJaCadastrada() {
+            // given
+            Veiculo duplicado = Veiculo.builder()
+                    .placa("ABC1234")
+                    .marca("Ford")
+                    .modelo("Focus")
+                    .ano(2021)
+                    .cor("Azul")
+                    .precoUsd(new BigDecimal("18000"))
+                    .build();
+
+            // when/then
+            assertThatThrownBy(() -> repositorio.saveAndFlush(duplicado))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+        }
     }
 }
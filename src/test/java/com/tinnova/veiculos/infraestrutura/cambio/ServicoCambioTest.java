@@ -1,5 +1,9 @@
 package com.tinnova.veiculos.infraestrutura.cambio;
 
+import com.tinnova.veiculos.infraestrutura.prazo.Prazo;
+import com.tinnova.veiculos.infraestrutura.prazo.PrazoEsgotadoException;
+import com.tinnova.veiculos.infraestrutura.prazo.PrazoRequisicao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -36,12 +40,14 @@ class ServicoCambioTest {
     @Mock
     private ValueOperations<String, String> operacoesValor;
 
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
     private ServicoCambio servicoCambio;
 
     @BeforeEach
     void setUp() {
         when(redisTemplate.opsForValue()).thenReturn(operacoesValor);
-        servicoCambio = new ServicoCambio(awesomeApiClient, frankfurterClient, redisTemplate);
+        servicoCambio = new ServicoCambio(awesomeApiClient, frankfurterClient, redisTemplate, registry);
     }
 
     @Nested
@@ -108,6 +114,46 @@ class ServicoCambioTest {
                     .isInstanceOf(RuntimeException.class)
                     .hasMessage("Não foi possível obter cotação USD/BRL");
         }
+
+        @Test
+        @DisplayName("deve medir a falta no cache e as chamadas de cada provedor por resultado")
+        void deveMedirCacheEProvedores() {
+            // given
+            when(operacoesValor.get("cotacao:usd:brl")).thenReturn(null);
+            when(awesomeApiClient.obterCotacaoUsdBrl()).thenReturn(Optional.empty());
+            when(frankfurterClient.obterCotacaoUsdBrl()).thenReturn(Optional.of(new BigDecimal("5.30")));
+
+            // when
+            servicoCambio.obterCotacaoUsdBrl();
+
+            // then
+            assertThat(registry.get("veiculos.cambio.cache").tag("resultado", "falta").timer().count()).isEqualTo(1);
+            assertThat(registry.get("veiculos.cambio.cache").tag("resultado", "acerto").timer().count()).isZero();
+            assertThat(registry.get("veiculos.cambio.provedor")
+                    .tags("provedor", "awesomeapi", "resultado", "falha").timer().count()).isEqualTo(1);
+            assertThat(registry.get("veiculos.cambio.provedor")
+                    .tags("provedor", "frankfurter", "resultado", "sucesso").timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("deve interromper sem consultar as APIs quando o prazo da requisicao termina")
+        void deveInterromperQuandoPrazoTermina() {
+            // given
+            when(operacoesValor.get("cotacao:usd:brl")).thenAnswer(invocacao -> {
+                PrazoRequisicao.definir(Prazo.em(Duration.ZERO));
+                return null;
+            });
+
+            // when/then
+            try {
+                assertThatThrownBy(() -> servicoCambio.obterCotacaoUsdBrl())
+                        .isInstanceOf(PrazoEsgotadoException.class);
+                verify(awesomeApiClient, never()).obterCotacaoUsdBrl();
+                verify(frankfurterClient, never()).obterCotacaoUsdBrl();
+            } finally {
+                PrazoRequisicao.limpar();
+            }
+        }
     }
 
     @Nested
@@ -0,0 +1,79 @@
+package com.tinnova.veiculos.infraestrutura.compartimento;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Compartimento")
+class CompartimentoTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("deve rejeitar na hora quando as vagas e a fila estao ocupadas")
+    void deveRejeitarComFilaCheia() {
+        // given
+        Compartimento compartimento = compartimento(2, 0, 1_000);
+        compartimento.entrar();
+        compartimento.entrar();
+
+        // when / then
+        assertThatThrownBy(compartimento::entrar)
+                .isInstanceOf(CompartimentoLotadoException.class)
+                .hasMessageContaining("escritas");
+        assertThat(rejeicoes("fila-cheia")).isEqualTo(1.0);
+        assertThat(registry.get("veiculos.compartimento.em-uso").tag("compartimento", "escritas").gauge().value())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar quando a espera na fila passa do limite")
+    void deveRejeitarAposEspera() {
+        // given
+        Compartimento compartimento = compartimento(1, 1, 50);
+        compartimento.entrar();
+        long inicio = System.nanoTime();
+
+        // when / then
+        assertThatThrownBy(compartimento::entrar).isInstanceOf(CompartimentoLotadoException.class);
+        assertThat(System.nanoTime() - inicio).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(rejeicoes("tempo-esgotado")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("deve atender quem aguarda na fila quando uma vaga e liberada")
+    @Timeout(10)
+    void deveAtenderFilaAoLiberar() {
+        // given
+        Compartimento compartimento = compartimento(1, 1, 10_000);
+        compartimento.entrar();
+
+        // when
+        CompletableFuture<Void> aguardando = CompletableFuture.runAsync(compartimento::entrar);
+        while (registry.get("veiculos.compartimento.fila").tag("compartimento", "escritas").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+        compartimento.sair();
+
+        // then
+        assertThat(aguardando).succeedsWithin(5, TimeUnit.SECONDS);
+        assertThat(rejeicoes("fila-cheia") + rejeicoes("tempo-esgotado")).isZero();
+    }
+
+    private Compartimento compartimento(int maximoConcorrentes, int maximoFila, long esperaMs) {
+        return new Compartimento(TipoCompartimento.ESCRITAS,
+                new PropriedadesCompartimentos.Limites(maximoConcorrentes, maximoFila, esperaMs), registry);
+    }
+
+    private double rejeicoes(String motivo) {
+        return registry.get("veiculos.compartimento.rejeicoes").tag("compartimento", "escritas")
+                .tag("motivo", motivo).counter().count();
+    }
+}
@@ -0,0 +1,97 @@
+package com.tinnova.veiculos.infraestrutura.compartimento;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("FiltroCompartimentos")
+class FiltroCompartimentosTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final HandlerExceptionResolver resolvedor = mock(HandlerExceptionResolver.class);
+    private final FiltroCompartimentos filtro = new FiltroCompartimentos(
+            Arrays.stream(TipoCompartimento.values())
+                    .map(tipo -> new Compartimento(tipo, new PropriedadesCompartimentos.Limites(1, 0, 0), registry))
+                    .toList(),
+            resolvedor);
+
+    @ParameterizedTest
+    @CsvSource({
+            "GET, /veiculos/1, LEITURAS",
+            "GET, /veiculos, LEITURAS",
+            "GET, /veiculos/relatorios/estatisticas, RELATORIOS",
+            "POST, /veiculos/relatorios/jobs, RELATORIOS",
+            "GET, /veiculos/catalogo/snapshot, RELATORIOS",
+            "POST, /veiculos, ESCRITAS",
+            "PATCH, /veiculos/lote, ESCRITAS",
+            "DELETE, /veiculos/1, ESCRITAS"
+    })
+    @DisplayName("deve classificar a requisicao pelo metodo e caminho")
+    void deveClassificar(String metodo, String caminho, TipoCompartimento esperado) {
+        // when / then
+        assertThat(TipoCompartimento.de(metodo, caminho)).isEqualTo(esperado);
+    }
+
+    @Test
+    @DisplayName("deve ocupar a vaga durante a requisicao e rejeitar quem chega com o compartimento lotado")
+    void deveRejeitarComCompartimentoLotado() throws Exception {
+        // given
+        MockHttpServletRequest relatorio = new MockHttpServletRequest("GET", "/veiculos/relatorios/percentis");
+        MockHttpServletRequest outroRelatorio = new MockHttpServletRequest("GET", "/veiculos/relatorios/por-marca");
+        MockHttpServletRequest leitura = new MockHttpServletRequest("GET", "/veiculos/1");
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        AtomicReference<MockHttpServletResponse> respostaLeitura = new AtomicReference<>();
+        FilterChain chain = (req, res) -> {
+            if (req == relatorio) {
+                filtro.doFilter(outroRelatorio, resposta, (r, s) -> { });
+                MockHttpServletResponse deLeitura = new MockHttpServletResponse();
+                filtro.doFilter(leitura, deLeitura, (r, s) -> ((MockHttpServletResponse) s).setStatus(200));
+                respostaLeitura.set(deLeitura);
+            }
+        };
+
+        // when
+        filtro.doFilter(relatorio, new MockHttpServletResponse(), chain);
+
+        // then
+        verify(resolvedor).resolveException(eq(outroRelatorio), eq(resposta), isNull(),
+                any(CompartimentoLotadoException.class));
+        assertThat(respostaLeitura.get().getStatus()).isEqualTo(200);
+        assertThat(registry.get("veiculos.compartimento.em-uso").tag("compartimento", "relatorios").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("deve liberar a vaga quando a requisicao falha")
+    void deveLiberarVagaNaFalha() {
+        // given
+        MockHttpServletRequest escrita = new MockHttpServletRequest("POST", "/veiculos");
+
+        // when
+        assertThatThrownBy(() -> filtro.doFilter(escrita, new MockHttpServletResponse(), (req, res) -> {
+            throw new ServletException("falha");
+        })).isInstanceOf(ServletException.class);
+
+        // then
+        assertThat(registry.get("veiculos.compartimento.em-uso").tag("compartimento", "escritas").gauge().value())
+                .isZero();
+    }
+}
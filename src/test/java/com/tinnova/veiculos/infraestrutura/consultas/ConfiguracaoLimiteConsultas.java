@@ -0,0 +1,17 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.MockMvcBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Verifica o {@link LimiteConsultas} do teste em andamento depois de cada requisição do MockMvc.
+ */
+@TestConfiguration
+class ConfiguracaoLimiteConsultas {
+
+    @Bean
+    MockMvcBuilderCustomizer verificacaoLimiteConsultas() {
+        return builder -> builder.alwaysDo(ExtensaoLimiteConsultas::verificar);
+    }
+}
@@ -0,0 +1,83 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Optional;
+
+/**
+ * Define o {@link LimiteConsultas} do teste durante a sua execução e, ao final, exige que ao menos uma
+ * requisição tenha sido verificada, para que a anotação não passe sem efeito.
+ */
+class ExtensaoLimiteConsultas implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ThreadLocal<Verificacao> ATUAL = new ThreadLocal<>();
+
+    @Override
+    public void beforeTestExecution(ExtensionContext contexto) {
+        LimiteConsultas limite = AnnotationSupport
+                .findAnnotation(contexto.getRequiredTestMethod(), LimiteConsultas.class)
+                .or(() -> buscarNaClasse(contexto.getRequiredTestClass()))
+                .orElseThrow();
+        ATUAL.set(new Verificacao(limite.value()));
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext contexto) {
+        Verificacao verificacao = ATUAL.get();
+        ATUAL.remove();
+        if (verificacao.requisicoes == 0 && contexto.getExecutionException().isEmpty()) {
+            throw new AssertionError("Nenhuma requisição do MockMvc verificada pelo @LimiteConsultas; "
+                    + "a anotação precisa estar na classe de teste");
+        }
+    }
+
+    /**
+     * Falha a requisição que executou mais comandos SQL que o limite do teste em andamento.
+     */
+    static void verificar(MvcResult resultado) {
+        Verificacao verificacao = ATUAL.get();
+        if (verificacao == null) {
+            return;
+        }
+        MockHttpServletRequest request = resultado.getRequest();
+        String cabecalho = resultado.getResponse().getHeader(FiltroConsultas.CABECALHO);
+        if (cabecalho == null) {
+            throw new AssertionError(request.getMethod() + " " + request.getRequestURI()
+                    + " respondeu sem o cabeçalho " + FiltroConsultas.CABECALHO);
+        }
+        verificacao.requisicoes++;
+        int comandos = Integer.parseInt(cabecalho);
+        if (comandos > verificacao.limite) {
+            throw new AssertionError(String.format("%s %s executou %d comandos SQL; limite: %d",
+                    request.getMethod(), request.getRequestURI(), comandos, verificacao.limite));
+        }
+    }
+
+    /**
+     * Anotação da classe de teste ou, nas classes {@code @Nested}, da classe envolvente mais próxima que a tenha.
+     */
+    private static Optional<LimiteConsultas> buscarNaClasse(Class<?> classe) {
+        for (Class<?> atual = classe; atual != null; atual = atual.getEnclosingClass()) {
+            Optional<LimiteConsultas> limite = AnnotationSupport.findAnnotation(atual, LimiteConsultas.class);
+            if (limite.isPresent()) {
+                return limite;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static final class Verificacao {
+
+        private final int limite;
+        private int requisicoes;
+
+        Verificacao(int limite) {
+            this.limite = limite;
+        }
+    }
+}
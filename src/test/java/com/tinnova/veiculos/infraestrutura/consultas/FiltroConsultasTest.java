@@ -0,0 +1,71 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FiltroConsultas")
+class FiltroConsultasTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final FiltroConsultas filtro = new FiltroConsultas(registry);
+    private final InspetorConsultas inspetor = new InspetorConsultas();
+
+    @Test
+    @DisplayName("deve informar no cabecalho os comandos executados ate o envio da resposta")
+    void deveInformarComandosAteOEnvio() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/veiculos/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/veiculos/{id}");
+            inspetor.inspect("select 1");
+            inspetor.inspect("select 2");
+            res.getWriter().write("{}");
+            res.flushBuffer();
+            inspetor.inspect("select 3");
+        };
+
+        // when
+        filtro.doFilter(request, response, chain);
+
+        // then
+        assertThat(response.getHeader(FiltroConsultas.CABECALHO)).isEqualTo("2");
+        assertThat(registry.get("veiculos.requisicao.consultas").tags("metodo", "GET", "rota", "/veiculos/{id}")
+                .summary().totalAmount()).isEqualTo(3);
+        assertThat(ConsultasRequisicao.quantidade()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve informar zero comandos nas respostas sem corpo e agrupar rotas e metodos desconhecidos")
+    void deveInformarRespostasSemCorpo() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("PROPFIND", "/qualquer");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        filtro.doFilter(request, response, (req, res) -> { });
+
+        // then
+        assertThat(response.getHeader(FiltroConsultas.CABECALHO)).isEqualTo("0");
+        assertThat(registry.get("veiculos.requisicao.consultas").tags("metodo", "OUTRO", "rota", "desconhecida")
+                .summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("nao deve contar comandos fora de uma requisicao")
+    void naoDeveContarForaDeRequisicao() {
+        // when
+        inspetor.inspect("select 1");
+
+        // then
+        assertThat(ConsultasRequisicao.quantidade()).isZero();
+    }
+}
@@ -0,0 +1,25 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FormatoConsulta")
+class FormatoConsultaTest {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "select v1_0.id from veiculo v1_0 where v1_0.id in (?,?,?) | select v1_0.id from veiculo v1_0 where v1_0.id in (?...)",
+            "select v.id from veiculo v where v.id IN ( ? )           | select v.id from veiculo v where v.id in (?...)",
+            "select * from veiculo where marca = 'O''Brien' and ano > 2020 | select * from veiculo where marca = ? and ano > ?",
+            "select *\\n  from veiculo\\n where preco_usd < -10.5          | select * from veiculo where preco_usd < ?",
+            "select t1.col2 from tabela3 t1 fetch first ? rows only   | select t1.col2 from tabela3 t1 fetch first ? rows only"
+    })
+    @DisplayName("deve trocar literais por parametros, reduzir listas IN e compactar espacos")
+    void deveNormalizar(String sql, String formato) {
+        // when / then
+        assertThat(FormatoConsulta.de(sql.replace("\\n", "\n"))).isEqualTo(formato);
+    }
+}
@@ -0,0 +1,28 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de comandos SQL por requisição feita pelo MockMvc durante o teste, lido do cabeçalho
+ * {@value FiltroConsultas#CABECALHO}. A requisição que passar do limite falha o teste no próprio
+ * {@code perform}; requisições feitas antes do teste, como as do {@code @BeforeEach}, não são verificadas.
+ * <p>
+ * Precisa estar na classe de teste, onde registra a verificação no MockMvc do contexto, e vale como limite
+ * padrão dos seus testes; nos métodos, substitui o limite da classe.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(ExtensaoLimiteConsultas.class)
+@Import(ConfiguracaoLimiteConsultas.class)
+public @interface LimiteConsultas {
+
+    int value();
+}
@@ -0,0 +1,134 @@
+package com.tinnova.veiculos.infraestrutura.consultas;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("RegistroConsultasLentas")
+class RegistroConsultasLentasTest {
+
+    private final JdbcDataSource banco = new JdbcDataSource();
+    private RegistroConsultasLentas registro;
+    private DataSource comProxy;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        banco.setURL("jdbc:h2:mem:consultas-lentas;DB_CLOSE_DELAY=-1");
+        try (Connection conexao = banco.getConnection(); Statement comando = conexao.createStatement()) {
+            comando.execute("create table if not exists carro (id bigint primary key, marca varchar(50))");
+            comando.execute("create index if not exists idx_carro_marca on carro (marca)");
+        }
+        registro = new RegistroConsultasLentas(3, 10, banco);
+        comProxy = ProxyDataSourceBuilder.create(banco)
+                .listener(new OuvinteConsultasLentas(0, provedor()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registro.encerrar();
+    }
+
+    @Test
+    @DisplayName("deve registrar os parametros e acumular as execucoes pelo formato, com o plano do H2")
+    void deveAcumularPorFormatoComPlano() throws Exception {
+        // when
+        consultar("select id from carro where marca = ? and id in (?, ?)", "Toyota", 1L, 2L);
+        consultar("select id from carro where marca = ? and id in (?, ?, ?)", null, 1L, 2L, 3L);
+
+        // then
+        RelatorioConsultasLentas relatorio = registro.relatorio();
+        assertThat(relatorio.recentes()).extracting(ConsultaLenta::parametros)
+                .containsExactly(List.of("null", "1", "2", "3"), List.of("'Toyota'", "1", "2"));
+        assertThat(relatorio.formatos()).singleElement().satisfies(formato -> {
+            assertThat(formato.formato()).isEqualTo("select id from carro where marca = ? and id in (?...)");
+            assertThat(formato.quantidade()).isEqualTo(2);
+        });
+        assertThat(aguardarPlano()).contains("PUBLIC.IDX_CARRO_MARCA");
+    }
+
+    @Test
+    @DisplayName("deve manter so as consultas mais recentes e somar os formatos excedentes em um grupo")
+    void deveLimitarRecentesEFormatos() {
+        // given
+        RegistroConsultasLentas pequeno = new RegistroConsultasLentas(2, 1, null);
+
+        // when
+        pequeno.registrar("select 1 from carro where id = ?", List.of(1L), 10);
+        pequeno.registrar("select 2 from carro", List.of(), 20);
+        pequeno.registrar("select 3 from carro", List.of(), 30);
+
+        // then
+        RelatorioConsultasLentas relatorio = pequeno.relatorio();
+        assertThat(relatorio.recentes()).extracting(ConsultaLenta::sql)
+                .containsExactly("select 3 from carro", "select 2 from carro");
+        assertThat(relatorio.formatos())
+                .extracting(ResumoFormatoConsulta::formato, ResumoFormatoConsulta::quantidade,
+                        ResumoFormatoConsulta::duracaoMaximaMs)
+                .containsExactly(
+                        tuple(RegistroConsultasLentas.DEMAIS_FORMATOS, 2L, 30L),
+                        tuple("select ? from carro where id = ?", 1L, 10L));
+        pequeno.encerrar();
+    }
+
+    @Test
+    @DisplayName("deve ignorar os comandos abaixo do limiar")
+    void deveIgnorarAbaixoDoLimiar() throws Exception {
+        // given
+        comProxy = ProxyDataSourceBuilder.create(banco)
+                .listener(new OuvinteConsultasLentas(60_000, provedor()))
+                .build();
+
+        // when
+        consultar("select id from carro where marca = ?", "Toyota");
+
+        // then
+        assertThat(registro.relatorio().recentes()).isEmpty();
+    }
+
+    private ObjectProvider<RegistroConsultasLentas> provedor() {
+        return new StaticListableBeanFactory(Map.of("registro", registro))
+                .getBeanProvider(RegistroConsultasLentas.class);
+    }
+
+    private void consultar(String sql, Object... parametros) throws SQLException {
+        try (Connection conexao = comProxy.getConnection(); PreparedStatement consulta = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                consulta.setObject(i + 1, parametros[i]);
+            }
+            try (ResultSet linhas = consulta.executeQuery()) {
+                while (linhas.next()) {
+                    linhas.getLong(1);
+                }
+            }
+        }
+    }
+
+    private String aguardarPlano() throws InterruptedException {
+        for (int tentativa = 0; tentativa < 500; tentativa++) {
+            String plano = registro.relatorio().formatos().getFirst().plano();
+            if (plano != null) {
+                return plano;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Plano não capturado");
+    }
+}
@@ -0,0 +1,85 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ArvoreKd")
+class ArvoreKdTest {
+
+    private static final int PONTOS = 5_000;
+
+    @Test
+    @DisplayName("deve encontrar os mesmos vizinhos de uma busca exaustiva")
+    void deveEquivalerABuscaExaustiva() {
+        // given
+        Random random = new Random(11);
+        int[] ids = IntStream.range(0, PONTOS).toArray();
+        double[] xs = new double[PONTOS];
+        double[] ys = new double[PONTOS];
+        for (int i = 0; i < PONTOS; i++) {
+            xs[i] = random.nextInt(30);
+            ys[i] = random.nextGaussian() * 10;
+        }
+        ArvoreKd incremental = new ArvoreKd();
+        for (int i = 0; i < PONTOS; i++) {
+            incremental.inserir(ids[i], xs[i], ys[i]);
+        }
+        ArvoreKd balanceada = ArvoreKd.balanceada(ids, xs, ys);
+
+        for (int consulta = 0; consulta < 200; consulta++) {
+            double x = random.nextInt(30);
+            double y = random.nextGaussian() * 10;
+            // when
+            int[] esperados = exaustiva(xs, ys, x, y, 7, id -> id % 3 != 0);
+
+            // then
+            assertThat(distancias(incremental.vizinhos(x, y, 7, no -> incremental.id(no) % 3 != 0), xs, ys, x, y))
+                    .containsExactly(distancias(esperados, xs, ys, x, y));
+            assertThat(distancias(balanceada.vizinhos(x, y, 7, no -> balanceada.id(no) % 3 != 0), xs, ys, x, y))
+                    .containsExactly(distancias(esperados, xs, ys, x, y));
+        }
+    }
+
+    @Test
+    @DisplayName("deve pedir reconstrucao quando os nos invalidos dominam")
+    void devePedirReconstrucao() {
+        // given
+        ArvoreKd arvore = new ArvoreKd();
+        IntStream.range(0, 100).forEach(i -> arvore.inserir(i, i, i));
+
+        // when
+        IntStream.range(0, 50).forEach(i -> arvore.invalidar());
+        boolean antes = arvore.isDesbalanceada();
+        arvore.invalidar();
+
+        // then
+        assertThat(antes).isFalse();
+        assertThat(arvore.isDesbalanceada()).isTrue();
+        assertThat(arvore.vizinhos(0, 0, 0, no -> true)).isEmpty();
+    }
+
+    private static int[] exaustiva(double[] xs, double[] ys, double x, double y, int k, IntPredicate valido) {
+        return IntStream.range(0, xs.length)
+                .filter(valido)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> distancia(xs[i], ys[i], x, y)))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static Double[] distancias(int[] ids, double[] xs, double[] ys, double x, double y) {
+        return IntStream.of(ids).mapToObj(i -> distancia(xs[i], ys[i], x, y)).toArray(Double[]::new);
+    }
+
+    private static double distancia(double xa, double ya, double xb, double yb) {
+        return (xa - xb) * (xa - xb) + (ya - yb) * (ya - yb);
+    }
+}
@@ -0,0 +1,120 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BitmapCompactado")
+class BitmapCompactadoTest {
+
+    @Test
+    @DisplayName("deve se comportar como um BitSet em adicoes e remocoes aleatorias")
+    void deveEquivalerAoBitSet() {
+        // given
+        Random random = new Random(42);
+        BitmapCompactado bitmap = new BitmapCompactado();
+        BitSet esperado = new BitSet();
+
+        // when
+        for (int i = 0; i < 200_000; i++) {
+            int valor = random.nextInt(300_000);
+            if (random.nextInt(4) == 0) {
+                bitmap.remover(valor);
+                esperado.clear(valor);
+            } else {
+                bitmap.adicionar(valor);
+                esperado.set(valor);
+            }
+        }
+
+        // then
+        assertThat(bitmap.cardinalidade()).isEqualTo(esperado.cardinality());
+        assertThat(valores(bitmap.iterador())).isEqualTo(esperado.stream().boxed().toList());
+        assertThat(bitmap.contem(esperado.nextSetBit(0))).isTrue();
+        assertThat(bitmap.contem(esperado.nextClearBit(0))).isFalse();
+    }
+
+    @Test
+    @DisplayName("deve calcular intersecao, uniao e contagem entre blocos esparsos e densos")
+    void deveCombinarBlocos() {
+        // given
+        BitmapCompactado pares = new BitmapCompactado();
+        BitmapCompactado multiplosDeTres = new BitmapCompactado();
+        BitSet esperadoPares = new BitSet();
+        BitSet esperadoTres = new BitSet();
+        for (int i = 0; i < 200_000; i += 2) {
+            pares.adicionar(i);
+            esperadoPares.set(i);
+        }
+        for (int i = 0; i < 200_000; i += 3 * (i < 70_000 ? 1 : 17)) {
+            multiplosDeTres.adicionar(i);
+            esperadoTres.set(i);
+        }
+        BitSet intersecao = (BitSet) esperadoPares.clone();
+        intersecao.and(esperadoTres);
+        BitSet uniao = (BitSet) esperadoPares.clone();
+        uniao.or(esperadoTres);
+
+        // when / then
+        assertThat(valores(pares.e(multiplosDeTres).iterador())).isEqualTo(intersecao.stream().boxed().toList());
+        assertThat(valores(multiplosDeTres.ou(pares).iterador())).isEqualTo(uniao.stream().boxed().toList());
+        assertThat(pares.cardinalidadeE(multiplosDeTres)).isEqualTo(intersecao.cardinality());
+        assertThat(multiplosDeTres.cardinalidadeE(pares)).isEqualTo(intersecao.cardinality());
+    }
+
+    @Test
+    @DisplayName("deve iniciar a iteracao na posicao informada")
+    void deveSaltarPosicoes() {
+        // given
+        BitmapCompactado bitmap = new BitmapCompactado();
+        for (int i = 0; i < 300_000; i += 5) {
+            bitmap.adicionar(i);
+        }
+
+        // when
+        PrimitiveIterator.OfInt iterador = bitmap.iterador(20_000);
+
+        // then
+        assertThat(iterador.nextInt()).isEqualTo(100_000);
+        assertThat(bitmap.iterador(60_000).hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("deve ocupar menos memoria em blocos esparsos que em blocos densos")
+    void deveCompactarBlocosEsparsos() {
+        // given
+        BitmapCompactado esparso = new BitmapCompactado();
+        BitmapCompactado denso = new BitmapCompactado();
+        for (int i = 0; i < 65_536; i++) {
+            denso.adicionar(i);
+            if (i % 64 == 0) {
+                esparso.adicionar(i);
+            }
+        }
+
+        // then
+        assertThat(esparso.tamanhoEmBytes()).isLessThan(3_000);
+        assertThat(denso.tamanhoEmBytes()).isBetween(8_192L, 9_000L);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar valores negativos")
+    void deveRejeitarNegativos() {
+        assertThatThrownBy(() -> new BitmapCompactado().adicionar(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Integer> valores(PrimitiveIterator.OfInt iterador) {
+        List<Integer> valores = new ArrayList<>();
+        iterador.forEachRemaining((int valor) -> valores.add(valor));
+        return valores;
+    }
+}
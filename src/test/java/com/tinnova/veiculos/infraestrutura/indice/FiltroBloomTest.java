@@ -0,0 +1,69 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FiltroBloom")
+class FiltroBloomTest {
+
+    @Test
+    @DisplayName("nao deve ter falsos negativos")
+    void naoDeveTerFalsosNegativos() {
+        // given
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(placa(i));
+        }
+
+        // when/then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filtro.podeConter(placa(i))).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("deve respeitar a taxa de falsos positivos na capacidade")
+    void deveRespeitarTaxaDeFalsosPositivos() {
+        // given
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(placa(i));
+        }
+
+        // when
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filtro.podeConter(placa(i))) {
+                falsosPositivos++;
+            }
+        }
+
+        // then
+        assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    @DisplayName("deve dimensionar bits e hashes pela capacidade e taxa")
+    void deveDimensionarBitsEHashes() {
+        // when
+        FiltroBloom filtro = new FiltroBloom(1_000_000, 0.01);
+
+        // then
+        assertThat(filtro.getQuantidadeBits()).isBetween(9_500_000L, 9_700_000L);
+        assertThat(filtro.getQuantidadeHashes()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar parametros invalidos")
+    void deveRejeitarParametrosInvalidos() {
+        assertThatThrownBy(() -> new FiltroBloom(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FiltroBloom(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String placa(int i) {
+        return String.format("ABC%04d", i % 10_000) + (char) ('A' + i / 10_000 % 26);
+    }
+}
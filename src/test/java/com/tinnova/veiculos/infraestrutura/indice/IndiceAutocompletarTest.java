@@ -0,0 +1,53 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo;
+import com.tinnova.veiculos.infraestrutura.indice.SugestoesAutocompletar.Sugestao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IndiceAutocompletar")
+class IndiceAutocompletarTest {
+
+    @Test
+    @DisplayName("deve contar os veiculos de cada termo e omitir os termos alem do limite")
+    void deveContarTermosAteOLimite() {
+        // given
+        ColunasVeiculos colunas = new ColunasVeiculos();
+        IndiceAutocompletar autocompletar = new IndiceAutocompletar(colunas, 2);
+
+        // when
+        gravar(colunas, autocompletar, linha(1, "Fiat", "Uno"));
+        gravar(colunas, autocompletar, linha(2, "Fiat", "Uno Way"));
+        gravar(colunas, autocompletar, linha(3, "Ford", "Fiesta"));
+        gravar(colunas, autocompletar, linha(4, "Ferrari", "F40"));
+        gravar(colunas, autocompletar, linha(2, "Fiat", "Uno"));
+        autocompletar.remover(1);
+        colunas.remover(1);
+
+        // then
+        assertThat(autocompletar.sugerir("f", 10).marcas())
+                .containsExactly(new Sugestao("Fiat", 1), new Sugestao("Ford", 1));
+        assertThat(autocompletar.sugerir("un", 10).modelos()).containsExactly(new Sugestao("Uno", 1));
+        assertThat(autocompletar.sugerir("way", 10).modelos()).isEmpty();
+        assertThat(autocompletar.sugerir("fi", 10).modelos()).isEmpty();
+    }
+
+    /**
+     * Grava como o índice: retira da parte antes das colunas e inclui depois delas.
+     */
+    private static void gravar(ColunasVeiculos colunas, IndiceAutocompletar autocompletar, LinhaVeiculo linha) {
+        int id = linha.id().intValue();
+        autocompletar.remover(id);
+        colunas.remover(id);
+        colunas.incluir(id, linha);
+        autocompletar.incluir(id, linha);
+    }
+
+    private static LinhaVeiculo linha(long id, String marca, String modelo) {
+        return new LinhaVeiculo(id, "AUT" + id, marca, modelo, 2020, "Preto", new BigDecimal("10000"));
+    }
+}
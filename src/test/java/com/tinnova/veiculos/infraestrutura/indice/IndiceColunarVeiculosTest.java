@@ -0,0 +1,267 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.dominio.veiculo.VeiculoAlteradoEvento;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("IndiceColunarVeiculos")
+class IndiceColunarVeiculosTest {
+
+    @Autowired
+    private IndiceColunarVeiculos indice;
+
+    @Autowired
+    private ServicoVeiculo servicoVeiculo;
+
+    @Autowired
+    private RepositorioVeiculo repositorio;
+
+    @Autowired
+    private RepositorioContagemMarca contagens;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @BeforeEach
+    void setUp() {
+        repositorio.deleteAll();
+        contagens.deleteAll();
+        indice.reconstruir();
+    }
+
+    @Test
+    @DisplayName("deve construir a partir do banco e filtrar por intersecao de bitmaps")
+    void deveConstruirEFiltrar() {
+        // given
+        Veiculo corolla = repositorio.save(veiculo("IDX0001", "Toyota", 2020, "Preto", 20000));
+        repositorio.save(veiculo("IDX0002", "Toyota", 2021, "Preto", 30000));
+        Veiculo civic = repositorio.save(veiculo("IDX0003", "Honda", 2020, "preto", 25000));
+        repositorio.save(veiculo("IDX0004", "Honda", 2020, "Branco", 26000));
+
+        // when
+        indice.reconstruir();
+        PaginaIds pagina = indice.buscar(null, 2020, "PRETO", null, new BigDecimal("25000"), 0, 10);
+
+        // then
+        assertThat(indice.isPronto()).isTrue();
+        assertThat(pagina.ids()).containsExactly(corolla.getId(), civic.getId());
+        assertThat(pagina.total()).isEqualTo(2);
+        assertThat(indice.buscar("toyota", null, null, null, null, 1, 10).ids()).hasSize(1);
+        assertThat(registry.get("veiculos.indice.colunar.veiculos").gauge().value()).isEqualTo(4.0);
+        assertThat(registry.get("veiculos.indice.colunar.bytes").gauge().value()).isPositive();
+    }
+
+    @Test
+    @DisplayName("deve contar facetas ignorando o proprio criterio")
+    void deveContarFacetas() {
+        // given
+        servicoVeiculo.criar(veiculo("IDX1001", "Toyota", 2020, "Preto", 20000));
+        servicoVeiculo.criar(veiculo("IDX1002", "Toyota", 2021, "Branco", 30000));
+        servicoVeiculo.criar(veiculo("IDX1003", "Honda", 2020, "Preto", 25000));
+
+        // when / then
+        assertThat(indice.contarMarcas(null, "Preto", null, null)).containsEntry("Toyota", 1L).containsEntry("Honda", 1L);
+        assertThat(indice.contarAnos("Toyota", null, null, null)).containsEntry(2020, 1L).containsEntry(2021, 1L);
+        assertThat(indice.contarCores("Toyota", null, new BigDecimal("25000"), null)).containsOnlyKeys("Branco");
+    }
+
+    @Test
+    @DisplayName("deve acompanhar criacoes, alteracoes e remocoes confirmadas")
+    void deveAcompanharEscritas() {
+        // given
+        Veiculo fusca = servicoVeiculo.criar(veiculo("IDX2001", "Volkswagen", 1980, "Azul", 5000));
+        Veiculo gol = servicoVeiculo.criar(veiculo("IDX2002", "Volkswagen", 2010, "Azul", 8000));
+
+        // when
+        servicoVeiculo.atualizarParcial(fusca.getId(), Veiculo.builder().cor("Verde").build());
+        servicoVeiculo.remover(gol.getId());
+
+        // then
+        assertThat(indice.buscar(null, null, "Verde", null, null, 0, 10).ids()).containsExactly(fusca.getId());
+        assertThat(indice.buscar(null, null, "Azul", null, null, 0, 10).ids()).isEmpty();
+        assertThat(indice.contarAnos(null, null, null, null)).containsOnlyKeys(1980);
+        assertThat(indice.buscar(null, null, null, null, null, 0, 10))
+                .isEqualTo(new PaginaIds(List.of(fusca.getId()), 1));
+    }
+
+    @Test
+    @DisplayName("deve sugerir marcas e modelos por prefixo de qualquer palavra")
+    void deveSugerirPorPrefixo() {
+        // given
+        servicoVeiculo.criar(veiculo("IDX3001", "Citroën", "C4 Cactus", 2020, "Preto", 20000));
+        servicoVeiculo.criar(veiculo("IDX3002", "Chevrolet", "Cobalt", 2015, "Prata", 12000));
+        servicoVeiculo.criar(veiculo("IDX3003", "Chevrolet", "Corsa", 2010, "Prata", 8000));
+        Veiculo corsa = servicoVeiculo.criar(veiculo("IDX3004", "Chevrolet", "Corsa", 2011, "Azul", 9000));
+
+        // when
+        servicoVeiculo.remover(corsa.getId());
+        servicoVeiculo.atualizarParcial(repositorio.findAll().stream()
+                .filter(v -> v.getModelo().equals("Cobalt")).findFirst().orElseThrow().getId(),
+                Veiculo.builder().modelo("Onix").build());
+
+        // then
+        SugestoesAutocompletar sugestoes = indice.sugerir(" ci", 10);
+        assertThat(sugestoes.marcas()).containsExactly(new SugestoesAutocompletar.Sugestao("Citroën", 1));
+        assertThat(indice.sugerir("CO", 10).modelos())
+                .containsExactly(new SugestoesAutocompletar.Sugestao("Corsa", 1));
+        assertThat(indice.sugerir("cact", 10).modelos()).extracting(SugestoesAutocompletar.Sugestao::valor)
+                .containsExactly("C4 Cactus");
+        assertThat(indice.sugerir("c", 1).marcas()).hasSize(1);
+        assertThat(indice.sugerir("  ", 10)).isEqualTo(new SugestoesAutocompletar(List.of(), List.of()));
+    }
+
+    @Test
+    @DisplayName("deve resolver a placa normalizada para o id acompanhando as escritas")
+    void deveResolverPlaca() {
+        // given
+        Veiculo gol = servicoVeiculo.criar(veiculo("PLC1A23", "Volkswagen", 2018, "Prata", 9000));
+        Veiculo uno = servicoVeiculo.criar(veiculo("PLC-4567", "Fiat", 2012, "Branco", 5000));
+        Veiculo palio = servicoVeiculo.criar(veiculo("PLC4567", "Fiat", 2010, "Azul", 4000));
+
+        // when
+        servicoVeiculo.atualizarParcial(gol.getId(), Veiculo.builder().placa("PLC9B87").build());
+
+        // then
+        assertThat(indice.idPorPlaca("plc-9b87")).isEqualTo(gol.getId());
+        assertThat(indice.idPorPlaca("PLC1A23")).isEqualTo(IndiceColunarVeiculos.PLACA_AUSENTE);
+        assertThat(indice.idPorPlaca("plc 4567")).isEqualTo(IndiceColunarVeiculos.PLACA_INDETERMINADA);
+        assertThat(indice.idPorPlaca("PLC#4567")).isEqualTo(IndiceColunarVeiculos.PLACA_INDETERMINADA);
+
+        // when
+        servicoVeiculo.remover(uno.getId());
+        indice.reconstruir();
+
+        // then
+        assertThat(indice.idPorPlaca("PLC4567")).isEqualTo(palio.getId());
+    }
+
+    @Test
+    @DisplayName("deve listar similares da mesma marca por ano e preco acompanhando as escritas")
+    void deveListarSimilares() {
+        // given
+        Veiculo base = servicoVeiculo.criar(veiculo("SIM0001", "Toyota", 2020, "Preto", 20000));
+        Veiculo proximo = servicoVeiculo.criar(veiculo("SIM0002", "Toyota", 2020, "Prata", 21000));
+        Veiculo medio = servicoVeiculo.criar(veiculo("SIM0003", "Toyota", 2018, "Preto", 20000));
+        Veiculo distante = servicoVeiculo.criar(veiculo("SIM0004", "Toyota", 2005, "Azul", 5000));
+        servicoVeiculo.criar(veiculo("SIM0005", "Honda", 2020, "Preto", 20000));
+
+        // when / then
+        assertThat(indice.similares(base.getId(), 10))
+                .contains(List.of(proximo.getId(), medio.getId(), distante.getId()));
+        assertThat(indice.similares(base.getId(), 1)).contains(List.of(proximo.getId()));
+
+        // when
+        servicoVeiculo.atualizarParcial(distante.getId(),
+                Veiculo.builder().ano(2020).precoUsd(new BigDecimal("20100")).build());
+        servicoVeiculo.remover(proximo.getId());
+
+        // then
+        assertThat(indice.similares(base.getId(), 10)).contains(List.of(distante.getId(), medio.getId()));
+        assertThat(indice.similares(proximo.getId(), 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve reconstruir na verificacao so quando o banco mudou desde a construcao")
+    void deveReconstruirQuandoBancoMudou() {
+        // given: gravado sem o evento, como por outro no
+        Veiculo externo = repositorio.save(veiculo("VER0001", "Fiat", 2015, "Prata", 7000));
+
+        // when
+        indice.verificar();
+
+        // then
+        assertThat(indice.buscar(null, null, null, null, null, 0, 10).ids()).containsExactly(externo.getId());
+    }
+
+    @Test
+    @DisplayName("deve desligar com um veiculo ativo de id alem do limite e religar na verificacao")
+    void deveDesligarComIdAlemDoLimite() {
+        // given
+        Veiculo gol = servicoVeiculo.criar(veiculo("INT0001", "Volkswagen", 2018, "Prata", 9000));
+        jdbcTemplate.update("""
+                INSERT INTO veiculo (id, placa, marca, modelo, ano, cor, preco_usd, ativo, criado_em, atualizado_em)
+                VALUES (2147483647, 'INT0002', 'Fiat', 'Uno', 2010, 'Azul', 4000, TRUE, NOW(), NOW())
+                """);
+
+        // when
+        indice.reconstruir();
+
+        // then
+        assertThat(indice.isPronto()).isFalse();
+        assertThat(indice.similares(gol.getId(), 10)).isEmpty();
+
+        // when
+        jdbcTemplate.update("UPDATE veiculo SET ativo = FALSE, atualizado_em = NOW() WHERE id = 2147483647");
+        indice.verificar();
+
+        // then
+        assertThat(indice.isPronto()).isTrue();
+        assertThat(indice.buscar(null, null, null, null, null, 0, 10).ids()).containsExactly(gol.getId());
+
+        // when: um evento de veiculo ativo com id alem do limite tambem desliga o indice
+        eventos.publishEvent(VeiculoAlteradoEvento.salvo(Veiculo.builder().id(1_000_000L).placa("INT0003")
+                .marca("Fiat").modelo("Uno").ano(2010).cor("Azul").precoUsd(new BigDecimal("4000")).ativo(true)
+                .build()));
+
+        // then
+        assertThat(indice.isPronto()).isFalse();
+        indice.verificar();
+        assertThat(indice.isPronto()).isTrue();
+    }
+
+    @Test
+    @DisplayName("deve desligar sem falhar com um veiculo ativo de id zero")
+    void deveDesligarComIdZero() {
+        // given
+        servicoVeiculo.criar(veiculo("ZER0001", "Fiat", 2012, "Azul", 5000));
+        assertThat(indice.isPronto()).isTrue();
+
+        // when
+        eventos.publishEvent(VeiculoAlteradoEvento.salvo(Veiculo.builder().id(0L).placa("ZER0000")
+                .marca("Fiat").modelo("Uno").ano(2010).cor("Azul").precoUsd(new BigDecimal("4000")).ativo(true)
+                .build()));
+
+        // then
+        assertThat(indice.isPronto()).isFalse();
+        assertThat(indice.idPorPlaca("ZER0000")).isEqualTo(IndiceColunarVeiculos.PLACA_INDETERMINADA);
+    }
+
+    private static Veiculo veiculo(String placa, String marca, int ano, String cor, int preco) {
+        return veiculo(placa, marca, "Modelo", ano, cor, preco);
+    }
+
+    private static Veiculo veiculo(String placa, String marca, String modelo, int ano, String cor, int preco) {
+        return Veiculo.builder()
+                .placa(placa)
+                .marca(marca)
+                .modelo(modelo)
+                .ano(ano)
+                .cor(cor)
+                .precoUsd(new BigDecimal(preco))
+                .build();
+    }
+}
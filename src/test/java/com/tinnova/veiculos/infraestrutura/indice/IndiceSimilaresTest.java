@@ -0,0 +1,74 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import com.tinnova.veiculos.dominio.veiculo.LinhaVeiculo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IndiceSimilares")
+class IndiceSimilaresTest {
+
+    @Test
+    @DisplayName("deve mover o veiculo para a arvore da nova marca")
+    void deveMoverEntreMarcas() {
+        // given
+        ColunasVeiculos colunas = new ColunasVeiculos();
+        IndiceSimilares similares = new IndiceSimilares(colunas);
+        gravar(colunas, similares, linha(1, "Toyota", 2020, 20000));
+        gravar(colunas, similares, linha(2, "Toyota", 2020, 21000));
+        gravar(colunas, similares, linha(3, "Honda", 2020, 20000));
+        similares.concluirConstrucao();
+
+        // when
+        gravar(colunas, similares, linha(2, "Honda", 2020, 21000));
+
+        // then
+        assertThat(similares.similares(1, 10)).contains(List.of());
+        assertThat(similares.similares(3, 10)).contains(List.of(2L));
+        assertThat(similares.similares(2, 10)).contains(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("deve ignorar os nos antigos e manter a busca apos rebalancear a arvore da marca")
+    void deveRebalancearComAlteracoes() {
+        // given
+        ColunasVeiculos colunas = new ColunasVeiculos();
+        IndiceSimilares similares = new IndiceSimilares(colunas);
+        gravar(colunas, similares, linha(1, "Toyota", 2020, 20000));
+        gravar(colunas, similares, linha(2, "Toyota", 2010, 8000));
+        gravar(colunas, similares, linha(3, "Honda", 2020, 20000));
+        similares.concluirConstrucao();
+
+        // when: cada alteracao deixa um no antigo, e a arvore e reconstruida quando eles passam da metade
+        for (int ano = 2000; ano <= 2019; ano++) {
+            gravar(colunas, similares, linha(2, "Toyota", ano, 8000 + ano));
+        }
+        gravar(colunas, similares, linha(4, "Toyota", 2020, 21000));
+        similares.remover(3);
+        colunas.remover(3);
+
+        // then
+        assertThat(similares.similares(1, 10)).contains(List.of(4L, 2L));
+        assertThat(similares.similares(3, 10)).isEmpty();
+        assertThat(similares.tamanhoEmBytes()).isPositive();
+    }
+
+    /**
+     * Grava como o índice: retira da parte antes das colunas e inclui depois delas.
+     */
+    private static void gravar(ColunasVeiculos colunas, IndiceSimilares similares, LinhaVeiculo linha) {
+        int id = linha.id().intValue();
+        similares.remover(id);
+        colunas.remover(id);
+        colunas.incluir(id, linha);
+        similares.incluir(id, linha);
+    }
+
+    private static LinhaVeiculo linha(long id, String marca, int ano, int preco) {
+        return new LinhaVeiculo(id, "SIM" + id, marca, "Modelo", ano, "Preto", new BigDecimal(preco));
+    }
+}
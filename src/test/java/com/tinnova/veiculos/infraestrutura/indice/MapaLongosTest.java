@@ -0,0 +1,62 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MapaLongos")
+class MapaLongosTest {
+
+    @Test
+    @DisplayName("deve colocar, substituir e remover chaves")
+    void deveColocarSubstituirERemover() {
+        // given
+        MapaLongos mapa = new MapaLongos();
+
+        // when
+        mapa.colocar(10, 1);
+        mapa.colocar(20, 2);
+        mapa.colocar(10, 3);
+        mapa.remover(20);
+        mapa.remover(30);
+
+        // then
+        assertThat(mapa.obter(10)).isEqualTo(3);
+        assertThat(mapa.obter(20)).isEqualTo(MapaLongos.AUSENTE);
+        assertThat(mapa.quantidade()).isEqualTo(1);
+        assertThatThrownBy(() -> mapa.colocar(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("deve manter as mesmas entradas de um HashMap apos muitas insercoes e remocoes")
+    void deveEquivalerAoHashMap() {
+        // given
+        MapaLongos mapa = new MapaLongos();
+        Map<Long, Long> esperado = new HashMap<>();
+        Random random = new Random(7);
+
+        // when
+        for (int i = 0; i < 200_000; i++) {
+            long chave = 1 + random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                mapa.remover(chave);
+                esperado.remove(chave);
+            } else {
+                mapa.colocar(chave, i + 1);
+                esperado.put(chave, (long) i + 1);
+            }
+        }
+
+        // then
+        assertThat(mapa.quantidade()).isEqualTo(esperado.size());
+        for (long chave = 1; chave <= 20_000; chave++) {
+            assertThat(mapa.obter(chave)).isEqualTo(esperado.getOrDefault(chave, MapaLongos.AUSENTE));
+        }
+    }
+}
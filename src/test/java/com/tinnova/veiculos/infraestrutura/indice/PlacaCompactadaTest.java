@@ -0,0 +1,31 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PlacaCompactada")
+class PlacaCompactadaTest {
+
+    @Test
+    @DisplayName("deve codificar placas antigas e Mercosul ignorando caixa, hifen e espacos")
+    void deveCodificarPlacas() {
+        // when / then
+        assertThat(PlacaCompactada.codificar("abc-1234")).isEqualTo(PlacaCompactada.codificar("ABC1234"));
+        assertThat(PlacaCompactada.codificar("ABC 1D23")).isEqualTo(PlacaCompactada.codificar("abc1d23"));
+        assertThat(PlacaCompactada.codificar("ABC1234")).isNotEqualTo(PlacaCompactada.codificar("ABC1D23"));
+        assertThat(PlacaCompactada.codificar("0")).isNotEqualTo(PlacaCompactada.codificar("00"));
+        assertThat(PlacaCompactada.codificar("ZZZZZZZZZZZZ")).isPositive();
+    }
+
+    @Test
+    @DisplayName("deve recusar placas sem representacao compacta")
+    void deveRecusarPlacasSemRepresentacao() {
+        // when / then
+        assertThat(PlacaCompactada.codificar(" - ")).isEqualTo(PlacaCompactada.SEM_CODIGO);
+        assertThat(PlacaCompactada.codificar("ABC.1234")).isEqualTo(PlacaCompactada.SEM_CODIGO);
+        assertThat(PlacaCompactada.codificar("ÇBC1234")).isEqualTo(PlacaCompactada.SEM_CODIGO);
+        assertThat(PlacaCompactada.codificar("ABCDEFGHIJKLM")).isEqualTo(PlacaCompactada.SEM_CODIGO);
+    }
+}
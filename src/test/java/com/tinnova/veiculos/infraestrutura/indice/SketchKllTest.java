@@ -0,0 +1,146 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SketchKll")
+class SketchKllTest {
+
+    private static final double[] QUANTIS = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+    private static final double ERRO_MAXIMO = 0.015;
+
+    @Test
+    @DisplayName("deve estimar quantis de distribuicao uniforme dentro do erro de rank")
+    void deveEstimarQuantisUniforme() {
+        // given
+        Random random = new Random(42);
+        double[] valores = new double[100_000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = 5_000 + random.nextDouble() * 95_000;
+        }
+
+        // when
+        SketchKll sketch = new SketchKll(200, 1);
+        for (double valor : valores) {
+            sketch.adicionar(valor);
+        }
+
+        // then
+        assertErroDeRank(sketch, valores);
+        assertThat(sketch.itensRetidos()).isLessThan(1_000);
+    }
+
+    @Test
+    @DisplayName("deve estimar quantis de distribuicao assimetrica com valores repetidos")
+    void deveEstimarQuantisAssimetrica() {
+        // given
+        Random random = new Random(7);
+        double[] valores = new double[100_000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = Math.round(Math.exp(9 + random.nextGaussian() * 0.6) / 500) * 500.0;
+        }
+
+        // when
+        SketchKll sketch = new SketchKll(200, 2);
+        for (double valor : valores) {
+            sketch.adicionar(valor);
+        }
+
+        // then
+        assertErroDeRank(sketch, valores);
+    }
+
+    @Test
+    @DisplayName("deve combinar sketches com o mesmo erro de um sketch unico")
+    void deveCombinarSketches() {
+        // given
+        Random random = new Random(3);
+        double[] valores = new double[60_000];
+        SketchKll[] parciais = {new SketchKll(200, 4), new SketchKll(200, 5), new SketchKll(200, 6)};
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = random.nextInt(100_000);
+            parciais[i % 3 == 0 ? 0 : i < 40_000 ? 1 : 2].adicionar(valores[i]);
+        }
+
+        // when
+        parciais[0].combinar(parciais[1]);
+        parciais[0].combinar(parciais[2]);
+
+        // then
+        assertThat(parciais[0].quantidade()).isEqualTo(valores.length);
+        assertErroDeRank(parciais[0], valores);
+    }
+
+    @Test
+    @DisplayName("deve ser exato abaixo da capacidade do primeiro nivel")
+    void deveSerExatoComPoucosValores() {
+        // given
+        SketchKll sketch = new SketchKll(200);
+        for (int i = 100; i >= 1; i--) {
+            sketch.adicionar(i);
+        }
+
+        // when/then
+        assertThat(sketch.quantil(0.25)).isEqualTo(25);
+        assertThat(sketch.quantil(0.5)).isEqualTo(50);
+        assertThat(sketch.quantil(0.9)).isEqualTo(90);
+        assertThat(sketch.quantil(1)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar parametros invalidos")
+    void deveRejeitarParametrosInvalidos() {
+        assertThatThrownBy(() -> new SketchKll(4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SketchKll(200).quantil(1.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new SketchKll(200).quantil(0.5)).isNaN();
+    }
+
+    /**
+     * Verifica que o rank real de cada estimativa está a no máximo {@link #ERRO_MAXIMO} do rank pedido.
+     */
+    private static void assertErroDeRank(SketchKll sketch, double[] valores) {
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        for (double q : QUANTIS) {
+            double estimativa = sketch.quantil(q);
+            double rankMinimo = (double) menoresQue(ordenados, estimativa) / ordenados.length;
+            double rankMaximo = (double) menoresOuIguais(ordenados, estimativa) / ordenados.length;
+            assertThat(q).as("quantil %s, estimativa %s", q, estimativa)
+                    .isBetween(rankMinimo - ERRO_MAXIMO, rankMaximo + ERRO_MAXIMO);
+        }
+    }
+
+    private static int menoresQue(double[] ordenados, double valor) {
+        int inicio = 0;
+        int fim = ordenados.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (ordenados[meio] < valor) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    private static int menoresOuIguais(double[] ordenados, double valor) {
+        int inicio = 0;
+        int fim = ordenados.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (ordenados[meio] <= valor) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+}
@@ -0,0 +1,62 @@
+package com.tinnova.veiculos.infraestrutura.indice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TriePrefixos")
+class TriePrefixosTest {
+
+    @Test
+    @DisplayName("deve normalizar acentos, caixa e espacos")
+    void deveNormalizar() {
+        // when / then
+        assertThat(TriePrefixos.normalizar("  Citroën   C4  Cactus ")).isEqualTo("citroen c4 cactus");
+        assertThat(TriePrefixos.chaves("Corolla Cross XRE")).containsExactly("corolla cross xre", "cross xre", "xre");
+        assertThat(TriePrefixos.chaves("   ")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve percorrer as chaves do prefixo em ordem lexicografica")
+    void devePercorrerEmOrdem() {
+        // given
+        TriePrefixos trie = new TriePrefixos();
+        trie.inserir("corsa", 1);
+        trie.inserir("cobalt", 2);
+        trie.inserir("corolla", 3);
+        trie.inserir("civic", 4);
+        trie.inserir("corolla", 3);
+
+        // when
+        List<Integer> visitados = new ArrayList<>();
+        trie.percorrer("co", visitados::add);
+
+        // then
+        assertThat(visitados).containsExactly(2, 3, 1);
+        assertThat(trie.tamanhoEmBytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("deve parar quando o visitante pedir")
+    void devePararQuandoVisitantePedir() {
+        // given
+        TriePrefixos trie = new TriePrefixos();
+        trie.inserir("gol", 1);
+        trie.inserir("golf", 2);
+        trie.inserir("gt", 3);
+
+        // when
+        List<Integer> visitados = new ArrayList<>();
+        trie.percorrer("g", valor -> visitados.add(valor) && visitados.size() < 2);
+        List<Integer> semPrefixo = new ArrayList<>();
+        trie.percorrer("x", semPrefixo::add);
+
+        // then
+        assertThat(visitados).containsExactly(1, 2);
+        assertThat(semPrefixo).isEmpty();
+    }
+}
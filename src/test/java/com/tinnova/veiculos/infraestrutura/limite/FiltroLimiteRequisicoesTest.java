@@ -0,0 +1,80 @@
+package com.tinnova.veiculos.infraestrutura.limite;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("FiltroLimiteRequisicoes")
+class FiltroLimiteRequisicoesTest {
+
+    private final LimitadorRequisicoes limitador = new LimitadorRequisicoes(
+            new PropriedadesLimite(true, false, 1_000, 100, null, List.of(
+                    new PropriedadesLimite.RegraLimite("GET", "/veiculos/**", null, 0.5, 2))),
+            mock(RedisTemplate.class), new SimpleMeterRegistry());
+    private final HandlerExceptionResolver resolvedor = mock(HandlerExceptionResolver.class);
+    private final FiltroLimiteRequisicoes filtro = new FiltroLimiteRequisicoes(limitador, resolvedor);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("deve seguir a cadeia dentro do limite e rejeitar o excesso com a espera em segundos")
+    void deveRejeitarExcessoComEspera() throws Exception {
+        // given
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", null, "ROLE_USER"));
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/veiculos");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            filtro.doFilter(request, response, chain);
+        }
+
+        // then
+        verify(chain, times(2)).doFilter(request, response);
+        ArgumentCaptor<Exception> excecao = ArgumentCaptor.forClass(Exception.class);
+        verify(resolvedor).resolveException(eq(request), eq(response), isNull(), excecao.capture());
+        assertThat(excecao.getValue()).isInstanceOfSatisfying(LimiteRequisicoesExcedidoException.class,
+                limite -> assertThat(limite.getEsperaSegundos()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("nao deve limitar requisicoes sem regra")
+    void naoDeveLimitarSemRegra() throws Exception {
+        // given
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/veiculos/1");
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            filtro.doFilter(request, new MockHttpServletResponse(), chain);
+        }
+
+        // then
+        verify(chain, times(5)).doFilter(eq(request), any());
+        verify(resolvedor, never()).resolveException(any(), any(), any(), any());
+    }
+}
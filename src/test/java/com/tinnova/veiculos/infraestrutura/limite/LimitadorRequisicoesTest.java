@@ -0,0 +1,220 @@
+package com.tinnova.veiculos.infraestrutura.limite;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("LimitadorRequisicoes")
+class LimitadorRequisicoesTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+    private static final Authentication ADMIN = new TestingAuthenticationToken("admin", null, "ROLE_ADMIN");
+    private static final Authentication USUARIO = new TestingAuthenticationToken("user", null, "ROLE_USER");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+
+    @Test
+    @DisplayName("deve aceitar a rajada, rejeitar o excesso e repor na taxa configurada")
+    void deveAceitarRajadaERepor() {
+        // given
+        LimitadorRequisicoes limitador = limitador(false, 100, regra("GET", "/veiculos/**", null, 10, 3));
+        MockHttpServletRequest request = get("/veiculos");
+
+        // when
+        long[] esperas = new long[4];
+        for (int i = 0; i < esperas.length; i++) {
+            esperas[i] = limitador.consumir(request, USUARIO, 0);
+        }
+        long depoisDeUmIntervalo = limitador.consumir(request, USUARIO, SEGUNDO / 10);
+
+        // then
+        assertThat(esperas).containsExactly(0, 0, 0, SEGUNDO / 10);
+        assertThat(depoisDeUmIntervalo).isZero();
+        assertThat(limitador.consumir(request, USUARIO, SEGUNDO / 10)).isEqualTo(SEGUNDO / 10);
+    }
+
+    @Test
+    @DisplayName("deve separar os baldes por usuario e identificar pelo IP quem nao tem token")
+    void deveSepararClientes() {
+        // given
+        LimitadorRequisicoes limitador = limitador(false, 100, regra(null, "/veiculos/**", null, 1, 1));
+        MockHttpServletRequest deUmIp = get("/veiculos");
+        deUmIp.setRemoteAddr("10.0.0.1");
+        MockHttpServletRequest deOutroIp = get("/veiculos");
+        deOutroIp.setRemoteAddr("10.0.0.2");
+
+        // when / then
+        assertThat(limitador.consumir(deUmIp, ADMIN, 0)).isZero();
+        assertThat(limitador.consumir(deUmIp, USUARIO, 0)).isZero();
+        assertThat(limitador.consumir(deOutroIp, ADMIN, 0)).isPositive();
+        assertThat(limitador.consumir(deUmIp, null, 0)).isZero();
+        assertThat(limitador.consumir(deOutroIp, null, 0)).isZero();
+        assertThat(limitador.consumir(deUmIp, null, 0)).isPositive();
+    }
+
+    @Test
+    @DisplayName("deve aplicar a primeira regra que casa com metodo, caminho e role")
+    void deveAplicarPrimeiraRegraQueCasa() {
+        // given
+        LimitadorRequisicoes limitador = limitador(false, 100,
+                regra("GET", "/veiculos/**", "ROLE_ADMIN", 1, 3),
+                regra("GET", "/veiculos/**", null, 1, 1));
+
+        // when / then
+        assertThat(limitador.consumir(get("/veiculos/1"), ADMIN, 0)).isZero();
+        assertThat(limitador.consumir(get("/veiculos/1"), ADMIN, 0)).isZero();
+        assertThat(limitador.consumir(get("/veiculos/1"), USUARIO, 0)).isZero();
+        assertThat(limitador.consumir(get("/veiculos/1"), USUARIO, 0)).isPositive();
+        assertThat(limitador.consumir(new MockHttpServletRequest("POST", "/veiculos"), USUARIO, 0)).isZero();
+        assertThat(limitador.consumir(get("/auth/login"), null, 0)).isZero();
+        assertThat(limitador.quantidadeBaldes()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("deve exportar metricas por cliente pelo HMAC ate o limite de clientes e agregar os demais")
+    void deveExportarMetricasPorCliente() {
+        // given
+        LimitadorRequisicoes limitador = limitador(false, 1, regra(null, "/veiculos/**", null, 1, 1));
+        String admin = limitador.identificador("usuario:admin");
+
+        // when
+        limitador.consumir(get("/veiculos"), ADMIN, 0);
+        limitador.consumir(get("/veiculos"), ADMIN, 0);
+        limitador.consumir(get("/veiculos"), USUARIO, 0);
+
+        // then
+        assertThat(admin).hasSize(16).isHexadecimal().isNotEqualTo(limitador.identificador("usuario:user"));
+        assertThat(contagem(admin, "permitida")).isEqualTo(1.0);
+        assertThat(contagem(admin, "rejeitada")).isEqualTo(1.0);
+        assertThat(contagem(LimitadorRequisicoes.CLIENTE_OUTROS, "permitida")).isEqualTo(1.0);
+        assertThat(registry.find("veiculos.limite.requisicoes").counters())
+                .extracting(contador -> contador.getId().getTag("cliente"))
+                .containsOnly(admin, LimitadorRequisicoes.CLIENTE_OUTROS);
+    }
+
+    @Test
+    @DisplayName("deve identificar o cliente pela chave configurada, igual em todos os nos")
+    void deveIdentificarPelaChaveConfigurada() {
+        // given
+        LimitadorRequisicoes umNo = limitador("chave", regra(null, "/veiculos/**", null, 1, 1));
+        LimitadorRequisicoes outroNo = limitador("chave", regra(null, "/veiculos/**", null, 1, 1));
+        LimitadorRequisicoes outraChave = limitador("outra", regra(null, "/veiculos/**", null, 1, 1));
+
+        // when / then
+        assertThat(umNo.identificador("ip:10.0.0.1")).isEqualTo(outroNo.identificador("ip:10.0.0.1"))
+                .isNotEqualTo(outraChave.identificador("ip:10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("deve remover as metricas do cliente junto com o balde e liberar a vaga")
+    void deveRemoverMetricasComBalde() {
+        // given
+        LimitadorRequisicoes limitador = limitador(false, 1, regra(null, "/veiculos/**", null, 10, 5));
+        String admin = limitador.identificador("usuario:admin");
+        limitador.consumir(get("/veiculos"), ADMIN, System.nanoTime() - SEGUNDO);
+
+        // when
+        limitador.removerOciosos();
+        limitador.consumir(get("/veiculos"), USUARIO, System.nanoTime());
+
+        // then
+        assertThat(registry.find("veiculos.limite.requisicoes").tag("cliente", admin).counter()).isNull();
+        assertThat(contagem(limitador.identificador("usuario:user"), "permitida")).isEqualTo(1.0);
+        assertThat(registry.find("veiculos.limite.requisicoes").tag("cliente", LimitadorRequisicoes.CLIENTE_OUTROS)
+                .counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("deve descartar os baldes que voltaram a ficar cheios")
+    void deveDescartarBaldesCheios() {
+        // given
+        LimitadorRequisicoes limitador = limitador(false, 100, regra(null, "/veiculos/**", null, 10, 5));
+        limitador.consumir(get("/veiculos"), ADMIN, System.nanoTime() - SEGUNDO);
+        limitador.consumir(get("/veiculos"), USUARIO, System.nanoTime() + SEGUNDO);
+
+        // when
+        limitador.removerOciosos();
+
+        // then
+        assertThat(limitador.quantidadeBaldes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deve usar o balde do Redis e seguir so com o local quando o Redis falha")
+    void deveUsarRedisComFallbackLocal() {
+        // given
+        LimitadorRequisicoes limitador = limitador(true, 100, regra(null, "/veiculos/**", null, 1, 2));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenReturn(500_000L)
+                .thenThrow(new RedisConnectionFailureException("sem conexão"));
+
+        // when
+        long recusadaPeloRedis = limitador.consumir(get("/veiculos"), ADMIN, 0);
+        long semRedis = limitador.consumir(get("/veiculos"), ADMIN, 0);
+        long recusadaLocalmente = limitador.consumir(get("/veiculos"), ADMIN, 0);
+
+        // then
+        assertThat(recusadaPeloRedis).isEqualTo(TimeUnit.MICROSECONDS.toNanos(500_000));
+        assertThat(semRedis).isZero();
+        assertThat(recusadaLocalmente).isPositive();
+    }
+
+    @Test
+    @DisplayName("nao deve consultar o Redis quando a sincronizacao esta desligada")
+    void naoDeveConsultarRedisDesligado() {
+        // given
+        LimitadorRequisicoes limitador = limitador(false, 100, regra(null, "/veiculos/**", null, 1, 1));
+
+        // when
+        limitador.consumir(get("/veiculos"), ADMIN, 0);
+
+        // then
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(), any());
+    }
+
+    private LimitadorRequisicoes limitador(boolean redis, int maximoClientesMetricas,
+            PropriedadesLimite.RegraLimite... regras) {
+        return new LimitadorRequisicoes(
+                new PropriedadesLimite(true, redis, 1_000, maximoClientesMetricas, null, List.of(regras)),
+                redisTemplate, registry);
+    }
+
+    private LimitadorRequisicoes limitador(String chaveMetricas, PropriedadesLimite.RegraLimite... regras) {
+        return new LimitadorRequisicoes(
+                new PropriedadesLimite(true, false, 1_000, 100, chaveMetricas, List.of(regras)),
+                redisTemplate, new SimpleMeterRegistry());
+    }
+
+    private static PropriedadesLimite.RegraLimite regra(String metodo, String caminho, String role,
+            double requisicoesPorSegundo, int rajada) {
+        return new PropriedadesLimite.RegraLimite(metodo, caminho, role, requisicoesPorSegundo, rajada);
+    }
+
+    private static MockHttpServletRequest get(String caminho) {
+        return new MockHttpServletRequest("GET", caminho);
+    }
+
+    private double contagem(String cliente, String resultado) {
+        return registry.get("veiculos.limite.requisicoes").tag("cliente", cliente).tag("resultado", resultado)
+                .counter().count();
+    }
+}
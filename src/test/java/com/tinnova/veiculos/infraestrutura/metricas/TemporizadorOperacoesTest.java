@@ -0,0 +1,124 @@
+package com.tinnova.veiculos.infraestrutura.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TemporizadorOperacoes")
+class TemporizadorOperacoesTest {
+
+    private static final String NOME = "teste.operacoes";
+    /** Sem alocação por chamada; a margem cobre a própria medição da thread. */
+    private static final long LIMITE_BYTES_POR_CHAMADA = 16;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("deve medir cada metodo publico por resultado")
+    void deveMedirPorMetodoEResultado() {
+        // given
+        ProxyFactory fabrica = new ProxyFactory(new Servico());
+        fabrica.addAdvisor(TemporizadorOperacoes.advisor(Servico.class, NOME, "Operações de teste", provedor()));
+        Servico servico = (Servico) fabrica.getProxy();
+
+        // when
+        servico.somar(1, 2);
+        servico.somar(3, 4);
+        assertThatThrownBy(servico::falhar).isInstanceOf(IllegalStateException.class);
+        servico.toString();
+
+        // then
+        assertThat(registry.get(NOME).tags("operacao", "somar", "resultado", "sucesso").timer().count()).isEqualTo(2);
+        assertThat(registry.get(NOME).tags("operacao", "somar", "resultado", "erro").timer().count()).isZero();
+        assertThat(registry.get(NOME).tags("operacao", "falhar", "resultado", "erro").timer().count()).isEqualTo(1);
+        assertThat(registry.find(NOME).tag("operacao", "toString").timers()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("nao deve alocar memoria ao medir chamadas de um metodo ja registrado")
+    void naoDeveAlocarPorChamada() throws Throwable {
+        // given
+        TemporizadorOperacoes temporizador = new TemporizadorOperacoes(NOME, "Operações de teste", provedor());
+        MethodInvocation invocacao = new InvocacaoFixa(Servico.class.getMethod("somar", int.class, int.class));
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        int chamadas = 100_000;
+        for (int i = 0; i < chamadas; i++) {
+            temporizador.invoke(invocacao);
+        }
+
+        // when
+        long antes = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < chamadas; i++) {
+            temporizador.invoke(invocacao);
+        }
+        long bytesPorChamada = (threads.getThreadAllocatedBytes(thread) - antes) / chamadas;
+
+        // then
+        assertThat(bytesPorChamada).isLessThan(LIMITE_BYTES_POR_CHAMADA);
+        assertThat(registry.get(NOME).tags("operacao", "somar", "resultado", "sucesso").timer().count())
+                .isEqualTo(2L * chamadas);
+    }
+
+    private ObjectProvider<MeterRegistry> provedor() {
+        return new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class);
+    }
+
+    public static class Servico {
+
+        public int somar(int a, int b) {
+            return a + b;
+        }
+
+        public void falhar() {
+            throw new IllegalStateException("falha");
+        }
+    }
+
+    /**
+     * Invocação que devolve sempre o mesmo resultado, para medir só o custo do interceptador.
+     */
+    private record InvocacaoFixa(Method metodo) implements MethodInvocation {
+
+        private static final Object RESULTADO = "resultado";
+        private static final Object[] ARGUMENTOS = new Object[0];
+
+        @Override
+        public Method getMethod() {
+            return metodo;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return ARGUMENTOS;
+        }
+
+        @Override
+        public Object proceed() {
+            return RESULTADO;
+        }
+
+        @Override
+        public Object getThis() {
+            return null;
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return metodo;
+        }
+    }
+}
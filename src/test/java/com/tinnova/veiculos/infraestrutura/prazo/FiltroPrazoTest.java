@@ -0,0 +1,64 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FiltroPrazo")
+class FiltroPrazoTest {
+
+    private final FiltroPrazo filtro = new FiltroPrazo(new PropriedadesPrazo(true, 60_000, 10_000, List.of(
+            new PropriedadesPrazo.RegraPrazo(null, "/veiculos/relatorios/**", 30_000),
+            new PropriedadesPrazo.RegraPrazo("GET", "/veiculos/**", 5_000))));
+
+    @ParameterizedTest(name = "{0} {1} com cabeçalho [{2}] -> {3} ms")
+    @CsvSource(nullValues = "-", value = {
+            "GET,  /veiculos/1,                      -,     5000",
+            "GET,  /veiculos/relatorios/por-marca,   -,     30000",
+            "POST, /veiculos,                        -,     10000",
+            "GET,  /veiculos/1,                      2000,  2000",
+            "GET,  /veiculos/1,                      90000, 60000",
+            "GET,  /veiculos/1,                      abc,   5000",
+            "GET,  /veiculos/1,                      0,     5000"
+    })
+    @DisplayName("deve usar o cabeçalho limitado ao máximo ou o prazo padrão do endpoint")
+    void deveDefinirPrazo(String metodo, String caminho, String cabecalho, long esperadoMs) throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, caminho);
+        if (cabecalho != null) {
+            request.addHeader(FiltroPrazo.CABECALHO, cabecalho);
+        }
+        AtomicReference<Duration> restante = new AtomicReference<>();
+        FilterChain chain = (req, res) -> restante.set(PrazoRequisicao.atual().orElseThrow().restante());
+
+        // when
+        filtro.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(restante.get()).isBetween(Duration.ofMillis(esperadoMs - 1_000), Duration.ofMillis(esperadoMs));
+    }
+
+    @Test
+    @DisplayName("deve remover o prazo da thread ao fim da requisição")
+    void deveLimparPrazoAoFinal() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/veiculos/1");
+
+        // when/then
+        assertThatThrownBy(() -> filtro.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            throw new IllegalStateException("falha no handler");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(PrazoRequisicao.atual()).isEmpty();
+    }
+}
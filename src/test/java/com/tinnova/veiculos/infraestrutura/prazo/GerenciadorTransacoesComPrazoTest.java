@@ -0,0 +1,66 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@DisplayName("GerenciadorTransacoesComPrazo")
+class GerenciadorTransacoesComPrazoTest {
+
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final GerenciadorTransacoesComPrazo gerenciador = new GerenciadorTransacoesComPrazo(entityManagerFactory);
+
+    @AfterEach
+    void tearDown() {
+        PrazoRequisicao.limpar();
+    }
+
+    @Test
+    @DisplayName("deve manter o tempo configurado fora de uma requisição")
+    void deveManterTempoSemPrazo() {
+        // given
+        DefaultTransactionDefinition semTempo = new DefaultTransactionDefinition();
+        DefaultTransactionDefinition comTempo = new DefaultTransactionDefinition();
+        comTempo.setTimeout(7);
+
+        // when/then
+        assertThat(gerenciador.determineTimeout(semTempo)).isEqualTo(TransactionDefinition.TIMEOUT_DEFAULT);
+        assertThat(gerenciador.determineTimeout(comTempo)).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("deve limitar a transação ao restante do prazo, arredondado para cima em segundos")
+    void deveLimitarAoRestanteDoPrazo() {
+        // given
+        PrazoRequisicao.definir(Prazo.em(Duration.ofMillis(2_500)));
+        DefaultTransactionDefinition semTempo = new DefaultTransactionDefinition();
+        DefaultTransactionDefinition comTempoMenor = new DefaultTransactionDefinition();
+        comTempoMenor.setTimeout(1);
+
+        // when/then
+        assertThat(gerenciador.determineTimeout(semTempo)).isEqualTo(3);
+        assertThat(gerenciador.determineTimeout(comTempoMenor)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("não deve abrir transação com o prazo esgotado")
+    void naoDeveAbrirTransacaoComPrazoEsgotado() {
+        // given
+        PrazoRequisicao.definir(Prazo.em(Duration.ofMillis(-1)));
+
+        // when/then
+        assertThatThrownBy(() -> gerenciador.getTransaction(new DefaultTransactionDefinition()))
+                .isInstanceOf(PrazoEsgotadoException.class);
+        verifyNoInteractions(entityManagerFactory);
+    }
+}
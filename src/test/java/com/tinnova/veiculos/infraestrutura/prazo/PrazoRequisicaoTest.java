@@ -0,0 +1,56 @@
+package com.tinnova.veiculos.infraestrutura.prazo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PrazoRequisicao")
+class PrazoRequisicaoTest {
+
+    @AfterEach
+    void tearDown() {
+        PrazoRequisicao.limpar();
+    }
+
+    @Test
+    @DisplayName("deve manter o tempo limite configurado fora de uma requisição")
+    void deveManterTempoLimiteSemPrazo() {
+        // when
+        Duration limite = PrazoRequisicao.limitar(Duration.ofSeconds(3));
+
+        // then
+        assertThat(limite).isEqualTo(Duration.ofSeconds(3));
+    }
+
+    @Test
+    @DisplayName("deve usar o menor entre o tempo limite e o restante do prazo")
+    void deveUsarMenorTempo() {
+        // given
+        PrazoRequisicao.definir(Prazo.em(Duration.ofMillis(500)));
+
+        // when
+        Duration curto = PrazoRequisicao.limitar(Duration.ofMillis(100));
+        Duration longo = PrazoRequisicao.limitar(Duration.ofSeconds(3));
+
+        // then
+        assertThat(curto).isEqualTo(Duration.ofMillis(100));
+        assertThat(longo).isPositive().isLessThanOrEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    @DisplayName("deve interromper antes da espera quando o prazo já terminou")
+    void deveInterromperComPrazoEsgotado() {
+        // given
+        PrazoRequisicao.definir(Prazo.em(Duration.ZERO));
+
+        // when/then
+        assertThatThrownBy(() -> PrazoRequisicao.limitar(Duration.ofSeconds(3)))
+                .isInstanceOf(PrazoEsgotadoException.class);
+        assertThatThrownBy(PrazoRequisicao::verificar).isInstanceOf(PrazoEsgotadoException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.dominio.veiculo.DimensoesVeiculo;
+import com.tinnova.veiculos.infraestrutura.relatorio.EstatisticasCatalogo.FaixaPreco;
+import com.tinnova.veiculos.infraestrutura.relatorio.EstatisticasCatalogo.ResumoPreco;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AcumuladorEstatisticas")
+class AcumuladorEstatisticasTest {
+
+    private static final BigDecimal LARGURA = new BigDecimal("10000");
+
+    @Test
+    @DisplayName("deve resumir cada dimensao e montar o histograma")
+    void deveResumirDimensoes() {
+        // given
+        AcumuladorEstatisticas acumulador = new AcumuladorEstatisticas(LARGURA);
+        acumulador.adicionar(veiculo("Toyota", 2023, "Preto", "25000"));
+        acumulador.adicionar(veiculo("Toyota", 2022, "Branco", "21000"));
+        acumulador.adicionar(veiculo("Honda", 2023, "Preto", "9000"));
+
+        // when
+        EstatisticasCatalogo estatisticas = acumulador.resultado(7);
+
+        // then
+        assertThat(estatisticas.versao()).isEqualTo(7);
+        assertThat(estatisticas.geral()).isEqualTo(resumo(3, "9000", "25000", "18333.33"));
+        assertThat(estatisticas.porMarca()).containsKeys("Honda", "Toyota");
+        assertThat(estatisticas.porMarca().get("Toyota")).isEqualTo(resumo(2, "21000", "25000", "23000.00"));
+        assertThat(estatisticas.porAno().get(2023)).isEqualTo(resumo(2, "9000", "25000", "17000.00"));
+        assertThat(estatisticas.porCor().get("Branco")).isEqualTo(resumo(1, "21000", "21000", "21000.00"));
+        assertThat(estatisticas.histograma()).containsExactly(
+                new FaixaPreco(new BigDecimal("0"), LARGURA, 1),
+                new FaixaPreco(new BigDecimal("20000"), new BigDecimal("30000"), 2));
+    }
+
+    @Test
+    @DisplayName("deve combinar parciais com o mesmo resultado de uma unica passada")
+    void deveCombinarParciais() {
+        // given
+        AcumuladorEstatisticas unico = new AcumuladorEstatisticas(LARGURA);
+        AcumuladorEstatisticas primeiro = new AcumuladorEstatisticas(LARGURA);
+        AcumuladorEstatisticas segundo = new AcumuladorEstatisticas(LARGURA);
+        AcumuladorEstatisticas vazio = new AcumuladorEstatisticas(LARGURA);
+        for (int i = 0; i < 20; i++) {
+            DimensoesVeiculo veiculo = veiculo(i % 3 == 0 ? "Fiat" : "Ford", 2015 + i % 5, "Cor" + i % 4,
+                    String.valueOf(5000 + i * 1750));
+            unico.adicionar(veiculo);
+            (i < 8 ? primeiro : segundo).adicionar(veiculo);
+        }
+
+        // when
+        EstatisticasCatalogo combinado = primeiro.combinar(vazio).combinar(segundo).resultado(1);
+        EstatisticasCatalogo esperado = unico.resultado(1);
+
+        // then
+        assertThat(combinado.geral()).isEqualTo(esperado.geral());
+        assertThat(combinado.porMarca()).isEqualTo(esperado.porMarca());
+        assertThat(combinado.porAno()).isEqualTo(esperado.porAno());
+        assertThat(combinado.porCor()).isEqualTo(esperado.porCor());
+        assertThat(combinado.histograma()).isEqualTo(esperado.histograma());
+    }
+
+    @Test
+    @DisplayName("deve retornar resumo vazio sem veiculos")
+    void deveRetornarResumoVazio() {
+        // when
+        EstatisticasCatalogo estatisticas = new AcumuladorEstatisticas(LARGURA).resultado(0);
+
+        // then
+        assertThat(estatisticas.geral()).isEqualTo(new ResumoPreco(0, null, null, null));
+        assertThat(estatisticas.porMarca()).isEmpty();
+        assertThat(estatisticas.histograma()).isEmpty();
+    }
+
+    private static DimensoesVeiculo veiculo(String marca, int ano, String cor, String preco) {
+        return new DimensoesVeiculo(marca, ano, cor, new BigDecimal(preco));
+    }
+
+    private static ResumoPreco resumo(long quantidade, String minimo, String maximo, String media) {
+        return new ResumoPreco(quantidade, new BigDecimal(minimo), new BigDecimal(maximo), new BigDecimal(media));
+    }
+}
@@ -0,0 +1,92 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("CalculadoraEstatisticas")
+class CalculadoraEstatisticasTest {
+
+    @Autowired
+    private CalculadoraEstatisticas calculadora;
+
+    @Autowired
+    private ServicoVeiculo servicoVeiculo;
+
+    @Autowired
+    private RepositorioVeiculo repositorio;
+
+    @Autowired
+    private RepositorioContagemMarca contagens;
+
+    @BeforeEach
+    void setUp() {
+        repositorio.deleteAll();
+        contagens.deleteAll();
+    }
+
+    @Test
+    @DisplayName("deve combinar as faixas de id em um unico resultado")
+    void deveCombinarFaixas() {
+        // given
+        for (int i = 0; i < 7; i++) {
+            servicoVeiculo.criar(veiculo("EST000" + i, i % 2 == 0 ? "Toyota" : "Honda", 20000 + i * 1000));
+        }
+        Veiculo removido = servicoVeiculo.criar(veiculo("EST0099", "Fiat", 90000));
+        servicoVeiculo.remover(removido.getId());
+
+        // when
+        EstatisticasCatalogo estatisticas = calculadora.obter();
+
+        // then
+        assertThat(estatisticas.geral().quantidade()).isEqualTo(7);
+        assertThat(estatisticas.geral().maximo()).isEqualByComparingTo("26000");
+        assertThat(estatisticas.porMarca()).containsOnlyKeys("Honda", "Toyota");
+        assertThat(estatisticas.porMarca().get("Toyota").quantidade()).isEqualTo(4);
+        assertThat(estatisticas.porMarca().get("Honda").media()).isEqualByComparingTo("23000");
+        assertThat(estatisticas.histograma()).singleElement()
+                .satisfies(faixa -> assertThat(faixa.quantidade()).isEqualTo(7));
+    }
+
+    @Test
+    @DisplayName("deve reaproveitar o resultado ate a versao do catalogo mudar")
+    void deveReaproveitarAteVersaoMudar() {
+        // given
+        servicoVeiculo.criar(veiculo("EST1001", "Toyota", 25000));
+        EstatisticasCatalogo primeiro = calculadora.obter();
+
+        // when
+        EstatisticasCatalogo repetido = calculadora.obter();
+        servicoVeiculo.criar(veiculo("EST1002", "Toyota", 27000));
+        EstatisticasCatalogo recalculado = calculadora.obter();
+
+        // then
+        assertThat(repetido).isSameAs(primeiro);
+        assertThat(recalculado.versao()).isGreaterThan(primeiro.versao());
+        assertThat(recalculado.geral().quantidade()).isEqualTo(2);
+    }
+
+    private static Veiculo veiculo(String placa, String marca, int preco) {
+        return Veiculo.builder()
+                .placa(placa)
+                .marca(marca)
+                .modelo("Modelo")
+                .ano(2023)
+                .cor("Preto")
+                .precoUsd(new BigDecimal(preco))
+                .build();
+    }
+}
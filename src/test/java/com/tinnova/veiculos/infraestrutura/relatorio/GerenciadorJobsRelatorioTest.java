@@ -0,0 +1,272 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.dominio.veiculo.ContagemPorMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.infraestrutura.catalogo.VersaoCatalogo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GerenciadorJobsRelatorio")
+class GerenciadorJobsRelatorioTest {
+
+    @Mock
+    private RepositorioContagemMarca repositorioContagem;
+
+    @Mock
+    private CalculadoraEstatisticas calculadoraEstatisticas;
+
+    @Mock
+    private SketchesPreco sketchesPreco;
+
+    @Mock
+    private VersaoCatalogo versaoCatalogo;
+
+    @TempDir
+    private Path diretorio;
+
+    private GerenciadorJobsRelatorio gerenciador;
+
+    @BeforeEach
+    void setUp() {
+        gerenciador = criar(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gerenciador.encerrar();
+    }
+
+    @Test
+    @DisplayName("deve gerar o relatorio e gravar o resultado em disco")
+    void deveGerarRelatorio() throws Exception {
+        // given
+        when(repositorioContagem.listarPositivas()).thenReturn(List.of(new ContagemPorMarca("Toyota", 2L)));
+
+        // when
+        JobRelatorio job = gerenciador.iniciar(TipoRelatorio.POR_MARCA, PrioridadeJob.NORMAL);
+        JobRelatorio concluido = aguardar(job.id());
+
+        // then
+        assertThat(concluido.situacao()).isEqualTo(SituacaoJob.CONCLUIDO);
+        assertThat(concluido.expiraEm()).isAfter(concluido.concluidoEm());
+        assertThat(Files.readString(gerenciador.resultado(job.id())))
+                .isEqualTo("[{\"marca\":\"Toyota\",\"quantidade\":2}]");
+    }
+
+    @Test
+    @DisplayName("deve reaproveitar o job de um pedido identico na mesma versao do catalogo")
+    void deveDeduplicarPedidosIdenticos() throws Exception {
+        // given
+        when(versaoCatalogo.atual()).thenReturn(3L, 3L, 3L, 4L);
+        when(sketchesPreco.percentis()).thenReturn(new PercentisPreco(new TreeMap<>(), new TreeMap<>(), 0));
+
+        // when
+        JobRelatorio primeiro = gerenciador.iniciar(TipoRelatorio.PERCENTIS, PrioridadeJob.NORMAL);
+        JobRelatorio repetido = gerenciador.iniciar(TipoRelatorio.PERCENTIS, PrioridadeJob.ALTA);
+        aguardar(primeiro.id());
+        JobRelatorio aposConclusao = gerenciador.iniciar(TipoRelatorio.PERCENTIS, PrioridadeJob.NORMAL);
+        JobRelatorio novaVersao = gerenciador.iniciar(TipoRelatorio.PERCENTIS, PrioridadeJob.NORMAL);
+
+        // then
+        assertThat(repetido.id()).isEqualTo(primeiro.id());
+        assertThat(aposConclusao.id()).isEqualTo(primeiro.id());
+        assertThat(novaVersao.id()).isNotEqualTo(primeiro.id());
+        aguardar(novaVersao.id());
+        verify(sketchesPreco, times(2)).percentis();
+    }
+
+    @Test
+    @DisplayName("deve executar primeiro os jobs de maior prioridade")
+    void deveRespeitarPrioridade() throws Exception {
+        // given
+        gerenciador.encerrar();
+        gerenciador = criar(10);
+        CountDownLatch liberar = bloquearPorMarca();
+        when(sketchesPreco.percentis()).thenReturn(new PercentisPreco(new TreeMap<>(), new TreeMap<>(), 0));
+        when(calculadoraEstatisticas.obter()).thenReturn(new AcumuladorEstatisticas(BigDecimal.TEN).resultado(0));
+
+        JobRelatorio bloqueio = gerenciador.iniciar(TipoRelatorio.POR_MARCA, PrioridadeJob.NORMAL);
+        aguardarSituacao(bloqueio.id(), SituacaoJob.EXECUTANDO);
+        JobRelatorio baixa = gerenciador.iniciar(TipoRelatorio.PERCENTIS, PrioridadeJob.BAIXA);
+        JobRelatorio alta = gerenciador.iniciar(TipoRelatorio.ESTATISTICAS, PrioridadeJob.ALTA);
+
+        // when
+        liberar.countDown();
+        aguardar(baixa.id());
+        aguardar(alta.id());
+
+        // then
+        var ordem = inOrder(calculadoraEstatisticas, sketchesPreco);
+        ordem.verify(calculadoraEstatisticas).obter();
+        ordem.verify(sketchesPreco).percentis();
+    }
+
+    @Test
+    @DisplayName("deve enfileirar como NORMAL os jobs sem prioridade")
+    void deveEnfileirarSemPrioridadeComoNormal() throws Exception {
+        // given
+        gerenciador.encerrar();
+        gerenciador = criar(10);
+        CountDownLatch liberar = bloquearPorMarca();
+        when(sketchesPreco.percentis()).thenReturn(new PercentisPreco(new TreeMap<>(), new TreeMap<>(), 0));
+        when(calculadoraEstatisticas.obter()).thenReturn(new AcumuladorEstatisticas(BigDecimal.TEN).resultado(0));
+        JobRelatorio bloqueio = gerenciador.iniciar(TipoRelatorio.POR_MARCA, PrioridadeJob.NORMAL);
+        aguardarSituacao(bloqueio.id(), SituacaoJob.EXECUTANDO);
+
+        // when
+        JobRelatorio semPrioridade = gerenciador.iniciar(TipoRelatorio.PERCENTIS, null);
+        JobRelatorio alta = gerenciador.iniciar(TipoRelatorio.ESTATISTICAS, PrioridadeJob.ALTA);
+        liberar.countDown();
+
+        // then
+        assertThat(semPrioridade.prioridade()).isEqualTo(PrioridadeJob.NORMAL);
+        assertThat(aguardar(semPrioridade.id()).situacao()).isEqualTo(SituacaoJob.CONCLUIDO);
+        assertThat(aguardar(alta.id()).situacao()).isEqualTo(SituacaoJob.CONCLUIDO);
+    }
+
+    @Test
+    @DisplayName("deve desfazer o registro e liberar a vaga quando o executor recusa o job")
+    void deveDesfazerRegistroRecusado() {
+        // given
+        gerenciador.encerrar();
+        gerenciador = criar(1);
+        gerenciador.encerrar();
+
+        // when / then: a segunda tentativa so e recusada pelo executor se a vaga da primeira foi devolvida
+        assertThatThrownBy(() -> gerenciador.iniciar(TipoRelatorio.POR_MARCA, PrioridadeJob.NORMAL))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> gerenciador.iniciar(TipoRelatorio.POR_MARCA, PrioridadeJob.NORMAL))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("deve recusar jobs quando a fila esta cheia")
+    void deveRecusarComFilaCheia() throws Exception {
+        // given
+        gerenciador.encerrar();
+        gerenciador = criar(1);
+        CountDownLatch liberar = bloquearPorMarca();
+        JobRelatorio bloqueio = gerenciador.iniciar(TipoRelatorio.POR_MARCA, PrioridadeJob.NORMAL);
+        aguardarSituacao(bloqueio.id(), SituacaoJob.EXECUTANDO);
+        gerenciador.iniciar(TipoRelatorio.PERCENTIS, PrioridadeJob.NORMAL);
+
+        // when/then
+        assertThatThrownBy(() -> gerenciador.iniciar(TipoRelatorio.ESTATISTICAS, PrioridadeJob.NORMAL))
+                .isInstanceOf(FilaJobsCheiaException.class);
+        liberar.countDown();
+    }
+
+    @Test
+    @DisplayName("deve registrar a falha e recusar o download do resultado")
+    void deveRegistrarFalha() throws Exception {
+        // given
+        when(calculadoraEstatisticas.obter()).thenThrow(new IllegalStateException("banco indisponivel"));
+
+        // when
+        JobRelatorio job = gerenciador.iniciar(TipoRelatorio.ESTATISTICAS, PrioridadeJob.NORMAL);
+        JobRelatorio falhou = aguardar(job.id());
+
+        // then
+        assertThat(falhou.situacao()).isEqualTo(SituacaoJob.FALHOU);
+        assertThat(falhou.erro()).isEqualTo("banco indisponivel");
+        assertThatThrownBy(() -> gerenciador.resultado(job.id()))
+                .isInstanceOf(ResultadoJobIndisponivelException.class);
+        assertThat(gerenciador.iniciar(TipoRelatorio.ESTATISTICAS, PrioridadeJob.NORMAL).id())
+                .isNotEqualTo(job.id());
+    }
+
+    @Test
+    @DisplayName("deve descartar jobs expirados e seus resultados")
+    void deveDescartarExpirados() throws Exception {
+        // given
+        gerenciador.encerrar();
+        gerenciador = new GerenciadorJobsRelatorio(repositorioContagem, calculadoraEstatisticas, sketchesPreco,
+                versaoCatalogo, JsonMapper.builder().build(), diretorio.toString(), 1, 10, 0);
+        when(repositorioContagem.listarPositivas()).thenReturn(List.of());
+        JobRelatorio job = gerenciador.iniciar(TipoRelatorio.POR_MARCA, PrioridadeJob.NORMAL);
+        aguardarExpiracao(job.id());
+
+        // when
+        gerenciador.removerExpirados();
+
+        // then
+        assertThatThrownBy(() -> gerenciador.buscar(job.id())).isInstanceOf(JobNaoEncontradoException.class);
+        try (var arquivos = Files.list(diretorio)) {
+            assertThat(arquivos).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("deve lancar excecao para job inexistente")
+    void deveLancarParaJobInexistente() {
+        assertThatThrownBy(() -> gerenciador.buscar("inexistente")).isInstanceOf(JobNaoEncontradoException.class);
+    }
+
+    private GerenciadorJobsRelatorio criar(int capacidadeFila) {
+        return new GerenciadorJobsRelatorio(repositorioContagem, calculadoraEstatisticas, sketchesPreco,
+                versaoCatalogo, JsonMapper.builder().build(), diretorio.toString(), 1, capacidadeFila, 60_000);
+    }
+
+    private CountDownLatch bloquearPorMarca() {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(repositorioContagem.listarPositivas()).thenAnswer(invocacao -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        return liberar;
+    }
+
+    private JobRelatorio aguardar(String id) throws InterruptedException {
+        for (int tentativa = 0; tentativa < 500; tentativa++) {
+            JobRelatorio job = gerenciador.buscar(id);
+            if (job.situacao().isFinalizado()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job não terminou: " + id);
+    }
+
+    /**
+     * Espera o job expirar, o que só acontece depois de o resultado estar gravado e o job concluído;
+     * o arquivo aparece antes da conclusão.
+     */
+    private void aguardarExpiracao(String id) throws InterruptedException {
+        for (int tentativa = 0; tentativa < 500; tentativa++) {
+            try {
+                gerenciador.buscar(id);
+            } catch (JobNaoEncontradoException e) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job não expirou: " + id);
+    }
+
+    private void aguardarSituacao(String id, SituacaoJob situacao) throws InterruptedException {
+        for (int tentativa = 0; tentativa < 500 && gerenciador.buscar(id).situacao() != situacao; tentativa++) {
+            Thread.sleep(10);
+        }
+    }
+}
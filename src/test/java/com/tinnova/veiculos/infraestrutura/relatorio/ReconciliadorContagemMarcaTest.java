@@ -0,0 +1,84 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.dominio.veiculo.ContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.ContagemPorMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("ReconciliadorContagemMarca")
+class ReconciliadorContagemMarcaTest {
+
+    @Autowired
+    private ReconciliadorContagemMarca reconciliador;
+
+    @Autowired
+    private RepositorioContagemMarca contagens;
+
+    @Autowired
+    private RepositorioVeiculo veiculos;
+
+    @BeforeEach
+    void setUp() {
+        veiculos.deleteAll();
+        contagens.deleteAll();
+    }
+
+    @Test
+    @DisplayName("deve corrigir contagens ausentes, divergentes e orfas")
+    void deveCorrigirDivergencias() {
+        // given
+        salvar("REC0001", "Toyota");
+        salvar("REC0002", "Toyota");
+        salvar("REC0003", "Honda");
+        contagens.save(new ContagemMarca("Toyota", 5L));
+        contagens.save(new ContagemMarca("Fiat", 1L));
+
+        // when
+        int corrigidas = reconciliador.reconciliar();
+
+        // then
+        assertThat(corrigidas).isEqualTo(3);
+        assertThat(contagens.listarPositivas()).containsExactly(
+                new ContagemPorMarca("Honda", 1L),
+                new ContagemPorMarca("Toyota", 2L));
+    }
+
+    @Test
+    @DisplayName("nao deve alterar contagens consistentes")
+    void naoDeveAlterarContagensConsistentes() {
+        // given
+        salvar("REC0001", "Toyota");
+        contagens.save(new ContagemMarca("Toyota", 1L));
+
+        // when
+        int corrigidas = reconciliador.reconciliar();
+
+        // then
+        assertThat(corrigidas).isZero();
+    }
+
+    private void salvar(String placa, String marca) {
+        veiculos.save(Veiculo.builder()
+                .placa(placa)
+                .marca(marca)
+                .modelo("Modelo")
+                .ano(2023)
+                .cor("Preto")
+                .precoUsd(new BigDecimal("20000"))
+                .ativo(true)
+                .build());
+    }
+}
@@ -0,0 +1,112 @@
+package com.tinnova.veiculos.infraestrutura.relatorio;
+
+import com.tinnova.veiculos.aplicacao.veiculo.ServicoVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioContagemMarca;
+import com.tinnova.veiculos.dominio.veiculo.RepositorioVeiculo;
+import com.tinnova.veiculos.dominio.veiculo.Veiculo;
+import com.tinnova.veiculos.infraestrutura.relatorio.PercentisPreco.Percentis;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("SketchesPreco")
+class SketchesPrecoTest {
+
+    @Autowired
+    private SketchesPreco sketches;
+
+    @Autowired
+    private ServicoVeiculo servicoVeiculo;
+
+    @Autowired
+    private RepositorioVeiculo repositorio;
+
+    @Autowired
+    private RepositorioContagemMarca contagens;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        repositorio.deleteAll();
+        contagens.deleteAll();
+        sketches.reconstruir();
+    }
+
+    @Test
+    @DisplayName("deve refletir veiculos criados sem reconstrucao")
+    void deveRefletirCriacoes() {
+        // given
+        for (int i = 1; i <= 10; i++) {
+            servicoVeiculo.criar(veiculo("PCT" + String.format("%04d", i), "Toyota", 2020 + i % 2, i * 1000));
+        }
+
+        // when
+        PercentisPreco percentis = sketches.percentis();
+
+        // then
+        assertThat(percentis.porMarca()).containsOnlyKeys("Toyota");
+        assertThat(percentis.porMarca().get("Toyota")).isEqualTo(new Percentis(10,
+                new BigDecimal("3000.00"), new BigDecimal("5000.00"), new BigDecimal("9000.00")));
+        assertThat(percentis.porAno()).containsOnlyKeys(2020, 2021);
+        assertThat(percentis.porAno().get(2021).quantidade()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("deve ignorar criacao desfeita pela transacao")
+    void deveIgnorarCriacaoDesfeita() {
+        // given
+        servicoVeiculo.criar(veiculo("PCT2001", "Fiat", 2021, 30000));
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            servicoVeiculo.criar(veiculo("PCT2002", "Fiat", 2021, 80000));
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(sketches.percentis().porMarca().get("Fiat").quantidade()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deve reconstruir quando as alteracoes pendentes passam do limite")
+    void deveReconstruirAposAlteracoes() {
+        // given
+        Veiculo caro = servicoVeiculo.criar(veiculo("PCT1001", "Honda", 2022, 90000));
+        servicoVeiculo.criar(veiculo("PCT1002", "Honda", 2022, 20000));
+        servicoVeiculo.remover(caro.getId());
+        assertThat(sketches.percentis().alteracoesPendentes()).isEqualTo(1);
+
+        // when
+        sketches.reconstruirSeNecessario();
+
+        // then
+        PercentisPreco percentis = sketches.percentis();
+        assertThat(percentis.alteracoesPendentes()).isZero();
+        assertThat(percentis.porMarca().get("Honda")).isEqualTo(new Percentis(1,
+                new BigDecimal("20000.00"), new BigDecimal("20000.00"), new BigDecimal("20000.00")));
+    }
+
+    private static Veiculo veiculo(String placa, String marca, int ano, int preco) {
+        return Veiculo.builder()
+                .placa(placa)
+                .marca(marca)
+                .modelo("Modelo")
+                .ano(ano)
+                .cor("Preto")
+                .precoUsd(new BigDecimal(preco))
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.tinnova.veiculos.infraestrutura.seguranca;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CacheTokensVerificados")
+class CacheTokensVerificadosTest {
+
+    @Test
+    @DisplayName("deve respeitar a expiracao do token")
+    void deveRespeitarExpiracao() {
+        // given
+        CacheTokensVerificados cache = new CacheTokensVerificados(10);
+        TokenVerificado verificado = new TokenVerificado(new AutenticacaoJwt("user", List.of(new SimpleGrantedAuthority("ROLE_USER"))), 1_000);
+        String chave = CacheTokensVerificados.chave("token");
+
+        // when
+        cache.guardar(chave, verificado, 0);
+        cache.guardar(CacheTokensVerificados.chave("expirado"), verificado, 1_000);
+
+        // then
+        assertThat(cache.obter(chave, 999)).isEqualTo(verificado);
+        assertThat(cache.obter(chave, 1_000)).isNull();
+        assertThat(cache.quantidade()).isZero();
+        assertThat(chave).isNotEqualTo("token").isEqualTo(CacheTokensVerificados.chave("token"));
+    }
+
+    @Test
+    @DisplayName("deve descartar expirados e depois entradas quaisquer ao atingir a capacidade")
+    void deveLimitarQuantidade() {
+        // given
+        CacheTokensVerificados cache = new CacheTokensVerificados(20);
+        for (int i = 0; i < 20; i++) {
+            cache.guardar("chave-" + i, new TokenVerificado(new AutenticacaoJwt("user", List.of()), i < 5 ? 100 : 10_000), 0);
+        }
+
+        // when
+        cache.guardar("nova", new TokenVerificado(new AutenticacaoJwt("admin", List.of()), 10_000), 200);
+        for (int i = 0; i < 100; i++) {
+            cache.guardar("outra-" + i, new TokenVerificado(new AutenticacaoJwt("user", List.of()), 10_000), 200);
+        }
+
+        // then
+        assertThat(cache.quantidade()).isLessThanOrEqualTo(20);
+        assertThat(cache.obter("outra-99", 200)).isNotNull();
+    }
+}
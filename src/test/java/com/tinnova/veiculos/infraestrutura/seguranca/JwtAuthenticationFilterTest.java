@@ -0,0 +1,108 @@
+package com.tinnova.veiculos.infraestrutura.seguranca;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwtAuthenticationFilter")
+class JwtAuthenticationFilterTest {
+
+    private static final String SEGREDO = "chave-secreta-para-testes-com-pelo-menos-64-caracteres-para-hs384";
+    /** Chave do cache, análise do caminho e substring do token; a autenticação não é mais alocada por requisição. */
+    private static final long LIMITE_BYTES_POR_REQUISICAO = 4_096;
+
+    private final JwtUtil jwtUtil = new JwtUtil(SEGREDO, 3_600_000, 100, new SimpleMeterRegistry());
+    private final JwtAuthenticationFilter filtro = new JwtAuthenticationFilter(jwtUtil);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("deve reaproveitar a mesma autenticacao nas requisicoes com o mesmo token")
+    void deveReaproveitarAutenticacao() throws Exception {
+        // given
+        MockHttpServletRequest request = requisicao(jwtUtil.gerarToken("admin", List.of("ROLE_ADMIN", "ROLE_USER")));
+        List<Authentication> autenticacoes = new ArrayList<>();
+        FilterChain chain = (req, res) -> autenticacoes.add(SecurityContextHolder.getContext().getAuthentication());
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            filtro.doFilter(request, new MockHttpServletResponse(), chain);
+        }
+
+        // then
+        assertThat(autenticacoes).hasSize(3).allSatisfy(autenticacao -> {
+            assertThat(autenticacao).isSameAs(autenticacoes.get(0));
+            assertThat(autenticacao.getName()).isEqualTo("admin");
+        });
+    }
+
+    @Test
+    @DisplayName("deve alocar pouca memoria por requisicao com token em cache")
+    void deveAlocarPoucoPorRequisicao() throws Exception {
+        // given
+        MockHttpServletRequest request = requisicao(jwtUtil.gerarToken("admin", List.of("ROLE_ADMIN", "ROLE_USER")));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> SecurityContextHolder.clearContext();
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        int requisicoes = 10_000;
+        for (int i = 0; i < requisicoes; i++) {
+            filtro.doFilter(request, response, chain);
+        }
+
+        // when
+        long antes = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < requisicoes; i++) {
+            filtro.doFilter(request, response, chain);
+        }
+        long bytesPorRequisicao = (threads.getThreadAllocatedBytes(thread) - antes) / requisicoes;
+
+        // then
+        assertThat(bytesPorRequisicao).isLessThan(LIMITE_BYTES_POR_REQUISICAO);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/auth/login", "/swagger-ui/index.html", "/api-docs/swagger-config", "/h2-console/login.do"})
+    @DisplayName("nao deve filtrar os caminhos publicos")
+    void naoDeveFiltrarCaminhosPublicos(String caminho) {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", caminho);
+
+        // when / then
+        assertThat(filtro.shouldNotFilter(request)).isTrue();
+    }
+
+    @Test
+    @DisplayName("deve filtrar os caminhos protegidos")
+    void deveFiltrarCaminhosProtegidos() {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/veiculos/1");
+
+        // when / then
+        assertThat(filtro.shouldNotFilter(request)).isFalse();
+    }
+
+    private static MockHttpServletRequest requisicao(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/veiculos");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package com.tinnova.veiculos.infraestrutura.seguranca;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("JwtUtil")
+class JwtUtilTest {
+
+    private static final String SEGREDO = "chave-secreta-para-testes-com-pelo-menos-64-caracteres-para-hs384";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtUtil jwtUtil = new JwtUtil(SEGREDO, 3_600_000, 100, registry);
+
+    @Test
+    @DisplayName("deve verificar o token uma vez e atender as repeticoes pelo cache")
+    void deveVerificarUmaVezEUsarCache() {
+        // given
+        String token = jwtUtil.gerarToken("admin", List.of("ROLE_ADMIN", "ROLE_USER"));
+
+        // when
+        Optional<TokenVerificado> primeiro = jwtUtil.verificar(token);
+        Optional<TokenVerificado> segundo = jwtUtil.verificar(token);
+
+        // then
+        assertThat(primeiro).hasValueSatisfying(verificado -> {
+            assertThat(verificado.autenticacao().getName()).isEqualTo("admin");
+            assertThat(verificado.autenticacao().getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                    .containsExactly("ROLE_ADMIN", "ROLE_USER");
+        });
+        assertThat(segundo).isEqualTo(primeiro);
+        assertThat(registry.get("veiculos.jwt.verificacoes").tag("resultado", "assinatura").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("veiculos.jwt.verificacoes").tag("resultado", "cache").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("veiculos.jwt.verificacao.duracao").tag("resultado", "assinatura").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("veiculos.jwt.verificacao.duracao").tag("resultado", "cache").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deve compartilhar as authorities entre tokens com as mesmas roles")
+    void deveCompartilharAuthoritiesPorRoles() {
+        // given
+        String doAdmin = jwtUtil.gerarToken("admin", List.of("ROLE_ADMIN", "ROLE_USER"));
+        String doOperador = jwtUtil.gerarToken("operador", List.of("ROLE_ADMIN", "ROLE_USER"));
+        String doUsuario = jwtUtil.gerarToken("user", List.of("ROLE_USER"));
+
+        // when
+        AutenticacaoJwt admin = jwtUtil.verificar(doAdmin).orElseThrow().autenticacao();
+        AutenticacaoJwt operador = jwtUtil.verificar(doOperador).orElseThrow().autenticacao();
+        AutenticacaoJwt usuario = jwtUtil.verificar(doUsuario).orElseThrow().autenticacao();
+
+        // then
+        assertThat(operador.getAuthorities()).isSameAs(admin.getAuthorities());
+        assertThat(usuario.getAuthorities()).isNotSameAs(admin.getAuthorities());
+        assertThat(usuario.isAuthenticated()).isTrue();
+        assertThatThrownBy(() -> usuario.setAuthenticated(false)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("deve recusar tokens adulterados, de outra chave ou expirados")
+    void deveRecusarTokensInvalidos() {
+        // given
+        String token = jwtUtil.gerarToken("user", List.of("ROLE_USER"));
+        String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String outraChave = new JwtUtil(SEGREDO.replace('a', 'b'), 3_600_000, 100, new SimpleMeterRegistry())
+                .gerarToken("user", List.of("ROLE_ADMIN"));
+        String expirado = new JwtUtil(SEGREDO, -1_000, 100, new SimpleMeterRegistry())
+                .gerarToken("user", List.of("ROLE_USER"));
+
+        // when / then
+        assertThat(jwtUtil.verificar(adulterado)).isEmpty();
+        assertThat(jwtUtil.verificar(outraChave)).isEmpty();
+        assertThat(jwtUtil.verificar(expirado)).isEmpty();
+        assertThat(jwtUtil.verificar("token-invalido")).isEmpty();
+        assertThat(registry.get("veiculos.jwt.cache.tokens").gauge().value()).isZero();
+        assertThat(registry.get("veiculos.jwt.verificacoes").tag("resultado", "invalido").counter().count())
+                .isEqualTo(4.0);
+        assertThat(registry.get("veiculos.jwt.verificacoes").tag("resultado", "assinatura").counter().count())
+                .isZero();
+        assertThat(registry.get("veiculos.jwt.verificacao.duracao").tag("resultado", "invalido").timer().count())
+                .isEqualTo(4);
+    }
+}
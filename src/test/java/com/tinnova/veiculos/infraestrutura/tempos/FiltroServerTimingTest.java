@@ -0,0 +1,131 @@
+package com.tinnova.veiculos.infraestrutura.tempos;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FiltroServerTiming")
+class FiltroServerTimingTest {
+
+    private static final Pattern DURACAO = Pattern.compile("(\\w+);dur=(\\d+\\.\\d{3})");
+
+    @Test
+    @DisplayName("deve informar cada etapa ate o envio da resposta, inclusive a que estiver em andamento")
+    void deveInformarEtapasAteOEnvio() throws Exception {
+        // given
+        FiltroServerTiming filtro = new FiltroServerTiming(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            medir(EtapaRequisicao.BANCO, 20);
+            medir(EtapaRequisicao.BANCO, 20);
+            TemposRequisicao.iniciar(EtapaRequisicao.SERIALIZACAO);
+            aguardar(20);
+            res.getWriter().write("{}");
+            res.flushBuffer();
+            TemposRequisicao.encerrar(EtapaRequisicao.SERIALIZACAO);
+            medir(EtapaRequisicao.CAMBIO, 50);
+        };
+
+        // when
+        filtro.doFilter(new MockHttpServletRequest("GET", "/veiculos"), response, chain);
+
+        // then
+        String cabecalho = response.getHeader(FiltroServerTiming.CABECALHO);
+        assertThat(cabecalho).startsWith("jwt;dur=0.000, banco;dur=").contains(", total;dur=");
+        assertThat(duracao(cabecalho, "banco")).isGreaterThanOrEqualTo(40);
+        assertThat(duracao(cabecalho, "serializacao")).isGreaterThanOrEqualTo(20);
+        assertThat(duracao(cabecalho, "cambio")).isZero();
+        assertThat(duracao(cabecalho, "total")).isGreaterThanOrEqualTo(60);
+        assertThat(TemposRequisicao.cabecalho()).isNull();
+    }
+
+    @Test
+    @DisplayName("deve medir uma vez as etapas aninhadas")
+    void deveMedirUmaVezEtapasAninhadas() throws Exception {
+        // given
+        FiltroServerTiming filtro = new FiltroServerTiming(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            assertThat(TemposRequisicao.iniciar(EtapaRequisicao.CAMBIO)).isTrue();
+            assertThat(TemposRequisicao.iniciar(EtapaRequisicao.CAMBIO)).isFalse();
+            aguardar(20);
+            TemposRequisicao.encerrar(EtapaRequisicao.CAMBIO);
+            TemposRequisicao.encerrar(EtapaRequisicao.CAMBIO);
+        };
+
+        // when
+        filtro.doFilter(new MockHttpServletRequest("GET", "/veiculos"), response, chain);
+
+        // then
+        double cambio = duracao(response.getHeader(FiltroServerTiming.CABECALHO), "cambio");
+        assertThat(cambio).isGreaterThanOrEqualTo(20).isLessThanOrEqualTo(
+                duracao(response.getHeader(FiltroServerTiming.CABECALHO), "total"));
+    }
+
+    @Test
+    @DisplayName("deve respeitar o controle da requisicao sobre o padrao")
+    void deveRespeitarControleDaRequisicao() throws Exception {
+        // given
+        MockHttpServletRequest desligada = new MockHttpServletRequest("GET", "/veiculos");
+        desligada.addHeader(FiltroServerTiming.CABECALHO_CONTROLE, "off");
+        MockHttpServletRequest ligada = new MockHttpServletRequest("GET", "/veiculos");
+        ligada.addHeader(FiltroServerTiming.CABECALHO_CONTROLE, "ON");
+        MockHttpServletResponse semCabecalho = new MockHttpServletResponse();
+        MockHttpServletResponse comCabecalho = new MockHttpServletResponse();
+        MockHttpServletResponse padraoDesligado = new MockHttpServletResponse();
+
+        // when
+        new FiltroServerTiming(true).doFilter(desligada, semCabecalho, (req, res) ->
+                assertThat(TemposRequisicao.iniciar(EtapaRequisicao.BANCO)).isFalse());
+        new FiltroServerTiming(false).doFilter(ligada, comCabecalho, (req, res) -> { });
+        new FiltroServerTiming(false).doFilter(new MockHttpServletRequest("GET", "/veiculos"), padraoDesligado,
+                (req, res) -> { });
+
+        // then
+        assertThat(semCabecalho.getHeader(FiltroServerTiming.CABECALHO)).isNull();
+        assertThat(comCabecalho.getHeader(FiltroServerTiming.CABECALHO)).contains("total;dur=");
+        assertThat(padraoDesligado.getHeader(FiltroServerTiming.CABECALHO)).isNull();
+    }
+
+    @Test
+    @DisplayName("nao deve medir fora de uma requisicao")
+    void naoDeveMedirForaDeRequisicao() {
+        // when / then
+        assertThat(TemposRequisicao.iniciar(EtapaRequisicao.JWT)).isFalse();
+        TemposRequisicao.encerrar(EtapaRequisicao.JWT);
+        assertThat(TemposRequisicao.cabecalho()).isNull();
+    }
+
+    private static void medir(EtapaRequisicao etapa, long ms) {
+        TemposRequisicao.iniciar(etapa);
+        aguardar(ms);
+        TemposRequisicao.encerrar(etapa);
+    }
+
+    /**
+     * Espera ao menos {@code ms} pelo mesmo relógio da medição, sem acordar antes da hora como o sleep pode.
+     */
+    private static void aguardar(long ms) {
+        long fim = System.nanoTime() + ms * 1_000_000;
+        while (System.nanoTime() < fim) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static double duracao(String cabecalho, String etapa) {
+        Matcher metrica = DURACAO.matcher(cabecalho);
+        while (metrica.find()) {
+            if (metrica.group(1).equals(etapa)) {
+                return Double.parseDouble(metrica.group(2));
+            }
+        }
+        throw new AssertionError("Etapa " + etapa + " ausente em " + cabecalho);
+    }
+}